@@ -11,13 +11,14 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "mailExecutor")
-    public Executor mailExecutor() {
+    // Làm mới nền cho cache dashboard (refresh-ahead)
+    @Bean(name = "dashboardRefreshExecutor")
+    public Executor dashboardRefreshExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("mail-async-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("dashboard-refresh-");
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,133 @@
+package com.devcollab.config;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cross-node relay for the simple STOMP broker ({@code app.websocket.broker-mode=redis}).
+ *
+ * Installed as an interceptor on the broker channel: every server-side send to {@code /topic},
+ * {@code /queue} or {@code /user} is published to Redis and re-injected into the broker channel of
+ * every other node. {@code /user/...} destinations are relayed before resolution, so each node
+ * resolves them against its own sessions and {@code sendToUser} reaches the user wherever they are
+ * connected.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker-mode", havingValue = "redis")
+@Slf4j
+public class RedisStompRelay implements ChannelInterceptor, MessageListener {
+
+    private static final String CHANNEL = "devcollab:stomp-relay";
+    private static final String RELAYED_HEADER = "devcollabRelayed";
+    private static final String ORIG_DESTINATION_HEADER =
+            SimpMessageHeaderAccessor.ORIGINAL_DESTINATION;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectProvider<MessageChannel> brokerChannel;
+
+    public RedisStompRelay(RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Qualifier("brokerChannel") ObjectProvider<MessageChannel> brokerChannel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.brokerChannel = brokerChannel;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        log.info("🔀 [StompRelay] Node {} relay STOMP qua Redis", nodeId);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (shouldRelay(message))
+            publish(message);
+        return message;
+    }
+
+    private boolean shouldRelay(Message<?> message) {
+        var headers = message.getHeaders();
+        // Bản đã relay từ node khác, hoặc bản đã resolve /user → session cục bộ: không gửi lại
+        if (headers.containsKey(RELAYED_HEADER) || headers.containsKey(ORIG_DESTINATION_HEADER))
+            return false;
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE)
+            return false;
+        if (!(message.getPayload() instanceof byte[]))
+            return false;
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        return destination != null && (destination.startsWith("/topic/")
+                || destination.startsWith("/queue/") || destination.startsWith("/user/"));
+    }
+
+    private void publish(Message<?> message) {
+        var headers = message.getHeaders();
+        Map<String, String> frame = new HashMap<>();
+        frame.put("node", nodeId);
+        frame.put("destination", SimpMessageHeaderAccessor.getDestination(headers));
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        if (contentType != null)
+            frame.put("contentType", contentType.toString());
+        frame.put("payload", Base64.getEncoder().encodeToString((byte[]) message.getPayload()));
+
+        try {
+            redisTemplate.convertAndSend(CHANNEL, frame);
+        } catch (Exception e) {
+            log.warn("⚠️ [StompRelay] Không relay được tới Redis ({}): {}",
+                    frame.get("destination"), e.getMessage());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onMessage(org.springframework.data.redis.connection.Message message,
+            byte[] pattern) {
+        try {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (!(body instanceof Map<?, ?> raw))
+                return;
+            Map<String, String> frame = (Map<String, String>) raw;
+            if (nodeId.equals(frame.get("node")))
+                return;
+
+            SimpMessageHeaderAccessor accessor =
+                    SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(frame.get("destination"));
+            if (frame.get("contentType") != null)
+                accessor.setContentType(MimeType.valueOf(frame.get("contentType")));
+            accessor.setHeader(RELAYED_HEADER, Boolean.TRUE);
+
+            byte[] payload = Base64.getDecoder().decode(frame.get("payload"));
+            brokerChannel.getObject()
+                    .send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.warn("⚠️ [StompRelay] Frame relay không hợp lệ: {}", e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.devcollab.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -10,6 +11,13 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // Chỉ có khi app.websocket.broker-mode=redis (chạy nhiều node)
+    private final ObjectProvider<RedisStompRelay> redisStompRelay;
+
+    public WebSocketConfig(ObjectProvider<RedisStompRelay> redisStompRelay) {
+        this.redisStompRelay = redisStompRelay;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // ✅ Simple message broker for broadcasting
@@ -17,6 +25,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // "/queue" → private messages (e.g., notifications)
         registry.enableSimpleBroker("/topic", "/queue");
 
+        // ✅ Multi-node: mọi server-side send được relay sang các node khác qua Redis pub/sub
+        redisStompRelay.ifAvailable(relay -> registry.configureBrokerChannel().interceptors(relay));
+
         // ✅ Prefix for messages sent from client to server
         // Example: client sends to /app/chat/{projectId}
         registry.setApplicationDestinationPrefixes("/app");
@@ -2,7 +2,6 @@ package com.devcollab.controller;
 
 import com.devcollab.dto.request.MessageRequestDTO;
 import com.devcollab.dto.response.MessageResponseDTO;
-import com.devcollab.domain.Message;
 import com.devcollab.service.feature.MessageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -20,17 +19,8 @@ public class ChatWebSocketController {
     @MessageMapping("/chat/{projectId}") // client sends to /app/chat/{projectId}
     public void handleChat(@DestinationVariable Long projectId, MessageRequestDTO dto) {
         dto.setProjectId(projectId);
-        Message msg = messageService.sendMessage(dto.getSenderEmail(), dto);
-
-        // Build response DTO for broadcast
-        MessageResponseDTO response = new MessageResponseDTO(
-                msg.getMessageId(),
-                msg.getSender().getName(),
-                msg.getSender().getEmail(),
-                msg.getSender().getAvatarUrl(),
-                msg.getContent(),
-                msg.getCreatedAt()
-        );
+        // Broadcast ngay, tin được ghi xuống DB theo batch ở ChatMessagePipeline
+        MessageResponseDTO response = messageService.sendMessage(dto.getSenderEmail(), dto);
 
         messagingTemplate.convertAndSend("/topic/project." + projectId, response);
     }
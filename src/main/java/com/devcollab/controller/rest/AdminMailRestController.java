@@ -0,0 +1,20 @@
+package com.devcollab.controller.rest;
+
+import com.devcollab.dto.response.MailOutboxStatsDTO;
+import com.devcollab.service.system.MailOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class AdminMailRestController {
+
+    private final MailOutboxService mailOutboxService;
+
+    // 📮 Độ sâu hàng đợi mail và độ trễ gửi
+    @GetMapping("/api/admin/mail/outbox")
+    public MailOutboxStatsDTO getOutboxStats() {
+        return mailOutboxService.stats();
+    }
+}
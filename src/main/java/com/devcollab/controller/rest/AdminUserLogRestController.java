@@ -4,8 +4,11 @@ import com.devcollab.domain.Activity;
 import com.devcollab.service.system.ActivityService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -41,10 +44,13 @@ public class AdminUserLogRestController {
             @RequestParam(required = false) String user,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        Page<Activity> pageData = activityService.searchActivities(user, action, entityType, PageRequest.of(page, size));
+        Page<Activity> pageData = activityService.searchActivities(user, action, entityType,
+                from, to, PageRequest.of(page, size));
 
         Map<String, Object> response = new HashMap<>();
         response.put("content", pageData.getContent());
@@ -64,6 +64,7 @@ public class AuthController {
         private final ProjectRepository projectRepository;
         private final NotificationService notificationService;
         private final UserRoleService roleService;
+        private final ProjectMembershipCache membershipCache;
 
         @PostMapping("/check-email")
         public ResponseEntity<?> checkEmail(@Valid @RequestBody CheckEmailRequestDTO request) {
@@ -318,6 +319,7 @@ public class AuthController {
                                 projectMemberRepository.addMember(invite.getProjectId(),
                                                 newUser.getUserId(),
                                                 invite.getRole().toUpperCase());
+                                membershipCache.evictProject(invite.getProjectId());
                                 invite.setAccepted(true);
                                 pendingInviteRepository.save(invite);
 
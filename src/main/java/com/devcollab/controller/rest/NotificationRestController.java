@@ -1,6 +1,6 @@
 package com.devcollab.controller.rest;
 
-import com.devcollab.domain.Notification;
+import com.devcollab.dto.response.NotificationPageDTO;
 import com.devcollab.dto.response.NotificationResponseDTO;
 import com.devcollab.service.system.NotificationService;
 import lombok.RequiredArgsConstructor;
@@ -10,9 +10,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.Objects;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/notifications")
@@ -21,23 +18,38 @@ public class NotificationRestController {
 
     private final NotificationService notificationService;
 
+    private static final int RECENT_LIMIT = 50;
+
+    // Giữ dạng List cũ cho giao diện hiện tại: chỉ trả trang mới nhất thay vì toàn bộ lịch sử
     @GetMapping
     public ResponseEntity<?> getNotifications(Authentication auth) {
         if (auth == null)
             return ResponseEntity.status(401).body("Unauthenticated");
 
         String email = extractEmail(auth);
-        log.info("📩 GET /api/notifications for {}", email);
-
-        List<Notification> notifications = notificationService.getNotificationsByUser(email);
+        NotificationPageDTO page =
+                notificationService.getInbox(email, null, null, null, null, RECENT_LIMIT);
+        page.items().forEach(this::applyDisplayDefaults);
+        return ResponseEntity.ok(page.items());
+    }
 
-        List<NotificationResponseDTO> responseList =
-                notifications.stream()
-                        .map(this::mapToResponseDTO)
-                        .filter(Objects::nonNull)
-                        .toList();
+    /**
+     * 📥 Inbox phân trang theo cursor, lọc theo status (read | unread), type và priority.
+     * Truyền {@code nextCursor} của trang trước vào {@code cursor} để tải tiếp.
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<?> getInbox(@RequestParam(required = false) String status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit, Authentication auth) {
+        if (auth == null)
+            return ResponseEntity.status(401).body("Unauthenticated");
 
-        return ResponseEntity.ok(responseList);
+        NotificationPageDTO page = notificationService.getInbox(extractEmail(auth), status, type,
+                priority, cursor, limit);
+        page.items().forEach(this::applyDisplayDefaults);
+        return ResponseEntity.ok(page);
     }
 
     @PutMapping("/{id}/read")
@@ -71,17 +83,11 @@ public class NotificationRestController {
             return ResponseEntity.status(401).body("Unauthenticated");
 
         String email = extractEmail(auth);
-        // Check ownership before deleting
-        List<Notification> notifications = notificationService.getNotificationsByUser(email);
-        boolean isOwner = notifications.stream()
-                .anyMatch(n -> n.getNotificationId().equals(id));
-        
-        if (!isOwner) {
+        if (!notificationService.deleteNotification(id, email)) {
             return ResponseEntity.status(403)
                     .body("You cannot delete someone else's notification.");
         }
-        
-        notificationService.deleteNotification(id);
+
         return ResponseEntity.noContent().build();
     }
 
@@ -104,33 +110,18 @@ public class NotificationRestController {
     }
 
 
-    private NotificationResponseDTO mapToResponseDTO(Notification n) {
-        try {
-            if (n == null)
-                return null;
-
-            String type = n.getType() != null ? n.getType().trim().toUpperCase() : "GENERAL";
-            String title = n.getTitle() != null ? n.getTitle() : "Thông báo mới";
-            String message = n.getMessage() != null ? n.getMessage() : "Bạn có thông báo mới.";
-
-            String link = (n.getLink() == null || n.getLink().isBlank()) ? "#" : n.getLink();
-
-            String senderName = (n.getSender() != null && n.getSender().getName() != null)
-                    ? n.getSender().getName()
-                    : "Hệ thống";
-
-            String senderAvatar = n.getSender() != null ? n.getSender().getAvatarUrl() : null;
-
-            return NotificationResponseDTO.builder().id(n.getNotificationId()).type(type)
-                    .title(title).message(message).status(n.getStatus()).createdAt(n.getCreatedAt())
-                    .referenceId(n.getReferenceId()).link(link).icon(mapIcon(type))
-                    .senderName(senderName).senderAvatar(senderAvatar).build();
-
-        } catch (Exception e) {
-            log.warn("⚠ mapToResponseDTO() error for {}: {}",
-                    n != null ? n.getNotificationId() : "null", e.getMessage());
-            return null;
-        }
+    private void applyDisplayDefaults(NotificationResponseDTO dto) {
+        String type = dto.getType() != null ? dto.getType().trim().toUpperCase() : "GENERAL";
+        dto.setType(type);
+        if (dto.getTitle() == null)
+            dto.setTitle("Thông báo mới");
+        if (dto.getMessage() == null)
+            dto.setMessage("Bạn có thông báo mới.");
+        if (dto.getLink() == null || dto.getLink().isBlank())
+            dto.setLink("#");
+        if (dto.getSenderName() == null)
+            dto.setSenderName("Hệ thống");
+        dto.setIcon(mapIcon(type));
     }
 
     private String mapIcon(String type) {
@@ -1,10 +1,17 @@
 package com.devcollab.controller.rest;
 
 import com.devcollab.dto.response.ProjectSearchResponseDTO;
+import com.devcollab.dto.response.SearchResultDTO;
 import com.devcollab.service.core.ProjectService;
+import com.devcollab.service.system.SearchIndexService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -12,9 +19,31 @@ import java.util.List;
 public class SearchController {
 
     private final ProjectService projectService;
+    private final SearchIndexService searchIndexService;
 
     @GetMapping("/search")
     public List<ProjectSearchResponseDTO> searchProjects(@RequestParam("query") String keyword) {
         return projectService.searchProjectsByKeyword(keyword);
     }
+
+    /**
+     * 🔎 Tìm kiếm chung: project, task, comment, tin nhắn trong các dự án user tham gia.
+     * types = PROJECT,TASK,COMMENT,MESSAGE (bỏ trống = tất cả)
+     */
+    @GetMapping("/search/all")
+    public SearchResultDTO searchAll(@RequestParam("q") String query,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "20") int limit, Authentication auth) {
+        Set<String> typeFilter = types == null ? Set.of()
+                : types.stream().map(t -> t.trim().toUpperCase()).filter(t -> !t.isEmpty())
+                        .collect(Collectors.toSet());
+        return searchIndexService.search(extractEmail(auth), query, typeFilter, limit);
+    }
+
+    private String extractEmail(Authentication auth) {
+        if (auth instanceof OAuth2AuthenticationToken oauth2Auth) {
+            return oauth2Auth.getPrincipal().getAttribute("email");
+        }
+        return auth.getName();
+    }
 }
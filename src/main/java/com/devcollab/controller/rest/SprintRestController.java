@@ -0,0 +1,57 @@
+package com.devcollab.controller.rest;
+
+import com.devcollab.dto.response.SprintBurndownDTO;
+import com.devcollab.dto.response.SprintVelocityDTO;
+import com.devcollab.exception.NotFoundException;
+import com.devcollab.repository.SprintRepository;
+import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.SprintAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sprints")
+@RequiredArgsConstructor
+public class SprintRestController {
+
+    private final SprintAnalyticsService sprintAnalyticsService;
+    private final SprintRepository sprintRepository;
+    private final ProjectAuthorizationService projectAuthorizationService;
+
+    // 📉 Burndown / burnup theo ngày của một sprint
+    @GetMapping("/{sprintId}/burndown")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SprintBurndownDTO> getBurndown(@PathVariable Long sprintId,
+            Authentication auth) {
+        Long projectId = sprintRepository.findProjectIdBySprintId(sprintId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy sprint"));
+        ensureMember(auth, projectId);
+        return ResponseEntity.ok(sprintAnalyticsService.getBurndown(sprintId));
+    }
+
+    // 🚀 Vận tốc các sprint của dự án, trung bình trượt theo window sprint
+    @GetMapping("/project/{projectId}/velocity")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SprintVelocityDTO> getVelocity(@PathVariable Long projectId,
+            @RequestParam(required = false) Integer window, Authentication auth) {
+        ensureMember(auth, projectId);
+        return ResponseEntity.ok(sprintAnalyticsService.getVelocity(projectId, window));
+    }
+
+    private void ensureMember(Authentication auth, Long projectId) {
+        if (!projectAuthorizationService.isMemberOfProject(extractEmail(auth), projectId))
+            throw new AccessDeniedException("Bạn không phải thành viên của dự án này");
+    }
+
+    private String extractEmail(Authentication auth) {
+        if (auth instanceof OAuth2AuthenticationToken oauth2Auth) {
+            return oauth2Auth.getPrincipal().getAttribute("email");
+        }
+        return auth.getName();
+    }
+}
@@ -2,23 +2,34 @@ package com.devcollab.controller.rest;
 
 import com.devcollab.domain.Task;
 import com.devcollab.domain.User;
+import com.devcollab.dto.BoardDeltaDTO;
+import com.devcollab.dto.BoardSnapshotDTO;
 import com.devcollab.dto.TaskDTO;
 import com.devcollab.dto.TaskFollowerDTO;
 import com.devcollab.dto.UserDTO;
 import com.devcollab.dto.request.MoveTaskRequest;
 import com.devcollab.dto.request.TaskQuickCreateReq;
+import com.devcollab.dto.response.TaskDependencyDTO;
+import com.devcollab.dto.response.TaskDependencyGraphDTO;
+import com.devcollab.dto.response.TaskLinkDTO;
 import com.devcollab.dto.userTaskDto.ProjectFilterDTO;
 import com.devcollab.exception.NotFoundException;
+import com.devcollab.repository.TaskRepository;
 import com.devcollab.service.core.ProjectService;
 import com.devcollab.service.core.TaskService;
 import com.devcollab.service.core.TaskFollowerService;
 import com.devcollab.service.system.AuthService;
+import com.devcollab.service.system.BoardVersionService;
+import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.TaskDependencyService;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
 
@@ -31,6 +42,10 @@ public class TaskRestController {
     private final AuthService authService;
     private final TaskFollowerService taskFollowerService;
     private final ProjectService projectService;
+    private final BoardVersionService boardVersionService;
+    private final TaskDependencyService taskDependencyService;
+    private final TaskRepository taskRepository;
+    private final ProjectAuthorizationService projectAuthorizationService;
 
     // ============================ GET TASKS BY PROJECT
     // ============================
@@ -39,6 +54,34 @@ public class TaskRestController {
         return ResponseEntity.ok(taskService.getTasksByProject(projectId));
     }
 
+    // ============================ BOARD SNAPSHOT (ETag) ============================
+    @GetMapping("/project/{projectId}/board")
+    public ResponseEntity<BoardSnapshotDTO> getBoardSnapshot(@PathVariable Long projectId,
+            WebRequest request, Authentication auth) {
+        // Kiểm tra trước ETag để 304 không xác nhận board cho người ngoài dự án
+        if (!isMember(auth, projectId))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        String etag = boardVersionService.etag(projectId,
+                boardVersionService.currentVersion(projectId));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        BoardSnapshotDTO snapshot = taskService.getBoardSnapshot(projectId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .eTag(boardVersionService.etag(projectId, snapshot.version())).body(snapshot);
+    }
+
+    // ============================ BOARD DELTA SYNC ============================
+    @GetMapping("/project/{projectId}/board/changes")
+    public ResponseEntity<BoardDeltaDTO> getBoardChanges(@PathVariable Long projectId,
+            @RequestParam("since") long since, Authentication auth) {
+        if (!isMember(auth, projectId))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        return ResponseEntity.ok(taskService.getBoardChanges(projectId, since));
+    }
+
     // ============================ QUICK CREATE TASK ============================
     @PostMapping("/quick")
     public ResponseEntity<TaskDTO> quickCreate(@RequestBody TaskQuickCreateReq req,
@@ -252,6 +295,60 @@ public class TaskRestController {
         }
     }
 
+    // ============================ DEPENDENCIES (BLOCKS) ============================
+    @GetMapping("/{taskId}/dependencies")
+    public ResponseEntity<TaskDependencyDTO> getDependencies(@PathVariable Long taskId,
+            Authentication auth) {
+        Long projectId = taskRepository.findProjectIdByTaskId(taskId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
+        if (!isMember(auth, projectId))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        return ResponseEntity.ok(taskDependencyService.dependenciesOf(taskId));
+    }
+
+    @GetMapping("/project/{projectId}/dependencies")
+    public ResponseEntity<TaskDependencyGraphDTO> getDependencyGraph(@PathVariable Long projectId,
+            Authentication auth) {
+        if (!isMember(auth, projectId))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        return ResponseEntity.ok(taskDependencyService.projectGraph(projectId));
+    }
+
+    @PostMapping("/{taskId}/links")
+    public ResponseEntity<TaskLinkDTO> addLink(@PathVariable Long taskId,
+            @RequestBody Map<String, Object> payload, Authentication auth) {
+        UserDTO current = authService.getCurrentUser(auth);
+        if (current == null)
+            return ResponseEntity.status(401).build();
+
+        Object toTaskId = payload.get("toTaskId");
+        Object type = payload.getOrDefault("type", TaskDependencyService.BLOCKS);
+        if (!(toTaskId instanceof Number target) || !(type instanceof String linkType))
+            return ResponseEntity.badRequest().build();
+
+        User actor = new User();
+        actor.setUserId(current.getUserId());
+        actor.setEmail(current.getEmail());
+
+        TaskLinkDTO link = taskService.addLink(taskId, target.longValue(), linkType, actor);
+        return ResponseEntity.status(201).body(link);
+    }
+
+    @DeleteMapping("/{taskId}/links/{linkId}")
+    public ResponseEntity<?> removeLink(@PathVariable Long taskId, @PathVariable Long linkId,
+            Authentication auth) {
+        UserDTO current = authService.getCurrentUser(auth);
+        if (current == null)
+            return ResponseEntity.status(401).build();
+
+        User actor = new User();
+        actor.setUserId(current.getUserId());
+        actor.setEmail(current.getEmail());
+
+        taskService.removeLink(taskId, linkId, actor);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/user/projects")
     public ResponseEntity<List<ProjectFilterDTO>> getUserProjects(Authentication auth) {
         UserDTO current = authService.getCurrentUser(auth);
@@ -263,4 +360,21 @@ public class TaskRestController {
 
         return ResponseEntity.ok(projects);
     }
+
+    private boolean isMember(Authentication auth, Long projectId) {
+        if (auth == null)
+            return false;
+        try {
+            return projectAuthorizationService.isMemberOfProject(extractEmail(auth), projectId);
+        } catch (AccessDeniedException e) {
+            return false;
+        }
+    }
+
+    private String extractEmail(Authentication auth) {
+        if (auth instanceof OAuth2AuthenticationToken oauth2Auth) {
+            return oauth2Auth.getPrincipal().getAttribute("email");
+        }
+        return auth.getName();
+    }
 }
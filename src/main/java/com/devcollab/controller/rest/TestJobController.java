@@ -20,7 +20,7 @@ public class TestJobController {
 
     @GetMapping("/deadline-job")
     public ResponseEntity<String> runJobNow() {
-        reminderJob.checkUpcomingDeadlines();
+        reminderJob.rebuildSchedule();
         return ResponseEntity.ok("✅ Đã chạy job thủ công lúc " + LocalDateTime.now());
     }
     
@@ -1,10 +1,12 @@
 package com.devcollab.controller.rest;
 
 import com.devcollab.dto.request.MessageRequestDTO;
+import com.devcollab.dto.response.MessagePageDTO;
 import com.devcollab.dto.response.MessageResponseDTO;
-import com.devcollab.domain.Message;
 import com.devcollab.service.feature.MessageService;
+import com.devcollab.service.system.ProjectAuthorizationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +19,7 @@ import java.util.List;
 public class UserMessageRestController {
 
     private final MessageService messageService;
+    private final ProjectAuthorizationService projectAuthorizationService;
 
     /**
      * ✅ Hàm tái sử dụng để lấy email từ Authentication (Google OAuth2 / Local login)
@@ -37,18 +40,20 @@ public class UserMessageRestController {
         String senderEmail = getEmailFromAuthentication(auth);
         System.out.println("📌 Sender email = " + senderEmail);
 
-        // Gửi tin nhắn
-        Message msg = messageService.sendMessage(senderEmail, request);
-
-        // Trả về DTO cho frontend
-        return new MessageResponseDTO(
-                msg.getMessageId(),
-                msg.getSender().getName(),
-                msg.getSender().getEmail(),
-                msg.getSender().getAvatarUrl(),
-                msg.getContent(),
-                msg.getCreatedAt()
-        );
+        // Gửi tin nhắn: id đã được cấp, DB sẽ được ghi bởi writer nền
+        return messageService.sendMessage(senderEmail, request);
+    }
+
+    // 📜 Lịch sử tin nhắn theo trang (keyset): before = cuộn lên, after = lấy tin mới hơn
+    @GetMapping("/{projectId}/history")
+    public MessagePageDTO getMessageHistory(@PathVariable Long projectId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit, Authentication auth) {
+        if (!projectAuthorizationService.isMemberOfProject(getEmailFromAuthentication(auth),
+                projectId))
+            throw new AccessDeniedException("Bạn không phải thành viên của dự án này");
+        return messageService.getMessageHistory(projectId, before, after, limit);
     }
 
     // 📩 Lấy danh sách tin nhắn theo projectId
@@ -34,7 +34,8 @@ public class GlobalModelAttribute {
 
         userService.getByEmail(email).ifPresent(user -> {
             model.addAttribute("user", user);
-            model.addAttribute("unreadNotifications", notificationService.countUnread(email));
+            int unread = notificationService.countUnread(email);
+            model.addAttribute("unreadNotifications", unread);
 
             // ✅ Kiểm tra xem user có phải là PM không (role hệ thống hoặc role trong project)
             boolean hasSystemPmRole = user.getRoles() != null
@@ -44,8 +45,8 @@ public class GlobalModelAttribute {
             boolean isProjectManager = hasSystemPmRole || hasProjectPmRole;
 
             model.addAttribute("isProjectManager", isProjectManager);
-            log.debug("✅ Loaded global user: {} ({} notifications, isPM: {})", email,
-                    notificationService.countUnread(email), isProjectManager);
+            log.debug("✅ Loaded global user: {} ({} notifications, isPM: {})", email, unread,
+                    isProjectManager);
         });
     }
 }
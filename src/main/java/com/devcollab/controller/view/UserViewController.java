@@ -3,14 +3,14 @@ package com.devcollab.controller.view;
 import com.devcollab.domain.*;
 import com.devcollab.dto.MemberDTO;
 import com.devcollab.dto.UserTaskViewDTO;
+import com.devcollab.dto.response.UserDashboardDTO;
 import com.devcollab.repository.ProjectMemberRepository;
 import com.devcollab.repository.ProjectRepository;
-import com.devcollab.repository.ProjectScheduleRepository;
-import com.devcollab.repository.TaskRepository;
 import com.devcollab.service.core.ProjectService;
 import com.devcollab.service.core.TaskService;
 import com.devcollab.service.feature.MessageService;
 import com.devcollab.service.system.NotificationService;
+import com.devcollab.service.system.UserDashboardService;
 import com.devcollab.service.core.UserService;
 import lombok.RequiredArgsConstructor;
 
@@ -26,13 +26,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.ZoneOffset;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Controller
 @RequestMapping("/user/view")
@@ -46,8 +40,7 @@ public class UserViewController {
     private final TaskService taskService;
     private final ProjectMemberRepository projectMemberRepository;
     private final ProjectRepository projectRepository;
-    private final TaskRepository taskRepository;
-    private final ProjectScheduleRepository projectScheduleRepository;
+    private final UserDashboardService userDashboardService;
     private final TaskService taskStatisticsService;
 
     /**
@@ -90,143 +83,18 @@ public class UserViewController {
                 return "redirect:/view/login";
             }
 
-            // Get user's projects
-            List<Project> projects = Collections.emptyList();
-            try {
-                projects = projectService.getTop5ProjectsByUser(user.getUserId());
-                projects = projects.stream().filter(Objects::nonNull).collect(Collectors.toList());
-            } catch (Exception e) {
-                System.err.println("Error loading projects: " + e.getMessage());
-                projects = Collections.emptyList();
-            }
-            System.out.println("pro: " + projects);
-            model.addAttribute("projects", projects);
-
-            // Get task counts - ONLY 3 DATA POINTS
-            long openCount = 0;
-            long inProgressCount = 0;
-            long doneCount = 0;
-            long totalTasks = 0;
-
-            try {
-                List<Task> userTasks = taskRepository.findAllUserTasks(user);
-                totalTasks = userTasks.size();
-
-                openCount = userTasks.stream()
-                        .filter(task -> task != null && "OPEN".equals(task.getStatus())).count();
-
-                inProgressCount = userTasks.stream()
-                        .filter(task -> task != null && "IN_PROGRESS".equals(task.getStatus()))
-                        .count();
-
-                doneCount = userTasks.stream()
-                        .filter(task -> task != null && "DONE".equals(task.getStatus())).count();
-
-                // Print the 3 data points
-                System.out.println("📊 Task Statistics:");
-                System.out.println("  - OPEN: " + openCount + " tasks");
-                System.out.println("  - IN_PROGRESS: " + inProgressCount + " tasks");
-                System.out.println("  - DONE: " + doneCount + " tasks");
-                System.out.println("  - Total: " + totalTasks + " tasks");
-
-            } catch (Exception e) {
-                System.err.println("Error loading task statistics: " + e.getMessage());
-            }
-            model.addAttribute("openCount", openCount);
-            model.addAttribute("inProgressCount", inProgressCount);
-            model.addAttribute("doneCount", doneCount);
-            model.addAttribute("totalTasks", totalTasks);
-
-            // Get today's schedule
-            List<ProjectSchedule> todaysSchedules = Collections.emptyList();
-            try {
-                LocalDate today = LocalDate.now();
-                LocalDateTime startOfDay = today.atStartOfDay();
-                LocalDateTime endOfDay = today.atTime(LocalTime.MAX);
-
-                todaysSchedules = projects.stream().filter(Objects::nonNull).flatMap(project -> {
-                    try {
-                        return projectScheduleRepository.findByProject_ProjectIdAndDatetimeBetween(
-                                project.getProjectId(), startOfDay.toInstant(ZoneOffset.UTC),
-                                endOfDay.toInstant(ZoneOffset.UTC)).stream();
-                    } catch (Exception e) {
-                        System.err.println("Error loading schedule for project "
-                                + project.getProjectId() + ": " + e.getMessage());
-                        return Stream.empty();
-                    }
-                }).filter(Objects::nonNull).collect(Collectors.toList());
-            } catch (Exception e) {
-                System.err.println("Error loading today's schedule: " + e.getMessage());
-            }
-            model.addAttribute("todaysSchedules", todaysSchedules);
-
-            // Get upcoming tasks
-            List<Task> upcomingTasks = Collections.emptyList();
-            try {
-                Pageable topThree = PageRequest.of(0, 3);
-                upcomingTasks = taskRepository.findTopUpcoming(user.getUserId(), topThree);
-                upcomingTasks = upcomingTasks.stream().filter(Objects::nonNull)
-                        .collect(Collectors.toList());
-            } catch (Exception e) {
-                System.err.println("Error loading upcoming tasks: " + e.getMessage());
-            }
-            model.addAttribute("upcomingTasks", upcomingTasks);
-
-            // Get performance data
-            int janCount = 0, febCount = 0, marCount = 0, aprCount = 0, mayCount = 0, junCount = 0;
-
-            try {
-                List<Task> userTasks = taskRepository.findAllUserTasks(user);
-
-                // Count completed tasks for each month
-                for (Task task : userTasks) {
-                    if (task != null && "DONE".equals(task.getStatus())
-                            && task.getClosedAt() != null) {
-                        int month = task.getClosedAt().getMonthValue(); // 1=Jan, 2=Feb, etc.
-
-                        switch (month) {
-                            case 1:
-                                janCount++;
-                                break;
-                            case 2:
-                                febCount++;
-                                break;
-                            case 3:
-                                marCount++;
-                                break;
-                            case 4:
-                                aprCount++;
-                                break;
-                            case 5:
-                                mayCount++;
-                                break;
-                            case 6:
-                                junCount++;
-                                break;
-                        }
-                    }
-                }
-
-                System.out.println("📈 Performance Data:");
-                System.out.println("  - Jan: " + janCount + " completed tasks");
-                System.out.println("  - Feb: " + febCount + " completed tasks");
-                System.out.println("  - Mar: " + marCount + " completed tasks");
-                System.out.println("  - Apr: " + aprCount + " completed tasks");
-                System.out.println("  - May: " + mayCount + " completed tasks");
-                System.out.println("  - Jun: " + junCount + " completed tasks");
-
-            } catch (Exception e) {
-                System.err.println("Error loading performance data: " + e.getMessage());
-                e.printStackTrace();
-            }
+            UserDashboardDTO dashboard = userDashboardService.load(user.getUserId());
+            model.addAttribute("projects", dashboard.projects());
+            model.addAttribute("openCount", dashboard.openCount());
+            model.addAttribute("inProgressCount", dashboard.inProgressCount());
+            model.addAttribute("doneCount", dashboard.doneCount());
+            model.addAttribute("totalTasks", dashboard.totalTasks());
+            model.addAttribute("todaysSchedules", dashboard.todaysSchedules());
+            model.addAttribute("upcomingTasks", dashboard.upcomingTasks());
 
-            // Add performance counts to model
-            model.addAttribute("janCount", janCount);
-            model.addAttribute("febCount", febCount);
-            model.addAttribute("marCount", marCount);
-            model.addAttribute("aprCount", aprCount);
-            model.addAttribute("mayCount", mayCount);
-            model.addAttribute("junCount", junCount);
+            String[] months = {"jan", "feb", "mar", "apr", "may", "jun"};
+            for (int i = 0; i < months.length; i++)
+                model.addAttribute(months[i] + "Count", dashboard.completedByMonth().get(i));
 
             return "user/user-dashboard1";
 
@@ -314,7 +182,8 @@ public class UserViewController {
         model.addAttribute("projects", projects);
 
         if (projectId != null) {
-            model.addAttribute("messages", messageService.getMessagesByProjectId(projectId));
+            model.addAttribute("messages",
+                    messageService.getMessageHistory(projectId, null, null, 50).messages());
             model.addAttribute("projectId", projectId);
         }
 
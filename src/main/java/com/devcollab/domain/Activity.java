@@ -1,10 +1,16 @@
 package com.devcollab.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "[Activity]")
+@Table(name = "[Activity]", indexes = {
+        @Index(name = "ix_activity_month_created", columnList = "activity_month, created_at"),
+        @Index(name = "ix_activity_action_month", columnList = "action, activity_month"),
+        @Index(name = "ix_activity_type_month", columnList = "entity_type, activity_month"),
+        @Index(name = "ix_activity_actor_created", columnList = "actor_id, created_at"),
+        @Index(name = "ix_activity_entity", columnList = "entity_type, entity_id, created_at")})
 public class Activity {
 
     @Id
@@ -12,8 +18,9 @@ public class Activity {
     @Column(name = "activity_id")
     private Long activityId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "actor_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User actor;
 
     @Column(name = "entity_type", nullable = false, length = 40)
@@ -31,9 +38,24 @@ public class Activity {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Bucket theo tháng (yyyyMM): khóa đầu của index, dùng cho tìm kiếm và retention
+    @Column(name = "activity_month")
+    private Integer activityMonth;
+
     public Activity() {
     }
 
+    /** Month bucket ({@code yyyyMM}) an activity created at {@code time} belongs to. */
+    public static int monthBucket(LocalDateTime time) {
+        return time.getYear() * 100 + time.getMonthValue();
+    }
+
+    @PrePersist
+    void fillMonthBucket() {
+        if (activityMonth == null && createdAt != null)
+            activityMonth = monthBucket(createdAt);
+    }
+
     public Long getActivityId() {
         return activityId;
     }
@@ -89,4 +111,12 @@ public class Activity {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Integer getActivityMonth() {
+        return activityMonth;
+    }
+
+    public void setActivityMonth(Integer activityMonth) {
+        this.activityMonth = activityMonth;
+    }
 }
@@ -0,0 +1,42 @@
+package com.devcollab.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Monthly compaction of {@link Activity}: how many times each actor performed each action on each
+ * entity type in a month. Written by the retention job right before the raw rows of that month are
+ * deleted, so long-range statistics survive after the detail is gone.
+ */
+@Entity
+@Table(name = "[ActivityRollup]",
+        uniqueConstraints = @UniqueConstraint(name = "ux_activity_rollup",
+                columnNames = {"activity_month", "entity_type", "action", "actor_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long id;
+
+    // yyyyMM
+    @Column(name = "activity_month", nullable = false)
+    private int activityMonth;
+
+    @Column(name = "entity_type", nullable = false, length = 40)
+    private String entityType;
+
+    @Column(nullable = false, length = 40)
+    private String action;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(nullable = false)
+    private long total;
+}
@@ -0,0 +1,44 @@
+package com.devcollab.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One row per board version bump: which entity of the project changed at that version. The delta
+ * sync endpoint reads the rows after a client's last version and re-reads the current state of the
+ * touched entities; ids that no longer resolve become tombstones.
+ */
+@Entity
+@Table(name = "[BoardChange]",
+        indexes = @Index(name = "ix_board_change_project_version",
+                columnList = "project_id, version"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BoardChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_id")
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // TASK | COLUMN | LABEL | CHECKLIST
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
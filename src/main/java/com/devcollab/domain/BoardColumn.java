@@ -1,5 +1,6 @@
 package com.devcollab.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.util.*;
 
@@ -12,8 +13,9 @@ public class BoardColumn {
     @Column(name = "column_id")
     private Long columnId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Project project;
 
     @Column(nullable = false, length = 100)
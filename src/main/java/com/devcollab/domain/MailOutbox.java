@@ -0,0 +1,61 @@
+package com.devcollab.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One outgoing email. Rows are written by {@code MailService} in the caller's transaction and
+ * delivered by {@code MailOutboxService}: PENDING → SENDING → SENT, or back to PENDING with a
+ * later {@code nextAttemptAt} after a failure, and FAILED once the retry budget is spent.
+ */
+@Entity
+@Table(name = "[MailOutbox]",
+        indexes = @Index(name = "ix_mail_outbox_due", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long id;
+
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
+    @Column(nullable = false, length = 300)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String body;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    // PENDING | SENDING | SENT | FAILED
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -1,23 +1,31 @@
 package com.devcollab.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "[Message]")
+@Table(name = "[Message]",
+        indexes = @Index(name = "ix_message_project_created",
+                columnList = "project_id, created_at, message_id"))
 public class Message {
 
+    // Dùng chung dbo.message_seq với ChatMessagePipeline (db/migration/V1__message_sequence.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_seq")
+    @SequenceGenerator(name = "message_seq", sequenceName = "message_seq", schema = "dbo",
+            allocationSize = 50)
     @Column(name = "message_id")
     private Long messageId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Project project;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User sender;
 
     @Column(nullable = false, columnDefinition = "NVARCHAR(MAX)")
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "[Notification]")
+@Table(name = "[Notification]", indexes = {
+        @Index(name = "ix_notification_inbox", columnList = "user_id, status, created_at"),
+        @Index(name = "ix_notification_user_created", columnList = "user_id, created_at")})
 public class Notification {
 
     @Id
@@ -57,6 +59,24 @@ public class Notification {
     public Notification() {
     }
 
+    /** Email priority (HIGH / MEDIUM / LOW) of a notification type. */
+    public static String priorityOf(String type) {
+        if (type == null)
+            return "LOW";
+
+        return switch (type.toUpperCase()) {
+            case "TASK_COMMENT_MENTION", "PROJECT_COMMENT_MENTION", "MEMBER_ADDED",
+                    "TASK_MEMBER_ADDED", "PROJECT_MEMBER_ROLE_UPDATED", "PASSWORD_CHANGED",
+                    "PAYMENT_SUCCESS", "PROJECT_LINK_REGENERATED", "TASK_DUE_SOON",
+                    "JOIN_REQUEST_RECEIVED", "SCHEDULE_CREATED" -> "HIGH";
+
+            case "TASK_COMMENTED", "TASK_MEMBER_REMOVED", "PROJECT_CREATED", "PROJECT_ARCHIVED",
+                    "TASK_FOLLOWED", "JOIN_REQUEST_APPROVED", "JOIN_REQUEST_REJECTED" -> "MEDIUM";
+
+            default -> "LOW";
+        };
+    }
+
     // Getters & Setters
     public Long getNotificationId() {
         return notificationId;
@@ -0,0 +1,39 @@
+package com.devcollab.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Compacted history of {@link Notification}: how many read notifications of each type a user
+ * received in a month. The retention job adds to these counters in the same transaction that
+ * deletes the old rows, so per-user statistics outlive the inbox detail.
+ */
+@Entity
+@Table(name = "[NotificationRollup]",
+        uniqueConstraints = @UniqueConstraint(name = "ux_notification_rollup",
+                columnNames = {"user_id", "notification_month", "type"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // yyyyMM
+    @Column(name = "notification_month", nullable = false)
+    private int notificationMonth;
+
+    @Column(nullable = false, length = 40)
+    private String type;
+
+    @Column(nullable = false)
+    private long total;
+}
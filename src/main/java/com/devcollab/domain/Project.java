@@ -88,6 +88,10 @@ public class Project {
     @Column(name = "invite_created_by", length = 150)
     private String inviteCreatedBy;
 
+    // Chỉ tăng bằng UPDATE trực tiếp (ProjectRepository.bumpBoardVersion) nên không ghi qua entity
+    @Column(name = "board_version", insertable = false, updatable = false)
+    private Long boardVersion;
+
     public Project() {}
 
     public Long getProjectId() {
@@ -266,4 +270,12 @@ public class Project {
         this.inviteCreatedBy = inviteCreatedBy;
     }
 
+    public Long getBoardVersion() {
+        return boardVersion != null ? boardVersion : 0L;
+    }
+
+    public void setBoardVersion(Long boardVersion) {
+        this.boardVersion = boardVersion;
+    }
+
 }
@@ -1,5 +1,6 @@
     package com.devcollab.domain;
 
+    import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
     import jakarta.persistence.*;
     import java.time.LocalDateTime;
 
@@ -9,13 +10,15 @@
     public class ProjectMember {
 
         @Id
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "project_id", nullable = false)
+        @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
         private Project project;
 
         @Id
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "user_id", nullable = false)
+        @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
         private User user;
 
         @Column(name = "role_in_project", length = 32, nullable = false)
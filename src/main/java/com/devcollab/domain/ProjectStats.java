@@ -0,0 +1,60 @@
+package com.devcollab.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized task counters of one project, kept in step with {@code Task} by
+ * {@link com.devcollab.service.system.ProjectStatsService} inside the same transaction as the
+ * change. Also remembers which {@link ProjectStatusMonthly} bucket the project is counted in, so a
+ * status change can move it without scanning.
+ */
+@Entity
+@Table(name = "[ProjectStats]")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectStats {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    // Trạng thái dự án (UPPER) và tháng yyyyMM lần đổi trạng thái gần nhất
+    @Column(name = "project_status", nullable = false, length = 16)
+    private String projectStatus;
+
+    @Column(name = "status_month", nullable = false)
+    private int statusMonth;
+
+    @Column(name = "total_tasks", nullable = false)
+    private long totalTasks;
+
+    @Column(name = "backlog_tasks", nullable = false)
+    private long backlogTasks;
+
+    @Column(name = "open_tasks", nullable = false)
+    private long openTasks;
+
+    @Column(name = "in_progress_tasks", nullable = false)
+    private long inProgressTasks;
+
+    @Column(name = "review_tasks", nullable = false)
+    private long reviewTasks;
+
+    @Column(name = "done_tasks", nullable = false)
+    private long doneTasks;
+
+    @Column(name = "closed_tasks", nullable = false)
+    private long closedTasks;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.devcollab.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Number of projects currently in each status, bucketed by the month their status last changed.
+ * Every project is counted twice: once under its creator and once under {@link #ALL_SCOPE}, so both
+ * the admin and the PM dashboards read a handful of rows.
+ */
+@Entity
+@Table(name = "[ProjectStatusMonthly]",
+        uniqueConstraints = @UniqueConstraint(name = "ux_project_status_monthly",
+                columnNames = {"scope_user_id", "status_month", "project_status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectStatusMonthly {
+
+    public static final long ALL_SCOPE = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bucket_id")
+    private Long id;
+
+    // user_id người tạo dự án, hoặc ALL_SCOPE cho toàn hệ thống
+    @Column(name = "scope_user_id", nullable = false)
+    private long scopeUserId;
+
+    // yyyyMM
+    @Column(name = "status_month", nullable = false)
+    private int statusMonth;
+
+    @Column(name = "project_status", nullable = false, length = 16)
+    private String projectStatus;
+
+    @Column(name = "project_count", nullable = false)
+    private long projectCount;
+}
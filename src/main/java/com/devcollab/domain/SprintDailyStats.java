@@ -0,0 +1,44 @@
+package com.devcollab.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Net change of a sprint's work on one day: tasks that entered the sprint scope and tasks that
+ * were completed (DONE or CLOSED) minus those reopened. Running sums over the days give the
+ * burndown and burnup series.
+ */
+@Entity
+@Table(name = "[SprintDailyStats]",
+        uniqueConstraints = @UniqueConstraint(name = "ux_sprint_daily_stats",
+                columnNames = {"sprint_id", "stat_date"}),
+        indexes = @Index(name = "ix_sprint_daily_stats_project", columnList = "project_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SprintDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "stat_id")
+    private Long id;
+
+    @Column(name = "sprint_id", nullable = false)
+    private Long sprintId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "scope_delta", nullable = false)
+    private long scopeDelta;
+
+    @Column(name = "done_delta", nullable = false)
+    private long doneDelta;
+}
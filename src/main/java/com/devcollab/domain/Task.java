@@ -10,26 +10,43 @@ import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "[Task]")
+@NamedEntityGraph(name = Task.GRAPH_DETAIL, attributeNodes = {@NamedAttributeNode("project"),
+        @NamedAttributeNode("column"), @NamedAttributeNode("sprint"),
+        @NamedAttributeNode("assignee"), @NamedAttributeNode("createdBy")})
+@NamedEntityGraph(name = Task.GRAPH_BOARD, attributeNodes = {@NamedAttributeNode("column"),
+        @NamedAttributeNode("assignee")})
+@NamedEntityGraph(name = Task.GRAPH_REPORT, attributeNodes = {@NamedAttributeNode("project"),
+        @NamedAttributeNode("assignee")})
+@Table(name = "[Task]", indexes = {
+        @Index(name = "ix_task_assignee_status_deadline",
+                columnList = "assignee_id, status, deadline"),
+        @Index(name = "ix_task_created_by_status", columnList = "created_by, status")})
 public class Task {
 
+    // Fetch plan theo use case: mọi @ManyToOne đều LAZY, repository chọn graph cần nạp cùng task
+    public static final String GRAPH_DETAIL = "Task.detail";
+    public static final String GRAPH_BOARD = "Task.board";
+    public static final String GRAPH_REPORT = "Task.report";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "task_id")
     private Long taskId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
-    @JsonIgnoreProperties({"members", "tasks", "sprints"})
+    @JsonIgnoreProperties({"members", "tasks", "sprints", "hibernateLazyInitializer", "handler"})
     private Project project;
 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sprint_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Sprint sprint;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "column_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private BoardColumn column;
 
     @Column(nullable = false, length = 300)
@@ -38,12 +55,14 @@ public class Task {
     @Column(name = "description_md", columnDefinition = "NVARCHAR(MAX)")
     private String descriptionMd;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignee_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User assignee;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User createdBy;
 
     @Column(length = 16, nullable = false)
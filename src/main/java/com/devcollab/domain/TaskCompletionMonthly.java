@@ -0,0 +1,35 @@
+package com.devcollab.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-project histogram of tasks that are DONE, by the month they were completed. A task that is
+ * reopened is taken back out of the month it was counted in.
+ */
+@Entity
+@Table(name = "[TaskCompletionMonthly]",
+        uniqueConstraints = @UniqueConstraint(name = "ux_task_completion_monthly",
+                columnNames = {"project_id", "completion_month"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskCompletionMonthly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bucket_id")
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    // yyyyMM
+    @Column(name = "completion_month", nullable = false)
+    private int completionMonth;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+}
@@ -5,13 +5,15 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.BatchSize;
+
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "[User]")
+@Table(name = "[User]", indexes = @Index(name = "ix_user_name", columnList = "name"))
 public class User {
 
     @Id
@@ -62,7 +64,9 @@ public class User {
     @Column(name = "provider_id", length = 255)
     private String providerId; 
     
+    // EAGER vì filter JWT/OAuth2 đọc quyền ngoài persistence context; nạp theo lô khi có nhiều user
     @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @JoinTable(
         name = "user_role",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,56 @@
+package com.devcollab.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat card row for the board snapshot, built directly by a JPQL constructor expression (see
+ * {@code TaskRepository.findBoardCards}). Label ids and followers are filled in afterwards from a
+ * single pair query.
+ */
+@Data
+@NoArgsConstructor
+public class BoardCardDTO {
+    private Long id;
+    private Long columnId;
+    private String title;
+    private String status;
+    private String priority;
+    private Integer orderIndex;
+    private LocalDateTime startDate;
+    private LocalDateTime deadline;
+    private Long creatorId;
+    private String creatorName;
+    private Long assigneeId;
+    private String assigneeName;
+    private String assigneeAvatar;
+    private int commentCount;
+    private int attachmentCount;
+    private List<Long> labelIds = new ArrayList<>();
+    private List<AssigneeDTO> assignees = new ArrayList<>();
+
+    public BoardCardDTO(Long id, Long columnId, String title, String status, String priority,
+            Integer orderIndex, LocalDateTime startDate, LocalDateTime deadline, Long creatorId,
+            String creatorName, Long assigneeId, String assigneeName, String assigneeAvatar,
+            Long commentCount, Long attachmentCount) {
+        this.id = id;
+        this.columnId = columnId;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.orderIndex = orderIndex;
+        this.startDate = startDate;
+        this.deadline = deadline;
+        this.creatorId = creatorId;
+        this.creatorName = creatorName;
+        this.assigneeId = assigneeId;
+        this.assigneeName = assigneeName;
+        this.assigneeAvatar = assigneeAvatar;
+        this.commentCount = commentCount != null ? commentCount.intValue() : 0;
+        this.attachmentCount = attachmentCount != null ? attachmentCount.intValue() : 0;
+    }
+}
@@ -0,0 +1,5 @@
+package com.devcollab.dto;
+
+public record BoardChecklistItemDTO(Long checklistId, Long taskId, String item, Boolean isDone,
+        Integer orderIndex) {
+}
@@ -0,0 +1,17 @@
+package com.devcollab.dto;
+
+import java.util.List;
+
+/**
+ * Changes to a board between {@code fromVersion} and {@code toVersion}. When {@code fullResync} is
+ * set the change log cannot cover the range and the client should reload the snapshot instead.
+ */
+public record BoardDeltaDTO(Long projectId, long fromVersion, long toVersion, boolean fullResync,
+        List<BoardColumnDTO> columns, List<LabelDTO> labels, List<BoardCardDTO> cards,
+        List<BoardChecklistItemDTO> checklists, List<BoardTombstoneDTO> tombstones) {
+
+    public static BoardDeltaDTO resync(Long projectId, long fromVersion, long toVersion) {
+        return new BoardDeltaDTO(projectId, fromVersion, toVersion, true, List.of(), List.of(),
+                List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,14 @@
+package com.devcollab.dto;
+
+import java.util.List;
+
+/**
+ * Frame pushed to {@code /topic/board.{projectId}}. Carries only what changed; clients holding an
+ * older version fetch the details from the delta endpoint. {@code resync} means the burst was too
+ * large to list and the client should reload the snapshot.
+ */
+public record BoardEventDTO(Long projectId, long version, boolean resync, List<Change> changes) {
+
+    public record Change(String type, Long id) {
+    }
+}
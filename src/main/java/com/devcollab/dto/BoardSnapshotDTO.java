@@ -0,0 +1,11 @@
+package com.devcollab.dto;
+
+import java.util.List;
+
+/**
+ * Everything the board view needs in one payload. {@code version} is the project's board watermark
+ * and doubles as the ETag.
+ */
+public record BoardSnapshotDTO(Long projectId, long version, List<BoardColumnDTO> columns,
+        List<LabelDTO> labels, List<BoardCardDTO> cards) {
+}
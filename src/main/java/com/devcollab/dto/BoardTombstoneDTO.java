@@ -0,0 +1,5 @@
+package com.devcollab.dto;
+
+/** An entity that was deleted, archived or otherwise left the board since the client's version. */
+public record BoardTombstoneDTO(String type, Long id) {
+}
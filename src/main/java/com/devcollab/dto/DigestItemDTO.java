@@ -0,0 +1,10 @@
+package com.devcollab.dto;
+
+public record DigestItemDTO(
+        Long notificationId,
+        Long userId,
+        String email,
+        String type,
+        String message,
+        String link
+) {}
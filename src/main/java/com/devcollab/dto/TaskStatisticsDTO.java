@@ -6,6 +6,8 @@ public class TaskStatisticsDTO {
     private Map<String, Long> statusCount;
     private Map<String, Double> statusPercentages;
     private long totalTasks;
+    private long overdueCount;
+    private double completionRate;
 
     public TaskStatisticsDTO(Map<String, Long> statusCount,
                              Map<String, Double> statusPercentages,
@@ -15,6 +17,14 @@ public class TaskStatisticsDTO {
         this.totalTasks = totalTasks;
     }
 
+    public TaskStatisticsDTO(Map<String, Long> statusCount,
+                             Map<String, Double> statusPercentages,
+                             long totalTasks, long overdueCount, double completionRate) {
+        this(statusCount, statusPercentages, totalTasks);
+        this.overdueCount = overdueCount;
+        this.completionRate = completionRate;
+    }
+
     // Getters and setters
     public Map<String, Long> getStatusCount() { return statusCount; }
     public void setStatusCount(Map<String, Long> statusCount) { this.statusCount = statusCount; }
@@ -24,4 +34,10 @@ public class TaskStatisticsDTO {
 
     public long getTotalTasks() { return totalTasks; }
     public void setTotalTasks(long totalTasks) { this.totalTasks = totalTasks; }
+
+    public long getOverdueCount() { return overdueCount; }
+    public void setOverdueCount(long overdueCount) { this.overdueCount = overdueCount; }
+
+    public double getCompletionRate() { return completionRate; }
+    public void setCompletionRate(double completionRate) { this.completionRate = completionRate; }
 }
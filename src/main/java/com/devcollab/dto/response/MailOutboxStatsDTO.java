@@ -0,0 +1,10 @@
+package com.devcollab.dto.response;
+
+/**
+ * Snapshot of the mail outbox. Counts come from the table; totals and latencies are for this node
+ * since startup, latencies over the most recent sends.
+ */
+public record MailOutboxStatsDTO(long pending, long sending, long failed, long sentTotal,
+        long failedAttemptsTotal, long avgSendMs, long p95SendMs, long avgDeliveryDelayMs,
+        long p95DeliveryDelayMs) {
+}
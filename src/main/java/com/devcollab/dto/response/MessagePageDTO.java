@@ -0,0 +1,12 @@
+package com.devcollab.dto.response;
+
+import java.util.List;
+
+/**
+ * One window of chat history, always oldest → newest. Cursors are opaque; pass
+ * {@code olderCursor} as {@code before} to scroll back and {@code newerCursor} as {@code after} to
+ * catch up.
+ */
+public record MessagePageDTO(List<MessageResponseDTO> messages, String olderCursor,
+        String newerCursor, boolean hasMore) {
+}
@@ -0,0 +1,11 @@
+package com.devcollab.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of the notification inbox, newest first. Pass {@code nextCursor} back as
+ * {@code cursor} to load the next (older) page; it is null when there is nothing left.
+ */
+public record NotificationPageDTO(List<NotificationResponseDTO> items, String nextCursor,
+        boolean hasMore) {
+}
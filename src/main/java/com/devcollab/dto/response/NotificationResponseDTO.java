@@ -32,4 +32,12 @@ public class NotificationResponseDTO {
     // 🧩 Thông tin người gửi (giúp hiển thị UI đẹp như Trello)
     private String senderName; // 👤 Tên người gửi (VD: "Nguyễn Tiến Quân")
     private String senderAvatar; // 🖼️ Ảnh đại diện (URL)
-}
\ No newline at end of file
+
+    // 📥 Projection JPQL cho inbox phân trang (icon do controller gán)
+    public NotificationResponseDTO(Long id, String type, String title, String message,
+            String status, LocalDateTime createdAt, Long referenceId, String link,
+            String senderName, String senderAvatar) {
+        this(id, type, title, message, status, createdAt, referenceId, link, null, senderName,
+                senderAvatar);
+    }
+}
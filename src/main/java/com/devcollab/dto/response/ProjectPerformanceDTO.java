@@ -2,9 +2,11 @@ package com.devcollab.dto.response;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class ProjectPerformanceDTO {
     private List<String> labels;
@@ -0,0 +1,10 @@
+package com.devcollab.dto.response;
+
+/**
+ * One ranked hit of the unified search. {@code title} and {@code snippet} are HTML-escaped with
+ * matches wrapped in {@code <mark>}; {@code context} is the task title of a comment or the sender
+ * of a message.
+ */
+public record SearchHitDTO(String type, Long id, Long projectId, Long taskId, String title,
+        String snippet, String context, double score) {
+}
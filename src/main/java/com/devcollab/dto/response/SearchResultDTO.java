@@ -0,0 +1,6 @@
+package com.devcollab.dto.response;
+
+import java.util.List;
+
+public record SearchResultDTO(String query, List<SearchHitDTO> hits, long tookMs) {
+}
@@ -0,0 +1,17 @@
+package com.devcollab.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily series of a sprint from its start to its end (or today). {@code scope} and
+ * {@code completed} are the burnup lines, {@code remaining} the burndown, {@code idealRemaining}
+ * the straight line from the starting scope to zero at the end date (null without an end date).
+ */
+public record SprintBurndownDTO(Long sprintId, String name, LocalDate startDate,
+        LocalDate endDate, List<Day> days) {
+
+    public record Day(LocalDate date, long scope, long completed, long remaining,
+            Double idealRemaining) {
+    }
+}
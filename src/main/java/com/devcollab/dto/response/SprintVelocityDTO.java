@@ -0,0 +1,16 @@
+package com.devcollab.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tasks completed per sprint, oldest first, with the average over the last {@code window} sprints
+ * up to and including each one. {@code averageVelocity} is the latest rolling average.
+ */
+public record SprintVelocityDTO(Long projectId, int window, double averageVelocity,
+        List<Sprint> sprints) {
+
+    public record Sprint(Long sprintId, String name, LocalDate startDate, LocalDate endDate,
+            long completed, double rollingAverage) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.devcollab.dto.response;
+
+import java.util.List;
+
+/**
+ * BLOCKS dependencies of one task. {@code blockedBy} are its open direct blockers,
+ * {@code blockers} every open task blocking it transitively, {@code blocking} every open task it
+ * holds up transitively.
+ */
+public record TaskDependencyDTO(Long taskId, List<Long> blockedBy, List<Long> blockers,
+        List<Long> blocking) {
+}
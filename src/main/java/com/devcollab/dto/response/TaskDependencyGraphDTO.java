@@ -0,0 +1,11 @@
+package com.devcollab.dto.response;
+
+import java.util.List;
+
+/**
+ * BLOCKS graph summary of a project. {@code order} lists blockers before the tasks they block and
+ * is null when {@code cycles} is not empty; the critical path is then empty as well.
+ */
+public record TaskDependencyGraphDTO(Long projectId, int taskCount, List<Long> order,
+        List<List<Long>> cycles, List<Long> criticalPath, long criticalPathHours) {
+}
@@ -0,0 +1,4 @@
+package com.devcollab.dto.response;
+
+public record TaskLinkDTO(Long linkId, Long fromTaskId, Long toTaskId, String linkType) {
+}
@@ -0,0 +1,30 @@
+package com.devcollab.dto.response;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything the user dashboard renders. {@code completedByMonth} holds the DONE tasks closed in
+ * January through June. {@code partial} is set when a section timed out or failed and was left
+ * empty.
+ */
+public record UserDashboardDTO(List<Project> projects, List<Schedule> todaysSchedules,
+        List<UpcomingTask> upcomingTasks, long totalTasks, long openCount, long inProgressCount,
+        long doneCount, List<Long> completedByMonth, boolean partial) {
+
+    public record Project(Long projectId, String name, String description, String status,
+            String priority, LocalDate dueDate, String coverImage) {
+    }
+
+    public record Schedule(String title, String note, Instant datetime) {
+    }
+
+    public record UpcomingTask(String title, String status, String priority,
+            LocalDateTime deadline, ProjectName project) {
+    }
+
+    public record ProjectName(String name) {
+    }
+}
@@ -4,10 +4,15 @@
     import org.springframework.data.domain.Page;
     import org.springframework.data.domain.Pageable;
     import org.springframework.data.jpa.repository.JpaRepository;
+    import org.springframework.data.jpa.repository.Modifying;
     import org.springframework.data.jpa.repository.Query;
     import org.springframework.data.repository.query.Param;
+    import org.springframework.transaction.annotation.Transactional;
 
+    import java.time.LocalDateTime;
+    import java.util.Collection;
     import java.util.List;
+    import java.util.Optional;
 
     public interface ActivityRepository extends JpaRepository<Activity, Long> {
         List<Activity> findByEntityTypeAndEntityIdOrderByCreatedAtDesc(String entityType, Long entityId);
@@ -17,19 +22,54 @@
         boolean existsByActor_UserIdAndEntityTypeAndEntityIdAndAction(
                 Long actorId, String entityType, Long entityId, String action
         );
-        @Query("""
-        SELECT a FROM Activity a
-        WHERE
-            (:user IS NULL OR LOWER(a.actor.name) LIKE %:user%)
-            AND (:action IS NULL OR LOWER(a.action) LIKE %:action%)
-            AND (:entityType IS NULL OR LOWER(a.entityType) = :entityType)
-        ORDER BY a.createdAt DESC
-    """)
+        /**
+         * Admin search over a month-bucket range. Every predicate is sargable: the bucket range
+         * seeks {@code ix_activity_month_created}, actors are matched by id and action by prefix.
+         */
+        @Query(value = """
+            SELECT a FROM Activity a
+            WHERE a.activityMonth BETWEEN :fromMonth AND :toMonth
+              AND a.createdAt >= :from AND a.createdAt < :to
+              AND (:anyActor = true OR a.actor.userId IN :actorIds)
+              AND (:action IS NULL OR a.action LIKE CONCAT(:action, '%'))
+              AND (:entityType IS NULL OR a.entityType = :entityType)
+            ORDER BY a.createdAt DESC
+            """, countQuery = """
+            SELECT COUNT(a) FROM Activity a
+            WHERE a.activityMonth BETWEEN :fromMonth AND :toMonth
+              AND a.createdAt >= :from AND a.createdAt < :to
+              AND (:anyActor = true OR a.actor.userId IN :actorIds)
+              AND (:action IS NULL OR a.action LIKE CONCAT(:action, '%'))
+              AND (:entityType IS NULL OR a.entityType = :entityType)
+            """)
         Page<Activity> searchActivities(
-                @Param( "user") String user,
+                @Param("fromMonth") int fromMonth,
+                @Param("toMonth") int toMonth,
+                @Param("from") LocalDateTime from,
+                @Param("to") LocalDateTime to,
+                @Param("anyActor") boolean anyActor,
+                @Param("actorIds") Collection<Long> actorIds,
                 @Param("action") String action,
                 @Param("entityType") String entityType,
                 Pageable pageable
         );
-    }
 
+        // Gán bucket cho bản ghi cũ (trước khi có cột activity_month), từng lô nhỏ
+        @Transactional
+        @Modifying
+        @Query(value = """
+            UPDATE TOP (:limit) [Activity]
+            SET activity_month = YEAR(created_at) * 100 + MONTH(created_at)
+            WHERE activity_month IS NULL
+            """, nativeQuery = true)
+        int backfillMonthBuckets(@Param("limit") int limit);
+
+        @Query("SELECT MIN(a.activityMonth) FROM Activity a")
+        Optional<Integer> findOldestMonth();
+
+        @Transactional
+        @Modifying
+        @Query(value = "DELETE TOP (:limit) FROM [Activity] WHERE activity_month = :month",
+                nativeQuery = true)
+        int deleteMonthChunk(@Param("month") int month, @Param("limit") int limit);
+    }
@@ -0,0 +1,30 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.ActivityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, Long> {
+
+    boolean existsByActivityMonth(int activityMonth);
+
+    List<ActivityRollup> findByActivityMonthBetweenOrderByActivityMonthAsc(int fromMonth,
+            int toMonth);
+
+    // Một câu INSERT ... SELECT: tháng hoặc đã rollup đủ, hoặc chưa có dòng nào
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO [ActivityRollup] (activity_month, entity_type, action, actor_id, total)
+                SELECT activity_month, entity_type, action, actor_id, COUNT_BIG(*)
+                FROM [Activity]
+                WHERE activity_month = :month
+                GROUP BY activity_month, entity_type, action, actor_id
+            """, nativeQuery = true)
+    int rollupMonth(@Param("month") int month);
+}
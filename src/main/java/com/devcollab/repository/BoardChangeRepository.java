@@ -0,0 +1,34 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.BoardChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BoardChangeRepository extends JpaRepository<BoardChange, Long> {
+
+    // Trả về (entityType, entityId) đã thay đổi trong khoảng (since, upTo]
+    @Query("""
+                SELECT DISTINCT c.entityType, c.entityId
+                FROM BoardChange c
+                WHERE c.projectId = :projectId
+                  AND c.version > :since
+                  AND c.version <= :upTo
+            """)
+    List<Object[]> findChangedEntities(@Param("projectId") Long projectId,
+            @Param("since") long since, @Param("upTo") long upTo);
+
+    @Query("SELECT MIN(c.version) FROM BoardChange c WHERE c.projectId = :projectId")
+    Optional<Long> findOldestVersion(@Param("projectId") Long projectId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BoardChange c WHERE c.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,12 +1,14 @@
 package com.devcollab.repository;
 
 import com.devcollab.domain.BoardColumn;
+import com.devcollab.dto.BoardColumnDTO;
 
 import io.lettuce.core.dynamic.annotation.Param;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +22,19 @@ public interface BoardColumnRepository extends JpaRepository<BoardColumn, Long>
             """)
     Optional<BoardColumn> findByIdWithProject(@Param("id") Long id);
 
+    @Query("""
+                SELECT new com.devcollab.dto.BoardColumnDTO(c.columnId, c.name, c.orderIndex, c.isDefault)
+                FROM BoardColumn c
+                WHERE c.project.projectId = ?1
+                ORDER BY c.orderIndex ASC
+            """)
+    List<BoardColumnDTO> findDtosByProject(Long projectId);
+
+    @Query("""
+                SELECT new com.devcollab.dto.BoardColumnDTO(c.columnId, c.name, c.orderIndex, c.isDefault)
+                FROM BoardColumn c
+                WHERE c.project.projectId = ?1 AND c.columnId IN ?2
+            """)
+    List<BoardColumnDTO> findDtosByProjectAndIds(Long projectId, Collection<Long> columnIds);
+
 }
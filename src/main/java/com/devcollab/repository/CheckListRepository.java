@@ -1,11 +1,25 @@
 package com.devcollab.repository;
 
 import com.devcollab.domain.CheckList;
+import com.devcollab.dto.BoardChecklistItemDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CheckListRepository extends JpaRepository<CheckList, Long> {
     List<CheckList> findByTask_TaskIdOrderByOrderIndex(Long taskId);
+
+    @Query("""
+                SELECT new com.devcollab.dto.BoardChecklistItemDTO(
+                    c.checklistId, c.task.taskId, c.item, c.isDone, c.orderIndex)
+                FROM CheckList c
+                WHERE c.task.project.projectId = :projectId AND c.task.archived = false
+                  AND c.checklistId IN :ids
+            """)
+    List<BoardChecklistItemDTO> findBoardItemsByIds(@Param("projectId") Long projectId,
+            @Param("ids") Collection<Long> ids);
 }
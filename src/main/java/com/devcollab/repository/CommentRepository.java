@@ -1,18 +1,31 @@
 package com.devcollab.repository;
 
 import com.devcollab.domain.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "user")
     List<Comment> findByTask_TaskIdAndParentIsNullOrderByCreatedAtDesc(Long taskId);
 
+    @EntityGraph(attributePaths = "user")
     List<Comment> findByParent_CommentIdOrderByCreatedAtAsc(Long parentId);
 
     long countByTask_TaskIdAndParentIsNull(Long taskId);
 
     @Query("SELECT c.task.taskId, COUNT(c) FROM Comment c WHERE c.task.taskId IN :taskIds AND c.parent IS NULL GROUP BY c.task.taskId")
     List<Object[]> countByTaskIds(@Param("taskIds") List<Long> taskIds);
-}
\ No newline at end of file
+
+    // Dựng lại search index: (commentId, taskId, projectId, content, task title)
+    @Query("""
+                SELECT c.commentId, t.taskId, t.project.projectId, c.content, t.title
+                FROM Comment c JOIN c.task t
+                WHERE c.commentId > :after
+                ORDER BY c.commentId
+            """)
+    List<Object[]> findSearchRowsAfter(@Param("after") long after, Pageable pageable);
+}
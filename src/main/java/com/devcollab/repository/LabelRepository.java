@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,6 +31,13 @@ public interface LabelRepository extends JpaRepository<Label, Long> {
         List<LabelDTO> findByProjectAndKeyword(@Param("projectId") Long projectId,
                         @Param("keyword") String keyword);
 
+        @Query("SELECT new com.devcollab.dto.LabelDTO(l.labelId, l.name, l.color, "
+                        + "cb.userId, cb.name) "
+                        + "FROM Label l LEFT JOIN l.createdBy cb "
+                        + "WHERE l.project.projectId = :projectId AND l.labelId IN :labelIds")
+        List<LabelDTO> findDtosByProjectAndIds(@Param("projectId") Long projectId,
+                        @Param("labelIds") Collection<Long> labelIds);
+
         boolean existsByProject_ProjectIdAndNameIgnoreCase(Long projectId, String name);
 
         @Modifying
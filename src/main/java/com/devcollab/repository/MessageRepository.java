@@ -1,11 +1,65 @@
 package com.devcollab.repository;
 
 import com.devcollab.domain.Message;
+import com.devcollab.dto.response.MessageResponseDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.devcollab.domain.User;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
+    @EntityGraph(attributePaths = "sender")
     List<Message> findByProject_ProjectIdOrderByCreatedAtAsc(Long projectId);
     List<Message> findAllMessageBySender(User sender);
+
+    // ========== Keyset history (ix_message_project_created) ==========
+
+    @Query("""
+                SELECT new com.devcollab.dto.response.MessageResponseDTO(
+                    m.messageId, s.name, s.email, s.avatarUrl, m.content, m.createdAt)
+                FROM Message m JOIN m.sender s
+                WHERE m.project.projectId = :projectId
+                ORDER BY m.createdAt DESC, m.messageId DESC
+            """)
+    List<MessageResponseDTO> findLatestHistory(@Param("projectId") Long projectId,
+            Pageable pageable);
+
+    @Query("""
+                SELECT new com.devcollab.dto.response.MessageResponseDTO(
+                    m.messageId, s.name, s.email, s.avatarUrl, m.content, m.createdAt)
+                FROM Message m JOIN m.sender s
+                WHERE m.project.projectId = :projectId
+                  AND (m.createdAt < :createdAt
+                       OR (m.createdAt = :createdAt AND m.messageId < :messageId))
+                ORDER BY m.createdAt DESC, m.messageId DESC
+            """)
+    List<MessageResponseDTO> findHistoryBefore(@Param("projectId") Long projectId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("messageId") Long messageId,
+            Pageable pageable);
+
+    @Query("""
+                SELECT new com.devcollab.dto.response.MessageResponseDTO(
+                    m.messageId, s.name, s.email, s.avatarUrl, m.content, m.createdAt)
+                FROM Message m JOIN m.sender s
+                WHERE m.project.projectId = :projectId
+                  AND (m.createdAt > :createdAt
+                       OR (m.createdAt = :createdAt AND m.messageId > :messageId))
+                ORDER BY m.createdAt ASC, m.messageId ASC
+            """)
+    List<MessageResponseDTO> findHistoryAfter(@Param("projectId") Long projectId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("messageId") Long messageId,
+            Pageable pageable);
+
+    // Dựng lại search index: (messageId, projectId, content, sender name)
+    @Query("""
+                SELECT m.messageId, m.project.projectId, m.content, s.name
+                FROM Message m JOIN m.sender s
+                WHERE m.messageId > :after
+                ORDER BY m.messageId
+            """)
+    List<Object[]> findSearchRowsAfter(@Param("after") long after, Pageable pageable);
 }
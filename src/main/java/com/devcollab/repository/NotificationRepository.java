@@ -1,11 +1,17 @@
 package com.devcollab.repository;
 
 import com.devcollab.domain.Notification;
+import com.devcollab.dto.DigestItemDTO;
+import com.devcollab.dto.response.NotificationResponseDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -31,32 +37,145 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
       """)
   List<Notification> findUnreadNotificationsByUserId(@Param("userId") Long userId);
 
+  // status luôn được ghi thường ('unread' | 'read'): so sánh trực tiếp để dùng index
   @Query("""
       SELECT COUNT(n)
       FROM Notification n
       WHERE n.user.userId = :userId
-        AND LOWER(n.status) = 'unread'
+        AND n.status = 'unread'
       """)
   int countUnreadByUserId(@Param("userId") Long userId);
 
+  @Query("""
+      SELECT n.user.userId, COUNT(n)
+      FROM Notification n
+      WHERE n.user.userId IN :userIds
+        AND n.status = 'unread'
+      GROUP BY n.user.userId
+      """)
+  List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
   @Modifying(clearAutomatically = true, flushAutomatically = true)
   @Query("""
       UPDATE Notification n
          SET n.status = 'read',
              n.readAt = CURRENT_TIMESTAMP
-       WHERE LOWER(n.status) = 'unread'
+       WHERE n.status = 'unread'
          AND n.user.userId = :userId
       """)
   int markAllAsReadByUserId(@Param("userId") Long userId);
 
+  // Keyset page theo (user_id, notification_id) cho DigestScheduler
   @Query("""
-          SELECT n FROM Notification n
+          SELECT new com.devcollab.dto.DigestItemDTO(
+              n.notificationId, u.userId, u.email, n.type, n.message, n.link)
+          FROM Notification n
+          JOIN n.user u
           WHERE n.priority = 'MEDIUM'
             AND n.emailed = false
             AND n.status = 'unread'
-            AND n.user.email IS NOT NULL
+            AND u.email IS NOT NULL
+            AND (u.userId > :afterUserId
+                 OR (u.userId = :afterUserId AND n.notificationId > :afterNotificationId))
+          ORDER BY u.userId ASC, n.notificationId ASC
+      """)
+  List<DigestItemDTO> findPendingMediumDigestPage(@Param("afterUserId") Long afterUserId,
+      @Param("afterNotificationId") Long afterNotificationId, Pageable pageable);
+
+  @Transactional
+  @Modifying(clearAutomatically = true, flushAutomatically = true)
+  @Query("UPDATE Notification n SET n.emailed = true WHERE n.notificationId IN :ids")
+  int markEmailedByIds(@Param("ids") Collection<Long> ids);
+
+  // 📥 Inbox keyset (created_at, notification_id) giảm dần; trang đầu dùng cursor "vô cực".
+  // Tách 2 query theo status để lọc status luôn seek được trên ix_notification_inbox.
+  @Query("""
+      SELECT new com.devcollab.dto.response.NotificationResponseDTO(
+          n.notificationId, n.type, n.title, n.message, n.status, n.createdAt,
+          n.referenceId, n.link, s.name, s.avatarUrl)
+      FROM Notification n
+      LEFT JOIN n.sender s
+      WHERE n.user.userId = :userId
+        AND (:type IS NULL OR n.type = :type)
+        AND (:priority IS NULL OR n.priority = :priority)
+        AND (n.createdAt < :cursorAt
+             OR (n.createdAt = :cursorAt AND n.notificationId < :cursorId))
+      ORDER BY n.createdAt DESC, n.notificationId DESC
       """)
-  List<Notification> findPendingMediumNotifications();
+  List<NotificationResponseDTO> findInboxPage(@Param("userId") Long userId,
+      @Param("type") String type, @Param("priority") String priority,
+      @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") Long cursorId,
+      Pageable pageable);
+
+  @Query("""
+      SELECT new com.devcollab.dto.response.NotificationResponseDTO(
+          n.notificationId, n.type, n.title, n.message, n.status, n.createdAt,
+          n.referenceId, n.link, s.name, s.avatarUrl)
+      FROM Notification n
+      LEFT JOIN n.sender s
+      WHERE n.user.userId = :userId
+        AND n.status = :status
+        AND (:type IS NULL OR n.type = :type)
+        AND (:priority IS NULL OR n.priority = :priority)
+        AND (n.createdAt < :cursorAt
+             OR (n.createdAt = :cursorAt AND n.notificationId < :cursorId))
+      ORDER BY n.createdAt DESC, n.notificationId DESC
+      """)
+  List<NotificationResponseDTO> findInboxPageByStatus(@Param("userId") Long userId,
+      @Param("status") String status, @Param("type") String type,
+      @Param("priority") String priority, @Param("cursorAt") LocalDateTime cursorAt,
+      @Param("cursorId") Long cursorId, Pageable pageable);
+
+  @Query("""
+      SELECT COUNT(n) > 0
+      FROM Notification n
+      WHERE n.notificationId = :id
+        AND n.user.email = :email
+      """)
+  boolean isOwnedBy(@Param("id") Long id, @Param("email") String email);
+
+  // 🧹 Retention: id của thông báo đã đọc quá hạn, theo thứ tự id
+  @Query(value = """
+      SELECT TOP (:limit) notification_id
+      FROM [Notification]
+      WHERE status = 'read'
+        AND created_at < :cutoff
+      ORDER BY notification_id
+      """, nativeQuery = true)
+  List<Long> findExpiredReadIds(@Param("cutoff") LocalDateTime cutoff,
+      @Param("limit") int limit);
+
+  @Modifying
+  @Query(value = "DELETE FROM [Notification] WHERE notification_id IN (:ids)",
+      nativeQuery = true)
+  int deleteByIds(@Param("ids") Collection<Long> ids);
+
+  // 🔁 Gộp thông báo: bản unread mới nhất cùng type/reference của từng user trong cửa sổ
+  @Query(value = """
+      SELECT n.user_id, MAX(n.notification_id)
+      FROM [Notification] n
+      WHERE n.user_id IN (:userIds)
+        AND n.status = 'unread'
+        AND n.created_at >= :since
+        AND n.type = :type
+        AND (n.reference_id = :referenceId
+             OR (:referenceId IS NULL AND n.reference_id IS NULL))
+      GROUP BY n.user_id
+      """, nativeQuery = true)
+  List<Object[]> findCoalescible(@Param("userIds") Collection<Long> userIds,
+      @Param("type") String type, @Param("referenceId") Long referenceId,
+      @Param("since") LocalDateTime since);
+
+  @Modifying
+  @Query(value = """
+      UPDATE [Notification]
+         SET title = :title, message = :message, link = :link, sender_id = :senderId,
+             created_at = :createdAt
+       WHERE notification_id IN (:ids)
+      """, nativeQuery = true)
+  int refreshCoalesced(@Param("ids") Collection<Long> ids, @Param("title") String title,
+      @Param("message") String message, @Param("link") String link,
+      @Param("senderId") Long senderId, @Param("createdAt") LocalDateTime createdAt);
 
   @Query(value = """
       SELECT TOP 8
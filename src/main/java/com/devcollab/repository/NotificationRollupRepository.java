@@ -0,0 +1,37 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.NotificationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationRollupRepository extends JpaRepository<NotificationRollup, Long> {
+
+    List<NotificationRollup> findByUserIdOrderByNotificationMonthAsc(Long userId);
+
+    // Cộng dồn theo (user, tháng, type); gọi cùng transaction với deleteByIds
+    @Modifying
+    @Query(value = """
+                MERGE [NotificationRollup] WITH (HOLDLOCK) AS r
+                USING (
+                    SELECT user_id,
+                           YEAR(created_at) * 100 + MONTH(created_at) AS notification_month,
+                           type, COUNT_BIG(*) AS total
+                    FROM [Notification]
+                    WHERE notification_id IN (:ids)
+                    GROUP BY user_id, YEAR(created_at) * 100 + MONTH(created_at), type
+                ) AS s
+                ON r.user_id = s.user_id
+                   AND r.notification_month = s.notification_month
+                   AND r.type = s.type
+                WHEN MATCHED THEN UPDATE SET r.total = r.total + s.total
+                WHEN NOT MATCHED THEN
+                    INSERT (user_id, notification_month, type, total)
+                    VALUES (s.user_id, s.notification_month, s.type, s.total);
+            """, nativeQuery = true)
+    int rollupByIds(@Param("ids") Collection<Long> ids);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,8 +20,10 @@ import java.util.Optional;
 
 public interface ProjectMemberRepository extends JpaRepository<ProjectMember, ProjectMemberId> {
 
+    @EntityGraph(attributePaths = "user")
     List<ProjectMember> findByProject_ProjectId(Long projectId);
 
+    @EntityGraph(attributePaths = "project")
     List<ProjectMember> findByUser_UserId(Long userId);
 
     List<ProjectMember> findByProject_ProjectIdAndUser_UserId(Long projectId, Long userId);
@@ -218,6 +221,13 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Pr
     List<MemberDTO> searchMembersByProject(@Param("projectId") Long projectId,
             @Param("keyword") String keyword);
 
+    @Query("""
+                SELECT pm.user.userId, pm.roleInProject
+                FROM ProjectMember pm
+                WHERE pm.project.projectId = :projectId
+            """)
+    List<Object[]> findMemberRolesByProject(@Param("projectId") Long projectId);
+
     @Query("""
                 SELECT pm.roleInProject
                 FROM ProjectMember pm
@@ -7,9 +7,13 @@ import com.devcollab.dto.ProjectDTO;
 import com.devcollab.dto.userTaskDto.ProjectFilterDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -241,4 +245,40 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
             ORDER BY p.updatedAt DESC
             """)
     List<Project> findTopProjectsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // [projectId, name, description, status, priority, dueDate, coverImage] cho dashboard
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "2000"))
+    @Query("""
+            SELECT p.projectId, p.name, p.description, p.status, p.priority, p.dueDate,
+                   p.coverImage
+            FROM Project p
+            JOIN p.members pm
+            WHERE pm.user.userId = :userId
+              AND p.status IS NOT NULL
+              AND p.status <> 'Archived'
+            ORDER BY p.updatedAt DESC
+            """)
+    List<Object[]> findDashboardCardsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    // Watermark của board: tăng mỗi lần task/cột/label/comment/attachment trong dự án thay đổi
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE [Project]
+            SET board_version = COALESCE(board_version, 0) + 1
+            WHERE project_id = :projectId
+            """, nativeQuery = true)
+    int bumpBoardVersion(@Param("projectId") Long projectId);
+
+    @Query("SELECT COALESCE(p.boardVersion, 0L) FROM Project p WHERE p.projectId = :projectId")
+    Optional<Long> findBoardVersion(@Param("projectId") Long projectId);
+
+    // Dựng lại search index: (projectId, name, description, visibility), keyset theo id
+    @Query("""
+                SELECT p.projectId, p.name, p.description, p.visibility
+                FROM Project p
+                WHERE p.projectId > :after
+                ORDER BY p.projectId
+            """)
+    List<Object[]> findSearchRowsAfter(@Param("after") long after, Pageable pageable);
 }
@@ -1,7 +1,11 @@
 package com.devcollab.repository;
 
 import com.devcollab.domain.ProjectSchedule;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -14,4 +18,16 @@ public interface ProjectScheduleRepository extends JpaRepository<ProjectSchedule
 
     List<ProjectSchedule> findByProject_ProjectIdAndDatetimeBetween(
             Long projectId, Instant start, Instant end);
+
+    // [title, note, datetime] của nhiều project trong một khoảng thời gian, sớm nhất trước
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "2000"))
+    @Query("""
+            SELECT s.title, s.note, s.datetime
+            FROM ProjectSchedule s
+            WHERE s.project.projectId IN :projectIds
+              AND s.datetime BETWEEN :start AND :end
+            ORDER BY s.datetime ASC
+            """)
+    List<Object[]> findDashboardItems(@Param("projectIds") List<Long> projectIds,
+            @Param("start") Instant start, @Param("end") Instant end);
 }
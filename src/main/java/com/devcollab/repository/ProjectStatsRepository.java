@@ -0,0 +1,96 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.ProjectStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ProjectStatsRepository extends JpaRepository<ProjectStats, Long> {
+
+    String SNAPSHOT_SELECT = """
+                SELECT p.project_id, p.created_by, UPPER(p.status),
+                       YEAR(p.updated_at) * 100 + MONTH(p.updated_at),
+                       COUNT(t.task_id),
+                       COUNT(CASE WHEN UPPER(t.status) = 'BACKLOG' THEN 1 END),
+                       COUNT(CASE WHEN UPPER(t.status) = 'OPEN' THEN 1 END),
+                       COUNT(CASE WHEN UPPER(t.status) = 'IN_PROGRESS' THEN 1 END),
+                       COUNT(CASE WHEN UPPER(t.status) = 'REVIEW' THEN 1 END),
+                       COUNT(CASE WHEN UPPER(t.status) = 'DONE' THEN 1 END),
+                       COUNT(CASE WHEN UPPER(t.status) = 'CLOSED' THEN 1 END),
+                       SYSDATETIME()
+                FROM [Project] p
+                LEFT JOIN [Task] t ON t.project_id = p.project_id
+            """;
+
+    String SNAPSHOT_INSERT = """
+                INSERT INTO [ProjectStats] (project_id, created_by, project_status, status_month,
+                    total_tasks, backlog_tasks, open_tasks, in_progress_tasks, review_tasks,
+                    done_tasks, closed_tasks, updated_at)
+            """;
+
+    // Tạo dòng thống kê từ dữ liệu hiện tại nếu chưa có; trả về 1 khi vừa tạo
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = SNAPSHOT_INSERT + SNAPSHOT_SELECT + """
+                WHERE p.project_id = :projectId
+                  AND NOT EXISTS (SELECT 1 FROM [ProjectStats] s WITH (UPDLOCK, HOLDLOCK)
+                                  WHERE s.project_id = p.project_id)
+                GROUP BY p.project_id, p.created_by, p.status, p.updated_at
+            """, nativeQuery = true)
+    int createIfMissing(@Param("projectId") Long projectId);
+
+    @Transactional
+    @Modifying
+    @Query(value = SNAPSHOT_INSERT + SNAPSHOT_SELECT + """
+                WHERE NOT EXISTS (SELECT 1 FROM [ProjectStats] s WITH (UPDLOCK, HOLDLOCK)
+                                  WHERE s.project_id = p.project_id)
+                GROUP BY p.project_id, p.created_by, p.status, p.updated_at
+            """, nativeQuery = true)
+    int createAllMissing();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                UPDATE [ProjectStats]
+                SET total_tasks = total_tasks + :total,
+                    backlog_tasks = backlog_tasks + :backlog,
+                    open_tasks = open_tasks + :open,
+                    in_progress_tasks = in_progress_tasks + :inProgress,
+                    review_tasks = review_tasks + :review,
+                    done_tasks = done_tasks + :done,
+                    closed_tasks = closed_tasks + :closed,
+                    updated_at = SYSDATETIME()
+                WHERE project_id = :projectId
+            """, nativeQuery = true)
+    int applyTaskDelta(@Param("projectId") Long projectId, @Param("total") long total,
+            @Param("backlog") long backlog, @Param("open") long open,
+            @Param("inProgress") long inProgress, @Param("review") long review,
+            @Param("done") long done, @Param("closed") long closed);
+
+    // Khóa dòng tới hết transaction để hai lần đổi trạng thái không trừ cùng một bucket
+    @Query(value = """
+                SELECT project_status, status_month, created_by
+                FROM [ProjectStats] WITH (UPDLOCK, ROWLOCK)
+                WHERE project_id = :projectId
+            """, nativeQuery = true)
+    List<Object[]> lockStatusBucket(@Param("projectId") Long projectId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                UPDATE [ProjectStats]
+                SET project_status = :status, status_month = :month, updated_at = SYSDATETIME()
+                WHERE project_id = :projectId
+            """, nativeQuery = true)
+    int updateStatusBucket(@Param("projectId") Long projectId, @Param("status") String status,
+            @Param("month") int month);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM [ProjectStats] WHERE project_id = :projectId", nativeQuery = true)
+    int deleteByProject(@Param("projectId") Long projectId);
+}
@@ -0,0 +1,87 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.ProjectStatusMonthly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ProjectStatusMonthlyRepository extends JpaRepository<ProjectStatusMonthly, Long> {
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                MERGE [ProjectStatusMonthly] WITH (HOLDLOCK) AS b
+                USING (SELECT :scope AS scope_user_id, :month AS status_month,
+                              :status AS project_status) AS k
+                ON b.scope_user_id = k.scope_user_id AND b.status_month = k.status_month
+                   AND b.project_status = k.project_status
+                WHEN MATCHED THEN UPDATE SET project_count = b.project_count + :delta
+                WHEN NOT MATCHED THEN
+                    INSERT (scope_user_id, status_month, project_status, project_count)
+                    VALUES (k.scope_user_id, k.status_month, k.project_status, :delta);
+            """, nativeQuery = true)
+    int bump(@Param("scope") long scope, @Param("month") int month,
+            @Param("status") String status, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM [ProjectStatusMonthly]", nativeQuery = true)
+    int deleteAllBuckets();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO [ProjectStatusMonthly]
+                    (scope_user_id, status_month, project_status, project_count)
+                SELECT 0, status_month, project_status, COUNT_BIG(*)
+                FROM [ProjectStats]
+                GROUP BY status_month, project_status
+                UNION ALL
+                SELECT created_by, status_month, project_status, COUNT_BIG(*)
+                FROM [ProjectStats]
+                WHERE created_by IS NOT NULL
+                GROUP BY created_by, status_month, project_status
+            """, nativeQuery = true)
+    int rebuildFromStats();
+
+    @Query(value = """
+                SELECT project_status, SUM(project_count)
+                FROM [ProjectStatusMonthly]
+                WHERE scope_user_id = :scope AND status_month >= :fromMonth
+                GROUP BY project_status
+                HAVING SUM(project_count) > 0
+                ORDER BY project_status
+            """, nativeQuery = true)
+    List<Object[]> countByStatusSince(@Param("scope") long scope,
+            @Param("fromMonth") int fromMonth);
+
+    @Query(value = """
+                SELECT project_status, SUM(project_count)
+                FROM [ProjectStatusMonthly]
+                WHERE scope_user_id = (SELECT user_id FROM [User] WHERE email = :email)
+                  AND status_month >= :fromMonth
+                GROUP BY project_status
+                HAVING SUM(project_count) > 0
+                ORDER BY project_status
+            """, nativeQuery = true)
+    List<Object[]> countByStatusSinceForCreator(@Param("email") String email,
+            @Param("fromMonth") int fromMonth);
+
+    // Cùng dạng với ProjectRepository.countCompletedProjectsSince: (tên tháng, số dự án)
+    @Query(value = """
+                SELECT DATENAME(month, DATEFROMPARTS(2000, status_month % 100, 1)),
+                       SUM(project_count)
+                FROM [ProjectStatusMonthly]
+                WHERE scope_user_id = :scope AND project_status = 'COMPLETED'
+                  AND status_month >= :fromMonth
+                GROUP BY status_month % 100
+                HAVING SUM(project_count) > 0
+                ORDER BY status_month % 100
+            """, nativeQuery = true)
+    List<Object[]> countCompletedByMonthSince(@Param("scope") long scope,
+            @Param("fromMonth") int fromMonth);
+}
@@ -0,0 +1,88 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.SprintDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SprintDailyStatsRepository extends JpaRepository<SprintDailyStats, Long> {
+
+    List<SprintDailyStats> findBySprintIdOrderByStatDateAsc(Long sprintId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                MERGE [SprintDailyStats] WITH (HOLDLOCK) AS d
+                USING (SELECT :sprintId AS sprint_id, :day AS stat_date) AS k
+                ON d.sprint_id = k.sprint_id AND d.stat_date = k.stat_date
+                WHEN MATCHED THEN UPDATE SET scope_delta = d.scope_delta + :scopeDelta,
+                                             done_delta = d.done_delta + :doneDelta
+                WHEN NOT MATCHED THEN
+                    INSERT (sprint_id, project_id, stat_date, scope_delta, done_delta)
+                    VALUES (k.sprint_id, :projectId, k.stat_date, :scopeDelta, :doneDelta);
+            """, nativeQuery = true)
+    int bump(@Param("sprintId") Long sprintId, @Param("projectId") Long projectId,
+            @Param("day") LocalDate day, @Param("scopeDelta") long scopeDelta,
+            @Param("doneDelta") long doneDelta);
+
+    /**
+     * Builds the series of a sprint that has none from its current tasks: scope on the later of
+     * sprint start and task creation, completions on the day they closed (not before the start).
+     * Always writes at least the start-day row, so a sprint is only rebuilt once.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO [SprintDailyStats] (sprint_id, project_id, stat_date, scope_delta,
+                                                done_delta)
+                SELECT s.sprint_id, s.project_id, x.stat_date, SUM(x.scope), SUM(x.done)
+                FROM [Sprint] s
+                CROSS APPLY (
+                    SELECT COALESCE(s.start_date, CAST(GETDATE() AS DATE)) AS stat_date,
+                           0 AS scope, 0 AS done
+                    UNION ALL
+                    SELECT CASE WHEN s.start_date IS NULL
+                                  OR CAST(t.created_at AS DATE) > s.start_date
+                                THEN CAST(t.created_at AS DATE) ELSE s.start_date END, 1, 0
+                    FROM [Task] t WHERE t.sprint_id = s.sprint_id
+                    UNION ALL
+                    SELECT CASE WHEN s.start_date IS NULL
+                                  OR CAST(COALESCE(t.closed_at, t.updated_at) AS DATE)
+                                     > s.start_date
+                                THEN CAST(COALESCE(t.closed_at, t.updated_at) AS DATE)
+                                ELSE s.start_date END, 0, 1
+                    FROM [Task] t
+                    WHERE t.sprint_id = s.sprint_id AND UPPER(t.status) IN ('DONE', 'CLOSED')
+                ) x
+                WHERE s.sprint_id = :sprintId
+                  AND NOT EXISTS (SELECT 1 FROM [SprintDailyStats] WITH (UPDLOCK, HOLDLOCK)
+                                  WHERE sprint_id = :sprintId)
+                GROUP BY s.sprint_id, s.project_id, x.stat_date
+            """, nativeQuery = true)
+    int seedIfMissing(@Param("sprintId") Long sprintId);
+
+    /**
+     * Rows of (sprint_id, name, start_date, end_date, completed) for the project's sprints,
+     * oldest first. Completed counts net completions up to the sprint end.
+     */
+    @Query(value = """
+                SELECT s.sprint_id, s.name, s.start_date, s.end_date,
+                       COALESCE(SUM(CASE WHEN s.end_date IS NULL OR d.stat_date <= s.end_date
+                                         THEN d.done_delta ELSE 0 END), 0)
+                FROM [Sprint] s
+                LEFT JOIN [SprintDailyStats] d ON d.sprint_id = s.sprint_id
+                WHERE s.project_id = :projectId
+                GROUP BY s.sprint_id, s.name, s.start_date, s.end_date
+                ORDER BY s.start_date, s.sprint_id
+            """, nativeQuery = true)
+    List<Object[]> sumCompletedByProject(@Param("projectId") Long projectId);
+
+    @Query("SELECT s.sprintId FROM Sprint s WHERE s.project.projectId = :projectId "
+            + "AND NOT EXISTS (SELECT 1 FROM SprintDailyStats d WHERE d.sprintId = s.sprintId)")
+    List<Long> findUnseededSprintIds(@Param("projectId") Long projectId);
+}
@@ -2,8 +2,15 @@ package com.devcollab.repository;
 
 import com.devcollab.domain.Sprint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
 
 public interface SprintRepository extends JpaRepository<Sprint, Long> {
     List<Sprint> findByProject_ProjectId(Long projectId);
+
+    @Query("SELECT s.project.projectId FROM Sprint s WHERE s.sprintId = :sprintId")
+    Optional<Long> findProjectIdBySprintId(@Param("sprintId") Long sprintId);
 }
@@ -0,0 +1,56 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.TaskCompletionMonthly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface TaskCompletionMonthlyRepository
+        extends JpaRepository<TaskCompletionMonthly, Long> {
+
+    List<TaskCompletionMonthly> findByProjectIdAndCompletionMonthBetweenOrderByCompletionMonthAsc(
+            Long projectId, int fromMonth, int toMonth);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                MERGE [TaskCompletionMonthly] WITH (HOLDLOCK) AS b
+                USING (SELECT :projectId AS project_id, :month AS completion_month) AS k
+                ON b.project_id = k.project_id AND b.completion_month = k.completion_month
+                WHEN MATCHED THEN UPDATE SET completed_count = b.completed_count + :delta
+                WHEN NOT MATCHED THEN INSERT (project_id, completion_month, completed_count)
+                    VALUES (k.project_id, k.completion_month, :delta);
+            """, nativeQuery = true)
+    int bump(@Param("projectId") Long projectId, @Param("month") int month,
+            @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM [TaskCompletionMonthly] WHERE project_id = :projectId",
+            nativeQuery = true)
+    int deleteByProject(@Param("projectId") Long projectId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+                INSERT INTO [TaskCompletionMonthly] (project_id, completion_month, completed_count)
+                SELECT project_id,
+                       YEAR(COALESCE(closed_at, updated_at)) * 100
+                           + MONTH(COALESCE(closed_at, updated_at)),
+                       COUNT_BIG(*)
+                FROM [Task]
+                WHERE UPPER(status) = 'DONE' AND (:projectId IS NULL OR project_id = :projectId)
+                GROUP BY project_id, YEAR(COALESCE(closed_at, updated_at)) * 100
+                           + MONTH(COALESCE(closed_at, updated_at))
+            """, nativeQuery = true)
+    int rebuild(@Param("projectId") Long projectId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM [TaskCompletionMonthly]", nativeQuery = true)
+    int deleteAllBuckets();
+}
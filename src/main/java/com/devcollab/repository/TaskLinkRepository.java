@@ -2,8 +2,42 @@ package com.devcollab.repository;
 
 import com.devcollab.domain.TaskLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 public interface TaskLinkRepository extends JpaRepository<TaskLink, Long> {
     List<TaskLink> findByFromTask_TaskId(Long taskId);
+
+    boolean existsByFromTask_TaskIdAndToTask_TaskIdAndLinkType(Long fromTaskId, Long toTaskId,
+            String linkType);
+
+    // [from_task_id, to_task_id] của mọi link BLOCKS trong project
+    @Query("""
+                SELECT l.fromTask.taskId, l.toTask.taskId
+                FROM TaskLink l
+                WHERE l.linkType = 'BLOCKS' AND l.fromTask.project.projectId = :projectId
+            """)
+    List<Object[]> findBlockEdgesByProject(@Param("projectId") Long projectId);
+
+    // [task_id, status, archived, start_date, deadline] của các task có link BLOCKS
+    @Query("""
+                SELECT t.taskId, t.status, t.archived, t.startDate, t.deadline
+                FROM Task t
+                WHERE t.project.projectId = :projectId
+                  AND EXISTS (SELECT 1 FROM TaskLink l WHERE l.linkType = 'BLOCKS'
+                              AND (l.fromTask = t OR l.toTask = t))
+            """)
+    List<Object[]> findBlockNodesByProject(@Param("projectId") Long projectId);
+
+    // Khoá dòng project tới hết transaction: các lần thêm link BLOCKS trong project chạy tuần tự
+    @Query(value = "SELECT project_id FROM dbo.[Project] WITH (UPDLOCK, HOLDLOCK) "
+            + "WHERE project_id = :projectId", nativeQuery = true)
+    Long lockProjectForLinks(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("DELETE FROM TaskLink l WHERE l.fromTask.taskId = :taskId OR l.toTask.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
 }
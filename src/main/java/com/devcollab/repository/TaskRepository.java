@@ -2,20 +2,32 @@ package com.devcollab.repository;
 
 import com.devcollab.domain.Task;
 import com.devcollab.domain.User;
+import com.devcollab.dto.BoardCardDTO;
 import com.devcollab.dto.userTaskDto.TaskCardDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
+    @EntityGraph(Task.GRAPH_REPORT)
     List<Task> findByProject_ProjectId(Long projectId);
 
+    @Query("SELECT t.project.projectId FROM Task t WHERE t.taskId = :taskId")
+    Optional<Long> findProjectIdByTaskId(@Param("taskId") Long taskId);
+
     List<Task> findByAssignee_UserId(Long userId);
 
     List<Task> findByStatus(String status);
@@ -93,6 +105,41 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findTasksDueBetween(@Param("from") LocalDateTime from,
             @Param("to") LocalDateTime to);
 
+    @Query("""
+                SELECT t.taskId, t.deadline, t.lastReminderStage FROM Task t
+                WHERE t.deadline IS NOT NULL
+                  AND t.deadline > :now
+                  AND t.status NOT IN ('DONE', 'CLOSED')
+                  AND t.archived = false
+            """)
+    List<Object[]> findReminderCandidates(@Param("now") LocalDateTime now);
+
+    @Query("""
+                SELECT DISTINCT t FROM Task t
+                JOIN FETCH t.project
+                LEFT JOIN FETCH t.assignee
+                LEFT JOIN FETCH t.createdBy
+                LEFT JOIN FETCH t.followers f
+                LEFT JOIN FETCH f.user
+                WHERE t.taskId = :taskId
+            """)
+    Optional<Task> findByIdForReminder(@Param("taskId") Long taskId);
+
+    // Màn chi tiết task: project, cột, sprint, assignee, người tạo trong cùng một truy vấn
+    @EntityGraph(Task.GRAPH_DETAIL)
+    @Query("SELECT t FROM Task t WHERE t.taskId = :taskId")
+    Optional<Task> findDetailById(@Param("taskId") Long taskId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+                UPDATE Task t
+                SET t.lastRemindAt = :remindAt, t.lastReminderStage = :stage
+                WHERE t.taskId = :taskId
+            """)
+    int markReminderSent(@Param("taskId") Long taskId, @Param("stage") String stage,
+            @Param("remindAt") LocalDateTime remindAt);
+
     @Query("SELECT t FROM Task t WHERE t.assignee = :user ORDER BY t.deadline ASC")
     List<Task> findTasksByAssignee(@Param("user") User user);
 
@@ -109,6 +156,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
             """;
 
     // ----- ORDER BY DEADLINE (NULLS LAST)
+    @EntityGraph(Task.GRAPH_REPORT)
     @Query("""
             SELECT t FROM Task t
             WHERE """ + SCOPE + """
@@ -118,6 +166,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findUserTasksOrderByDeadline(@Param("user") User user, Pageable pageable);
 
     // ----- ORDER BY PRIORITY (HIGH > MEDIUM > LOW)
+    @EntityGraph(Task.GRAPH_REPORT)
     @Query("""
             SELECT t FROM Task t
             WHERE """ + SCOPE + """
@@ -132,6 +181,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findUserTasksOrderByPriority(@Param("user") User user, Pageable pageable);
 
     // ----- ORDER BY PROJECT NAME (NULL LAST)
+    @EntityGraph(Task.GRAPH_REPORT)
     @Query("""
             SELECT t FROM Task t
             LEFT JOIN t.project p
@@ -141,6 +191,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
             """)
     Page<Task> findUserTasksOrderByProject(@Param("user") User user, Pageable pageable);
 
+    @EntityGraph(Task.GRAPH_REPORT)
     @Query("""
             SELECT t FROM Task t
             WHERE (t.assignee = :user OR t.createdBy = :user
@@ -217,15 +268,137 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
             """)
     List<Task> findTopUpcoming(@Param("userId") Long userId, Pageable pageable);
 
+    // [title, status, priority, deadline, project_name]: thẻ "sắp đến hạn" của dashboard
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "2000"))
+    @Query("""
+                SELECT t.title, t.status, t.priority, t.deadline, p.name
+                FROM Task t JOIN t.project p
+                WHERE t.assignee.userId = :userId
+                  AND t.deadline IS NOT NULL
+                  AND t.status <> 'DONE'
+                  AND t.deadline >= CURRENT_TIMESTAMP
+                ORDER BY t.deadline ASC
+            """)
+    List<Object[]> findUpcomingCards(@Param("userId") Long userId, Pageable pageable);
+
+    // Một dòng trên các task user được giao, đã tạo hoặc theo dõi:
+    // [total, open, in_progress, done, done_jan, ..., done_jun] (tháng đóng, mọi năm)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "2000"))
+    @Query(value = """
+                SELECT COUNT_BIG(*),
+                       COALESCE(SUM(CASE WHEN t.status = 'OPEN' THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN t.status = 'DONE' THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN m.closed_month = 1 THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN m.closed_month = 2 THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN m.closed_month = 3 THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN m.closed_month = 4 THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN m.closed_month = 5 THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN m.closed_month = 6 THEN 1 ELSE 0 END), 0)
+                FROM [Task] t
+                CROSS APPLY (SELECT CASE WHEN t.status = 'DONE' THEN MONTH(t.closed_at) END
+                             AS closed_month) m
+                WHERE t.assignee_id = :userId
+                   OR t.created_by = :userId
+                   OR EXISTS (SELECT 1 FROM [TaskFollower] f
+                              WHERE f.task_id = t.task_id AND f.user_id = :userId)
+            """, nativeQuery = true)
+    List<Object[]> countDashboardTasks(@Param("userId") Long userId);
+
+    // [status, count, overdue] trên cùng phạm vi với findAllUserTasks; status NULL → 'UNKNOWN'
+    @Query(value = """
+                SELECT s.status, COUNT_BIG(*),
+                       COALESCE(SUM(CASE WHEN t.deadline < SYSDATETIME()
+                                          AND s.status NOT IN ('DONE', 'CLOSED')
+                                         THEN 1 ELSE 0 END), 0)
+                FROM [Task] t
+                CROSS APPLY (SELECT COALESCE(t.status, 'UNKNOWN') AS status) s
+                WHERE t.assignee_id = :userId
+                   OR t.created_by = :userId
+                   OR EXISTS (SELECT 1 FROM [TaskFollower] f
+                              WHERE f.task_id = t.task_id AND f.user_id = :userId)
+                GROUP BY s.status
+            """, nativeQuery = true)
+    List<Object[]> countUserTasksByStatus(@Param("userId") Long userId);
+
+    // ========== BOARD SNAPSHOT (projection, không hydrate entity) ==========
+
+    @Query("""
+                SELECT new com.devcollab.dto.BoardCardDTO(
+                    t.taskId, t.column.columnId, t.title, t.status, t.priority, t.orderIndex,
+                    t.startDate, t.deadline, cb.userId, cb.name, a.userId, a.name, a.avatarUrl,
+                    (SELECT COUNT(c) FROM Comment c WHERE c.task = t AND c.parent IS NULL),
+                    (SELECT COUNT(att) FROM Attachment att WHERE att.task = t AND att.deletedAt IS NULL))
+                FROM Task t
+                LEFT JOIN t.createdBy cb
+                LEFT JOIN t.assignee a
+                WHERE t.project.projectId = :projectId AND t.archived = false
+                ORDER BY t.column.columnId, t.orderIndex, t.taskId
+            """)
+    List<BoardCardDTO> findBoardCards(@Param("projectId") Long projectId);
+
+    // Cặp (task_id, loại, id, name, avatar): 'L' = label, 'F' = follower
+    @Query(value = """
+                SELECT tl.task_id, 'L', tl.label_id, NULL, NULL
+                FROM [TaskLabel] tl
+                JOIN [Task] t ON t.task_id = tl.task_id
+                WHERE t.project_id = :projectId AND t.archived = 0
+                UNION ALL
+                SELECT tf.task_id, 'F', u.user_id, u.name, u.avatar_url
+                FROM [TaskFollower] tf
+                JOIN [Task] t ON t.task_id = tf.task_id
+                JOIN [User] u ON u.user_id = tf.user_id
+                WHERE t.project_id = :projectId AND t.archived = 0
+            """, nativeQuery = true)
+    List<Object[]> findBoardCardRelations(@Param("projectId") Long projectId);
+
+    @Query("""
+                SELECT new com.devcollab.dto.BoardCardDTO(
+                    t.taskId, t.column.columnId, t.title, t.status, t.priority, t.orderIndex,
+                    t.startDate, t.deadline, cb.userId, cb.name, a.userId, a.name, a.avatarUrl,
+                    (SELECT COUNT(c) FROM Comment c WHERE c.task = t AND c.parent IS NULL),
+                    (SELECT COUNT(att) FROM Attachment att WHERE att.task = t AND att.deletedAt IS NULL))
+                FROM Task t
+                LEFT JOIN t.createdBy cb
+                LEFT JOIN t.assignee a
+                WHERE t.project.projectId = :projectId AND t.archived = false
+                  AND t.taskId IN :taskIds
+            """)
+    List<BoardCardDTO> findBoardCardsByIds(@Param("projectId") Long projectId,
+            @Param("taskIds") Collection<Long> taskIds);
+
+    @Query(value = """
+                SELECT tl.task_id, 'L', tl.label_id, NULL, NULL
+                FROM [TaskLabel] tl
+                WHERE tl.task_id IN (:taskIds)
+                UNION ALL
+                SELECT tf.task_id, 'F', u.user_id, u.name, u.avatar_url
+                FROM [TaskFollower] tf
+                JOIN [User] u ON u.user_id = tf.user_id
+                WHERE tf.task_id IN (:taskIds)
+            """, nativeQuery = true)
+    List<Object[]> findBoardCardRelationsByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @EntityGraph(Task.GRAPH_BOARD)
     Page<Task> findByProject_ProjectId(Long projectId, Pageable pageable);
 
+    @EntityGraph(Task.GRAPH_BOARD)
     Page<Task> findByProject_ProjectIdAndStatus(Long projectId, String status, Pageable pageable);
 
+    @EntityGraph(Task.GRAPH_BOARD)
     Page<Task> findByProject_ProjectIdAndTitleContainingIgnoreCase(Long projectId, String title,
             Pageable pageable);
 
+    @EntityGraph(Task.GRAPH_BOARD)
     Page<Task> findByProject_ProjectIdAndStatusAndTitleContainingIgnoreCase(Long projectId,
             String status, String title, Pageable pageable);
 
+    // Dựng lại search index: (taskId, projectId, title, descriptionMd), keyset theo id
+    @Query("""
+                SELECT t.taskId, t.project.projectId, t.title, t.descriptionMd
+                FROM Task t
+                WHERE t.taskId > :after
+                ORDER BY t.taskId
+            """)
+    List<Object[]> findSearchRowsAfter(@Param("after") long after, Pageable pageable);
 }
-
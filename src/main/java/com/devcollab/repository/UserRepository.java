@@ -1,6 +1,7 @@
 package com.devcollab.repository;
 
 import com.devcollab.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +14,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.userId FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // (userId, name, email, avatarUrl) cho chat, không hydrate User
+    @Query("SELECT u.userId, u.name, u.email, u.avatarUrl FROM User u WHERE u.email = :email")
+    List<Object[]> findChatSenderByEmail(@Param("email") String email);
+
+    // Prefix LIKE dùng được ix_user_name (collation không phân biệt hoa thường)
+    @Query("SELECT u.userId FROM User u WHERE u.name LIKE CONCAT(:prefix, '%') ORDER BY u.name")
+    List<Long> findIdsByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
+
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
     Optional<User> findByEmailWithRoles(@Param("email") String email);
 
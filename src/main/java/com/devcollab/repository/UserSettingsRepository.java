@@ -3,9 +3,17 @@ package com.devcollab.repository;
 import com.devcollab.domain.User;
 import com.devcollab.domain.UserSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserSettingsRepository extends JpaRepository<UserSettings, Long> {
     Optional<UserSettings> findByUser(User user);
+
+    // Nạp settings cho cả danh sách người nhận trong một query (fan-out thông báo)
+    @Query("SELECT s FROM UserSettings s WHERE s.user.userId IN :userIds")
+    List<UserSettings> findByUserIds(@Param("userIds") Collection<Long> userIds);
 }
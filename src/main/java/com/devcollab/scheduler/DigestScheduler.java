@@ -1,73 +1,108 @@
 package com.devcollab.scheduler;
 
-import com.devcollab.domain.Notification;
+import com.devcollab.dto.DigestItemDTO;
 import com.devcollab.repository.NotificationRepository;
 import com.devcollab.service.system.MailService;
+import com.devcollab.service.system.MailTemplateRenderer.DigestEntry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Gửi email tổng hợp cho các thông báo MEDIUM.
+ *
+ * Thông báo được đọc theo từng trang keyset (user_id, notification_id) nên bộ nhớ không phụ thuộc
+ * tổng số bản ghi. Mỗi digest được dựng dần khi đi qua các trang và được đánh dấu {@code emailed}
+ * ngay sau khi gửi cho user đó, nên một lần chạy bị lỗi giữa chừng sẽ tiếp tục ở lần chạy sau.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DigestScheduler {
 
+    private static final int PAGE_SIZE = 500;
+    // SQL Server giới hạn 2100 tham số / câu lệnh
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+    private static final int MAX_ITEMS_PER_DIGEST = 50;
+
     private final NotificationRepository notificationRepository;
     private final MailService mailService;
 
     @Scheduled(cron = "0 0 */2 * * *", zone = "Asia/Ho_Chi_Minh")
-    @Transactional
     public void sendDigestEmails() {
         log.info("⏰ [DigestScheduler] Bắt đầu chạy gửi email tổng hợp (MEDIUM priority)...");
 
-        List<Notification> pending = notificationRepository.findPendingMediumNotifications();
-        if (pending == null || pending.isEmpty()) {
+        Pageable page = PageRequest.of(0, PAGE_SIZE);
+        long afterUserId = 0L;
+        long afterNotificationId = 0L;
+
+        UserDigest current = null;
+        int totalUsers = 0;
+        int totalNotis = 0;
+
+        while (true) {
+            List<DigestItemDTO> rows = notificationRepository
+                    .findPendingMediumDigestPage(afterUserId, afterNotificationId, page);
+            if (rows.isEmpty())
+                break;
+
+            for (DigestItemDTO row : rows) {
+                if (current != null && !current.userId.equals(row.userId())) {
+                    totalNotis += flush(current);
+                    totalUsers++;
+                    current = null;
+                }
+                if (current == null)
+                    current = new UserDigest(row.userId(), row.email().trim());
+                current.add(row);
+            }
+
+            DigestItemDTO last = rows.get(rows.size() - 1);
+            afterUserId = last.userId();
+            afterNotificationId = last.notificationId();
+
+            if (rows.size() < PAGE_SIZE)
+                break;
+        }
+
+        if (current != null) {
+            totalNotis += flush(current);
+            totalUsers++;
+        }
+
+        if (totalUsers == 0) {
             log.info("💤 [DigestScheduler] Không có thông báo MEDIUM nào cần gửi mail.");
             return;
         }
 
-        Map<String, List<Notification>> grouped = pending.stream()
-                .filter(n -> n.getUser() != null && n.getUser().getEmail() != null)
-                .collect(Collectors.groupingBy(n -> n.getUser().getEmail().trim()));
-
-        int totalUsers = grouped.size();
-        int totalNotis = pending.size();
-        log.info("📦 [DigestScheduler] Chuẩn bị gửi digest cho {} người dùng ({} thông báo)...",
+        log.info("📨 [DigestScheduler] Hoàn tất gửi digest cho {} người dùng ({} thông báo).",
                 totalUsers, totalNotis);
+    }
+
+    private int flush(UserDigest digest) {
+        try {
+            mailService.sendDigestMail(digest.email, digest.ids.size() + " thông báo mới",
+                    digest.items, "DevCollab Digest");
 
-        grouped.forEach((email, notifs) -> {
-            try {
-                // 🔹 Tạo danh sách notification cho template
-                List<Map<String, String>> digestList = notifs.stream()
-                        .map(n -> Map.of(
-                                "icon", mapIcon(n.getType()),
-                                "message", Optional.ofNullable(n.getMessage()).orElse("(Không có nội dung)"),
-                                "link", "https://devcollab.app" + (n.getLink() != null ? n.getLink() : "#")))
-                        .toList();
-
-                // 🔹 Gửi email digest HTML
-                mailService.sendDigestMail(
-                        email,
-                        notifs.size() + " thông báo mới",
-                        digestList,
-                        "DevCollab Digest");
-
-                // Đánh dấu đã gửi
-                notifs.forEach(n -> n.setEmailed(true));
-
-                log.info("✅ [DigestScheduler] Gửi digest thành công cho {} ({} mục)", email, notifs.size());
-            } catch (Exception e) {
-                log.error("❌ [DigestScheduler] Lỗi khi gửi digest cho {}: {}", email, e.getMessage());
+            // Đánh dấu đã gửi theo từng chunk
+            for (int i = 0; i < digest.ids.size(); i += UPDATE_CHUNK_SIZE) {
+                notificationRepository.markEmailedByIds(
+                        digest.ids.subList(i, Math.min(i + UPDATE_CHUNK_SIZE, digest.ids.size())));
             }
-        });
 
-        notificationRepository.saveAll(pending);
-        log.info("📨 [DigestScheduler] Hoàn tất gửi digest cho {} người dùng.", totalUsers);
+            log.info("✅ [DigestScheduler] Gửi digest thành công cho {} ({} mục)", digest.email,
+                    digest.ids.size());
+            return digest.ids.size();
+        } catch (Exception e) {
+            log.error("❌ [DigestScheduler] Lỗi khi gửi digest cho {}: {}", digest.email,
+                    e.getMessage());
+            return 0;
+        }
     }
 
     private String mapIcon(String type) {
@@ -82,4 +117,25 @@ public class DigestScheduler {
             default -> "📬";
         };
     }
+
+    private final class UserDigest {
+        private final Long userId;
+        private final String email;
+        private final List<Long> ids = new ArrayList<>();
+        private final List<DigestEntry> items = new ArrayList<>();
+
+        private UserDigest(Long userId, String email) {
+            this.userId = userId;
+            this.email = email;
+        }
+
+        private void add(DigestItemDTO row) {
+            ids.add(row.notificationId());
+            if (items.size() < MAX_ITEMS_PER_DIGEST) {
+                items.add(new DigestEntry(mapIcon(row.type()),
+                        Optional.ofNullable(row.message()).orElse("(Không có nội dung)"),
+                        "https://devcollab.app" + (row.link() != null ? row.link() : "#")));
+            }
+        }
+    }
 }
@@ -26,10 +26,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserServiceImpl userService;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserServiceImpl userService) {
+    public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserServiceImpl userService,
+            PrincipalCache principalCache) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -57,17 +60,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            String email = jwtService.extractEmail(jwt);
+            // parseClaims đã verify chữ ký + hạn dùng, không cần isValid() parse lại
+            String email = jwtService.parseClaims(jwt).getSubject();
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.isValid(jwt)) {
-                    UserDetails userDetails = userService.loadUserByUsername(email);
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-                            null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                    HttpSession session = request.getSession(true);
+                UserDetails userDetails = principalCache.get(email);
+                if (userDetails == null) {
+                    userDetails = userService.loadUserByUsername(email);
+                    principalCache.put(email, userDetails);
+                }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
+                        null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                // Không tạo session mới cho mỗi request API, chỉ cập nhật nếu đã có
+                HttpSession session = request.getSession(false);
+                if (session != null) {
                     session.setAttribute("userEmail", email);
                     session.setAttribute("roles", userDetails.getAuthorities());
                 }
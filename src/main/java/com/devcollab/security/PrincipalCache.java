@@ -0,0 +1,149 @@
+package com.devcollab.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded, TTL-evicted cache of authenticated principals keyed by email.
+ *
+ * Lets {@link JwtAuthenticationFilter} skip {@code findByEmailFetchRoles} on every request.
+ * Entries must be evicted whenever a user's roles or status change (see {@code UserRoleServiceImpl},
+ * {@code UserReportServiceImpl.banUser}, {@code UserServiceImpl.updateStatus}). Evictions are
+ * broadcast on a Redis channel so every node drops the entry, and repeated after the surrounding
+ * transaction commits so a request racing the write cannot re-cache the old roles.
+ */
+@Slf4j
+@Component
+public class PrincipalCache implements MessageListener {
+
+    static final String CHANNEL = "devcollab:principal-cache";
+    private static final String ALL = "*";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public PrincipalCache(RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlMillis = ttlSeconds * 1000;
+        // access-order LRU, bị cắt khi vượt maxSize
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public UserDetails get(String email) {
+        if (email == null)
+            return null;
+        String key = normalize(email);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null)
+                return null;
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.userDetails();
+        }
+    }
+
+    public void put(String email, UserDetails userDetails) {
+        if (email == null || userDetails == null)
+            return;
+        synchronized (entries) {
+            entries.put(normalize(email),
+                    new Entry(userDetails, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    public void evict(String email) {
+        if (email != null)
+            evictEverywhere(normalize(email));
+    }
+
+    public void clear() {
+        evictEverywhere(ALL);
+    }
+
+    private void evictEverywhere(String key) {
+        evictLocal(key);
+        publish(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            evictLocal(key);
+                            publish(key);
+                        }
+                    });
+        }
+    }
+
+    private void publish(String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, key);
+        } catch (Exception e) {
+            log.warn("⚠️ [PrincipalCache] Không gửi được invalidation qua Redis: {}",
+                    e.getMessage());
+        }
+    }
+
+    private void evictLocal(String key) {
+        synchronized (entries) {
+            if (ALL.equals(key)) {
+                entries.clear();
+            } else {
+                entries.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object key = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (key != null)
+                evictLocal(String.valueOf(key));
+        } catch (Exception e) {
+            log.warn("⚠️ [PrincipalCache] Invalidation không hợp lệ: {}", e.getMessage());
+            evictLocal(ALL);
+        }
+    }
+
+    private String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
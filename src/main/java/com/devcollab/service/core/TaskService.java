@@ -4,6 +4,7 @@ import com.devcollab.domain.Task;
 import com.devcollab.domain.User;
 import com.devcollab.dto.*;
 import com.devcollab.dto.request.MoveTaskRequest;
+import com.devcollab.dto.response.TaskLinkDTO;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -31,6 +32,10 @@ public interface TaskService {
 
     List<TaskDTO> getTasksByProject(Long projectId);
 
+    BoardSnapshotDTO getBoardSnapshot(Long projectId);
+
+    BoardDeltaDTO getBoardChanges(Long projectId, long sinceVersion);
+
     List<Task> getTasksByAssignee(Long userId);
 
     List<Task> getTasksByProjectAndMember(Long projectId, String email);
@@ -53,6 +58,10 @@ public interface TaskService {
 
     void removeDeadline(Long taskId, User actor);
 
+    TaskLinkDTO addLink(Long fromTaskId, Long toTaskId, String linkType, User actor);
+
+    void removeLink(Long taskId, Long linkId, User actor);
+
     List<Task> getTasksByAssignee(User user);
 
     List<Task> getTasksCreatedBy(User user);
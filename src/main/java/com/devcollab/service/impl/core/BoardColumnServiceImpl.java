@@ -3,6 +3,7 @@ package com.devcollab.service.impl.core;
 import com.devcollab.domain.BoardColumn;
 import com.devcollab.repository.BoardColumnRepository;
 import com.devcollab.service.core.BoardColumnService;
+import com.devcollab.service.system.BoardVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +14,7 @@ import java.util.List;
 public class BoardColumnServiceImpl implements BoardColumnService {
 
     private final BoardColumnRepository boardColumnRepository;
+    private final BoardVersionService boardVersionService;
 
     @Override
     public List<BoardColumn> getColumnsByProject(Long projectId) {
@@ -26,11 +28,21 @@ public class BoardColumnServiceImpl implements BoardColumnService {
 
     @Override
     public BoardColumn save(BoardColumn column) {
-        return boardColumnRepository.save(column);
+        BoardColumn saved = boardColumnRepository.save(column);
+        touchBoard(saved);
+        return saved;
     }
 
     @Override
     public void delete(Long columnId) {
+        BoardColumn column = boardColumnRepository.findById(columnId).orElse(null);
         boardColumnRepository.deleteById(columnId);
+        touchBoard(column);
+    }
+
+    private void touchBoard(BoardColumn column) {
+        if (column != null && column.getProject() != null)
+            boardVersionService.touch(column.getProject().getProjectId(),
+                    BoardVersionService.COLUMN, column.getColumnId());
     }
 }
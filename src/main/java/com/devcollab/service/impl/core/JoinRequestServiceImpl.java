@@ -8,6 +8,7 @@ import com.devcollab.repository.ProjectMemberRepository;
 import com.devcollab.service.core.JoinRequestService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.ProjectMembershipCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class JoinRequestServiceImpl implements JoinRequestService {
     private final ProjectMemberRepository projectMemberRepo;
     private final NotificationService notificationService;
     private final ActivityService activityService;
+    private final ProjectMembershipCache membershipCache;
 
     // ============================================================
     // 📨 CREATE JOIN REQUEST
@@ -85,6 +87,7 @@ public class JoinRequestServiceImpl implements JoinRequestService {
         member.setRoleInProject("Member");
         member.setJoinedAt(LocalDateTime.now());
         projectMemberRepo.save(member);
+        membershipCache.evictProject(project.getProjectId());
 
         req.setStatus("APPROVED");
         req.setReviewedAt(LocalDateTime.now());
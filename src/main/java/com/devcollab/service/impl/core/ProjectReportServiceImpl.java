@@ -1,18 +1,18 @@
 package com.devcollab.service.impl.core;
 
-import com.devcollab.domain.Notification;
 import com.devcollab.domain.Project;
 import com.devcollab.domain.ProjectReport;
 import com.devcollab.domain.User;
 import com.devcollab.dto.ProjectReportDto;
 import com.devcollab.dto.request.ReportRequestDTO;
 import com.devcollab.exception.NotFoundException;
-import com.devcollab.repository.NotificationRepository;
 import com.devcollab.repository.ProjectReportRepository;
 import com.devcollab.repository.ProjectRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.core.ProjectReportService;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.NotificationFanoutService;
+import com.devcollab.service.system.ProjectStatsService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
@@ -34,8 +34,9 @@ public class ProjectReportServiceImpl implements ProjectReportService {
         private final ProjectReportRepository reportRepo;
         private final ProjectRepository projectRepo;
         private final UserRepository userRepo;
-        private final NotificationRepository notificationRepo;
         private final ActivityService activityService;
+        private final ProjectStatsService projectStatsService;
+        private final NotificationFanoutService notificationFanoutService;
 
         /** ✅ Create new project report */
         @Override
@@ -128,17 +129,12 @@ public class ProjectReportServiceImpl implements ProjectReportService {
                 // Send notification
                 List<ProjectMember> members = projectMemberRepository.findByProject_ProjectId(project.getProjectId());
 
-                for (ProjectMember pm : members) {
-                        Notification n = new Notification();
-                        n.setUser(pm.getUser());
-                        n.setType("WARNING");
-                        n.setReferenceId(id);
-                        n.setMessage("⚠️ Warning: Project \"" + project.getName() + "\" has received a warning. " + (message != null ? message : "Please review the project report."));
-                        n.setStatus("unread");
-                        n.setCreatedAt(java.time.LocalDateTime.now());
-                        n.setLink("/view/project-report/" + id);
-                        notificationRepo.save(n);
-                }
+                String text = "⚠️ Warning: Project \"" + project.getName()
+                                + "\" has received a warning. "
+                                + (message != null ? message : "Please review the project report.");
+                notificationFanoutService.publish(new NotificationFanoutService.Event("WARNING", id,
+                                null, text, "/view/project-report/" + id, null),
+                                members.stream().map(ProjectMember::getUser).toList());
 
                 // Log action
                 activityService.logWithActor(admin.getUserId(), "ProjectReport", id, "warn",
@@ -158,6 +154,7 @@ public class ProjectReportServiceImpl implements ProjectReportService {
                 // Mark project as removed/archived
                 project.setStatus("Archived");
                 projectRepo.save(project);
+                projectStatsService.projectStatusChanged(project);
 
                 // Update report info
                 report.setStatus("reviewed");
@@ -168,17 +165,12 @@ public class ProjectReportServiceImpl implements ProjectReportService {
                 // Send notification
                 List<ProjectMember> members = projectMemberRepository.findByProject_ProjectId(project.getProjectId());
 
-                for (ProjectMember pm : members) {
-                        Notification n = new Notification();
-                        n.setUser(pm.getUser());
-                        n.setType("BAN");
-                        n.setReferenceId(project.getProjectId());
-                        n.setMessage("🚫 Project \"" + project.getName() + "\" has been removed due to violations.");
-                        n.setStatus("unread");
-                        n.setCreatedAt(java.time.LocalDateTime.now());
-                        n.setLink("/view/project-report/" + id);
-                        notificationRepo.save(n);
-                }
+                notificationFanoutService.publish(new NotificationFanoutService.Event("BAN",
+                                project.getProjectId(), null,
+                                "🚫 Project \"" + project.getName()
+                                                + "\" has been removed due to violations.",
+                                "/view/project-report/" + id, null),
+                                members.stream().map(ProjectMember::getUser).toList());
 
                 // Log admin action
                 activityService.logWithActor(admin.getUserId(), "ProjectReport", id, "ban",
@@ -11,12 +11,16 @@ import com.devcollab.dto.userTaskDto.ProjectFilterDTO;
 import com.devcollab.exception.BadRequestException;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.*;
+import com.devcollab.security.PrincipalCache;
 import com.devcollab.service.core.JoinRequestService;
 import com.devcollab.service.core.ProjectService;
 import com.devcollab.service.event.AppEventService;
 import com.devcollab.service.system.ActivityService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.ProjectMembershipCache;
+import com.devcollab.service.system.ProjectStatsService;
+import com.devcollab.service.system.SearchIndexService;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +37,7 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.springframework.data.domain.Pageable;
 
 @Slf4j
@@ -52,6 +57,13 @@ public class ProjectServiceImpl implements ProjectService {
     private final ActivityService activityService;
     private final NotificationService notificationService;
     private final JoinRequestService joinRequestService;
+    private final PrincipalCache principalCache;
+    private final ProjectMembershipCache membershipCache;
+    private final SearchIndexService searchIndexService;
+    private final ProjectStatsService projectStatsService;
+
+    // Giữ dưới giới hạn 2100 tham số của SQL Server cho IN (:ids)
+    private static final int FETCH_CHUNK = 1000;
 
     @Override
     public Project createProject(Project project, Long creatorId) {
@@ -117,6 +129,8 @@ public class ProjectServiceImpl implements ProjectService {
         saved.setAllowLinkJoin(false);
 
         saved = projectRepository.save(saved);
+        searchIndexService.indexProject(saved);
+        projectStatsService.projectCreated(saved);
 
 
         ProjectMember pm = new ProjectMember();
@@ -125,6 +139,7 @@ public class ProjectServiceImpl implements ProjectService {
         pm.setRoleInProject("PM");
         pm.setJoinedAt(LocalDateTime.now());
         projectMemberRepository.save(pm);
+        membershipCache.evictProject(saved.getProjectId());
 
         Role pmRole = roleRepository.findByName("ROLE_PM")
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy ROLE_PM trong hệ thống"));
@@ -135,6 +150,7 @@ public class ProjectServiceImpl implements ProjectService {
         if (!hasPmRole) {
             creator.getRoles().add(pmRole);
             userRepository.save(creator);
+            principalCache.evict(creator.getEmail());
         }
 
         String[] defaultCols = {"Backlog", "To-do", "In Progress", "Review", "Done"};
@@ -189,6 +205,8 @@ public class ProjectServiceImpl implements ProjectService {
         if (patch.getPriority() != null)
             existing.setPriority(patch.getPriority());
         // ✅ Cập nhật status
+        boolean statusChanged = patch.getStatus() != null && !patch.getStatus().isEmpty()
+                && !patch.getStatus().equalsIgnoreCase(existing.getStatus());
         if (patch.getStatus() != null && !patch.getStatus().isEmpty())
             existing.setStatus(patch.getStatus());
         if (patch.getVisibility() != null)
@@ -207,6 +225,9 @@ public class ProjectServiceImpl implements ProjectService {
         existing.setUpdatedAt(LocalDateTime.now());
 
         Project saved = projectRepository.save(existing);
+        searchIndexService.indexProject(saved);
+        if (statusChanged)
+            projectStatsService.projectStatusChanged(saved);
 
         activityService.log("PROJECT", saved.getProjectId(), "UPDATE", saved.getName());
         return saved;
@@ -246,6 +267,7 @@ public class ProjectServiceImpl implements ProjectService {
         pm.setRoleInProject(role != null ? role : "Member");
         pm.setJoinedAt(LocalDateTime.now());
         ProjectMember saved = projectMemberRepository.save(pm);
+        membershipCache.evictProject(projectId);
 
         activityService.log("PROJECT", projectId, "ADD_MEMBER", user.getEmail());
         appEventService.publishMemberAdded(project, user);
@@ -266,6 +288,7 @@ public class ProjectServiceImpl implements ProjectService {
         }
 
         projectMemberRepository.delete(target);
+        membershipCache.evictProject(projectId);
         activityService.log("PROJECT", projectId, "REMOVE_MEMBER", target.getUser().getEmail());
     }
 
@@ -279,6 +302,7 @@ public class ProjectServiceImpl implements ProjectService {
             project.setArchivedAt(LocalDateTime.now());
             project.setUpdatedAt(LocalDateTime.now());
             project = projectRepository.save(project);
+            projectStatsService.projectStatusChanged(project);
 
             activityService.log("PROJECT", projectId, "ARCHIVE", project.getName());
             notificationService.notifyProjectArchived(project);
@@ -291,7 +315,10 @@ public class ProjectServiceImpl implements ProjectService {
         if (!projectRepository.existsById(projectId)) {
             throw new NotFoundException("Dự án không tồn tại");
         }
+        projectStatsService.projectDeleted(projectId);
         projectRepository.deleteById(projectId);
+        membershipCache.evictProject(projectId);
+        searchIndexService.removeProject(projectId);
         activityService.log("PROJECT", projectId, "DELETE", "Hard delete");
     }
 
@@ -308,12 +335,13 @@ public class ProjectServiceImpl implements ProjectService {
 
         authz.ensurePmOfProject(pmEmail, projectId);
 
-        long total = taskRepository.countByProject_ProjectId(projectId);
-        long open = taskRepository.countByProject_ProjectIdAndStatus(projectId, "OPEN");
-        long inProgress =
-                taskRepository.countByProject_ProjectIdAndStatus(projectId, "IN_PROGRESS");
-        long review = taskRepository.countByProject_ProjectIdAndStatus(projectId, "REVIEW");
-        long done = taskRepository.countByProject_ProjectIdAndStatus(projectId, "DONE");
+        // Bộ đếm dựng sẵn: 1 dòng thay cho 5 lần COUNT; quá hạn phụ thuộc thời điểm nên vẫn đếm
+        ProjectStats stats = projectStatsService.getProjectStats(projectId);
+        long total = stats.getTotalTasks();
+        long open = stats.getOpenTasks();
+        long inProgress = stats.getInProgressTasks();
+        long review = stats.getReviewTasks();
+        long done = stats.getDoneTasks();
         long overdue = taskRepository.countOverdue(projectId, LocalDateTime.now());
 
         BigDecimal percentDone = total == 0 ? BigDecimal.ZERO
@@ -520,6 +548,7 @@ public class ProjectServiceImpl implements ProjectService {
         newMember.setRoleInProject("Member");
         newMember.setJoinedAt(LocalDateTime.now());
         projectMemberRepository.save(newMember);
+        membershipCache.evictProject(project.getProjectId());
 
         project.setInviteUsageCount(project.getInviteUsageCount() + 1);
         project.setUpdatedAt(LocalDateTime.now());
@@ -544,9 +573,22 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     @Transactional(readOnly = true)
     public List<ProjectSearchResponseDTO> searchProjectsByKeyword(String keyword) {
-        List<Project> projects = projectRepository
-                .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(keyword, keyword);
-        return projects.stream().map(ProjectSearchResponseDTO::new).toList();
+        // Index chưa sẵn sàng (mới khởi động, chưa có snapshot) thì quay về LIKE
+        if (!searchIndexService.isReady()) {
+            List<Project> projects = projectRepository
+                    .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(keyword,
+                            keyword);
+            return projects.stream().map(ProjectSearchResponseDTO::new).toList();
+        }
+
+        // Trả về mọi kết quả như bản LIKE, không cắt theo trang
+        List<Long> ids = searchIndexService.searchProjectIds(keyword);
+        Map<Long, Project> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += FETCH_CHUNK)
+            projectRepository.findAllById(ids.subList(from, Math.min(from + FETCH_CHUNK,
+                    ids.size()))).forEach(p -> byId.put(p.getProjectId(), p));
+        return ids.stream().map(byId::get).filter(Objects::nonNull)
+                .map(ProjectSearchResponseDTO::new).toList();
     }
 
     @Transactional(readOnly = true)
@@ -11,8 +11,10 @@ import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.core.TaskFollowerService;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.UserDashboardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -31,6 +33,8 @@ public class    TaskFollowerServiceImpl implements TaskFollowerService {
     private final UserRepository userRepo;
     private final NotificationService notificationService;
     private final ActivityService activityService;
+    private final BoardVersionService boardVersionService;
+    private final UserDashboardService userDashboardService;
 
     @Override
     @Transactional(readOnly = true)
@@ -66,6 +70,8 @@ public class    TaskFollowerServiceImpl implements TaskFollowerService {
                 .orElseThrow(() -> new NotFoundException(" User không tồn tại"));
 
         followerRepo.saveAndFlush(new TaskFollower(task, addedUser));
+        boardVersionService.touch(projectId, BoardVersionService.TASK, taskId);
+        userDashboardService.invalidateUser(userId);
         log.info(" Đã gán user {} ({}) vào task {}", userId, addedUser.getName(), taskId);
 
         activityService.log("TASK", taskId, "ADD_MEMBER",
@@ -114,6 +120,8 @@ public class    TaskFollowerServiceImpl implements TaskFollowerService {
                 .orElseThrow(() -> new NotFoundException(" User không tồn tại"));
 
         followerRepo.deleteByTaskAndUser(taskId, userId);
+        boardVersionService.touch(projectId, BoardVersionService.TASK, taskId);
+        userDashboardService.invalidateUser(userId);
         log.info(" Đã bỏ gán user {} ({}) khỏi task {}", userId, removedUser.getName(), taskId);
 
 
@@ -4,6 +4,7 @@ import com.devcollab.config.SpringContext;
 import com.devcollab.domain.*;
 import com.devcollab.dto.*;
 import com.devcollab.dto.request.MoveTaskRequest;
+import com.devcollab.dto.response.TaskLinkDTO;
 import com.devcollab.exception.BadRequestException;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.*;
@@ -12,8 +13,16 @@ import com.devcollab.service.core.TaskService;
 import com.devcollab.service.feature.AttachmentService;
 import com.devcollab.service.feature.CommentService;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
+import com.devcollab.service.system.NotificationFanoutService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.ProjectStatsService;
+import com.devcollab.service.system.SearchIndexService;
+import com.devcollab.service.system.SprintAnalyticsService;
+import com.devcollab.service.system.TaskDeadlineReminderJob;
+import com.devcollab.service.system.TaskDependencyService;
+import com.devcollab.service.system.UserDashboardService;
 import lombok.RequiredArgsConstructor;
 
 import org.hibernate.Hibernate;
@@ -24,6 +33,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -50,6 +60,20 @@ public class TaskServiceImpl implements TaskService {
     private final AttachmentService attachmentService;
     private final com.devcollab.repository.CommentRepository commentRepository;
     private final com.devcollab.repository.AttachmentRepository attachmentRepository;
+    private final TaskDeadlineReminderJob deadlineReminderJob;
+    private final LabelRepository labelRepository;
+    private final CheckListRepository checkListRepository;
+    private final BoardVersionService boardVersionService;
+    private final SearchIndexService searchIndexService;
+    private final ProjectStatsService projectStatsService;
+    private final NotificationFanoutService notificationFanoutService;
+    private final TaskLinkRepository taskLinkRepository;
+    private final TaskDependencyService taskDependencyService;
+    private final SprintAnalyticsService sprintAnalyticsService;
+    private final UserDashboardService userDashboardService;
+
+    private static final int MAX_DELTA_ENTRIES = 1000;
+    private static final Set<String> LINK_TYPES = Set.of("BLOCKS", "RELATES", "DUPLICATES");
 
     @Override
     public Task createTaskFromDTO(TaskDTO dto, Long creatorId) {
@@ -92,6 +116,11 @@ public class TaskServiceImpl implements TaskService {
         }
 
         Task saved = taskRepository.save(task);
+        deadlineReminderJob.refresh(saved);
+        touchBoard(saved);
+        searchIndexService.indexTask(saved);
+        projectStatsService.taskCreated(saved);
+        sprintAnalyticsService.taskAdded(saved);
 
         activityService.log("TASK", saved.getTaskId(), "CREATE_TASK",
                 "{\"title\":\"" + escapeJson(saved.getTitle()) + "\",\"column\":\""
@@ -149,6 +178,10 @@ public class TaskServiceImpl implements TaskService {
         task.setCreatedBy(creator);
 
         Task saved = taskRepository.save(task);
+        touchBoard(saved);
+        searchIndexService.indexTask(saved);
+        projectStatsService.taskCreated(saved);
+        sprintAnalyticsService.taskAdded(saved);
 
         activityService.log("TASK", saved.getTaskId(), "CREATE_TASK",
                 "{\"title\":\"" + escapeJson(saved.getTitle()) + "\",\"column\":\""
@@ -176,7 +209,12 @@ public class TaskServiceImpl implements TaskService {
             task.setCreatedBy(creator);
         }
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        touchBoard(saved);
+        searchIndexService.indexTask(saved);
+        projectStatsService.taskCreated(saved);
+        sprintAnalyticsService.taskAdded(saved);
+        return saved;
     }
 
     @Override
@@ -189,11 +227,18 @@ public class TaskServiceImpl implements TaskService {
             existing.setDescriptionMd(patch.getDescriptionMd());
         if (patch.getPriority() != null)
             existing.setPriority(patch.getPriority());
+        String statusBefore = existing.getStatus();
+        LocalDateTime closedBefore = existing.getClosedAt();
         if (patch.getStatus() != null)
             existing.setStatus(patch.getStatus());
         existing.setUpdatedAt(LocalDateTime.now());
 
         Task saved = taskRepository.save(existing);
+        deadlineReminderJob.refresh(saved);
+        touchBoard(saved);
+        searchIndexService.indexTask(saved);
+        projectStatsService.taskStatusChanged(saved, statusBefore, closedBefore);
+        sprintAnalyticsService.taskStatusChanged(saved, statusBefore);
 
         activityService.log("TASK", saved.getTaskId(), "EDIT_TASK",
                 "{\"title\":\"" + escapeJson(saved.getTitle()) + "\"}", saved.getCreatedBy());
@@ -231,7 +276,14 @@ public class TaskServiceImpl implements TaskService {
                     " Chỉ PM/ADMIN hoặc người tạo task mới có quyền xóa task này.");
         }
 
+        taskLinkRepository.deleteByTaskId(id);
         taskRepository.delete(task);
+        deadlineReminderJob.cancel(id);
+        touchBoard(task);
+        searchIndexService.removeTask(id);
+        taskDependencyService.taskRemoved(projectId, id);
+        projectStatsService.taskDeleted(task);
+        sprintAnalyticsService.taskRemoved(task);
 
         activityService.log("TASK", id, "DELETE_TASK",
                 "{\"title\":\"" + escapeJson(task.getTitle()) + "\"}", actor);
@@ -244,12 +296,15 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
 
+        // Người được giao cũ cũng mất task này khỏi dashboard
+        userDashboardService.invalidate(task);
         User assignee = new User();
         assignee.setUserId(assigneeId);
         task.setAssignee(assignee);
         task.setUpdatedAt(LocalDateTime.now());
 
         Task saved = taskRepository.save(task);
+        touchBoard(saved);
 
         activityService.log("TASK", taskId, "ASSIGN_TASK", "{\"assigneeId\":" + assigneeId + "}",
                 task.getCreatedBy());
@@ -289,6 +344,8 @@ public class TaskServiceImpl implements TaskService {
         authz.ensurePmOfProject(email, projectId);
 
         BoardColumn oldCol = task.getColumn();
+        String statusBefore = task.getStatus();
+        LocalDateTime closedBefore = task.getClosedAt();
         BoardColumn newCol = boardColumnRepository.findById(req.getTargetColumnId())
                 .orElseThrow(() -> new RuntimeException("Target column not found"));
 
@@ -322,6 +379,10 @@ public class TaskServiceImpl implements TaskService {
         }
 
         taskRepository.save(task);
+        deadlineReminderJob.refresh(task);
+        touchBoard(task);
+        projectStatsService.taskStatusChanged(task, statusBefore, closedBefore);
+        sprintAnalyticsService.taskStatusChanged(task, statusBefore);
 
         activityService.log("TASK", taskId, "MOVE_COLUMN",
                 String.format("{\"from\":\"%s\",\"to\":\"%s\"}",
@@ -336,9 +397,15 @@ public class TaskServiceImpl implements TaskService {
     public Task closeTask(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
+        String statusBefore = task.getStatus();
+        LocalDateTime closedBefore = task.getClosedAt();
         task.setStatus("CLOSED");
         task.setUpdatedAt(LocalDateTime.now());
         Task saved = taskRepository.save(task);
+        deadlineReminderJob.cancel(taskId);
+        touchBoard(saved);
+        projectStatsService.taskStatusChanged(saved, statusBefore, closedBefore);
+        sprintAnalyticsService.taskStatusChanged(saved, statusBefore);
 
         activityService.log("TASK", taskId, "CLOSE_TASK",
                 "{\"title\":\"" + escapeJson(saved.getTitle()) + "\"}", saved.getCreatedBy());
@@ -349,9 +416,15 @@ public class TaskServiceImpl implements TaskService {
     public Task reopenTask(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
+        String statusBefore = task.getStatus();
+        LocalDateTime closedBefore = task.getClosedAt();
         task.setStatus("OPEN");
         task.setUpdatedAt(LocalDateTime.now());
         Task saved = taskRepository.save(task);
+        deadlineReminderJob.refresh(saved);
+        touchBoard(saved);
+        projectStatsService.taskStatusChanged(saved, statusBefore, closedBefore);
+        sprintAnalyticsService.taskStatusChanged(saved, statusBefore);
 
         activityService.log("TASK", taskId, "REOPEN_TASK",
                 "{\"title\":\"" + escapeJson(saved.getTitle()) + "\"}", saved.getCreatedBy());
@@ -392,6 +465,7 @@ public class TaskServiceImpl implements TaskService {
         task.setDescriptionMd(description);
         task.setUpdatedAt(LocalDateTime.now());
         Task saved = taskRepository.save(task);
+        searchIndexService.indexTask(saved);
 
         return TaskDTO.fromEntity(saved);
     }
@@ -462,6 +536,8 @@ public class TaskServiceImpl implements TaskService {
 
         task.setUpdatedAt(LocalDateTime.now());
         Task saved = taskRepository.save(task);
+        deadlineReminderJob.refresh(saved);
+        touchBoard(saved);
 
         activityService.log("TASK", taskId, "UPDATE_DATES",
                 String.format("{\"start\":\"%s\",\"deadline\":\"%s\"}", dto.getStartDate(),
@@ -556,6 +632,97 @@ public class TaskServiceImpl implements TaskService {
         }).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BoardSnapshotDTO getBoardSnapshot(Long projectId) {
+        // Đọc version trước dữ liệu: nếu có ghi xen giữa thì ETag cũ hơn nội dung, client chỉ tải lại
+        long version = boardVersionService.currentVersion(projectId);
+
+        List<BoardColumnDTO> columns = boardColumnRepository.findDtosByProject(projectId);
+        List<LabelDTO> labels = labelRepository.findByProjectAndKeyword(projectId, null);
+        List<BoardCardDTO> cards = taskRepository.findBoardCards(projectId);
+
+        attachCardRelations(cards, taskRepository.findBoardCardRelations(projectId));
+
+        return new BoardSnapshotDTO(projectId, version, columns, labels, cards);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BoardDeltaDTO getBoardChanges(Long projectId, long sinceVersion) {
+        long version = boardVersionService.currentVersion(projectId);
+        if (!boardVersionService.canServeDelta(projectId, sinceVersion, version))
+            return BoardDeltaDTO.resync(projectId, sinceVersion, version);
+
+        Map<String, Set<Long>> changed =
+                boardVersionService.changedSince(projectId, sinceVersion, version);
+        int total = changed.values().stream().mapToInt(Set::size).sum();
+        // Delta quá lớn thì tải lại snapshot rẻ hơn (và tránh giới hạn 2100 tham số của SQL Server)
+        if (total > MAX_DELTA_ENTRIES)
+            return BoardDeltaDTO.resync(projectId, sinceVersion, version);
+
+        Set<Long> taskIds = changed.getOrDefault(BoardVersionService.TASK, Set.of());
+        Set<Long> columnIds = changed.getOrDefault(BoardVersionService.COLUMN, Set.of());
+        Set<Long> labelIds = changed.getOrDefault(BoardVersionService.LABEL, Set.of());
+        Set<Long> checklistIds = changed.getOrDefault(BoardVersionService.CHECKLIST, Set.of());
+
+        List<BoardCardDTO> cards = taskIds.isEmpty() ? List.of()
+                : taskRepository.findBoardCardsByIds(projectId, taskIds);
+        if (!cards.isEmpty()) {
+            attachCardRelations(cards, taskRepository.findBoardCardRelationsByTaskIds(
+                    cards.stream().map(BoardCardDTO::getId).toList()));
+        }
+        List<BoardColumnDTO> columns = columnIds.isEmpty() ? List.of()
+                : boardColumnRepository.findDtosByProjectAndIds(projectId, columnIds);
+        List<LabelDTO> labels = labelIds.isEmpty() ? List.of()
+                : labelRepository.findDtosByProjectAndIds(projectId, labelIds);
+        List<BoardChecklistItemDTO> checklists = checklistIds.isEmpty() ? List.of()
+                : checkListRepository.findBoardItemsByIds(projectId, checklistIds);
+
+        // Id đã đổi nhưng không còn đọc được (xóa, lưu trữ) → tombstone
+        List<BoardTombstoneDTO> tombstones = new ArrayList<>();
+        addTombstones(tombstones, BoardVersionService.TASK, taskIds,
+                cards.stream().map(BoardCardDTO::getId));
+        addTombstones(tombstones, BoardVersionService.COLUMN, columnIds,
+                columns.stream().map(BoardColumnDTO::getColumnId));
+        addTombstones(tombstones, BoardVersionService.LABEL, labelIds,
+                labels.stream().map(LabelDTO::getLabelId));
+        addTombstones(tombstones, BoardVersionService.CHECKLIST, checklistIds,
+                checklists.stream().map(BoardChecklistItemDTO::checklistId));
+
+        return new BoardDeltaDTO(projectId, sinceVersion, version, false, columns, labels, cards,
+                checklists, tombstones);
+    }
+
+    private void attachCardRelations(List<BoardCardDTO> cards, List<Object[]> relations) {
+        Map<Long, BoardCardDTO> byId = new HashMap<>(cards.size() * 2);
+        for (BoardCardDTO card : cards) {
+            byId.put(card.getId(), card);
+        }
+
+        for (Object[] row : relations) {
+            BoardCardDTO card = byId.get(((Number) row[0]).longValue());
+            if (card == null)
+                continue;
+            Long refId = ((Number) row[2]).longValue();
+            if ("L".equals(String.valueOf(row[1]))) {
+                card.getLabelIds().add(refId);
+            } else {
+                card.getAssignees()
+                        .add(new AssigneeDTO(refId, (String) row[3], (String) row[4], null));
+            }
+        }
+    }
+
+    private void addTombstones(List<BoardTombstoneDTO> out, String type, Set<Long> changedIds,
+            Stream<Long> presentIds) {
+        if (changedIds.isEmpty())
+            return;
+        Set<Long> missing = new HashSet<>(changedIds);
+        presentIds.forEach(missing::remove);
+        missing.forEach(id -> out.add(new BoardTombstoneDTO(type, id)));
+    }
+
     @Override
     public List<Task> getTasksByAssignee(Long userId) {
         return taskRepository.findByAssignee_UserId(userId);
@@ -574,11 +741,84 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public TaskDTO getByIdAsDTO(Long id) {
-        Task task = taskRepository.findById(id)
+        Task task = taskRepository.findDetailById(id)
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
         return TaskDTO.fromEntity(task);
     }
 
+    private void touchBoard(Task task) {
+        if (task != null && task.getProject() != null) {
+            boardVersionService.touch(task.getProject().getProjectId(), BoardVersionService.TASK,
+                    task.getTaskId());
+            taskDependencyService.taskChanged(task);
+        }
+        userDashboardService.invalidate(task);
+    }
+
+    @Override
+    @Transactional
+    public TaskLinkDTO addLink(Long fromTaskId, Long toTaskId, String linkType, User actor) {
+        String type = linkType == null ? "" : linkType.trim().toUpperCase();
+        if (!LINK_TYPES.contains(type))
+            throw new BadRequestException("Loại liên kết không hợp lệ: " + linkType);
+        if (fromTaskId == null || toTaskId == null || fromTaskId.equals(toTaskId))
+            throw new BadRequestException("Không thể liên kết task với chính nó");
+
+        Task from = taskRepository.findById(fromTaskId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
+        Task to = taskRepository.findById(toTaskId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
+
+        Long projectId = from.getProject().getProjectId();
+        if (!projectId.equals(to.getProject().getProjectId()))
+            throw new BadRequestException("Chỉ liên kết được các task trong cùng dự án");
+        if (!projectAuthorizationService.isMemberOfProject(actor.getEmail(), projectId))
+            throw new AccessDeniedException("Bạn không phải thành viên của dự án này");
+
+        if (taskLinkRepository.existsByFromTask_TaskIdAndToTask_TaskIdAndLinkType(fromTaskId,
+                toTaskId, type))
+            throw new BadRequestException("Liên kết đã tồn tại");
+        // Graph cache loại nhanh; kiểm tra lại trên DB (đã khoá project) vì cache có thể cũ
+        if (TaskDependencyService.BLOCKS.equals(type)
+                && (taskDependencyService.wouldCreateCycle(projectId, fromTaskId, toTaskId)
+                        || taskDependencyService.wouldCreateCycleLocked(projectId, fromTaskId,
+                                toTaskId)))
+            throw new BadRequestException("Liên kết này tạo vòng phụ thuộc giữa các task");
+
+        TaskLink link = new TaskLink();
+        link.setFromTask(from);
+        link.setToTask(to);
+        link.setLinkType(type);
+        TaskLink saved = taskLinkRepository.save(link);
+
+        if (TaskDependencyService.BLOCKS.equals(type))
+            taskDependencyService.linkAdded(from, to);
+        activityService.log("TASK", fromTaskId, "ADD_LINK",
+                "{\"type\":\"" + type + "\",\"to\":" + toTaskId + "}", actor);
+
+        return new TaskLinkDTO(saved.getLinkId(), fromTaskId, toTaskId, type);
+    }
+
+    @Override
+    @Transactional
+    public void removeLink(Long taskId, Long linkId, User actor) {
+        TaskLink link = taskLinkRepository.findById(linkId)
+                .filter(l -> l.getFromTask().getTaskId().equals(taskId)
+                        || l.getToTask().getTaskId().equals(taskId))
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy liên kết"));
+
+        Long projectId = link.getFromTask().getProject().getProjectId();
+        if (!projectAuthorizationService.isMemberOfProject(actor.getEmail(), projectId))
+            throw new AccessDeniedException("Bạn không phải thành viên của dự án này");
+
+        taskLinkRepository.delete(link);
+        if (TaskDependencyService.BLOCKS.equals(link.getLinkType()))
+            taskDependencyService.linkRemoved(projectId, link.getFromTask().getTaskId(),
+                    link.getToTask().getTaskId());
+        activityService.log("TASK", taskId, "REMOVE_LINK",
+                "{\"type\":\"" + link.getLinkType() + "\"}", actor);
+    }
+
     private String escapeJson(String text) {
         return text == null ? ""
                 : text.replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "");
@@ -614,6 +854,8 @@ public class TaskServiceImpl implements TaskService {
         task.setArchived(true);
         task.setUpdatedAt(LocalDateTime.now());
         taskRepository.save(task);
+        deadlineReminderJob.cancel(taskId);
+        touchBoard(task);
 
         return true;
     }
@@ -649,6 +891,8 @@ public class TaskServiceImpl implements TaskService {
         task.setArchived(false);
         task.setUpdatedAt(LocalDateTime.now());
         taskRepository.save(task);
+        deadlineReminderJob.refresh(task);
+        touchBoard(task);
 
         return true;
     }
@@ -692,10 +936,16 @@ public class TaskServiceImpl implements TaskService {
             return TaskDTO.fromEntity(task);
         }
 
+        String statusBefore = task.getStatus();
+        LocalDateTime closedBefore = task.getClosedAt();
         task.setStatus("DONE");
         task.setClosedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
         Task saved = taskRepository.save(task);
+        deadlineReminderJob.cancel(taskId);
+        touchBoard(saved);
+        projectStatsService.taskStatusChanged(saved, statusBefore, closedBefore);
+        sprintAnalyticsService.taskStatusChanged(saved, statusBefore);
 
         Hibernate.initialize(saved.getAssignee());
         Hibernate.initialize(saved.getCreatedBy());
@@ -752,11 +1002,17 @@ public class TaskServiceImpl implements TaskService {
         }
 
         // Cập nhật lại trạng thái
+        String statusBefore = task.getStatus();
+        LocalDateTime closedBefore = task.getClosedAt();
         task.setStatus("OPEN");
         task.setClosedAt(null);
         task.setUpdatedAt(LocalDateTime.now());
 
         Task saved = taskRepository.save(task);
+        deadlineReminderJob.refresh(saved);
+        touchBoard(saved);
+        projectStatsService.taskStatusChanged(saved, statusBefore, closedBefore);
+        sprintAnalyticsService.taskStatusChanged(saved, statusBefore);
 
         return TaskDTO.fromEntity(saved);
     }
@@ -800,10 +1056,8 @@ public class TaskServiceImpl implements TaskService {
                 return;
             }
 
-            for (User receiver : filtered) {
-                notificationService.createNotification(receiver, "TASK_DUE_SOON", task.getTaskId(),
-                        title, message, link, actor);
-            }
+            notificationFanoutService.publish(new NotificationFanoutService.Event("TASK_DUE_SOON",
+                    task.getTaskId(), title, message, link, actor), filtered);
 
             log.info("[Deadline] Đã gửi 'TASK_DUE_SOON' cho {} người trong task '{}'",
                     filtered.size(), task.getTitle());
@@ -834,6 +1088,8 @@ public class TaskServiceImpl implements TaskService {
         task.setDeadline(null);
         task.setUpdatedAt(LocalDateTime.now());
         taskRepository.save(task);
+        deadlineReminderJob.cancel(taskId);
+        touchBoard(task);
 
         activityService.log("TASK", taskId, "REMOVE_DEADLINE", "{\"message\":\"Deadline removed\"}",
                 actor);
@@ -938,30 +1194,37 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TaskStatisticsDTO getTaskStatistics(User user) {
-        List<Task> userTasks = taskRepository.findAllUserTasks(user);
-
-        // Count tasks by status
-        Map<String, Long> statusCount = userTasks.stream().filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(
-                        task -> task.getStatus() != null ? task.getStatus() : "UNKNOWN",
-                        Collectors.counting()));
-
-        long totalTasks = userTasks.size();
+        // Đếm theo status trong SQL: không nạp entity task nào
+        Map<String, Long> statusCount = new HashMap<>();
+        long totalTasks = 0;
+        long overdue = 0;
+        for (Object[] row : taskRepository.countUserTasksByStatus(user.getUserId())) {
+            long count = ((Number) row[1]).longValue();
+            statusCount.merge((String) row[0], count, Long::sum);
+            totalTasks += count;
+            overdue += ((Number) row[2]).longValue();
+        }
 
         // Calculate percentages
         Map<String, Double> statusPercentages = new HashMap<>();
         if (totalTasks > 0) {
-            statusCount.forEach((status, count) -> {
-                double percentage = (count.doubleValue() / totalTasks) * 100;
-                statusPercentages.put(status, Math.round(percentage * 100.0) / 100.0);
-            });
+            long total = totalTasks;
+            statusCount.forEach((status, count) -> statusPercentages.put(status,
+                    percent(count, total)));
         }
 
         // Ensure we have all required statuses (even if count is 0)
         ensureRequiredStatuses(statusCount, statusPercentages, totalTasks);
 
-        return new TaskStatisticsDTO(statusCount, statusPercentages, totalTasks);
+        double completionRate = totalTasks > 0 ? percent(statusCount.get("DONE"), totalTasks) : 0;
+        return new TaskStatisticsDTO(statusCount, statusPercentages, totalTasks, overdue,
+                completionRate);
+    }
+
+    private static double percent(long count, long total) {
+        return Math.round((double) count / total * 100 * 100.0) / 100.0;
     }
 
     private void ensureRequiredStatuses(Map<String, Long> statusCount,
@@ -1013,7 +1276,7 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public TaskDetailDTO getTaskDetailForReview(Long taskId) {
 
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findDetailById(taskId)
                 .orElseThrow(() -> new NotFoundException("Task not found"));
 
         // Fully initialize lazy fields INSIDE transaction
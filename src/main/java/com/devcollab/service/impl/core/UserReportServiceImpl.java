@@ -9,8 +9,10 @@ import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.NotificationRepository;
 import com.devcollab.repository.UserReportRepository;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.security.PrincipalCache;
 import com.devcollab.service.core.UserReportService;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.UnreadCounterService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
@@ -30,6 +32,8 @@ public class UserReportServiceImpl implements UserReportService {
     private final UserRepository userRepo;
     private final NotificationRepository notificationRepo;
     private final ActivityService activityService;
+    private final PrincipalCache principalCache;
+    private final UnreadCounterService unreadCounterService;
 
     @Override
     public void createUserReport(ReportRequestDTO dto, String reporterEmail) {
@@ -121,6 +125,7 @@ public class UserReportServiceImpl implements UserReportService {
          n.setCreatedAt(java.time.LocalDateTime.now());
          n.setLink("view/user-report/"+ id);
          notificationRepo.save(n);
+         unreadCounterService.increment(reported.getUserId());
 
         // // Ghi log hoạt động
          activityService.logWithActor(reported.getUserId(),
@@ -144,6 +149,7 @@ public class UserReportServiceImpl implements UserReportService {
         // Ban user
         reported.setStatus("banned");
         userRepo.save(reported);
+        principalCache.evict(reported.getEmail());
 
         // Cập nhật report
         report.setStatus("reviewed");
@@ -161,6 +167,7 @@ public class UserReportServiceImpl implements UserReportService {
          n.setCreatedAt(java.time.LocalDateTime.now());
         n.setLink("view/user-report/"+ id);
          notificationRepo.save(n);
+         unreadCounterService.increment(reported.getUserId());
 
         // // Log
          activityService.logWithActor(
@@ -5,6 +5,7 @@ import com.devcollab.dto.UserDTO;
 import com.devcollab.exception.BadRequestException;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.security.PrincipalCache;
 import com.devcollab.service.core.UserService;
 import com.devcollab.service.event.AppEventService;
 // import com.devcollab.service.system.NotificationService;
@@ -35,6 +36,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     private final PasswordEncoder passwordEncoder;
     private final AuthService authService;
     private final UserRoleService userRoleService;
+    private final PrincipalCache principalCache;
     // private final NotificationService notificationService;
 
     @Override
@@ -155,6 +157,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         user.setStatus(status);
         user.setUpdatedAt(LocalDateTime.now());
         User saved = userRepository.save(user);
+        principalCache.evict(saved.getEmail());
         appEventService.publishUserStatusChanged(saved);
         return saved;
     }
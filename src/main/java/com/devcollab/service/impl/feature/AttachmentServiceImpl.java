@@ -11,6 +11,7 @@ import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.feature.AttachmentService;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.ProjectAuthorizationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,7 @@ public class AttachmentServiceImpl implements AttachmentService {
     private final ProjectAuthorizationService projectAuthService;
     private final UserRepository userRepository;
     private final TaskFollowerRepository followerRepo;
+    private final BoardVersionService boardVersionService;
 
     private final Path uploadDir =
             Paths.get(System.getProperty("user.dir"), "uploads", "attachments");
@@ -137,6 +139,7 @@ public class AttachmentServiceImpl implements AttachmentService {
             versioned.setVersion(nextVersion);
 
             Attachment saved = attachmentRepository.save(versioned);
+            touchBoard(task);
 
             activityService.log(
                     "TASK", taskId, "ATTACH_FILE_VERSION", "{\"fileName\":\""
@@ -160,6 +163,7 @@ public class AttachmentServiceImpl implements AttachmentService {
         attachment.setVersion(1);
 
         Attachment saved = attachmentRepository.save(attachment);
+        touchBoard(task);
 
         activityService.log("TASK", taskId, "ATTACH_FILE",
                 "{\"fileName\":\"" + escapeJson(originalName) + "\"}", uploader);
@@ -210,6 +214,7 @@ public class AttachmentServiceImpl implements AttachmentService {
 
         att.setDeletedAt(LocalDateTime.now());
         attachmentRepository.save(att);
+        touchBoard(att.getTask());
 
         activityService.log("TASK", att.getTask().getTaskId(), "DELETE_ATTACHMENT",
                 "{\"fileName\":\"" + escapeJson(att.getFileName()) + "\"}", att.getUploadedBy());
@@ -251,6 +256,7 @@ public class AttachmentServiceImpl implements AttachmentService {
             existing.setUploadedAt(LocalDateTime.now());
             existing.setUploadedBy(uploader);
             Attachment updated = attachmentRepository.save(existing);
+            touchBoard(task);
 
             activityService.log(
                     "TASK", taskId, "UPDATE_LINK", "{\"link\":\"" + escapeJson(url)
@@ -273,6 +279,7 @@ public class AttachmentServiceImpl implements AttachmentService {
         attachment.setLink(true);
 
         Attachment saved = attachmentRepository.save(attachment);
+        touchBoard(task);
 
         activityService.log("TASK", taskId, "ATTACH_LINK", "{\"link\":\"" + escapeJson(url)
                 + "\",\"name\":\"" + escapeJson(attachment.getFileName()) + "\"}", uploader);
@@ -286,6 +293,12 @@ public class AttachmentServiceImpl implements AttachmentService {
         return attachmentRepository.findRecentLinksByUser(userId);
     }
 
+    private void touchBoard(Task task) {
+        if (task != null && task.getProject() != null)
+            boardVersionService.touch(task.getProject().getProjectId(), BoardVersionService.TASK,
+                    task.getTaskId());
+    }
+
     private String escapeJson(String text) {
         return text == null ? ""
                 : text.replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "");
@@ -10,6 +10,7 @@ import com.devcollab.repository.CheckListRepository;
 import com.devcollab.repository.TaskFollowerRepository;
 import com.devcollab.repository.TaskRepository;
 import com.devcollab.service.feature.CheckListService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.ProjectAuthorizationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
@@ -27,6 +28,7 @@ public class CheckListServiceImpl implements CheckListService {
     private final CheckListRepository checkListRepo;
     private final TaskRepository taskRepo;
     private final TaskFollowerRepository followerRepo;
+    private final BoardVersionService boardVersionService;
 
     @Override
     @Transactional(readOnly = true)
@@ -67,7 +69,9 @@ public class CheckListServiceImpl implements CheckListService {
         newItem.setCreatedBy(actor);
         newItem.setOrderIndex(checkListRepo.findByTask_TaskIdOrderByOrderIndex(taskId).size());
 
-        return toDto(checkListRepo.save(newItem));
+        CheckList saved = checkListRepo.save(newItem);
+        boardVersionService.touch(projectId, BoardVersionService.CHECKLIST, saved.getChecklistId());
+        return toDto(saved);
     }
 
     @Override
@@ -91,7 +95,9 @@ public class CheckListServiceImpl implements CheckListService {
         }
 
         item.setIsDone(done);
-        return toDto(checkListRepo.save(item));
+        CheckList saved = checkListRepo.save(item);
+        boardVersionService.touch(projectId, BoardVersionService.CHECKLIST, id);
+        return toDto(saved);
     }
 
     @Override
@@ -124,6 +130,7 @@ public class CheckListServiceImpl implements CheckListService {
                     "Chỉ PM/ADMIN hoặc người tạo checklist mới được xóa mục này.");
         }
         checkListRepo.delete(item);
+        boardVersionService.touch(projectId, BoardVersionService.CHECKLIST, id);
     }
 
     private CheckListDTO toDto(CheckList entity) {
@@ -9,8 +9,10 @@ import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.feature.CommentService;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.SearchIndexService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +36,8 @@ public class CommentServiceImpl implements CommentService {
         private final ActivityService activityService;
         private final NotificationService notificationService;
         private final ProjectAuthorizationService projectAuthorizationService;
+        private final BoardVersionService boardVersionService;
+        private final SearchIndexService searchIndexService;
 
         private final ObjectMapper mapper = new ObjectMapper();
 
@@ -67,6 +71,8 @@ public class CommentServiceImpl implements CommentService {
                 comment.setMentionsJson(mentionsJson);
 
                 Comment saved = commentRepo.save(comment);
+                boardVersionService.touch(projectId, BoardVersionService.TASK, taskId);
+                searchIndexService.indexComment(saved);
 
                 // 📝 Log activity
                 activityService.log("TASK", taskId, "COMMENT_ADD",
@@ -112,6 +118,7 @@ public class CommentServiceImpl implements CommentService {
                 reply.setContent(content);
 
                 Comment saved = commentRepo.save(reply);
+                searchIndexService.indexComment(saved);
 
                 // 📝 Log activity
                 activityService.log("TASK", parent.getTask().getTaskId(), "COMMENT_REPLY",
@@ -156,6 +163,12 @@ public class CommentServiceImpl implements CommentService {
                 }
 
                 commentRepo.delete(comment);
+                searchIndexService.removeComment(commentId);
+                if (comment.getReplies() != null)
+                        comment.getReplies().forEach(
+                                        r -> searchIndexService.removeComment(r.getCommentId()));
+                boardVersionService.touch(projectId, BoardVersionService.TASK,
+                                comment.getTask().getTaskId());
 
                 activityService.log("TASK", comment.getTask().getTaskId(), "COMMENT_DELETE",
                                 "{\"commentId\":" + commentId + "}", comment.getUser());
@@ -186,6 +199,7 @@ public class CommentServiceImpl implements CommentService {
 
                 comment.setContent(newContent);
                 Comment updated = commentRepo.save(comment);
+                searchIndexService.indexComment(updated);
 
                 activityService.log("TASK", comment.getTask().getTaskId(), "COMMENT_EDIT",
                                 "{\"commentId\":" + commentId + ",\"content\":\""
@@ -11,6 +11,7 @@ import com.devcollab.repository.ProjectRepository;
 import com.devcollab.repository.TaskFollowerRepository;
 import com.devcollab.repository.TaskRepository;
 import com.devcollab.service.feature.LabelService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.ProjectAuthorizationService;
 import org.hibernate.Hibernate;
 import org.springframework.security.access.AccessDeniedException;
@@ -29,13 +30,16 @@ public class LabelServiceImpl implements LabelService {
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
     private final TaskFollowerRepository followerRepo;
+    private final BoardVersionService boardVersionService;
 
     public LabelServiceImpl(LabelRepository labelRepository, ProjectRepository projectRepository,
-            TaskRepository taskRepository, TaskFollowerRepository followerRepo) {
+            TaskRepository taskRepository, TaskFollowerRepository followerRepo,
+            BoardVersionService boardVersionService) {
         this.labelRepository = labelRepository;
         this.projectRepository = projectRepository;
         this.taskRepository = taskRepository;
         this.followerRepo = followerRepo;
+        this.boardVersionService = boardVersionService;
     }
 
     @Override
@@ -76,6 +80,7 @@ public class LabelServiceImpl implements LabelService {
         label.setCreatedBy(actor); // 🔥 người tạo label
 
         Label saved = labelRepository.save(label);
+        boardVersionService.touch(projectId, BoardVersionService.LABEL, saved.getLabelId());
         return new LabelDTO(saved.getLabelId(), saved.getName(), saved.getColor(), actor.getUserId(),
                 actor.getName());
     }
@@ -111,6 +116,7 @@ public class LabelServiceImpl implements LabelService {
             label.setColor(color);
 
         Label saved = labelRepository.save(label);
+        boardVersionService.touch(projectId, BoardVersionService.LABEL, saved.getLabelId());
         return new LabelDTO(saved.getLabelId(), saved.getName(), saved.getColor(),
                 saved.getCreatedBy() != null ? saved.getCreatedBy().getUserId() : null,
                 saved.getCreatedBy() != null ? saved.getCreatedBy().getName() : null);
@@ -145,6 +151,7 @@ public class LabelServiceImpl implements LabelService {
         labelRepository.deleteAllTaskRelations(labelId);
 
         labelRepository.delete(label);
+        boardVersionService.touch(projectId, BoardVersionService.LABEL, labelId);
     }
 
     @Override
@@ -204,6 +211,7 @@ public class LabelServiceImpl implements LabelService {
             task.getLabels().add(label);
 
         taskRepository.save(task);
+        boardVersionService.touch(projectId, BoardVersionService.TASK, taskId);
     }
 
     @Override
@@ -232,5 +240,6 @@ public class LabelServiceImpl implements LabelService {
         }
 
         labelRepository.deleteTaskLabel(taskId, labelId);
+        boardVersionService.touch(projectId, BoardVersionService.TASK, taskId);
     }
 }
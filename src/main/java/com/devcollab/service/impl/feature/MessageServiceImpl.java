@@ -1,19 +1,23 @@
 package com.devcollab.service.impl.feature;
 
 import com.devcollab.domain.Message;
-import com.devcollab.domain.Project;
-import com.devcollab.domain.User;
 import com.devcollab.dto.request.MessageRequestDTO;
+import com.devcollab.dto.response.MessagePageDTO;
 import com.devcollab.dto.response.MessageResponseDTO;
-import com.devcollab.exception.NotFoundException;
+import com.devcollab.exception.BadRequestException;
 import com.devcollab.repository.MessageRepository;
-import com.devcollab.repository.ProjectRepository;
-import com.devcollab.repository.UserRepository;
 import com.devcollab.service.feature.MessageService;
+import com.devcollab.service.system.ChatMessagePipeline;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,8 +27,9 @@ import java.util.stream.Collectors;
 public class MessageServiceImpl implements MessageService {
 
     private final MessageRepository messageRepository;
-    private final ProjectRepository projectRepository;
-    private final UserRepository userRepository;
+    private final ChatMessagePipeline chatMessagePipeline;
+
+    private static final int MAX_HISTORY_PAGE = 100;
 
     @Override
     public List<MessageResponseDTO> getMessagesByProjectId(Long projectId) {
@@ -41,17 +46,65 @@ public class MessageServiceImpl implements MessageService {
     }
 
     @Override
-    public Message sendMessage(String senderUsername, MessageRequestDTO dto) {
-        User sender = userRepository.findByEmail(senderUsername)
-                .orElseThrow(() -> new NotFoundException("User không tồn tại"));
-        Project project = projectRepository.findById(dto.getProjectId())
-                .orElseThrow(() -> new NotFoundException("Dự án không tồn tại"));
-
-        Message message = new Message();
-        message.setSender(sender);
-        message.setProject(project);
-        message.setContent(dto.getContent());
-
-        return messageRepository.save(message);
+    public MessagePageDTO getMessageHistory(Long projectId, String before, String after,
+            int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE));
+        // Lấy dư 1 bản ghi để biết còn trang tiếp hay không
+        PageRequest window = PageRequest.of(0, size + 1);
+
+        List<MessageResponseDTO> rows;
+        boolean newestFirst;
+        if (after != null && !after.isBlank()) {
+            Cursor c = decodeCursor(after);
+            rows = messageRepository.findHistoryAfter(projectId, c.createdAt(), c.messageId(),
+                    window);
+            newestFirst = false;
+        } else if (before != null && !before.isBlank()) {
+            Cursor c = decodeCursor(before);
+            rows = messageRepository.findHistoryBefore(projectId, c.createdAt(), c.messageId(),
+                    window);
+            newestFirst = true;
+        } else {
+            rows = messageRepository.findLatestHistory(projectId, window);
+            newestFirst = true;
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<MessageResponseDTO> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (newestFirst)
+            Collections.reverse(page);
+
+        String older = page.isEmpty() ? before : encodeCursor(page.get(0));
+        String newer = page.isEmpty() ? after : encodeCursor(page.get(page.size() - 1));
+        return new MessagePageDTO(page, older, newer, hasMore);
+    }
+
+    private String encodeCursor(MessageResponseDTO msg) {
+        String raw = msg.getCreatedAt() + "_" + msg.getMessageId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('_');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (Exception e) {
+            throw new BadRequestException("Cursor không hợp lệ");
+        }
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long messageId) {
+    }
+
+    /**
+     * Không ghi DB trực tiếp: {@link ChatMessagePipeline} cấp id, xếp hàng cho writer nền và trả
+     * DTO để broadcast ngay.
+     */
+    @Override
+    public MessageResponseDTO sendMessage(String senderUsername, MessageRequestDTO dto) {
+        return chatMessagePipeline.submit(dto.getProjectId(), senderUsername, dto.getContent());
     }
 }
\ No newline at end of file
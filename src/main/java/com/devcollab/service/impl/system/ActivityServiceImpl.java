@@ -5,16 +5,21 @@ import com.devcollab.domain.User;
 import com.devcollab.dto.ActivityDTO;
 import com.devcollab.repository.ActivityRepository;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.service.system.ActivityLogWriter;
 import com.devcollab.service.system.ActivityService;
 import lombok.RequiredArgsConstructor;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -28,42 +33,40 @@ import java.util.stream.Collectors;
 public class ActivityServiceImpl implements ActivityService {
 
     private final ActivityRepository activityRepo;
+    private final ActivityLogWriter activityLogWriter;
     private final UserRepository userRepo;
 
+    // Số user tối đa khớp tiền tố tên khi lọc log theo user
+    private static final int MAX_ACTOR_MATCHES = 200;
+
+    @Value("${app.activity.retention-months:12}")
+    private int retentionMonths = 12;
+
+    /**
+     * Không ghi DB trong transaction của caller: {@link ActivityLogWriter} giữ entry đến khi
+     * commit rồi ghi theo batch, chỉ dùng actorId nên không cần load lại User.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void log(String entityType, Long entityId, String action, String message, User actor) {
-        try {
-            if (entityType == null || entityId == null || action == null) {
-                log.warn("Bỏ qua log vì thiếu dữ liệu bắt buộc: entityType={}, entityId={}, action={}",
-                        entityType, entityId, action);
-                return;
-            }
-
-            Activity activity = new Activity();
-            activity.setEntityType(entityType);
-            activity.setEntityId(entityId);
-            activity.setAction(action);
-            activity.setDataJson(message);
-            activity.setCreatedAt(LocalDateTime.now());
-
-            // 🟢 Kiểm tra actor hợp lệ
-            if (actor != null) {
-                if (actor.getUserId() != null) {
-                    // Reload lại từ DB để tránh Detached entity
-                    userRepo.findById(actor.getUserId()).ifPresent(activity::setActor);
-                } else {
-                    log.warn("⚠️ Actor chưa có userId, log sẽ không có thông tin người thực hiện");
-                }
-            }
-
-            activityRepo.save(activity);
-            log.info("🪶 Logged activity: [{}#{}] {} by {}",
-                    entityType, entityId, action,
-                    actor != null ? actor.getName() : "System");
+        if (entityType == null || entityId == null || action == null) {
+            log.warn("Bỏ qua log vì thiếu dữ liệu bắt buộc: entityType={}, entityId={}, action={}",
+                    entityType, entityId, action);
+            return;
+        }
 
-        } catch (Exception e) {
-            log.error("❌ Lỗi khi ghi activity log: {}", e.getMessage());
+        Long actorId = null;
+        if (actor != null) {
+            if (actor.getUserId() != null)
+                actorId = actor.getUserId();
+            else
+                log.warn("⚠️ Actor chưa có userId, log sẽ không có thông tin người thực hiện");
         }
+
+        activityLogWriter.append(new ActivityLogWriter.Entry(actorId, entityType, entityId, action,
+                message, LocalDateTime.now()));
+        log.debug("🪶 Queued activity: [{}#{}] {} by {}", entityType, entityId, action,
+                actor != null ? actor.getName() : "System");
     }
 
     /**
@@ -109,36 +112,45 @@ public class ActivityServiceImpl implements ActivityService {
         return activityRepo.findAllByOrderByCreatedAtDesc(pageable);
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logWithActor(Long actorId, String entityType, Long entityId, String action, String data) {
-        try {
-            if (actorId == null) {
-                System.out.println("⚠️ [ActivityService] Skip log (actorId=null) for action: " + action);
-                return;
-            }
-
-            Activity log = new Activity();
-            log.setEntityType(entityType);
-            log.setEntityId(entityId);
-            log.setAction(action);
-            log.setDataJson(data);
-            log.setCreatedAt(LocalDateTime.now());
-
-            User user = new User();
-            user.setUserId(actorId);
-            log.setActor(user);
-
-            activityRepo.save(log);
-
-        } catch (Exception e) {
-            System.err.println("[ActivityService] Error logging with actor: " + e.getMessage());
+        if (actorId == null) {
+            System.out.println("⚠️ [ActivityService] Skip log (actorId=null) for action: " + action);
+            return;
         }
+        activityLogWriter.append(new ActivityLogWriter.Entry(actorId, entityType, entityId, action,
+                data, LocalDateTime.now()));
     }
+    /**
+     * Tìm log cho admin trong khoảng [from, to]. Mặc định là toàn bộ thời gian còn lưu log chi
+     * tiết. User được lọc theo tiền tố tên rồi so theo actor id, action theo tiền tố.
+     */
     @Override
-    public Page<Activity> searchActivities(String user, String action, String entityType, Pageable pageable) {
-        String userFilter = (user == null || user.isBlank()) ? null : user.trim().toLowerCase();
-        String actionFilter = (action == null || action.isBlank()) ? null : action.trim().toLowerCase();
-        String entityFilter = (entityType == null || entityType.isBlank()) ? null : entityType.trim().toLowerCase();
+    @Transactional(readOnly = true)
+    public Page<Activity> searchActivities(String user, String action, String entityType,
+            LocalDate from, LocalDate to, Pageable pageable) {
+        LocalDateTime start = from != null ? from.atStartOfDay()
+                : LocalDate.now().minusMonths(retentionMonths).withDayOfMonth(1).atStartOfDay();
+        LocalDateTime end = (to != null ? to : LocalDate.now()).plusDays(1).atStartOfDay();
+        if (!start.isBefore(end))
+            return Page.empty(pageable);
+
+        List<Long> actorIds = List.of();
+        boolean anyActor = user == null || user.isBlank();
+        if (!anyActor) {
+            actorIds = userRepo.findIdsByNamePrefix(user.trim(),
+                    PageRequest.of(0, MAX_ACTOR_MATCHES));
+            if (actorIds.isEmpty())
+                return Page.empty(pageable);
+        }
+
+        String actionFilter = (action == null || action.isBlank()) ? null
+                : action.trim().toUpperCase();
+        String entityFilter = (entityType == null || entityType.isBlank()) ? null
+                : entityType.trim().toUpperCase();
 
-        return activityRepo.searchActivities(userFilter, actionFilter, entityFilter, pageable);
+        return activityRepo.searchActivities(Activity.monthBucket(start),
+                Activity.monthBucket(end.minusNanos(1)), start, end, anyActor,
+                anyActor ? List.of(-1L) : actorIds, actionFilter, entityFilter, pageable);
     }
 }
@@ -6,13 +6,16 @@ import com.devcollab.dto.response.ProjectPerformanceDTO;
 import com.devcollab.dto.response.ProjectSummaryDTO;
 import com.devcollab.repository.ProjectRepository;
 import com.devcollab.service.impl.core.UserServiceImpl;
+import com.devcollab.service.system.DashboardCache;
 import com.devcollab.service.system.DashboardService;
+import com.devcollab.service.system.ProjectStatsService;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.util.*;
@@ -24,10 +27,16 @@ public class DashboardServiceImpl implements DashboardService {
     private final ProjectRepository projectRepository;
     private final ProjectTargetServiceImpl projectTargetService;
     private final UserServiceImpl userService;
+    private final ProjectStatsService projectStatsService;
+    private final DashboardCache dashboardCache;
 
     @Override
     public ProjectSummaryDTO getProjectSummary(String range) {
+        return dashboardCache.get(cacheKey("summary:all", range), ProjectSummaryDTO.class,
+                () -> loadProjectSummary(range));
+    }
 
+    private ProjectSummaryDTO loadProjectSummary(String range) {
         LocalDateTime startDate = switch (range.toLowerCase()) {
             case "week" -> LocalDateTime.now().minusWeeks(1);
             case "month" -> LocalDateTime.now().minusMonths(1);
@@ -35,7 +44,7 @@ public class DashboardServiceImpl implements DashboardService {
             default -> LocalDateTime.now().minusMonths(6);
         };
 
-        List<Object[]> stats = projectRepository.countProjectsByStatusSince(startDate);
+        List<Object[]> stats = projectStatsService.countProjectsByStatusSince(startDate);
 
         long total = 0, active = 0, completed = 0, onHold = 0, pending = 0, inProgress = 0;
 
@@ -58,6 +67,11 @@ public class DashboardServiceImpl implements DashboardService {
 
     @Override
     public ProjectSummaryDTO getProjectSummaryByPm(String range, String pmEmail) {
+        return dashboardCache.get(cacheKey("summary:pm:" + pmEmail.trim().toLowerCase(), range),
+                ProjectSummaryDTO.class, () -> loadProjectSummaryByPm(range, pmEmail));
+    }
+
+    private ProjectSummaryDTO loadProjectSummaryByPm(String range, String pmEmail) {
         LocalDateTime startDate = switch (range.toLowerCase()) {
             case "week" -> LocalDateTime.now().minusWeeks(1);
             case "month" -> LocalDateTime.now().minusMonths(1);
@@ -66,7 +80,7 @@ public class DashboardServiceImpl implements DashboardService {
         };
 
         List<Object[]> stats =
-                projectRepository.countProjectsByStatusSinceAndPm(pmEmail, startDate);
+                projectStatsService.countProjectsByStatusSinceForCreator(pmEmail, startDate);
 
         long total = 0, active = 0, completed = 0, onHold = 0, pending = 0, inProgress = 0;
 
@@ -93,6 +107,11 @@ public class DashboardServiceImpl implements DashboardService {
                 (Authentication) SecurityContextHolder.getContext().getAuthentication();
         Long pmId = getUserIdFromAuth(auth);
 
+        return dashboardCache.get(cacheKey("performance:all:" + pmId, range),
+                ProjectPerformanceDTO.class, () -> loadProjectPerformance(range, pmId));
+    }
+
+    private ProjectPerformanceDTO loadProjectPerformance(String range, Long pmId) {
         LocalDateTime startDate = switch (range.toLowerCase()) {
             case "week" -> LocalDateTime.now().minusWeeks(1);
             case "month" -> LocalDateTime.now().minusMonths(1);
@@ -103,7 +122,7 @@ public class DashboardServiceImpl implements DashboardService {
         int currentYear = Calendar.getInstance().get(Calendar.YEAR);
 
         // Get achieved from completed projects (auto-calculated)
-        List<Object[]> results = projectRepository.countCompletedProjectsSince(startDate);
+        List<Object[]> results = projectStatsService.countCompletedProjectsSince(startDate);
         Map<String, Long> achievedMap = new LinkedHashMap<>();
         results.forEach(r -> achievedMap.put((String) r[0], ((Number) r[1]).longValue()));
 
@@ -147,6 +166,13 @@ public class DashboardServiceImpl implements DashboardService {
         Long pmId = userService.getByEmail(pmEmail).map(User::getUserId).orElseThrow(
                 () -> new RuntimeException("Không tìm thấy user với email: " + pmEmail));
 
+        return dashboardCache.get(cacheKey("performance:pm:" + pmId, range),
+                ProjectPerformanceDTO.class,
+                () -> loadProjectPerformanceByPm(range, pmEmail, pmId));
+    }
+
+    private ProjectPerformanceDTO loadProjectPerformanceByPm(String range, String pmEmail,
+            Long pmId) {
         LocalDateTime startDate = switch (range.toLowerCase()) {
             case "week" -> LocalDateTime.now().minusWeeks(1);
             case "month" -> LocalDateTime.now().minusMonths(1);
@@ -197,6 +223,15 @@ public class DashboardServiceImpl implements DashboardService {
         return new ProjectPerformanceDTO(labels, achieved, target);
     }
 
+    // Khóa theo cửa sổ thời gian và ngày hiện tại để cửa sổ tự trượt sang ngày mới
+    private String cacheKey(String prefix, String range) {
+        String window = switch (range.toLowerCase()) {
+            case "week", "month", "year" -> range.toLowerCase();
+            default -> "half-year";
+        };
+        return prefix + ":" + window + ":" + LocalDate.now();
+    }
+
     private int monthNameToNumber(String name) {
         try {
             return Month.valueOf(name.toUpperCase()).getValue();
@@ -2,21 +2,28 @@ package com.devcollab.service.impl.system;
 
 import com.devcollab.domain.*;
 import com.devcollab.dto.CommentDTO;
+import com.devcollab.dto.response.NotificationPageDTO;
+import com.devcollab.dto.response.NotificationResponseDTO;
+import com.devcollab.exception.BadRequestException;
 import com.devcollab.repository.NotificationRepository;
 import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.system.ActivityService;
 import com.devcollab.service.system.MailService;
+import com.devcollab.service.system.NotificationFanoutService;
 import com.devcollab.service.system.NotificationService;
+import com.devcollab.service.system.UnreadCounterService;
 import com.devcollab.service.system.UserSettingsService;
 import com.devcollab.service.system.WebSocketNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -33,6 +40,12 @@ public class NotificationServiceImpl implements NotificationService {
     private final ActivityService activityService;
     private final MailService mailService;
     private final UserSettingsService userSettingsService;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationFanoutService notificationFanoutService;
+
+    private static final int MAX_INBOX_PAGE = 100;
+    // Cursor của trang đầu: mọi thông báo đều "cũ hơn" mốc này
+    private static final LocalDateTime INBOX_START = LocalDateTime.of(9999, 12, 31, 0, 0);
 
 
     @Transactional
@@ -63,6 +76,7 @@ public class NotificationServiceImpl implements NotificationService {
             notif.setEmailed(false);
 
             notificationRepository.saveAndFlush(notif);
+            unreadCounterService.increment(receiver.getUserId());
 
 
             sendRealtime(receiver, notif, sender);
@@ -223,13 +237,15 @@ public class NotificationServiceImpl implements NotificationService {
             return;
 
         // Gửi cho tất cả PM/OWNER/ADMIN của project
-        project.getMembers().stream()
+        List<User> managers = project.getMembers().stream()
                 .filter(m -> List.of("PM", "OWNER", "ADMIN").contains(m.getRoleInProject()))
-                .forEach(pm -> createNotification(pm.getUser(), "JOIN_REQUEST_RECEIVED",
-                        project.getProjectId(), "Yêu cầu tham gia dự án",
-                        requester.getName() + " (" + requester.getEmail()
-                                + ") muốn tham gia dự án \"" + project.getName() + "\".",
-                        "/view/pm/project/members?projectId=" + project.getProjectId(), requester));
+                .map(ProjectMember::getUser).toList();
+        notificationFanoutService.publish(new NotificationFanoutService.Event(
+                "JOIN_REQUEST_RECEIVED", project.getProjectId(), "Yêu cầu tham gia dự án",
+                requester.getName() + " (" + requester.getEmail() + ") muốn tham gia dự án \""
+                        + project.getName() + "\".",
+                "/view/pm/project/members?projectId=" + project.getProjectId(), requester),
+                managers);
 
         log.info("📨 [Notification] Sent JOIN_REQUEST_RECEIVED for project {}", project.getName());
     }
@@ -306,11 +322,9 @@ public class NotificationServiceImpl implements NotificationService {
                             && (actor == null || !u.getUserId().equals(actor.getUserId())))
                     .distinct().toList();
 
-            for (User receiver : receivers) {
-                String msg = buildTaskMessage(eventType, managed.getTitle(), message, false);
-                createNotification(receiver, eventType, managed.getTaskId(), mapTitle(eventType),
-                        msg, link, actor);
-            }
+            String msg = buildTaskMessage(eventType, managed.getTitle(), message, false);
+            notificationFanoutService.publish(new NotificationFanoutService.Event(eventType,
+                    managed.getTaskId(), mapTitle(eventType), msg, link, actor), receivers);
 
             log.info("[Notification] Sent '{}' to {} follower(s)", eventType, receivers.size());
         } catch (Exception e) {
@@ -352,6 +366,8 @@ public class NotificationServiceImpl implements NotificationService {
 
             log.info("💬 [Mention] Processing mentions for task {}: {}", task.getTaskId(), emails);
 
+            List<User> directMentions = new ArrayList<>();
+
             for (String email : emails) {
 
                 if ("@card".equalsIgnoreCase(email)) {
@@ -370,12 +386,10 @@ public class NotificationServiceImpl implements NotificationService {
                     cardMembers.removeIf(
                             u -> actor != null && u.getUserId().equals(actor.getUserId()));
 
-                    for (User receiver : cardMembers) {
-                        createNotification(receiver, "TASK_COMMENT_MENTION", task.getTaskId(),
-                                "Nhắc đến trong thẻ",
-                                "Đã nhắc đến bạn trong thẻ \"" + task.getTitle() + "\".", taskLink,
-                                actor);
-                    }
+                    notificationFanoutService.publish(new NotificationFanoutService.Event(
+                            "TASK_COMMENT_MENTION", task.getTaskId(), "Nhắc đến trong thẻ",
+                            "Đã nhắc đến bạn trong thẻ \"" + task.getTitle() + "\".", taskLink,
+                            actor), cardMembers);
 
                     log.info("📨 [Mention] Sent @card to {} member(s)", cardMembers.size());
                     continue;
@@ -387,12 +401,11 @@ public class NotificationServiceImpl implements NotificationService {
                             .filter(u -> actor == null || !u.getUserId().equals(actor.getUserId()))
                             .collect(Collectors.toSet());
 
-                    for (User receiver : boardMembers) {
-                        createNotification(receiver, "PROJECT_COMMENT_MENTION",
-                                project.getProjectId(), "Nhắc đến trong bảng dự án",
-                                "Đã nhắc đến bạn trong dự án \"" + project.getName() + "\".",
-                                projectLink, actor);
-                    }
+                    notificationFanoutService.publish(new NotificationFanoutService.Event(
+                            "PROJECT_COMMENT_MENTION", project.getProjectId(),
+                            "Nhắc đến trong bảng dự án",
+                            "Đã nhắc đến bạn trong dự án \"" + project.getName() + "\".",
+                            projectLink, actor), boardMembers);
 
                     log.info("📨 [Mention] Sent @board to {} member(s)", boardMembers.size());
                     continue;
@@ -401,16 +414,19 @@ public class NotificationServiceImpl implements NotificationService {
                 userRepository.findByEmail(email).ifPresentOrElse(receiver -> {
                     if (actor != null && receiver.getUserId().equals(actor.getUserId()))
                         return;
-
-                    createNotification(receiver, "TASK_COMMENT_MENTION", task.getTaskId(),
-                            "Bạn được nhắc đến",
-                            "Đã nhắc đến bạn trong thẻ \"" + task.getTitle() + "\".", taskLink,
-                            actor);
-                    log.info("📨 [Mention] Sent direct mention to {}", email);
-
+                    directMentions.add(receiver);
                 }, () -> log.debug("⚠️ [Mention] Skipped unknown email: {}", email));
             }
 
+            // Mention trực tiếp: gom lại gửi một lần
+            if (!directMentions.isEmpty()) {
+                notificationFanoutService.publish(new NotificationFanoutService.Event(
+                        "TASK_COMMENT_MENTION", task.getTaskId(), "Bạn được nhắc đến",
+                        "Đã nhắc đến bạn trong thẻ \"" + task.getTitle() + "\".", taskLink,
+                        actor), directMentions);
+                log.info("📨 [Mention] Sent direct mention to {} user(s)", directMentions.size());
+            }
+
             activityService.log("MENTION", task.getTaskId(), "NOTIFY_MENTIONS",
                     "Đã gửi thông báo mention cho " + emails.size() + " mục.");
 
@@ -452,6 +468,7 @@ public class NotificationServiceImpl implements NotificationService {
         n.setStatus("unread");
         n.setCreatedAt(LocalDateTime.now());
         notificationRepository.save(n);
+        unreadCounterService.increment(user.getUserId());
 
         activityService.log("PAYMENT", order.getId(), "NOTIFY_PAYMENT_SUCCESS",
                 "Thanh toán thành công cho đơn hàng: " + order.getName());
@@ -459,11 +476,10 @@ public class NotificationServiceImpl implements NotificationService {
         log.info("📢 Đã tạo thông báo thanh toán thành công cho {}", user.getEmail());
     }
 
+    // Không mở transaction: thường chỉ là một HGET trên Redis
     @Override
-    @Transactional(readOnly = true)
     public int countUnread(String email) {
-        return userRepository.findByEmail(email)
-                .map(u -> notificationRepository.countUnreadByUserId(u.getUserId())).orElse(0);
+        return unreadCounterService.countUnread(email);
     }
 
     @Override
@@ -474,6 +490,69 @@ public class NotificationServiceImpl implements NotificationService {
                 .orElse(List.of());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationPageDTO getInbox(String email, String status, String type,
+            String priority, String cursor, int limit) {
+        Long userId = userRepository.findIdByEmail(email).orElse(null);
+        if (userId == null)
+            return new NotificationPageDTO(List.of(), null, false);
+
+        int size = Math.max(1, Math.min(limit, MAX_INBOX_PAGE));
+        // Lấy dư 1 bản ghi để biết còn trang tiếp hay không
+        PageRequest window = PageRequest.of(0, size + 1);
+        InboxCursor c = (cursor == null || cursor.isBlank())
+                ? new InboxCursor(INBOX_START, Long.MAX_VALUE)
+                : decodeCursor(cursor);
+
+        String statusFilter = normalizeStatus(status);
+        String typeFilter = upperOrNull(type);
+        String priorityFilter = upperOrNull(priority);
+        List<NotificationResponseDTO> rows = statusFilter == null
+                ? notificationRepository.findInboxPage(userId, typeFilter, priorityFilter,
+                        c.createdAt(), c.notificationId(), window)
+                : notificationRepository.findInboxPageByStatus(userId, statusFilter, typeFilter,
+                        priorityFilter, c.createdAt(), c.notificationId(), window);
+
+        boolean hasMore = rows.size() > size;
+        List<NotificationResponseDTO> page = hasMore ? rows.subList(0, size) : rows;
+        String next = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new NotificationPageDTO(new ArrayList<>(page), next, hasMore);
+    }
+
+    private String normalizeStatus(String status) {
+        if (status == null || status.isBlank() || "all".equalsIgnoreCase(status.trim()))
+            return null;
+        String s = status.trim().toLowerCase();
+        if (!"read".equals(s) && !"unread".equals(s))
+            throw new BadRequestException("Trạng thái thông báo không hợp lệ: " + status);
+        return s;
+    }
+
+    private String upperOrNull(String value) {
+        return (value == null || value.isBlank()) ? null : value.trim().toUpperCase();
+    }
+
+    private String encodeCursor(NotificationResponseDTO n) {
+        String raw = n.getCreatedAt() + "_" + n.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private InboxCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('_');
+            return new InboxCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (Exception e) {
+            throw new BadRequestException("Cursor không hợp lệ");
+        }
+    }
+
+    private record InboxCursor(LocalDateTime createdAt, Long notificationId) {
+    }
+
     @Override
     @Transactional
     public boolean markAsRead(Long id, String email) {
@@ -487,6 +566,7 @@ public class NotificationServiceImpl implements NotificationService {
                 n.setStatus("read");
                 n.setReadAt(LocalDateTime.now());
                 notificationRepository.save(n);
+                unreadCounterService.decrement(n.getUser().getUserId(), 1);
             }
             return true;
         }).orElse(false);
@@ -495,16 +575,32 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public int markAllAsRead(String email) {
-        return userRepository.findByEmail(email)
-                .map(u -> notificationRepository.markAllAsReadByUserId(u.getUserId())).orElse(0);
+        return userRepository.findByEmail(email).map(u -> {
+            int updated = notificationRepository.markAllAsReadByUserId(u.getUserId());
+            unreadCounterService.decrement(u.getUserId(), updated);
+            return updated;
+        }).orElse(0);
     }
 
     @Override
     @Transactional
     public void deleteNotification(Long id) {
+        notificationRepository.findById(id).ifPresent(n -> {
+            if ("unread".equalsIgnoreCase(n.getStatus()) && n.getUser() != null)
+                unreadCounterService.decrement(n.getUser().getUserId(), 1);
+        });
         notificationRepository.deleteById(id);
     }
 
+    @Override
+    @Transactional
+    public boolean deleteNotification(Long id, String email) {
+        if (email == null || !notificationRepository.isOwnedBy(id, email))
+            return false;
+        deleteNotification(id);
+        return true;
+    }
+
     @Override
     public List<Map<String, Object>> findRecentByProject(Long projectId) {
         try {
@@ -517,16 +613,7 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     private String determinePriority(String type) {
-        if (type == null)
-            return "LOW";
-
-        return switch (type.toUpperCase()) {
-            case "TASK_COMMENT_MENTION", "PROJECT_COMMENT_MENTION", "MEMBER_ADDED", "TASK_MEMBER_ADDED", "PROJECT_MEMBER_ROLE_UPDATED", "PASSWORD_CHANGED", "PAYMENT_SUCCESS", "PROJECT_LINK_REGENERATED", "TASK_DUE_SOON", "JOIN_REQUEST_RECEIVED", "SCHEDULE_CREATED" -> "HIGH";
-
-            case "TASK_COMMENTED", "TASK_MEMBER_REMOVED", "PROJECT_CREATED", "PROJECT_ARCHIVED", "TASK_FOLLOWED", "JOIN_REQUEST_APPROVED", "JOIN_REQUEST_REJECTED" -> "MEDIUM";
-
-            default -> "LOW";
-        };
+        return Notification.priorityOf(type);
     }
 
 
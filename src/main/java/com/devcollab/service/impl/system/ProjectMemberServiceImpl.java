@@ -15,6 +15,7 @@ import com.devcollab.service.system.ActivityService;
 import com.devcollab.service.system.MailService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectMemberService;
+import com.devcollab.service.system.ProjectMembershipCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,6 +41,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
     private final ProjectRepository projectRepo;
     private final UserRepository userRepo;
     private final ActivityService activityService;
+    private final ProjectMembershipCache membershipCache;
     @Autowired
     private NotificationService notificationService;
     @Autowired
@@ -111,6 +113,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
             throw new NotFoundException("Không tìm thấy thành viên cần xóa");
         }
         projectMemberRepo.deleteAll(members);
+        membershipCache.evictAll();
         return true;
     }
 
@@ -149,6 +152,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
 
         // ✅ Thực hiện xóa
         projectMemberRepo.deleteByProject_ProjectIdAndUser_UserId(projectId, userId);
+        membershipCache.evictProject(projectId);
         log.info("🗑️ {} đã xóa {} khỏi project '{}' (ID={})", requesterEmail, target.getEmail(),
                 project.getName(), projectId);
 
@@ -181,6 +185,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
             }
 
             projectMemberRepo.addMember(projectId, user.getUserId(), role.toUpperCase());
+            membershipCache.evictProject(projectId);
             log.info("✅ {} mời {} vào project '{}' với vai trò {}", pmEmail, email,
                     project.getName(), role);
 
@@ -251,6 +256,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
 
         // 📝 Cập nhật role
         projectMemberRepo.updateMemberRole(projectId, userId, newRole.toUpperCase());
+        membershipCache.evictProject(projectId);
         log.info("🔄 {} đổi vai trò của {} trong project '{}' thành {}", actor.getEmail(),
                 target.getEmail(), project.getName(), newRole);
 
@@ -314,6 +320,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
 
         long before = projectMemberRepo.count();
         projectMemberRepo.deleteAllByUserIdAndPmEmail(userId, pmEmail);
+        membershipCache.evictAll();
         long after = projectMemberRepo.count();
 
         return before != after;
@@ -349,6 +356,7 @@ public class ProjectMemberServiceImpl implements ProjectMemberService {
         ProjectMember m = members.get(0);
         m.setRoleInProject(role.toUpperCase());
         projectMemberRepo.save(m);
+        membershipCache.evictProject(projectId);
 
         log.info("🔄 {} đổi vai trò của {} trong dự án '{}' thành {}", actor.getEmail(),
                 target.getEmail(), project.getName(), role);
@@ -2,6 +2,7 @@ package com.devcollab.service.impl.system;
 
 import com.devcollab.domain.ProjectTarget;
 import com.devcollab.repository.ProjectTargetRepository;
+import com.devcollab.service.system.DashboardCache;
 import com.devcollab.service.system.ProjectTargetService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -14,21 +15,24 @@ import java.util.Optional;
 public class ProjectTargetServiceImpl implements ProjectTargetService {
 
     private final ProjectTargetRepository projectTargetRepository;
+    private final DashboardCache dashboardCache;
 
     @Override
     public ProjectTarget saveOrUpdateTarget(int month, int year, int targetCount, Long createdBy) {
         Optional<ProjectTarget> existing =
                 projectTargetRepository.findByMonthYearAndPm(month, year, createdBy);
 
+        ProjectTarget target;
         if (existing.isPresent()) {
-            ProjectTarget pt = existing.get();
-            pt.setTargetCount(targetCount);
-            return projectTargetRepository.save(pt);
+            target = existing.get();
+            target.setTargetCount(targetCount);
+        } else {
+            target = ProjectTarget.builder().month(month).year(year).targetCount(targetCount)
+                    .createdBy(createdBy).build();
         }
-
-        ProjectTarget newTarget = ProjectTarget.builder().month(month).year(year)
-                .targetCount(targetCount).createdBy(createdBy).build();
-        return projectTargetRepository.save(newTarget);
+        ProjectTarget saved = projectTargetRepository.save(target);
+        dashboardCache.invalidate();
+        return saved;
     }
 
     @Override
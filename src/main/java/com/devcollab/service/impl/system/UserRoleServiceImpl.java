@@ -5,6 +5,7 @@ import com.devcollab.domain.User;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.RoleRepository;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.security.PrincipalCache;
 import com.devcollab.service.system.UserRoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Service;
 public class UserRoleServiceImpl implements UserRoleService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final PrincipalCache principalCache;
     @Override
     public void assignDefaultRole(User user){
         Role userRole = roleRepository.findByName("ROLE_USER")
@@ -25,6 +27,7 @@ public class UserRoleServiceImpl implements UserRoleService {
         if (!hasUserRole) {
             user.getRoles().add(userRole);
             userRepository.save(user);
+            principalCache.evict(user.getEmail());
         }
     }
 }
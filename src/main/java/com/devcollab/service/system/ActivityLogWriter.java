@@ -0,0 +1,275 @@
+package com.devcollab.service.system;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.domain.Activity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only pipeline behind {@link ActivityService#log}.
+ *
+ * Entries are held until the caller's transaction commits (and dropped on rollback), then queued in
+ * memory and written by a single background thread in JDBC batches that reference the actor by id.
+ * Callers never wait on the {@code Activity} table.
+ *
+ * When the queue is full or the database rejects a batch for a non-data reason, the entries are
+ * appended as JSON lines to a spill file under {@code app.activity.spill-dir}. Spill files are
+ * replayed on startup and periodically afterwards, and whatever is still queued at shutdown is
+ * spilled rather than lost.
+ */
+@Service
+@Slf4j
+public class ActivityLogWriter {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String SPILL_FILE = "activity-spill.jsonl";
+    private static final String REPLAY_PREFIX = "activity-replay-";
+
+    private static final String INSERT_SQL = "INSERT INTO dbo.[Activity] "
+            + "(actor_id, entity_type, entity_id, action, data_json, created_at, activity_month) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path spillDir;
+    private final BlockingQueue<Entry> queue;
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    private volatile boolean accepting = true;
+    private volatile Thread writer;
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+            @Value("${app.activity.write-behind.capacity:20000}") int capacity,
+            @Value("${app.activity.spill-dir:${java.io.tmpdir}/devcollab-activity}")
+            String spillDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.spillDir = Paths.get(spillDir);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = Thread.ofPlatform().name("activity-writer").daemon(true).start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        accepting = false;
+        Thread t = writer;
+        if (t != null)
+            t.join(TimeUnit.SECONDS.toMillis(30));
+
+        List<Entry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            log.warn("⚠️ [Activity] Còn {} log chưa ghi khi dừng, chuyển sang file spill",
+                    rest.size());
+            spill(rest);
+        }
+    }
+
+    /** Queues an entry once the surrounding transaction (if any) has committed. */
+    public void append(Entry entry) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            enqueue(entry);
+                        }
+                    });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    private void enqueue(Entry entry) {
+        if (!accepting || !queue.offer(entry))
+            spill(List.of(entry));
+    }
+
+    private void writeLoop() {
+        // Ghi lại phần spill còn sót từ lần chạy trước
+        replaySpill();
+
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                if (!write(batch))
+                    spill(batch);
+            } catch (InterruptedException e) {
+                // Bỏ qua interrupt: hàng đợi được xử lý tiếp hoặc spill trong stop()
+            } catch (Exception e) {
+                log.error("❌ [Activity] Lỗi writer: {}", e.getMessage(), e);
+                spill(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Inserts a batch. Returns false when the database is unavailable so the caller can spill;
+     * rows rejected for data reasons (constraint violations) are isolated and dropped.
+     */
+    private boolean write(List<Entry> batch) {
+        try {
+            insert(batch);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            insertOneByOne(batch);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("⚠️ [Activity] Không ghi được {} log, chuyển sang file spill: {}",
+                    batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void insertOneByOne(List<Entry> batch) {
+        for (Entry entry : batch) {
+            try {
+                insert(List.of(entry));
+            } catch (DataIntegrityViolationException e) {
+                log.error("❌ [Activity] Bỏ log không hợp lệ [{}#{}] {}: {}", entry.entityType(),
+                        entry.entityId(), entry.action(), e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private void insert(List<Entry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, e) -> {
+            if (e.actorId() != null)
+                ps.setLong(1, e.actorId());
+            else
+                ps.setNull(1, Types.BIGINT);
+            ps.setString(2, e.entityType());
+            ps.setLong(3, e.entityId());
+            ps.setString(4, e.action());
+            ps.setString(5, e.dataJson());
+            ps.setTimestamp(6, Timestamp.valueOf(e.createdAt()));
+            ps.setInt(7, Activity.monthBucket(e.createdAt()));
+        });
+    }
+
+    private synchronized void spill(List<Entry> entries) {
+        if (entries.isEmpty())
+            return;
+        try {
+            Files.createDirectories(spillDir);
+            StringBuilder lines = new StringBuilder();
+            for (Entry entry : entries)
+                lines.append(mapper.writeValueAsString(entry)).append('\n');
+            // DSYNC: dữ liệu nằm trên đĩa trước khi trả về
+            Files.writeString(spillDir.resolve(SPILL_FILE), lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            log.error("❌ [Activity] Mất {} log: không ghi được file spill {}: {}", entries.size(),
+                    spillDir, e.getMessage());
+        }
+    }
+
+    /** Moves the spill file aside and re-inserts it; files that fail are kept for later. */
+    @Scheduled(fixedDelayString = "${app.activity.spill-replay-ms:60000}", initialDelay = 60000)
+    public void replaySpill() {
+        if (!replayLock.tryLock())
+            return;
+        try {
+            synchronized (this) {
+                Path current = spillDir.resolve(SPILL_FILE);
+                if (Files.exists(current)) {
+                    String name = REPLAY_PREFIX + System.currentTimeMillis() + ".jsonl";
+                    Files.move(current, spillDir.resolve(name));
+                }
+            }
+            if (!Files.isDirectory(spillDir))
+                return;
+            try (DirectoryStream<Path> files =
+                    Files.newDirectoryStream(spillDir, REPLAY_PREFIX + "*.jsonl")) {
+                for (Path file : files) {
+                    if (!replayFile(file))
+                        return;
+                }
+            }
+        } catch (IOException e) {
+            log.error("❌ [Activity] Lỗi xử lý file spill trong {}: {}", spillDir, e.getMessage());
+        } finally {
+            replayLock.unlock();
+        }
+    }
+
+    /**
+     * Re-inserts one spill file batch by batch. If the database fails part-way, the file is
+     * rewritten with the lines not yet inserted so they are not duplicated on the next attempt.
+     */
+    private boolean replayFile(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        int from = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (!line.isBlank()) {
+                try {
+                    batch.add(mapper.readValue(line, Entry.class));
+                } catch (IOException e) {
+                    log.error("❌ [Activity] Bỏ dòng spill hỏng trong {}: {}", file.getFileName(),
+                            e.getMessage());
+                }
+            }
+            if (batch.size() == BATCH_SIZE || i == lines.size() - 1) {
+                if (!batch.isEmpty() && !write(batch)) {
+                    Files.write(file, lines.subList(from, lines.size()), StandardCharsets.UTF_8);
+                    return false;
+                }
+                batch.clear();
+                from = i + 1;
+            }
+        }
+
+        Files.deleteIfExists(file);
+        log.info("💾 [Activity] Đã ghi lại {} log từ {}", lines.size(), file.getFileName());
+        return true;
+    }
+
+    public record Entry(Long actorId, String entityType, Long entityId, String action,
+            String dataJson, LocalDateTime createdAt) {
+    }
+}
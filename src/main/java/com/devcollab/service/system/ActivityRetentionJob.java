@@ -0,0 +1,91 @@
+package com.devcollab.service.system;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.devcollab.domain.Activity;
+import com.devcollab.repository.ActivityRepository;
+import com.devcollab.repository.ActivityRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the {@code Activity} table bounded.
+ *
+ * Raw rows are kept for {@code app.activity.retention-months}. Each older month bucket is first
+ * compacted into {@code ActivityRollup} (counts per actor, action and entity type) and then deleted
+ * in small chunks, so the job never holds long locks on the table. A month that was rolled up but
+ * not fully deleted (crash, restart) is simply deleted on the next run.
+ *
+ * The same job backfills {@code activity_month} for rows written before the column existed.
+ */
+@Service
+@Slf4j
+public class ActivityRetentionJob {
+
+    private static final int CHUNK = 5000;
+
+    private final ActivityRepository activityRepository;
+    private final ActivityRollupRepository rollupRepository;
+    private final int retentionMonths;
+
+    public ActivityRetentionJob(ActivityRepository activityRepository,
+            ActivityRollupRepository rollupRepository,
+            @Value("${app.activity.retention-months:12}") int retentionMonths) {
+        this.activityRepository = activityRepository;
+        this.rollupRepository = rollupRepository;
+        this.retentionMonths = retentionMonths;
+    }
+
+    // Bản ghi cũ chưa có bucket sẽ không hiện trong tìm kiếm: backfill nền ngay khi khởi động
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        Thread.ofPlatform().name("activity-backfill").daemon(true).start(() -> {
+            try {
+                backfillMonthBuckets();
+            } catch (Exception e) {
+                log.error("❌ [Activity] Backfill bucket tháng thất bại: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(cron = "0 0 4 * * *", zone = "Asia/Ho_Chi_Minh")
+    public void run() {
+        backfillMonthBuckets();
+        compactExpiredMonths();
+    }
+
+    void backfillMonthBuckets() {
+        int total = 0;
+        int updated;
+        while ((updated = activityRepository.backfillMonthBuckets(CHUNK)) > 0)
+            total += updated;
+        if (total > 0)
+            log.info("🗂️ [Activity] Đã gán bucket tháng cho {} log cũ", total);
+    }
+
+    void compactExpiredMonths() {
+        int cutoff = Activity.monthBucket(LocalDateTime.now().minusMonths(retentionMonths));
+
+        Integer month;
+        while ((month = activityRepository.findOldestMonth().orElse(null)) != null
+                && month < cutoff) {
+            int rolledUp = 0;
+            if (!rollupRepository.existsByActivityMonth(month))
+                rolledUp = rollupRepository.rollupMonth(month);
+
+            long deleted = 0;
+            int removed;
+            while ((removed = activityRepository.deleteMonthChunk(month, CHUNK)) > 0)
+                deleted += removed;
+
+            log.info("🧹 [Activity] Tháng {}: rollup {} nhóm, xóa {} log chi tiết", month,
+                    rolledUp, deleted);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ActivityService {
@@ -34,6 +35,11 @@ public interface ActivityService {
     List<Activity> getAllActivities();
     public Page<Activity> getPaginatedActivities(Pageable pageable);
     void logWithActor(Long actorId, String entityType, Long entityId, String action, String data);
-    Page<Activity> searchActivities(String user, String action, String entityType, Pageable pageable);
+    /**
+     * Tìm log cho admin: user theo tiền tố tên, action theo tiền tố, entityType chính xác, trong
+     * khoảng ngày [from, to] (null = toàn bộ thời gian còn lưu)
+     */
+    Page<Activity> searchActivities(String user, String action, String entityType, LocalDate from,
+            LocalDate to, Pageable pageable);
 
 }
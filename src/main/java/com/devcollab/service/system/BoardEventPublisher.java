@@ -0,0 +1,126 @@
+package com.devcollab.service.system;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.dto.BoardEventDTO;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes board changes to {@code /topic/board.{projectId}}.
+ *
+ * {@link BoardVersionService#touch} hands every change here. Changes made inside a transaction are
+ * held until it commits (and dropped on rollback), then buffered per project for a short window so
+ * a drag-and-drop burst or a multi-entity write goes out as a single frame.
+ */
+@Service
+@Slf4j
+public class BoardEventPublisher {
+
+    private static final int MAX_CHANGES_PER_FRAME = 200;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long windowMillis;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("board-events").daemon(true).factory());
+
+    public BoardEventPublisher(SimpMessagingTemplate messagingTemplate,
+            @Value("${app.board.events.coalesce-ms:150}") long windowMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.windowMillis = windowMillis;
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+    }
+
+    public void publish(Long projectId, long version, String entityType, Long entityId) {
+        if (projectId == null)
+            return;
+        BoardEventDTO.Change change = new BoardEventDTO.Change(entityType, entityId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            enqueue(projectId, version, change);
+                        }
+                    });
+        } else {
+            enqueue(projectId, version, change);
+        }
+    }
+
+    private void enqueue(Long projectId, long version, BoardEventDTO.Change change) {
+        boolean[] first = {false};
+        pending.compute(projectId, (id, p) -> {
+            if (p == null) {
+                p = new Pending();
+                first[0] = true;
+            }
+            p.add(version, change);
+            return p;
+        });
+
+        // Chỉ lần thêm đầu tiên của cửa sổ mới hẹn giờ flush
+        if (first[0]) {
+            try {
+                flusher.schedule(() -> flush(projectId), windowMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                pending.remove(projectId);
+                log.warn("⚠️ [BoardEvents] Không hẹn được flush cho project {}: {}", projectId,
+                        e.getMessage());
+            }
+        }
+    }
+
+    private void flush(Long projectId) {
+        Pending batch = pending.remove(projectId);
+        if (batch == null)
+            return;
+
+        BoardEventDTO event;
+        synchronized (batch) {
+            boolean overflow = batch.changes.size() > MAX_CHANGES_PER_FRAME;
+            event = new BoardEventDTO(projectId, batch.version, overflow,
+                    overflow ? List.of() : new ArrayList<>(batch.changes));
+        }
+
+        try {
+            messagingTemplate.convertAndSend("/topic/board." + projectId, event);
+        } catch (Exception e) {
+            log.error("❌ [BoardEvents] Lỗi gửi sự kiện board {}: {}", projectId, e.getMessage(),
+                    e);
+        }
+    }
+
+    private static final class Pending {
+        private long version;
+        private final Set<BoardEventDTO.Change> changes = new LinkedHashSet<>();
+
+        private synchronized void add(long v, BoardEventDTO.Change change) {
+            version = Math.max(version, v);
+            if (change.id() != null)
+                changes.add(change);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.devcollab.service.system;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devcollab.domain.BoardChange;
+import com.devcollab.exception.NotFoundException;
+import com.devcollab.repository.BoardChangeRepository;
+import com.devcollab.repository.ProjectRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-project board watermark and change log.
+ *
+ * Every write that changes what the board shows (tasks, columns, labels, checklist items,
+ * followers, comment/attachment counts) calls {@link #touch(Long, String, Long)}. That bumps
+ * {@code Project.board_version} with a single UPDATE and records which entity changed at the new
+ * version. The snapshot endpoint uses the version as its ETag; the delta endpoint uses the log to
+ * find what changed after a client's last version, and {@link BoardEventPublisher} pushes it to
+ * open boards once the transaction commits. The UPDATE holds the project row lock until commit, so
+ * versions become visible in commit order.
+ */
+@Service
+@Slf4j
+public class BoardVersionService {
+
+    public static final String TASK = "TASK";
+    public static final String COLUMN = "COLUMN";
+    public static final String LABEL = "LABEL";
+    public static final String CHECKLIST = "CHECKLIST";
+
+    private final ProjectRepository projectRepository;
+    private final BoardChangeRepository boardChangeRepository;
+    private final BoardEventPublisher boardEventPublisher;
+    private final int retentionDays;
+
+    public BoardVersionService(ProjectRepository projectRepository,
+            BoardChangeRepository boardChangeRepository, BoardEventPublisher boardEventPublisher,
+            @Value("${app.board.change-log.retention-days:14}") int retentionDays) {
+        this.projectRepository = projectRepository;
+        this.boardChangeRepository = boardChangeRepository;
+        this.boardEventPublisher = boardEventPublisher;
+        this.retentionDays = retentionDays;
+    }
+
+    @Transactional
+    public void touch(Long projectId, String entityType, Long entityId) {
+        if (projectId == null)
+            return;
+        projectRepository.bumpBoardVersion(projectId);
+        long version = projectRepository.findBoardVersion(projectId).orElse(0L);
+
+        if (entityId != null) {
+            boardChangeRepository.save(BoardChange.builder().projectId(projectId).version(version)
+                    .entityType(entityType).entityId(entityId).changedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        boardEventPublisher.publish(projectId, version, entityType, entityId);
+    }
+
+    public long currentVersion(Long projectId) {
+        return projectRepository.findBoardVersion(projectId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy dự án"));
+    }
+
+    public String etag(Long projectId, long version) {
+        return "\"board-" + projectId + "-v" + version + "\"";
+    }
+
+    /**
+     * Whether every change in {@code (since, current]} is still in the log. False when the client
+     * is ahead of the server or the range was pruned, in which case it must reload the snapshot.
+     */
+    public boolean canServeDelta(Long projectId, long since, long current) {
+        if (since < 0 || since > current)
+            return false;
+        if (since == current)
+            return true;
+        return boardChangeRepository.findOldestVersion(projectId)
+                .map(oldest -> oldest <= since + 1).orElse(false);
+    }
+
+    /** Entity ids changed in {@code (since, upTo]}, grouped by entity type. */
+    public Map<String, Set<Long>> changedSince(Long projectId, long since, long upTo) {
+        Map<String, Set<Long>> changed = new HashMap<>();
+        for (Object[] row : boardChangeRepository.findChangedEntities(projectId, since, upTo)) {
+            changed.computeIfAbsent((String) row[0], k -> new HashSet<>())
+                    .add(((Number) row[1]).longValue());
+        }
+        return changed;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *", zone = "Asia/Ho_Chi_Minh")
+    public void pruneChangeLog() {
+        int removed =
+                boardChangeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0)
+            log.info("🧹 [Board] Đã xóa {} bản ghi thay đổi board cũ hơn {} ngày", removed,
+                    retentionDays);
+    }
+}
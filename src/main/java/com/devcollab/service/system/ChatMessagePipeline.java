@@ -0,0 +1,380 @@
+package com.devcollab.service.system;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import com.devcollab.dto.response.MessageResponseDTO;
+import com.devcollab.exception.BadRequestException;
+import com.devcollab.exception.NotFoundException;
+import com.devcollab.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind ingestion for project chat.
+ *
+ * {@link #submit} resolves the sender from a small cache, checks membership through
+ * {@link ProjectMembershipCache}, assigns the message id and returns the broadcast DTO without
+ * touching the {@code Message} table. The row is appended to a bounded queue that a single writer
+ * thread flushes in JDBC batches; a message is added to the search index only once its row is
+ * written.
+ *
+ * Ids come from the {@code dbo.message_seq} sequence (created by
+ * {@code db/migration/V1__message_sequence.sql}) in blocks of {@value #ID_BLOCK}. A sequence
+ * value {@code v} stands for the block {@code [v - 49, v]}, the same reading as Hibernate's pooled
+ * optimizer behind {@code Message.messageId}, so ids allocated here never collide with entities
+ * saved through JPA.
+ *
+ * Nothing runs that script automatically: {@code ddl-auto=update} alone leaves
+ * {@code message_id} as an IDENTITY column and creates the sequence at 1. {@link #start} therefore
+ * checks that the column is not IDENTITY and that the sequence is past {@code MAX(message_id)};
+ * when either check fails the writer is not started and {@link #submit} refuses every message
+ * instead of accepting rows that could never be written.
+ *
+ * A batch that violates a constraint is written again row by row and the offending rows are logged
+ * and dropped. Other failures are retried with backoff up to
+ * {@code app.chat.write-behind.max-attempts} times before the batch is dropped.
+ *
+ * When the queue is full, {@link #submit} waits briefly and then rejects the message, pushing back
+ * on senders instead of growing memory. On shutdown new messages are refused and the queue is
+ * drained before the writer exits.
+ */
+@Service
+@Slf4j
+public class ChatMessagePipeline {
+
+    private static final int ID_BLOCK = 50;
+    private static final int BATCH_SIZE = 500;
+    private static final long SENDER_TTL_MILLIS = 5 * 60 * 1000;
+
+    private static final String STOPPING = "Hệ thống chat đang dừng, vui lòng thử lại sau";
+    private static final String UNAVAILABLE =
+            "Hệ thống chat chưa sẵn sàng, vui lòng liên hệ quản trị";
+
+    private static final String NEXT_ID_SQL = "SELECT NEXT VALUE FOR dbo.message_seq";
+    private static final String IDENTITY_SQL = "SELECT COLUMNPROPERTY("
+            + "OBJECT_ID('dbo.[Message]'), 'message_id', 'IsIdentity')";
+    private static final String SEQUENCE_SQL = "SELECT "
+            + "CAST(s.current_value AS BIGINT) AS current_value, "
+            + "CAST(s.increment AS BIGINT) AS increment, "
+            + "(SELECT ISNULL(MAX(message_id), 0) FROM dbo.[Message]) AS max_id "
+            + "FROM sys.sequences s WHERE s.object_id = OBJECT_ID('dbo.message_seq')";
+
+    private static final String INSERT_SQL = "INSERT INTO dbo.[Message] "
+            + "(message_id, project_id, sender_id, content, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final ProjectMembershipCache membershipCache;
+    private final SearchIndexService searchIndexService;
+    private final long offerTimeoutMillis;
+    private final int maxAttempts;
+
+    private final BlockingQueue<PendingMessage> queue;
+    private final Map<String, Sender> senders;
+
+    private volatile boolean accepting = true;
+    private volatile boolean schemaReady = true;
+    private volatile Thread writer;
+
+    // Block id hiện tại: [nextId, blockEnd]
+    private long nextId;
+    private long blockEnd = -1;
+
+    public ChatMessagePipeline(JdbcTemplate jdbcTemplate, UserRepository userRepository,
+            ProjectMembershipCache membershipCache, SearchIndexService searchIndexService,
+            @Value("${app.chat.write-behind.capacity:10000}") int capacity,
+            @Value("${app.chat.write-behind.offer-timeout-ms:200}") long offerTimeoutMillis,
+            @Value("${app.chat.write-behind.max-attempts:8}") int maxAttempts,
+            @Value("${app.chat.sender-cache.max-size:5000}") int maxSenders) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.membershipCache = membershipCache;
+        this.searchIndexService = searchIndexService;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxAttempts = maxAttempts;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.senders = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Sender> eldest) {
+                return size() > maxSenders;
+            }
+        };
+    }
+
+    @PostConstruct
+    void start() {
+        String problem = checkSchema();
+        if (problem != null) {
+            schemaReady = false;
+            log.error("❌ [Chat] Không bật pipeline ghi tin nhắn: {}. Hãy chạy "
+                    + "db/migration/V1__message_sequence.sql rồi khởi động lại", problem);
+            return;
+        }
+        writer = Thread.ofPlatform().name("chat-writer").daemon(true).start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        accepting = false;
+        Thread t = writer;
+        if (t != null) {
+            t.join(TimeUnit.SECONDS.toMillis(30));
+            if (t.isAlive())
+                log.error("❌ [Chat] Writer chưa ghi xong, còn {} tin trong hàng đợi", queue.size());
+        }
+    }
+
+    /** Assigns an id, queues the row for the writer and returns the DTO to broadcast. */
+    public MessageResponseDTO submit(Long projectId, String senderEmail, String content) {
+        if (!schemaReady)
+            throw new IllegalStateException(UNAVAILABLE);
+        if (!accepting)
+            throw new IllegalStateException(STOPPING);
+        if (projectId == null)
+            throw new BadRequestException("Thiếu projectId");
+        if (content == null || content.isBlank())
+            throw new BadRequestException("Nội dung tin nhắn không được để trống");
+
+        Sender sender = resolveSender(senderEmail);
+        if (membershipCache.getRole(projectId, sender.userId()) == null)
+            throw new AccessDeniedException("Bạn không phải thành viên của dự án này");
+
+        PendingMessage pending = new PendingMessage(allocateId(), projectId, sender.userId(),
+                sender.name(), content, LocalDateTime.now());
+
+        boolean queued;
+        try {
+            queued = queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            log.warn("⚠️ [Chat] Hàng đợi ghi đầy ({}), từ chối tin của {}", queue.size(),
+                    senderEmail);
+            throw new IllegalStateException("Hệ thống chat đang quá tải, vui lòng thử lại");
+        }
+        // stop() có thể chen giữa lần kiểm tra đầu và offer: nếu writer đã thoát mà tin còn trong
+        // hàng đợi thì rút lại và báo lỗi, còn không thì writer đã nhận tin và sẽ ghi nó
+        if (!accepting && queue.remove(pending))
+            throw new IllegalStateException(STOPPING);
+
+        return new MessageResponseDTO(pending.messageId(), sender.name(), sender.email(),
+                sender.avatarUrl(), content, pending.createdAt());
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    private Sender resolveSender(String email) {
+        if (email == null || email.isBlank())
+            throw new NotFoundException("User không tồn tại");
+
+        String key = email.trim().toLowerCase();
+        long now = System.currentTimeMillis();
+        synchronized (senders) {
+            Sender cached = senders.get(key);
+            if (cached != null && cached.expiresAt() > now)
+                return cached;
+        }
+
+        List<Object[]> rows = userRepository.findChatSenderByEmail(email.trim());
+        if (rows.isEmpty())
+            throw new NotFoundException("User không tồn tại");
+
+        Object[] row = rows.get(0);
+        Sender sender = new Sender(((Number) row[0]).longValue(), (String) row[1],
+                (String) row[2], (String) row[3], now + SENDER_TTL_MILLIS);
+        synchronized (senders) {
+            senders.put(key, sender);
+        }
+        return sender;
+    }
+
+    /** Returns why ids from {@code dbo.message_seq} cannot be written, or null when they can. */
+    private String checkSchema() {
+        try {
+            Integer identity = jdbcTemplate.queryForObject(IDENTITY_SQL, Integer.class);
+            if (identity == null)
+                return "không tìm thấy cột dbo.Message.message_id";
+            if (identity == 1)
+                return "dbo.Message.message_id vẫn là IDENTITY";
+
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(SEQUENCE_SQL);
+            if (rows.isEmpty())
+                return "không tìm thấy sequence dbo.message_seq";
+            Map<String, Object> row = rows.get(0);
+            long current = ((Number) row.get("current_value")).longValue();
+            long increment = ((Number) row.get("increment")).longValue();
+            long maxId = ((Number) row.get("max_id")).longValue();
+            if (increment != ID_BLOCK)
+                return "dbo.message_seq có INCREMENT BY " + increment + ", cần " + ID_BLOCK;
+            // Block kế tiếp là [current + 1, current + 50]: chỉ an toàn khi đã vượt id lớn nhất
+            if (current < maxId)
+                return "dbo.message_seq đang ở " + current + ", thấp hơn MAX(message_id) = "
+                        + maxId;
+            return null;
+        } catch (DataAccessException e) {
+            return "không kiểm tra được schema (" + e.getMessage() + ")";
+        }
+    }
+
+    private synchronized long allocateId() {
+        while (nextId > blockEnd) {
+            // Giá trị v là block [v - 49, v]; v nhỏ hơn một block (sequence mới) thì bỏ qua
+            Long end = jdbcTemplate.queryForObject(NEXT_ID_SQL, Long.class);
+            if (end == null || end < ID_BLOCK)
+                continue;
+            nextId = end - ID_BLOCK + 1;
+            blockEnd = end;
+        }
+        return nextId++;
+    }
+
+    private void writeLoop() {
+        List<PendingMessage> batch = new ArrayList<>(BATCH_SIZE);
+        while (accepting || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // Bỏ qua interrupt: vẫn phải ghi hết hàng đợi trước khi dừng
+            } finally {
+                batch.clear();
+            }
+        }
+        log.info("💾 [Chat] Writer đã dừng, hàng đợi trống");
+    }
+
+    private void write(List<PendingMessage> batch) {
+        List<PendingMessage> pending = batch;
+        long backoff = 100;
+        for (int attempt = 1;; attempt++) {
+            String error;
+            try {
+                insertBatch(pending);
+                pending.forEach(this::index);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.warn("⚠️ [Chat] Batch {} tin vi phạm ràng buộc, ghi lại từng tin: {}",
+                        pending.size(), e.getMostSpecificCause().getMessage());
+                pending = insertOneByOne(pending);
+                if (pending.isEmpty())
+                    return;
+                error = "lỗi khi ghi từng tin";
+            } catch (Exception e) {
+                error = e.getMessage();
+            }
+
+            // Khi đang tắt, không giữ ứng dụng lâu vì DB lỗi
+            if (attempt >= maxAttempts || (!accepting && attempt >= 3)) {
+                log.error("❌ [Chat] Bỏ {} tin sau {} lần ghi thất bại: {}", pending.size(),
+                        attempt, error);
+                return;
+            }
+            log.warn("⚠️ [Chat] Ghi {} tin thất bại (lần {}), thử lại sau {}ms: {}",
+                    pending.size(), attempt, backoff, error);
+            sleepQuietly(backoff);
+            backoff = Math.min(backoff * 2, 5000);
+        }
+    }
+
+    /** Writes each row alone, dropping the ones that violate a constraint; returns the rest. */
+    private List<PendingMessage> insertOneByOne(List<PendingMessage> batch) {
+        List<PendingMessage> failed = new ArrayList<>();
+        for (PendingMessage m : batch) {
+            try {
+                insertBatch(List.of(m));
+                index(m);
+            } catch (DataIntegrityViolationException e) {
+                log.error("❌ [Chat] Bỏ tin {} (project {}, sender {}): {}", m.messageId(),
+                        m.projectId(), m.senderId(), e.getMostSpecificCause().getMessage());
+            } catch (Exception e) {
+                failed.add(m);
+            }
+        }
+        return failed;
+    }
+
+    private void index(PendingMessage m) {
+        try {
+            searchIndexService.indexMessage(m.messageId(), m.projectId(), m.content(),
+                    m.senderName());
+        } catch (Exception e) {
+            log.warn("⚠️ [Chat] Không index được tin {}: {}", m.messageId(), e.getMessage());
+        }
+    }
+
+    private void insertBatch(List<PendingMessage> batch) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL)) {
+                for (PendingMessage m : batch) {
+                    ps.setLong(1, m.messageId());
+                    ps.setLong(2, m.projectId());
+                    ps.setLong(3, m.senderId());
+                    ps.setString(4, m.content());
+                    ps.setTimestamp(5, Timestamp.valueOf(m.createdAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                con.commit();
+            } catch (Exception e) {
+                rollbackQuietly(con);
+                throw e;
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ignored) {
+            // Không bỏ batch đang giữ: thử lại ngay vòng sau
+        }
+    }
+
+    private void rollbackQuietly(Connection con) {
+        try {
+            con.rollback();
+        } catch (Exception ignored) {
+        }
+    }
+
+    private record PendingMessage(long messageId, Long projectId, Long senderId,
+            String senderName, String content, LocalDateTime createdAt) {
+    }
+
+    private record Sender(Long userId, String name, String email, String avatarUrl,
+            long expiresAt) {
+    }
+}
@@ -0,0 +1,270 @@
+package com.devcollab.service.system;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier cache for dashboard aggregates: a small local LRU in front of Redis.
+ *
+ * Concurrent misses on the same key are coalesced so the loader runs once per node. Entries older
+ * than {@code refresh-ratio} of the TTL are still served, while a single background reload
+ * replaces them, so hot keys do not expire under load.
+ *
+ * Every key carries a generation number kept in Redis. {@link #invalidate()} (after commit when in
+ * a transaction) bumps the generation and broadcasts it, so all nodes stop reading old entries at
+ * once; stale Redis keys simply expire. Redis being down degrades to the local tier only.
+ */
+@Slf4j
+@Service
+public class DashboardCache implements MessageListener {
+
+    static final String CHANNEL = "devcollab:dashboard-cache";
+    private static final String KEY_PREFIX = "devcollab:dashboard:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Executor refreshExecutor;
+
+    private final long ttlMillis;
+    private final long localTtlMillis;
+    private final long refreshAfterMillis;
+    private final Map<String, Entry> local;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+
+    // -1: chưa đọc từ Redis
+    private volatile long generation = -1;
+
+    public DashboardCache(RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Qualifier("dashboardRefreshExecutor") Executor refreshExecutor,
+            @Value("${app.dashboard.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.dashboard.cache.local-ttl-seconds:30}") long localTtlSeconds,
+            @Value("${app.dashboard.cache.refresh-ratio:0.8}") double refreshRatio,
+            @Value("${app.dashboard.cache.max-entries:2000}") int maxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.localTtlMillis = Math.min(localTtlSeconds * 1000, ttlMillis);
+        this.refreshAfterMillis = (long) (ttlMillis * refreshRatio);
+        this.local = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Cached value for {@code name}, loading it with {@code loader} on a miss. The loader must not
+     * depend on the caller's thread (security context, open transaction): it may run on a
+     * background thread during refresh-ahead.
+     */
+    public <T> T get(String name, Class<T> type, Supplier<T> loader) {
+        String key = KEY_PREFIX + generation() + ":" + name;
+        long now = System.currentTimeMillis();
+
+        Entry entry;
+        synchronized (local) {
+            entry = local.get(key);
+        }
+        if (entry != null && entry.expiresAt() > now && type.isInstance(entry.value())) {
+            if (now - entry.loadedAt() >= refreshAfterMillis)
+                refreshAsync(key, loader);
+            return type.cast(entry.value());
+        }
+
+        // Chờ lượt nạp đang chạy; nếu lượt đó lỗi hoặc bị hủy thì tự nạp
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running;
+        while ((running = inFlight.putIfAbsent(key, mine)) != null) {
+            Object value = await(running);
+            if (type.isInstance(value))
+                return type.cast(value);
+        }
+
+        try {
+            Object value = readRemote(key, type, loader);
+            if (value == null)
+                value = loadAndStore(key, loader);
+            mine.complete(value);
+            return type.cast(value);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Drops every cached dashboard on all nodes, after the current transaction commits. */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            invalidateNow();
+                        }
+                    });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        long next;
+        try {
+            Long bumped = redisTemplate.opsForValue().increment(GENERATION_KEY);
+            next = bumped != null ? bumped : generation + 1;
+            redisTemplate.convertAndSend(CHANNEL, next);
+        } catch (Exception e) {
+            log.warn("⚠️ [DashboardCache] Không cập nhật được generation qua Redis: {}",
+                    e.getMessage());
+            next = Math.max(generation, 0) + 1;
+        }
+        useGeneration(next);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object value = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (value instanceof Number n)
+                useGeneration(n.longValue());
+        } catch (Exception e) {
+            log.warn("⚠️ [DashboardCache] Invalidation không hợp lệ: {}", e.getMessage());
+            useGeneration(-1);
+        }
+    }
+
+    private synchronized void useGeneration(long next) {
+        if (next < 0 || next > generation)
+            generation = next;
+        synchronized (local) {
+            local.clear();
+        }
+    }
+
+    private long generation() {
+        long current = generation;
+        if (current >= 0)
+            return current;
+        synchronized (this) {
+            if (generation < 0) {
+                try {
+                    Object stored = redisTemplate.opsForValue().get(GENERATION_KEY);
+                    generation = stored instanceof Number n ? n.longValue() : 0;
+                } catch (Exception e) {
+                    log.warn("⚠️ [DashboardCache] Không đọc được generation từ Redis: {}",
+                            e.getMessage());
+                    generation = 0;
+                }
+            }
+            return generation;
+        }
+    }
+
+    /** Value from Redis, kept locally with its real age; null when absent or unreadable. */
+    private Object readRemote(String key, Class<?> type, Supplier<?> loader) {
+        try {
+            Object value = redisTemplate.opsForValue().get(key);
+            if (!type.isInstance(value))
+                return null;
+            Long remaining = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+            long age = remaining != null && remaining > 0 ? ttlMillis - remaining : 0;
+            long loadedAt = System.currentTimeMillis() - age;
+            putLocal(key, value, loadedAt);
+            if (age >= refreshAfterMillis)
+                refreshAsync(key, loader);
+            return value;
+        } catch (Exception e) {
+            log.warn("⚠️ [DashboardCache] Không đọc được Redis, dùng cache cục bộ: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private Object loadAndStore(String key, Supplier<?> loader) {
+        Object value = loader.get();
+        long now = System.currentTimeMillis();
+        putLocal(key, value, now);
+        try {
+            redisTemplate.opsForValue().set(key, value, ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("⚠️ [DashboardCache] Không ghi được Redis: {}", e.getMessage());
+        }
+        return value;
+    }
+
+    private void refreshAsync(String key, Supplier<?> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null)
+            return;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    mine.complete(loadAndStore(key, loader));
+                } catch (Exception e) {
+                    log.warn("⚠️ [DashboardCache] Làm mới {} thất bại: {}", key, e.getMessage());
+                    mine.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Hàng đợi làm mới đầy: giữ giá trị cũ, lần đọc sau thử lại
+            inFlight.remove(key, mine);
+            mine.cancel(false);
+        }
+    }
+
+    private void putLocal(String key, Object value, long loadedAt) {
+        long expiresAt =
+                Math.min(System.currentTimeMillis() + localTtlMillis, loadedAt + ttlMillis);
+        synchronized (local) {
+            local.put(key, new Entry(value, loadedAt, expiresAt));
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    private record Entry(Object value, long loadedAt, long expiresAt) {
+    }
+}
@@ -73,6 +73,11 @@ public class JwtService {
         return List.of("ROLE_MEMBER"); // fallback
     }
 
+    // ✅ Parse + verify chữ ký một lần; ném JwtException nếu token không hợp lệ / hết hạn
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
         return Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token)
                 .getBody();
@@ -0,0 +1,349 @@
+package com.devcollab.service.system;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.dto.response.MailOutboxStatsDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable email delivery.
+ *
+ * {@link #enqueue} inserts a row into {@code MailOutbox} on the caller's connection, so a mail
+ * exists exactly when the surrounding transaction commits. A single dispatcher thread claims due
+ * rows in batches ({@code READPAST} lets several nodes share the table), sends each batch over one
+ * SMTP connection and records the outcome. Failed sends are retried with exponential backoff until
+ * {@code app.mail.outbox.max-attempts}, then left as FAILED. Rows stuck in SENDING after a crash
+ * are released again, so delivery is at-least-once.
+ *
+ * The dispatcher sleeps between polls and is woken as soon as a new mail commits.
+ */
+@Service
+@Slf4j
+public class MailOutboxService {
+
+    private static final int SAMPLES = 512;
+    private static final int PURGE_CHUNK = 5000;
+    private static final Duration STALE_CLAIM = Duration.ofMinutes(10);
+
+    private static final String INSERT_SQL = "INSERT INTO dbo.[MailOutbox] "
+            + "(recipient, subject, body, html, status, attempts, next_attempt_at, created_at) "
+            + "VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private static final String CLAIM_SQL = """
+            WITH due AS (
+                SELECT TOP (?) *
+                FROM dbo.[MailOutbox] WITH (ROWLOCK, READPAST, UPDLOCK)
+                WHERE status = 'PENDING' AND next_attempt_at <= ?
+                ORDER BY next_attempt_at, outbox_id
+            )
+            UPDATE due SET status = 'SENDING', claimed_at = ?, attempts = attempts + 1
+            OUTPUT inserted.outbox_id, inserted.recipient, inserted.subject, inserted.body,
+                   inserted.html, inserted.attempts, inserted.created_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JavaMailSender mailSender;
+    private final String senderAddress;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long pollMillis;
+    private final long backoffSeconds;
+    private final int retentionDays;
+
+    private final AtomicLong sentTotal = new AtomicLong();
+    private final AtomicLong failedAttemptsTotal = new AtomicLong();
+    private final long[] sendMillis = new long[SAMPLES];
+    private final long[] delayMillis = new long[SAMPLES];
+    private int sampleCount;
+    private int sampleNext;
+
+    private volatile boolean running = true;
+    private volatile Thread dispatcher;
+    private long lastStaleCheck;
+
+    public MailOutboxService(JdbcTemplate jdbcTemplate, JavaMailSender mailSender,
+            @Value("${app.otp.sender:no-reply@devcollab.local}") String senderAddress,
+            @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+            @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.outbox.poll-ms:2000}") long pollMillis,
+            @Value("${app.mail.outbox.backoff-seconds:30}") long backoffSeconds,
+            @Value("${app.mail.outbox.retention-days:7}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailSender = mailSender;
+        this.senderAddress = senderAddress;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollMillis = pollMillis;
+        this.backoffSeconds = backoffSeconds;
+        this.retentionDays = retentionDays;
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher = Thread.ofPlatform().name("mail-dispatcher").daemon(true)
+                .start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread t = dispatcher;
+        if (t != null) {
+            LockSupport.unpark(t);
+            t.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /** Queues a mail; it is sent only if the surrounding transaction (if any) commits. */
+    public void enqueue(String to, String subject, String body, boolean html) {
+        if (to == null || to.isBlank()) {
+            log.warn("⚠️ [Mail] Bỏ mail '{}' vì không có địa chỉ nhận", subject);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(INSERT_SQL, to.trim(), truncate(subject, 300), body, html,
+                Timestamp.valueOf(now), Timestamp.valueOf(now));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            wakeUp();
+                        }
+                    });
+        } else {
+            wakeUp();
+        }
+    }
+
+    private void wakeUp() {
+        Thread t = dispatcher;
+        if (t != null)
+            LockSupport.unpark(t);
+    }
+
+    // ---------------------------------------------------------------- dispatch
+
+    private void dispatchLoop() {
+        while (running) {
+            int sent = 0;
+            try {
+                releaseStaleClaims();
+                sent = dispatchBatch();
+            } catch (Exception e) {
+                log.error("❌ [Mail] Lỗi dispatcher: {}", e.getMessage(), e);
+            }
+            // Còn đầy batch → chạy tiếp ngay, không thì ngủ tới lần poll sau hoặc khi có mail mới
+            if (sent < batchSize && running)
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollMillis));
+        }
+        log.info("📭 [Mail] Dispatcher đã dừng");
+    }
+
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Claimed> batch = jdbcTemplate.query(CLAIM_SQL,
+                (rs, i) -> new Claimed(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4), rs.getBoolean(5), rs.getInt(6),
+                        rs.getTimestamp(7).toLocalDateTime()),
+                batchSize, Timestamp.valueOf(now), Timestamp.valueOf(now));
+        if (batch.isEmpty())
+            return 0;
+
+        Map<MimeMessage, Claimed> byMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (Claimed c : batch) {
+            try {
+                MimeMessage mime = build(c);
+                byMessage.put(mime, c);
+                messages.add(mime);
+            } catch (Exception e) {
+                // Địa chỉ/nội dung không hợp lệ: gửi lại cũng không khá hơn
+                markFailed(c, e, true);
+            }
+        }
+        if (messages.isEmpty())
+            return batch.size();
+
+        Map<Object, Exception> failures = Map.of();
+        long start = System.nanoTime();
+        try {
+            // Cả batch đi trên cùng một kết nối SMTP
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Không chỉ rõ mail nào lỗi (vd. lỗi kết nối): coi cả batch là thất bại
+            failures = e.getFailedMessages().isEmpty() ? allFailed(messages, e)
+                    : e.getFailedMessages();
+        } catch (Exception e) {
+            failures = allFailed(messages, e);
+        }
+        long perMessage = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                / messages.size();
+
+        List<Object[]> sent = new ArrayList<>();
+        LocalDateTime sentAt = LocalDateTime.now();
+        for (MimeMessage m : messages) {
+            Claimed c = byMessage.get(m);
+            Exception error = failures.get(m);
+            if (error != null) {
+                markFailed(c, error, false);
+            } else {
+                sent.add(new Object[] {Timestamp.valueOf(sentAt), c.id()});
+                record(perMessage, Duration.between(c.createdAt(), sentAt).toMillis());
+            }
+        }
+        if (!sent.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE dbo.[MailOutbox] SET status = 'SENT', sent_at = ?, "
+                    + "last_error = NULL WHERE outbox_id = ?", sent);
+            sentTotal.addAndGet(sent.size());
+            log.info("📨 [Mail] Đã gửi {}/{} mail ({}ms/mail)", sent.size(), batch.size(),
+                    perMessage);
+        }
+        return batch.size();
+    }
+
+    private static Map<Object, Exception> allFailed(List<MimeMessage> messages, Exception e) {
+        Map<Object, Exception> all = new IdentityHashMap<>();
+        messages.forEach(m -> all.put(m, e));
+        return all;
+    }
+
+    private MimeMessage build(Claimed c) throws Exception {
+        MimeMessage mime = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mime, c.html(), "UTF-8");
+        helper.setFrom(senderAddress);
+        helper.setTo(c.recipient());
+        helper.setSubject(c.subject());
+        helper.setText(c.body(), c.html());
+        return mime;
+    }
+
+    private void markFailed(Claimed c, Exception error, boolean permanent) {
+        failedAttemptsTotal.incrementAndGet();
+        String reason = truncate(String.valueOf(error.getMessage()), 500);
+        if (permanent || c.attempts() >= maxAttempts) {
+            jdbcTemplate.update("UPDATE dbo.[MailOutbox] SET status = 'FAILED', last_error = ? "
+                    + "WHERE outbox_id = ?", reason, c.id());
+            log.error("❌ [Mail] Bỏ mail #{} tới {} sau {} lần: {}", c.id(), c.recipient(),
+                    c.attempts(), reason);
+            return;
+        }
+        LocalDateTime next = LocalDateTime.now().plusSeconds(backoff(c.attempts()));
+        jdbcTemplate.update("UPDATE dbo.[MailOutbox] SET status = 'PENDING', last_error = ?, "
+                + "next_attempt_at = ? WHERE outbox_id = ?", reason, Timestamp.valueOf(next),
+                c.id());
+        log.warn("⚠️ [Mail] Gửi mail #{} tới {} thất bại (lần {}), thử lại lúc {}: {}", c.id(),
+                c.recipient(), c.attempts(), next, reason);
+    }
+
+    // 30s, 1m, 2m, 4m ... tối đa 1 giờ
+    private long backoff(int attempts) {
+        long seconds = backoffSeconds << Math.min(attempts - 1, 20);
+        return Math.min(seconds, Duration.ofHours(1).toSeconds());
+    }
+
+    void releaseStaleClaims() {
+        long now = System.currentTimeMillis();
+        if (now - lastStaleCheck < 60_000)
+            return;
+        lastStaleCheck = now;
+        int released = jdbcTemplate.update("UPDATE dbo.[MailOutbox] SET status = 'PENDING' "
+                + "WHERE status = 'SENDING' AND claimed_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(STALE_CLAIM)));
+        if (released > 0)
+            log.warn("⚠️ [Mail] Trả lại {} mail bị kẹt ở trạng thái SENDING", released);
+    }
+
+    @Scheduled(cron = "0 15 4 * * *", zone = "Asia/Ho_Chi_Minh")
+    public void purgeSent() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        long total = 0;
+        int removed;
+        while ((removed = jdbcTemplate.update("DELETE TOP (" + PURGE_CHUNK + ") FROM "
+                + "dbo.[MailOutbox] WHERE status = 'SENT' AND sent_at < ?", cutoff)) > 0)
+            total += removed;
+        if (total > 0)
+            log.info("🧹 [Mail] Đã xóa {} mail đã gửi", total);
+    }
+
+    // ----------------------------------------------------------------- metrics
+
+    public MailOutboxStatsDTO stats() {
+        long pending = 0, sending = 0, failed = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT status, COUNT_BIG(*) AS n "
+                + "FROM dbo.[MailOutbox] WHERE status <> 'SENT' GROUP BY status")) {
+            long n = ((Number) row.get("n")).longValue();
+            switch (String.valueOf(row.get("status"))) {
+                case "PENDING" -> pending = n;
+                case "SENDING" -> sending = n;
+                case "FAILED" -> failed = n;
+                default -> {
+                }
+            }
+        }
+
+        long[] send;
+        long[] delay;
+        synchronized (sendMillis) {
+            send = Arrays.copyOf(sendMillis, sampleCount);
+            delay = Arrays.copyOf(delayMillis, sampleCount);
+        }
+        return new MailOutboxStatsDTO(pending, sending, failed, sentTotal.get(),
+                failedAttemptsTotal.get(), average(send), percentile(send, 95), average(delay),
+                percentile(delay, 95));
+    }
+
+    private void record(long sendMs, long delayMs) {
+        synchronized (sendMillis) {
+            sendMillis[sampleNext] = sendMs;
+            delayMillis[sampleNext] = delayMs;
+            sampleNext = (sampleNext + 1) % SAMPLES;
+            sampleCount = Math.min(sampleCount + 1, SAMPLES);
+        }
+    }
+
+    private static long average(long[] values) {
+        return values.length == 0 ? 0 : Math.round(Arrays.stream(values).average().orElse(0));
+    }
+
+    private static long percentile(long[] values, int p) {
+        if (values.length == 0)
+            return 0;
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (sorted.length * p + 99) / 100 - 1)];
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+
+    private record Claimed(long id, String recipient, String subject, String body, boolean html,
+            int attempts, LocalDateTime createdAt) {
+    }
+}
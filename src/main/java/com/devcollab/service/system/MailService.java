@@ -1,48 +1,35 @@
 package com.devcollab.service.system;
 
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import com.devcollab.domain.Project;
 import com.devcollab.domain.User;
+import com.devcollab.service.system.MailTemplateRenderer.DigestEntry;
 
-import java.time.Year;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Dựng nội dung email và xếp vào {@link MailOutboxService}; việc gửi SMTP, retry và đo đạc do
+ * outbox đảm nhận. Gọi trong transaction thì mail chỉ được gửi khi transaction commit. HTML được
+ * dựng bởi {@link MailTemplateRenderer} từ mẫu đã biên dịch sẵn, không qua Thymeleaf mỗi lần.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-
-    @Value("${app.otp.sender:no-reply@devcollab.local}")
-    private String senderAddress;
+    private final MailOutboxService mailOutbox;
+    private final MailTemplateRenderer renderer;
 
     @Value("${app.base-url:http://localhost:8082}")
     private String baseUrl;
 
-    @Async("mailExecutor")
     public void sendOtpMail(String to, String otp) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
-
-            helper.setFrom(senderAddress);
-            helper.setTo(to);
-            helper.setSubject("DevCollab – Your One-Time Verification Code");
-
             String body = """
                     Hello,
 
@@ -55,105 +42,56 @@ public class MailService {
                     DevCollab Security Team
                     """.formatted(otp);
 
-            helper.setText(body, false);
-            mailSender.send(mimeMessage);
-
-            log.info("OTP email sent successfully to: {}", to);
+            mailOutbox.enqueue(to, "DevCollab – Your One-Time Verification Code", body, false);
+            log.info("OTP email queued for: {}", to);
         } catch (Exception e) {
-            log.error("Failed to send OTP email to {}: {}", to, e.getMessage(), e);
+            log.error("Failed to queue OTP email to {}: {}", to, e.getMessage(), e);
         }
     }
 
     // ======================================================
     // 🔔 Gửi Email Notification (đơn lẻ)
     // ======================================================
-    @Async("mailExecutor")
     public void sendNotificationMail(String to, String title, String messageBody, String link,
             String senderName) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-            helper.setFrom(senderAddress);
-            helper.setTo(to);
-            helper.setSubject("🔔 DevCollab – " + title);
-
-            Context ctx = new Context();
-            ctx.setVariable("isDigest", false);
-            ctx.setVariable("title", title);
-            ctx.setVariable("message", messageBody);
-            ctx.setVariable("link", baseUrl + (link != null ? link : ""));
-            ctx.setVariable("baseUrl", baseUrl);
-            ctx.setVariable("senderName", senderName != null ? senderName : "DevCollab System");
-            ctx.setVariable("year", Year.now().getValue());
-
-            String html = templateEngine.process("mail/notification.html", ctx);
-            helper.setText(html, true);
-
-            mailSender.send(mimeMessage);
-            log.info("Notification email sent successfully to: {}", to);
+            String html = renderer.renderNotification(title, messageBody,
+                    baseUrl + (link != null ? link : ""),
+                    senderName != null ? senderName : "DevCollab System", baseUrl);
+            mailOutbox.enqueue(to, "🔔 DevCollab – " + title, html, true);
+            log.info("Notification email queued for: {}", to);
 
         } catch (Exception e) {
-            log.error("Failed to send Notification email to {}: {}", to, e.getMessage(), e);
+            log.error("Failed to queue Notification email to {}: {}", to, e.getMessage(), e);
         }
     }
 
     // ======================================================
     // 📬 Gửi Email Digest (tổng hợp nhiều thông báo)
     // ======================================================
-    @Async("mailExecutor")
-    public void sendDigestMail(String to, String title, List<Map<String, String>> notifications,
+    public void sendDigestMail(String to, String title, List<DigestEntry> entries,
             String senderName) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-            helper.setFrom(senderAddress);
-            helper.setTo(to);
-            helper.setSubject("📬 DevCollab Digest – " + title);
-
-            Context ctx = new Context();
-            ctx.setVariable("isDigest", true);
-            ctx.setVariable("title", title);
-            ctx.setVariable("notifications", notifications);
-            ctx.setVariable("baseUrl", baseUrl);
-            ctx.setVariable("senderName", senderName != null ? senderName : "DevCollab Digest");
-            ctx.setVariable("year", Year.now().getValue());
-
-            String html = templateEngine.process("mail/notification.html", ctx);
-            helper.setText(html, true);
-
-            mailSender.send(mimeMessage);
-            log.info("Digest email sent successfully to: {}", to);
+            String html = renderer.renderDigest(title, entries,
+                    senderName != null ? senderName : "DevCollab Digest", baseUrl);
+            mailOutbox.enqueue(to, "📬 DevCollab Digest – " + title, html, true);
+            log.info("Digest email queued for: {}", to);
 
         } catch (Exception e) {
-            log.error("Failed to send Digest email to {}: {}", to, e.getMessage(), e);
+            log.error("Failed to queue Digest email to {}: {}", to, e.getMessage(), e);
         }
     }
 
-    @Async("mailExecutor")
     public void sendInviteRegistrationMail(String to, Project project, User inviter, String token) {
         try {
-            MimeMessage mime = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mime, true, "UTF-8");
-
-            helper.setFrom(senderAddress);
-            helper.setTo(to);
-            helper.setSubject(" DevCollab – Lời mời tham gia dự án " + project.getName());
-
-            Context ctx = new Context();
-            ctx.setVariable("inviterName", inviter.getName());
-            ctx.setVariable("projectName", project.getName());
-            ctx.setVariable("registerLink", baseUrl + "/view/register?inviteToken=" + token);
-            ctx.setVariable("year", Year.now().getValue());
-
-            String html = templateEngine.process("mail/invite_register.html", ctx);
-            helper.setText(html, true);
-
-            mailSender.send(mime);
-            log.info("Invite registration email sent successfully to: {}", to);
+            String html = renderer.renderInvite(inviter.getName(), project.getName(),
+                    baseUrl + "/view/register?inviteToken=" + token);
+            mailOutbox.enqueue(to, " DevCollab – Lời mời tham gia dự án " + project.getName(),
+                    html, true);
+            log.info("Invite registration email queued for: {}", to);
         } catch (Exception e) {
-            log.error("Failed to send invite registration email to {}: {}", to, e.getMessage(), e);
+            log.error("Failed to queue invite registration email to {}: {}", to, e.getMessage(),
+                    e);
         }
     }
 
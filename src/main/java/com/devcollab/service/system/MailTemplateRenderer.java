@@ -0,0 +1,267 @@
+package com.devcollab.service.system;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renders the mail templates without going through Thymeleaf per message.
+ *
+ * At startup each template is rendered once with marker values in place of its variables; the
+ * output is split at the markers into static segments and slots. Rendering a mail is then a
+ * single pass that appends the segments and the HTML-escaped values into a pre-sized buffer. The
+ * repeating digest row (with the whitespace Thymeleaf puts between rows) is isolated by diffing
+ * a render with two rows against a render with one. The single mail shows its button only when
+ * {@code th:if="${link}"} holds, so it is compiled with and without a link.
+ *
+ * If a template no longer compiles this way (a variable lost its marker, a new condition depends
+ * on it), that template falls back to {@link TemplateEngine#process} and a warning is logged.
+ */
+@Service
+@Slf4j
+public class MailTemplateRenderer {
+
+    private static final String NOTIFICATION = "mail/notification.html";
+    private static final String INVITE = "mail/invite_register.html";
+
+    private static final Pattern SLOT = Pattern.compile("@@slot:(\\w+)@@");
+
+    private static final String[] SINGLE_VARS =
+            {"title", "message", "link", "senderName", "baseUrl", "year"};
+    private static final String[] DIGEST_VARS = {"title", "senderName", "baseUrl", "year"};
+    private static final String[] ITEM_VARS = {"icon", "message", "link"};
+    // Bản dựng 1 mục: biến của khung digest cùng biến của mục đầu tiên
+    private static final String[] FIRST_VARS =
+            {"title", "senderName", "baseUrl", "year", "icon", "message", "link"};
+    private static final String[] INVITE_VARS =
+            {"inviterName", "projectName", "registerLink", "year"};
+
+    private final TemplateEngine templateEngine;
+
+    private Compiled single;
+    private Compiled singleNoLink;
+    private Compiled digestEmpty;
+    private Compiled digestHead;
+    private Compiled digestItem;
+    private Compiled digestTail;
+    private Compiled invite;
+
+    public MailTemplateRenderer(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /** One line of a digest mail. */
+    public record DigestEntry(String icon, String message, String link) {
+    }
+
+    @PostConstruct
+    void compile() {
+        try {
+            Map<String, String> noLink = markers(SINGLE_VARS);
+            noLink.remove("link");
+            singleNoLink = Compiled.of(process(NOTIFICATION, noLink, false, List.of()),
+                    SINGLE_VARS);
+            single = Compiled.of(process(NOTIFICATION, markers(SINGLE_VARS), false, List.of()),
+                    SINGLE_VARS);
+        } catch (Exception e) {
+            single = singleNoLink = null;
+            log.warn("⚠️ [Mail] Không biên dịch được mẫu mail đơn, dùng Thymeleaf: {}",
+                    e.getMessage());
+        }
+
+        try {
+            Map<String, String> item = markers(ITEM_VARS);
+            String one = process(NOTIFICATION, markers(DIGEST_VARS), true, List.of(item));
+            String two = process(NOTIFICATION, markers(DIGEST_VARS), true, List.of(item, item));
+            int prefix = commonPrefix(one, two);
+            int suffix = commonSuffix(one, two, prefix);
+            digestEmpty = Compiled.of(process(NOTIFICATION, markers(DIGEST_VARS), true,
+                    List.of()), DIGEST_VARS);
+            digestHead = Compiled.of(one.substring(0, prefix), FIRST_VARS);
+            digestItem = Compiled.of(two.substring(prefix, two.length() - suffix), ITEM_VARS);
+            digestTail = Compiled.of(one.substring(prefix), FIRST_VARS);
+        } catch (Exception e) {
+            digestEmpty = digestHead = digestItem = digestTail = null;
+            log.warn("⚠️ [Mail] Không biên dịch được mẫu digest, dùng Thymeleaf: {}",
+                    e.getMessage());
+        }
+
+        try {
+            Context ctx = new Context();
+            markers(INVITE_VARS).forEach(ctx::setVariable);
+            invite = Compiled.of(templateEngine.process(INVITE, ctx), INVITE_VARS);
+        } catch (Exception e) {
+            log.warn("⚠️ [Mail] Không biên dịch được mẫu lời mời, dùng Thymeleaf: {}",
+                    e.getMessage());
+        }
+        log.info("✉️ [Mail] Đã biên dịch sẵn mẫu mail (đơn: {}, digest: {}, lời mời: {})",
+                single != null, digestItem != null, invite != null);
+    }
+
+    public String renderNotification(String title, String message, String link,
+            String senderName, String baseUrl) {
+        String year = String.valueOf(Year.now().getValue());
+        if (single != null)
+            return (isTrue(link) ? single : singleNoLink).render(title, message, link, senderName,
+                    baseUrl, year);
+
+        Context ctx = new Context();
+        ctx.setVariable("isDigest", false);
+        ctx.setVariable("title", title);
+        ctx.setVariable("message", message);
+        ctx.setVariable("link", link);
+        ctx.setVariable("baseUrl", baseUrl);
+        ctx.setVariable("senderName", senderName);
+        ctx.setVariable("year", year);
+        return templateEngine.process(NOTIFICATION, ctx);
+    }
+
+    public String renderDigest(String title, List<DigestEntry> entries, String senderName,
+            String baseUrl) {
+        String year = String.valueOf(Year.now().getValue());
+        if (digestItem == null) {
+            Context ctx = new Context();
+            ctx.setVariable("isDigest", true);
+            ctx.setVariable("title", title);
+            ctx.setVariable("notifications", entries);
+            ctx.setVariable("baseUrl", baseUrl);
+            ctx.setVariable("senderName", senderName);
+            ctx.setVariable("year", year);
+            return templateEngine.process(NOTIFICATION, ctx);
+        }
+
+        if (entries.isEmpty())
+            return digestEmpty.render(title, senderName, baseUrl, year);
+
+        DigestEntry first = entries.get(0);
+        String[] shell = {title, senderName, baseUrl, year, first.icon(), first.message(),
+                first.link()};
+        StringBuilder out = new StringBuilder(digestHead.size() + digestTail.size()
+                + entries.size() * (digestItem.size() + 160));
+        digestHead.appendTo(out, shell);
+        for (DigestEntry e : entries.subList(1, entries.size()))
+            digestItem.appendTo(out, e.icon(), e.message(), e.link());
+        digestTail.appendTo(out, shell);
+        return out.toString();
+    }
+
+    public String renderInvite(String inviterName, String projectName, String registerLink) {
+        String year = String.valueOf(Year.now().getValue());
+        if (invite != null)
+            return invite.render(inviterName, projectName, registerLink, year);
+
+        Context ctx = new Context();
+        ctx.setVariable("inviterName", inviterName);
+        ctx.setVariable("projectName", projectName);
+        ctx.setVariable("registerLink", registerLink);
+        ctx.setVariable("year", year);
+        return templateEngine.process(INVITE, ctx);
+    }
+
+    private String process(String template, Map<String, String> vars, boolean digest,
+            List<Map<String, String>> items) {
+        Context ctx = new Context();
+        vars.forEach(ctx::setVariable);
+        ctx.setVariable("isDigest", digest);
+        ctx.setVariable("notifications", items);
+        return templateEngine.process(template, ctx);
+    }
+
+    // Cách th:if đánh giá một String: null, "false", "off", "no" (bỏ khoảng trắng, không phân
+    // biệt hoa thường) là sai
+    private static boolean isTrue(String value) {
+        if (value == null)
+            return false;
+        String v = value.trim().toLowerCase();
+        return !v.equals("false") && !v.equals("off") && !v.equals("no");
+    }
+
+    private static Map<String, String> markers(String[] names) {
+        Map<String, String> vars = new LinkedHashMap<>();
+        for (String name : names)
+            vars.put(name, "@@slot:" + name + "@@");
+        return vars;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i))
+            i++;
+        return i;
+    }
+
+    // Hậu tố chung không được chồng lên tiền tố đã lấy
+    private static int commonSuffix(String a, String b, int prefix) {
+        int n = Math.min(a.length(), b.length()) - prefix;
+        int i = 0;
+        while (i < n && a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i))
+            i++;
+        return i;
+    }
+
+    /** Static segments interleaved with slots that index into the render arguments. */
+    private static final class Compiled {
+        private final String[] segments;
+        private final int[] slots;
+        private final int size;
+
+        private Compiled(String[] segments, int[] slots) {
+            this.segments = segments;
+            this.slots = slots;
+            this.size = Arrays.stream(segments).mapToInt(String::length).sum();
+        }
+
+        static Compiled of(String output, String[] vars) {
+            List<String> segments = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            List<String> names = Arrays.asList(vars);
+            Matcher m = SLOT.matcher(output);
+            int last = 0;
+            while (m.find()) {
+                int index = names.indexOf(m.group(1));
+                if (index < 0)
+                    throw new IllegalStateException("Biến lạ trong mẫu: " + m.group(1));
+                segments.add(output.substring(last, m.start()));
+                slots.add(index);
+                last = m.end();
+            }
+            segments.add(output.substring(last));
+            return new Compiled(segments.toArray(String[]::new),
+                    slots.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        int size() {
+            return size;
+        }
+
+        String render(String... values) {
+            StringBuilder out = new StringBuilder(size + 256);
+            appendTo(out, values);
+            return out.toString();
+        }
+
+        void appendTo(StringBuilder out, String... values) {
+            for (int i = 0; i < slots.length; i++) {
+                out.append(segments[i]);
+                String value = values[slots[i]];
+                if (value != null)
+                    out.append(HtmlEscape.escapeHtml4Xml(value));
+            }
+            out.append(segments[slots.length]);
+        }
+    }
+}
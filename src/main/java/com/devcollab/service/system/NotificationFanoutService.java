@@ -0,0 +1,270 @@
+package com.devcollab.service.system;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devcollab.domain.Notification;
+import com.devcollab.domain.User;
+import com.devcollab.domain.UserSettings;
+import com.devcollab.repository.NotificationRepository;
+import com.devcollab.repository.UserSettingsRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers one notification event to many recipients.
+ *
+ * Recipients are de-duplicated by user id. A recipient who already has an unread notification of
+ * the same type and reference younger than {@code app.notification.coalesce-window-seconds} gets
+ * that row refreshed (new text, moved to the top) instead of a new one, and is not mailed again.
+ * Everyone else is inserted with a handful of multi-row {@code INSERT ... OUTPUT} statements.
+ * Email settings are loaded for all recipients in one query.
+ *
+ * Each fan-out runs in its own transaction (REQUIRES_NEW, like
+ * {@code NotificationServiceImpl#notifyMentions}): a failure rolls back only the notifications and
+ * never marks the caller's transaction rollback-only. Immediate HIGH-priority mails go to the mail
+ * outbox in that transaction. WebSocket pushes and unread counter updates run after it commits, so
+ * nothing is announced for rows that were rolled back.
+ */
+@Service
+@Slf4j
+public class NotificationFanoutService {
+
+    // SQL Server nhận tối đa 2100 tham số mỗi câu lệnh. INSERT dùng 2 tham số mỗi dòng + 8 tham
+    // số chung (2008 với 1000 dòng); findCoalescible/findByUserIds dùng 1 mỗi id + tối đa 4
+    static final int INSERT_CHUNK = 1000;
+
+    private final NotificationRepository notificationRepository;
+    private final UserSettingsRepository userSettingsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final WebSocketNotificationService webSocketNotificationService;
+    private final MailService mailService;
+    private final UnreadCounterService unreadCounterService;
+    private final TransactionTemplate newTransaction;
+    private final long coalesceWindowSeconds;
+
+    public NotificationFanoutService(NotificationRepository notificationRepository,
+            UserSettingsRepository userSettingsRepository, JdbcTemplate jdbcTemplate,
+            WebSocketNotificationService webSocketNotificationService, MailService mailService,
+            UnreadCounterService unreadCounterService,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.notification.coalesce-window-seconds:120}") long coalesceWindowSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.userSettingsRepository = userSettingsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.webSocketNotificationService = webSocketNotificationService;
+        this.mailService = mailService;
+        this.unreadCounterService = unreadCounterService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.coalesceWindowSeconds = coalesceWindowSeconds;
+    }
+
+    /** What every recipient of one fan-out receives. {@code sender} may be null (system). */
+    public record Event(String type, Long referenceId, String title, String message, String link,
+            User sender) {
+    }
+
+    /**
+     * Notifies every distinct recipient of {@code event}. Returns how many recipients were
+     * reached (new rows plus coalesced ones); failures are logged and reported as 0.
+     */
+    public int publish(Event event, Collection<User> recipients) {
+        try {
+            Integer reached = newTransaction.execute(status -> fanOut(event, recipients));
+            return reached != null ? reached : 0;
+        } catch (Exception e) {
+            // Như createNotification: lỗi gửi thông báo không được làm hỏng nghiệp vụ chính
+            log.error("❌ [Fan-out] Gửi '{}' thất bại: {}", event.type(), e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    private int fanOut(Event event, Collection<User> recipients) {
+        Map<Long, User> byId = new LinkedHashMap<>();
+        if (recipients != null) {
+            for (User u : recipients) {
+                if (u != null && u.getUserId() != null)
+                    byId.putIfAbsent(u.getUserId(), u);
+            }
+        }
+        if (byId.isEmpty())
+            return 0;
+
+        LocalDateTime now = LocalDateTime.now();
+        String priority = Notification.priorityOf(event.type());
+        Long senderId = event.sender() != null ? event.sender().getUserId() : null;
+
+        Map<Long, Long> coalesced = findCoalescible(event, byId.keySet(), now);
+        if (!coalesced.isEmpty())
+            notificationRepository.refreshCoalesced(coalesced.values(), event.title(),
+                    event.message(), event.link(), senderId, now);
+
+        List<Long> fresh = byId.keySet().stream().filter(id -> !coalesced.containsKey(id))
+                .toList();
+        Map<Long, UserSettings> settings = loadSettings(fresh);
+
+        Set<Long> mailTo = new HashSet<>();
+        if ("HIGH".equals(priority)) {
+            for (Long id : fresh) {
+                UserSettings s = settings.get(id);
+                boolean mail = s == null || (s.isEmailEnabled() && s.isEmailHighImmediate());
+                String email = byId.get(id).getEmail();
+                if (mail && email != null && !email.isBlank())
+                    mailTo.add(id);
+            }
+        }
+
+        Map<Long, Long> inserted = insert(event, fresh, mailTo, priority, senderId, now);
+        unreadCounterService.incrementAll(inserted.keySet());
+
+        // Mail vào outbox cùng transaction: chỉ gửi khi các thông báo đã commit
+        String senderName = event.sender() != null ? event.sender().getName() : "DevCollab System";
+        for (Long userId : mailTo)
+            mailService.sendNotificationMail(byId.get(userId).getEmail(), event.title(),
+                    event.message(), event.link(), senderName);
+
+        List<Delivery> deliveries = new ArrayList<>(byId.size());
+        coalesced.forEach((userId, id) -> deliveries.add(new Delivery(byId.get(userId), id)));
+        inserted.forEach((userId, id) -> deliveries.add(new Delivery(byId.get(userId), id)));
+
+        // Đọc trước email khi session còn mở: sau commit proxy lazy không nạp được nữa
+        deliveries.forEach(d -> d.receiver().getEmail());
+
+        afterCommit(() -> push(event, priority, deliveries, now));
+
+        log.info("📣 [Fan-out] '{}' ref={} → {} mới, {} gộp, {} email", event.type(),
+                event.referenceId(), inserted.size(), coalesced.size(), mailTo.size());
+        return deliveries.size();
+    }
+
+    private Map<Long, Long> findCoalescible(Event event, Collection<Long> userIds,
+            LocalDateTime now) {
+        if (coalesceWindowSeconds <= 0)
+            return Map.of();
+
+        Map<Long, Long> result = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(userIds))) {
+            for (Object[] row : notificationRepository.findCoalescible(chunk, event.type(),
+                    event.referenceId(), now.minusSeconds(coalesceWindowSeconds))) {
+                result.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, UserSettings> loadSettings(List<Long> userIds) {
+        Map<Long, UserSettings> result = new HashMap<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            for (UserSettings s : userSettingsRepository.findByUserIds(chunk))
+                result.put(s.getUser().getUserId(), s);
+        }
+        return result;
+    }
+
+    /** Inserts one row per user and returns userId → notificationId. */
+    private Map<Long, Long> insert(Event event, List<Long> userIds, Set<Long> mailTo,
+            String priority, Long senderId, LocalDateTime now) {
+        Map<Long, Long> ids = new LinkedHashMap<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            String sql = "INSERT INTO dbo.[Notification] (user_id, emailed, sender_id, type, "
+                    + "reference_id, status, title, message, link, created_at, priority) "
+                    + "OUTPUT inserted.user_id, inserted.notification_id "
+                    + "SELECT v.user_id, v.emailed, ?, ?, ?, 'unread', ?, ?, ?, ?, ? FROM (VALUES "
+                    + String.join(",", Collections.nCopies(chunk.size(), "(?, ?)"))
+                    + ") AS v(user_id, emailed)";
+
+            jdbcTemplate.query(sql, ps -> {
+                int i = 1;
+                if (senderId != null)
+                    ps.setLong(i++, senderId);
+                else
+                    ps.setNull(i++, Types.BIGINT);
+                ps.setString(i++, event.type());
+                if (event.referenceId() != null)
+                    ps.setLong(i++, event.referenceId());
+                else
+                    ps.setNull(i++, Types.BIGINT);
+                ps.setString(i++, event.title());
+                ps.setString(i++, event.message());
+                ps.setString(i++, event.link());
+                ps.setTimestamp(i++, Timestamp.valueOf(now));
+                ps.setString(i++, priority);
+                for (Long userId : chunk) {
+                    ps.setLong(i++, userId);
+                    ps.setBoolean(i++, mailTo.contains(userId));
+                }
+            }, rs -> {
+                ids.put(rs.getLong(1), rs.getLong(2));
+            });
+        }
+        return ids;
+    }
+
+    private void push(Event event, String priority, List<Delivery> deliveries,
+            LocalDateTime now) {
+        for (Delivery d : deliveries) {
+            try {
+                Notification n = new Notification();
+                n.setNotificationId(d.notificationId());
+                n.setUser(d.receiver());
+                n.setSender(event.sender());
+                n.setType(event.type());
+                n.setReferenceId(event.referenceId());
+                n.setTitle(event.title());
+                n.setMessage(event.message());
+                n.setLink(event.link());
+                n.setStatus("unread");
+                n.setPriority(priority);
+                n.setCreatedAt(now);
+                webSocketNotificationService.sendToUser(d.receiver(), n, event.sender());
+            } catch (Exception e) {
+                log.warn("⚠️ [Fan-out] Gửi realtime cho user {} thất bại: {}",
+                        d.receiver().getUserId(), e.getMessage());
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            action.run();
+                        }
+                    });
+        } else {
+            action.run();
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> result = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += INSERT_CHUNK)
+            result.add(ids.subList(i, Math.min(i + INSERT_CHUNK, ids.size())));
+        return result;
+    }
+
+    private record Delivery(User receiver, Long notificationId) {
+    }
+}
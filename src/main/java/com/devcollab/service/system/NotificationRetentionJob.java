@@ -0,0 +1,67 @@
+package com.devcollab.service.system;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devcollab.repository.NotificationRepository;
+import com.devcollab.repository.NotificationRollupRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the {@code Notification} table bounded.
+ *
+ * Read notifications older than {@code app.notification.retention-days} are collapsed into
+ * {@code NotificationRollup} (counts per user, month and type) and deleted. Each chunk is rolled
+ * up and deleted in one short transaction, so a crash never counts a row twice and the job never
+ * holds long locks on the inbox. Unread notifications are never touched.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionJob {
+
+    // Giữ dưới giới hạn 2100 tham số của SQL Server cho IN (:ids)
+    private static final int CHUNK = 1000;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+
+    public NotificationRetentionJob(NotificationRepository notificationRepository,
+            NotificationRollupRepository rollupRepository, TransactionTemplate transactionTemplate,
+            @Value("${app.notification.retention-days:90}") int retentionDays) {
+        this.notificationRepository = notificationRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(cron = "0 30 4 * * *", zone = "Asia/Ho_Chi_Minh")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+        int removed;
+        while ((removed = compactChunk(cutoff)) > 0)
+            total += removed;
+        if (total > 0)
+            log.info("🧹 [Notification] Đã gom và xóa {} thông báo đã đọc trước {}", total,
+                    cutoff.toLocalDate());
+    }
+
+    int compactChunk(LocalDateTime cutoff) {
+        Integer removed = transactionTemplate.execute(status -> {
+            List<Long> ids = notificationRepository.findExpiredReadIds(cutoff, CHUNK);
+            if (ids.isEmpty())
+                return 0;
+            rollupRepository.rollupByIds(ids);
+            return notificationRepository.deleteByIds(ids);
+        });
+        return removed == null ? 0 : removed;
+    }
+}
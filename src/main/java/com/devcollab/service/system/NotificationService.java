@@ -3,6 +3,7 @@ package com.devcollab.service.system;
 
 import com.devcollab.domain.*;
 import com.devcollab.dto.CommentDTO;
+import com.devcollab.dto.response.NotificationPageDTO;
 
 import java.util.List;
 import java.util.Map;
@@ -66,12 +67,22 @@ public interface NotificationService {
 
     List<Notification> getNotificationsByUser(String email);
 
+    /**
+     * Trang inbox mới nhất trước, lọc theo status / type / priority (null = không lọc).
+     * {@code cursor} là {@code nextCursor} của trang trước, null cho trang đầu.
+     */
+    NotificationPageDTO getInbox(String email, String status, String type, String priority,
+            String cursor, int limit);
+
     boolean markAsRead(Long notificationId, String userEmail);
 
     int markAllAsRead(String userEmail);
 
     void deleteNotification(Long notificationId);
 
+    /** Xóa nếu thông báo thuộc về {@code userEmail}; trả false nếu không phải chủ sở hữu. */
+    boolean deleteNotification(Long notificationId, String userEmail);
+
     void notifyMemberRoleUpdated(Project project, User target, User actor, String newRole);
 
     void notifyPaymentSuccess(User user, PaymentOrder order);
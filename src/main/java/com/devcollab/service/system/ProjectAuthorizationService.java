@@ -1,11 +1,7 @@
 package com.devcollab.service.system;
 
-import com.devcollab.repository.ProjectMemberRepository;
-import com.devcollab.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
-
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
@@ -13,19 +9,17 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ProjectAuthorizationService {
 
-    private final ProjectMemberRepository projectMemberRepository;
-    private final UserRepository userRepository;
+    // Tra cứu in-memory, xem ProjectMembershipCache
+    private final ProjectMembershipCache membershipCache;
 
     /**
      * ✅ Kiểm tra user có quyền PM / ADMIN của project hay không
      */
     public Long ensurePmOfProject(String email, Long projectId) {
-        Long uid = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AccessDeniedException("User không tồn tại"))
-                .getUserId();
+        Long uid = membershipCache.getUserId(email);
 
-        boolean isAuthorized = projectMemberRepository
-                .existsByProject_ProjectIdAndUser_UserIdAndRoleInProjectIn(projectId, uid, List.of("PM", "ADMIN"));
+        String role = membershipCache.getRole(projectId, uid);
+        boolean isAuthorized = "PM".equalsIgnoreCase(role) || "ADMIN".equalsIgnoreCase(role);
 
         if (!isAuthorized)
             throw new AccessDeniedException("Bạn không có quyền PM hoặc ADMIN của dự án này");
@@ -37,22 +31,18 @@ public class ProjectAuthorizationService {
      * ✅ Lấy vai trò của user trong project (PM / Member)
      */
     public String getRoleInProject(String email, Long projectId) {
-        Long uid = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AccessDeniedException("User không tồn tại"))
-                .getUserId();
+        Long uid = membershipCache.getUserId(email);
 
-        return projectMemberRepository.findRoleInProject(projectId, uid)
-                .orElse("Member");
+        String role = membershipCache.getRole(projectId, uid);
+        return role != null ? role : "Member";
     }
 
     /**
      * ✅ Kiểm tra xem user có nằm trong project hay không
      */
     public boolean isMemberOfProject(String email, Long projectId) {
-        Long uid = userRepository.findByEmail(email)
-                .orElseThrow(() -> new AccessDeniedException("User không tồn tại"))
-                .getUserId();
+        Long uid = membershipCache.getUserId(email);
 
-        return projectMemberRepository.existsByProject_ProjectIdAndUser_UserId(projectId, uid);
+        return membershipCache.getRole(projectId, uid) != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.devcollab.service.system;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.repository.ProjectMemberRepository;
+import com.devcollab.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local cache of project membership used by {@link ProjectAuthorizationService}.
+ *
+ * Each project is loaded once as a {@code userId -> roleInProject} map; email to userId lookups
+ * are cached separately, with the same TTL. Writers call {@link #evictProject(Long)} /
+ * {@link #evictAll()}, which evicts locally and broadcasts on a Redis channel so other nodes drop
+ * their copy too. When called inside a transaction the eviction is repeated after commit so a
+ * concurrent reader cannot re-cache the pre-commit state. A load that overlapped an eviction is
+ * returned to its caller but not cached, since it may have read the membership from before the
+ * change.
+ */
+@Slf4j
+@Service
+public class ProjectMembershipCache implements MessageListener {
+
+    static final String CHANNEL = "devcollab:project-membership";
+    private static final String ALL = "*";
+
+    private final ProjectMemberRepository projectMemberRepository;
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final long ttlMillis;
+    private final Map<Long, Members> projects;
+    private final Map<String, UserId> userIds;
+    // Số lần evict, tăng trong lock của projects; load chỉ được cache nếu không đổi
+    private long evictions;
+
+    public ProjectMembershipCache(ProjectMemberRepository projectMemberRepository,
+            UserRepository userRepository, RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.authz.membership-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${app.authz.membership-cache.max-projects:5000}") int maxProjects,
+            @Value("${app.authz.membership-cache.max-users:50000}") int maxUsers) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.projects = lru(maxProjects);
+        this.userIds = lru(maxUsers);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /** Trả về userId theo email, ném AccessDeniedException nếu không tồn tại. */
+    public Long getUserId(String email) {
+        if (email == null)
+            throw new AccessDeniedException("User không tồn tại");
+
+        String key = email.trim().toLowerCase();
+        long now = System.currentTimeMillis();
+        synchronized (userIds) {
+            UserId cached = userIds.get(key);
+            if (cached != null && cached.expiresAt() > now)
+                return cached.id();
+        }
+
+        Long uid = userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new AccessDeniedException("User không tồn tại"));
+        synchronized (userIds) {
+            userIds.put(key, new UserId(uid, now + ttlMillis));
+        }
+        return uid;
+    }
+
+    /** Vai trò của user trong project, {@code null} nếu không phải thành viên. */
+    public String getRole(Long projectId, Long userId) {
+        return members(projectId).get(userId);
+    }
+
+    private Map<Long, String> members(Long projectId) {
+        long now = System.currentTimeMillis();
+        long generation;
+        synchronized (projects) {
+            Members cached = projects.get(projectId);
+            if (cached != null && cached.expiresAt() > now)
+                return cached.roles();
+            generation = evictions;
+        }
+
+        Map<Long, String> roles = new HashMap<>();
+        for (Object[] row : projectMemberRepository.findMemberRolesByProject(projectId)) {
+            roles.put((Long) row[0], (String) row[1]);
+        }
+        Map<Long, String> snapshot = Collections.unmodifiableMap(roles);
+        synchronized (projects) {
+            if (evictions == generation)
+                projects.put(projectId, new Members(snapshot, now + ttlMillis));
+        }
+        return snapshot;
+    }
+
+    public void evictProject(Long projectId) {
+        if (projectId != null)
+            evict(String.valueOf(projectId));
+    }
+
+    public void evictAll() {
+        evict(ALL);
+    }
+
+    private void evict(String key) {
+        evictLocal(key);
+        publish(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            evictLocal(key);
+                            publish(key);
+                        }
+                    });
+        }
+    }
+
+    private void publish(String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, key);
+        } catch (Exception e) {
+            log.warn("⚠️ [MembershipCache] Không gửi được invalidation qua Redis: {}",
+                    e.getMessage());
+        }
+    }
+
+    private void evictLocal(String key) {
+        synchronized (projects) {
+            evictions++;
+            if (ALL.equals(key)) {
+                projects.clear();
+            } else {
+                projects.remove(Long.valueOf(key));
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object key = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (key != null)
+                evictLocal(String.valueOf(key));
+        } catch (Exception e) {
+            log.warn("⚠️ [MembershipCache] Invalidation không hợp lệ: {}", e.getMessage());
+            evictLocal(ALL);
+        }
+    }
+
+    private static <K, V> Map<K, V> lru(int maxSize) {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private record Members(Map<Long, String> roles, long expiresAt) {
+    }
+
+    private record UserId(Long id, long expiresAt) {
+    }
+}
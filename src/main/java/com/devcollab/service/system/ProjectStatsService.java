@@ -0,0 +1,278 @@
+package com.devcollab.service.system;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.devcollab.domain.Activity;
+import com.devcollab.domain.Project;
+import com.devcollab.domain.ProjectStats;
+import com.devcollab.domain.ProjectStatusMonthly;
+import com.devcollab.domain.Task;
+import com.devcollab.exception.NotFoundException;
+import com.devcollab.repository.ProjectStatsRepository;
+import com.devcollab.repository.ProjectStatusMonthlyRepository;
+import com.devcollab.repository.TaskCompletionMonthlyRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pre-aggregated counters behind the project and admin dashboards.
+ *
+ * Task and project write paths report each change here and the counters are adjusted with a
+ * single relative UPDATE/MERGE in the caller's transaction, so they commit or roll back together
+ * with the change itself and dashboards read a few rows instead of grouping {@code Task} and
+ * {@code Project} on every load.
+ *
+ * A project without a {@link ProjectStats} row (created before this table existed) gets one built
+ * from the current data the first time it is touched; a background backfill does the same for all
+ * projects on startup and rebuilds both histograms in the same transaction, so readers never see
+ * them half-emptied.
+ */
+@Service
+@Slf4j
+public class ProjectStatsService {
+
+    private static final List<String> TASK_STATUSES =
+            List.of("BACKLOG", "OPEN", "IN_PROGRESS", "REVIEW", "DONE", "CLOSED");
+
+    private final ProjectStatsRepository statsRepository;
+    private final ProjectStatusMonthlyRepository statusMonthlyRepository;
+    private final TaskCompletionMonthlyRepository completionRepository;
+    private final DashboardCache dashboardCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProjectStatsService(ProjectStatsRepository statsRepository,
+            ProjectStatusMonthlyRepository statusMonthlyRepository,
+            TaskCompletionMonthlyRepository completionRepository,
+            DashboardCache dashboardCache, TransactionTemplate transactionTemplate) {
+        this.statsRepository = statsRepository;
+        this.statusMonthlyRepository = statusMonthlyRepository;
+        this.completionRepository = completionRepository;
+        this.dashboardCache = dashboardCache;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        Thread.ofPlatform().name("project-stats-backfill").daemon(true).start(() -> {
+            try {
+                backfill();
+            } catch (Exception e) {
+                log.error("❌ [Stats] Backfill thống kê dự án thất bại: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Builds rows for projects that have none, then rebuilds both histograms from scratch. All of
+     * it runs in one transaction: a failure leaves the old buckets in place.
+     */
+    void backfill() {
+        long start = System.currentTimeMillis();
+        Integer created = transactionTemplate.execute(status -> {
+            int missing = statsRepository.createAllMissing();
+            if (missing == 0)
+                return 0;
+            statusMonthlyRepository.deleteAllBuckets();
+            statusMonthlyRepository.rebuildFromStats();
+            completionRepository.deleteAllBuckets();
+            completionRepository.rebuild(null);
+            return missing;
+        });
+        if (created == null || created == 0)
+            return;
+
+        dashboardCache.invalidate();
+        log.info("📊 [Stats] Đã dựng thống kê cho {} dự án trong {}ms", created,
+                System.currentTimeMillis() - start);
+    }
+
+    // ------------------------------------------------------------------- tasks
+
+    @Transactional
+    public void taskCreated(Task task) {
+        Long projectId = projectIdOf(task);
+        if (projectId == null || ensureStats(projectId))
+            return;
+        applyDelta(projectId, 1, null, task.getStatus());
+        if (isDone(task.getStatus()))
+            completionRepository.bump(projectId, completionMonth(task.getClosedAt()), 1);
+    }
+
+    /**
+     * Moves the task between status counters. {@code before} and {@code closedBefore} are the
+     * values read before the caller modified the entity.
+     */
+    @Transactional
+    public void taskStatusChanged(Task task, String before, LocalDateTime closedBefore) {
+        Long projectId = projectIdOf(task);
+        String after = task.getStatus();
+        if (projectId == null || normalizeTask(before).equals(normalizeTask(after))
+                || ensureStats(projectId))
+            return;
+
+        applyDelta(projectId, 0, before, after);
+        if (isDone(before))
+            completionRepository.bump(projectId, completionMonth(closedBefore), -1);
+        if (isDone(after))
+            completionRepository.bump(projectId, completionMonth(task.getClosedAt()), 1);
+    }
+
+    @Transactional
+    public void taskDeleted(Task task) {
+        Long projectId = projectIdOf(task);
+        if (projectId == null || ensureStats(projectId))
+            return;
+        applyDelta(projectId, -1, task.getStatus(), null);
+        if (isDone(task.getStatus()))
+            completionRepository.bump(projectId, completionMonth(task.getClosedAt()), -1);
+    }
+
+    // ---------------------------------------------------------------- projects
+
+    @Transactional
+    public void projectCreated(Project project) {
+        if (project == null || project.getProjectId() == null)
+            return;
+        if (ensureStats(project.getProjectId()))
+            dashboardCache.invalidate();
+    }
+
+    /** Moves the project into the bucket of its new status for the current month. */
+    @Transactional
+    public void projectStatusChanged(Project project) {
+        if (project == null || project.getProjectId() == null)
+            return;
+        Long projectId = project.getProjectId();
+        if (ensureStats(projectId)) {
+            dashboardCache.invalidate();
+            return;
+        }
+
+        List<Object[]> rows = statsRepository.lockStatusBucket(projectId);
+        if (rows.isEmpty())
+            return;
+        Object[] row = rows.get(0);
+        String oldStatus = (String) row[0];
+        String newStatus = normalize(project.getStatus());
+        if (newStatus.equals(oldStatus))
+            return;
+
+        int newMonth = Activity.monthBucket(LocalDateTime.now());
+        Long creator = row[2] != null ? ((Number) row[2]).longValue() : null;
+        bumpStatus(creator, ((Number) row[1]).intValue(), oldStatus, -1);
+        bumpStatus(creator, newMonth, newStatus, 1);
+        statsRepository.updateStatusBucket(projectId, newStatus, newMonth);
+        dashboardCache.invalidate();
+    }
+
+    /** Must run before the project row is deleted. */
+    @Transactional
+    public void projectDeleted(Long projectId) {
+        if (projectId == null)
+            return;
+        List<Object[]> rows = statsRepository.lockStatusBucket(projectId);
+        if (!rows.isEmpty()) {
+            Object[] row = rows.get(0);
+            Long creator = row[2] != null ? ((Number) row[2]).longValue() : null;
+            bumpStatus(creator, ((Number) row[1]).intValue(), (String) row[0], -1);
+        }
+        statsRepository.deleteByProject(projectId);
+        completionRepository.deleteByProject(projectId);
+        dashboardCache.invalidate();
+    }
+
+    // ------------------------------------------------------------------- reads
+
+    @Transactional
+    public ProjectStats getProjectStats(Long projectId) {
+        ensureStats(projectId);
+        return statsRepository.findById(projectId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy dự án"));
+    }
+
+    /** Rows of (status, count) for projects whose status last changed in or after that month. */
+    public List<Object[]> countProjectsByStatusSince(LocalDateTime since) {
+        return statusMonthlyRepository.countByStatusSince(ProjectStatusMonthly.ALL_SCOPE,
+                Activity.monthBucket(since));
+    }
+
+    public List<Object[]> countProjectsByStatusSinceForCreator(String email,
+            LocalDateTime since) {
+        return statusMonthlyRepository.countByStatusSinceForCreator(email,
+                Activity.monthBucket(since));
+    }
+
+    /** Rows of (month name, completed projects), in calendar order. */
+    public List<Object[]> countCompletedProjectsSince(LocalDateTime since) {
+        return statusMonthlyRepository.countCompletedByMonthSince(ProjectStatusMonthly.ALL_SCOPE,
+                Activity.monthBucket(since));
+    }
+
+    // ----------------------------------------------------------------- helpers
+
+    /**
+     * Creates the project's row from current data if it is missing. Returns true when it did: the
+     * new row already includes the change being reported, so the caller must not apply a delta.
+     */
+    private boolean ensureStats(Long projectId) {
+        if (statsRepository.createIfMissing(projectId) == 0)
+            return false;
+
+        completionRepository.deleteByProject(projectId);
+        completionRepository.rebuild(projectId);
+        List<Object[]> rows = statsRepository.lockStatusBucket(projectId);
+        if (!rows.isEmpty()) {
+            Object[] row = rows.get(0);
+            Long creator = row[2] != null ? ((Number) row[2]).longValue() : null;
+            bumpStatus(creator, ((Number) row[1]).intValue(), (String) row[0], 1);
+        }
+        return true;
+    }
+
+    private void applyDelta(Long projectId, long total, String from, String to) {
+        long[] delta = new long[TASK_STATUSES.size()];
+        int fromIdx = TASK_STATUSES.indexOf(normalizeTask(from));
+        int toIdx = TASK_STATUSES.indexOf(normalizeTask(to));
+        if (fromIdx >= 0)
+            delta[fromIdx]--;
+        if (toIdx >= 0)
+            delta[toIdx]++;
+        statsRepository.applyTaskDelta(projectId, total, delta[0], delta[1], delta[2], delta[3],
+                delta[4], delta[5]);
+    }
+
+    private void bumpStatus(Long creator, int month, String status, long delta) {
+        statusMonthlyRepository.bump(ProjectStatusMonthly.ALL_SCOPE, month, status, delta);
+        if (creator != null)
+            statusMonthlyRepository.bump(creator, month, status, delta);
+    }
+
+    private static Long projectIdOf(Task task) {
+        return task != null && task.getProject() != null ? task.getProject().getProjectId()
+                : null;
+    }
+
+    private static int completionMonth(LocalDateTime closedAt) {
+        return Activity.monthBucket(closedAt != null ? closedAt : LocalDateTime.now());
+    }
+
+    private static boolean isDone(String status) {
+        return "DONE".equals(normalizeTask(status));
+    }
+
+    private static String normalizeTask(String status) {
+        return status == null ? "" : status.trim().toUpperCase();
+    }
+
+    private static String normalize(String projectStatus) {
+        return projectStatus == null || projectStatus.isBlank() ? "ACTIVE"
+                : projectStatus.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,437 @@
+package com.devcollab.service.system;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory inverted index with BM25 ranking, owned by {@link SearchIndexService}.
+ *
+ * Text is folded to lower-case ASCII (Vietnamese diacritics and {@code đ} removed) and split on
+ * non-alphanumerics. Title terms count {@value #TITLE_BOOST} times. A query matches a document
+ * when every query term matches one of its terms exactly or by prefix, so results narrow as the
+ * user types. The term dictionary is sorted, so a prefix is a range scan.
+ *
+ * The index can be written to and read from a gzip snapshot. Only the documents are stored and
+ * the postings are rebuilt on load.
+ */
+public class SearchIndex {
+
+    public static final String PROJECT = "PROJECT";
+    public static final String TASK = "TASK";
+    public static final String COMMENT = "COMMENT";
+    public static final String MESSAGE = "MESSAGE";
+
+    private static final int TITLE_BOOST = 3;
+    private static final int MAX_BODY_CHARS = 20_000;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int SNIPPET_CHARS = 160;
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int SNAPSHOT_MAGIC = 0x44435349; // "DCSI"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * One searchable item. {@code context} is shown with the hit but not indexed (task title of
+     * a comment, sender of a message). {@code open} marks public projects.
+     */
+    public record Doc(String type, long id, long projectId, Long taskId, boolean open,
+            String title, String body, String context) {
+
+        public String key() {
+            return key(type, id);
+        }
+
+        static String key(String type, long id) {
+            return type + ":" + id;
+        }
+    }
+
+    public record Hit(Doc doc, double score, String title, String snippet) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> docNos = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final List<String[]> docTerms = new ArrayList<>();
+    private int[] lengths = new int[1024];
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private long totalLength;
+    private int liveDocs;
+
+    /** Adds or replaces the document with the same type and id. */
+    public void put(Doc doc) {
+        Map<String, Integer> tf = new HashMap<>();
+        int length = 0;
+        for (String term : tokenize(doc.title())) {
+            tf.merge(term, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        String body = doc.body();
+        if (body != null && body.length() > MAX_BODY_CHARS)
+            body = body.substring(0, MAX_BODY_CHARS);
+        for (String term : tokenize(body)) {
+            tf.merge(term, 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.key());
+            compactIfSparse();
+            int docNo = docs.size();
+            docs.add(doc);
+            docTerms.add(tf.keySet().toArray(String[]::new));
+            if (docNo >= lengths.length)
+                lengths = Arrays.copyOf(lengths, lengths.length * 2);
+            lengths[docNo] = length;
+            docNos.put(doc.key(), docNo);
+            tf.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+                    .put(docNo, freq));
+            totalLength += length;
+            liveDocs++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String type, long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(Doc.key(type, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes every document matching {@code filter}; used for task and project cascades. */
+    public int removeIf(Predicate<Doc> filter) {
+        lock.writeLock().lock();
+        try {
+            List<String> keys = new ArrayList<>();
+            for (Doc doc : docs) {
+                if (doc != null && filter.test(doc))
+                    keys.add(doc.key());
+            }
+            keys.forEach(this::removeLocked);
+            compactIfSparse();
+            return keys.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(String key) {
+        Integer docNo = docNos.remove(key);
+        if (docNo == null)
+            return;
+        for (String term : docTerms.get(docNo)) {
+            Map<Integer, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(docNo);
+                if (list.isEmpty())
+                    postings.remove(term);
+            }
+        }
+        totalLength -= lengths[docNo];
+        liveDocs--;
+        docs.set(docNo, null);
+        docTerms.set(docNo, null);
+    }
+
+    /**
+     * Updates leave empty doc slots behind; once more than half are empty, renumber the live
+     * documents so memory stays proportional to the index size.
+     */
+    private void compactIfSparse() {
+        if (docs.size() < 1024 || docs.size() < 2 * liveDocs)
+            return;
+        int[] remap = new int[docs.size()];
+        List<Doc> liveDocList = new ArrayList<>(liveDocs);
+        List<String[]> liveTerms = new ArrayList<>(liveDocs);
+        int[] liveLengths = new int[Math.max(1024, liveDocs * 2)];
+        for (int old = 0; old < docs.size(); old++) {
+            if (docs.get(old) == null)
+                continue;
+            remap[old] = liveDocList.size();
+            liveLengths[liveDocList.size()] = lengths[old];
+            liveDocList.add(docs.get(old));
+            liveTerms.add(docTerms.get(old));
+        }
+        for (Map.Entry<String, Map<Integer, Integer>> e : postings.entrySet()) {
+            Map<Integer, Integer> renumbered = new HashMap<>(e.getValue().size() * 2);
+            e.getValue().forEach((docNo, tf) -> renumbered.put(remap[docNo], tf));
+            e.setValue(renumbered);
+        }
+        docNos.replaceAll((key, docNo) -> remap[docNo]);
+        docs.clear();
+        docs.addAll(liveDocList);
+        docTerms.clear();
+        docTerms.addAll(liveTerms);
+        lengths = liveLengths;
+    }
+
+    /** Top {@code limit} documents matching every term of {@code query} and {@code filter}. */
+    public List<Hit> search(String query, Predicate<Doc> filter, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0)
+            return List.of();
+
+        List<Map<Integer, Double>> perTerm = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0)
+                return List.of();
+            double avgLength = Math.max(1.0, (double) totalLength / liveDocs);
+            for (String term : terms) {
+                Map<Integer, Double> scores = scoreTerm(term, avgLength);
+                if (scores.isEmpty())
+                    return List.of();
+                perTerm.add(scores);
+            }
+
+            // Giao từ danh sách ngắn nhất
+            perTerm.sort(Comparator.comparingInt(Map::size));
+            PriorityQueue<Map.Entry<Integer, Double>> top =
+                    new PriorityQueue<>(Map.Entry.comparingByValue());
+            outer: for (Map.Entry<Integer, Double> candidate : perTerm.get(0).entrySet()) {
+                int docNo = candidate.getKey();
+                double score = candidate.getValue();
+                for (int i = 1; i < perTerm.size(); i++) {
+                    Double s = perTerm.get(i).get(docNo);
+                    if (s == null)
+                        continue outer;
+                    score += s;
+                }
+                if (!filter.test(docs.get(docNo)))
+                    continue;
+                top.add(Map.entry(docNo, score));
+                if (top.size() > limit)
+                    top.poll();
+            }
+
+            List<Hit> hits = new ArrayList<>(top.size());
+            Set<String> highlight = new HashSet<>(terms);
+            while (!top.isEmpty()) {
+                Map.Entry<Integer, Double> e = top.poll();
+                Doc doc = docs.get(e.getKey());
+                hits.add(new Hit(doc, e.getValue(), highlight(doc.title(), highlight, false),
+                        highlight(doc.body(), highlight, true)));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> scoreTerm(String term, double avgLength) {
+        Map<Integer, Double> scores = new HashMap<>();
+        addScores(scores, postings.get(term), avgLength, 1.0);
+        if (term.length() >= 2) {
+            int expanded = 0;
+            for (Map.Entry<String, Map<Integer, Integer>> e : postings
+                    .subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                if (++expanded > MAX_PREFIX_EXPANSIONS)
+                    break;
+                addScores(scores, e.getValue(), avgLength, PREFIX_WEIGHT);
+            }
+        }
+        return scores;
+    }
+
+    private void addScores(Map<Integer, Double> scores, Map<Integer, Integer> list,
+            double avgLength, double weight) {
+        if (list == null)
+            return;
+        double df = list.size();
+        double idf = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+        list.forEach((docNo, tf) -> {
+            double norm = tf + K1 * (1 - B + B * lengths[docNo] / avgLength);
+            double s = weight * idf * tf * (K1 + 1) / norm;
+            scores.merge(docNo, s, Math::max);
+        });
+    }
+
+    /**
+     * HTML-escapes {@code text} and wraps words matching a query term in {@code <mark>}. With
+     * {@code snippet} the result is cut to a window around the first match.
+     */
+    static String highlight(String text, Set<String> terms, boolean snippet) {
+        if (text == null || text.isEmpty())
+            return "";
+        int from = 0;
+        int to = text.length();
+        Matcher m = WORD.matcher(text);
+        if (snippet && text.length() > SNIPPET_CHARS) {
+            int first = 0;
+            while (m.find()) {
+                if (matches(fold(m.group()), terms)) {
+                    first = m.start();
+                    break;
+                }
+            }
+            from = Math.max(0, first - SNIPPET_CHARS / 3);
+            to = Math.min(text.length(), from + SNIPPET_CHARS);
+            m.reset();
+        }
+
+        StringBuilder out = new StringBuilder();
+        if (from > 0)
+            out.append('…');
+        int pos = from;
+        m.region(from, to);
+        while (m.find()) {
+            if (!matches(fold(m.group()), terms))
+                continue;
+            out.append(escape(text.substring(pos, m.start()))).append("<mark>")
+                    .append(escape(m.group())).append("</mark>");
+            pos = m.end();
+        }
+        out.append(escape(text.substring(pos, to)));
+        if (to < text.length())
+            out.append('…');
+        return out.toString();
+    }
+
+    private static boolean matches(String word, Set<String> terms) {
+        for (String term : terms) {
+            if (word.equals(term) || (term.length() >= 2 && word.startsWith(term)))
+                return true;
+        }
+        return false;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank())
+            return List.of();
+        List<String> terms = new ArrayList<>();
+        Matcher m = WORD.matcher(text);
+        while (m.find()) {
+            String term = fold(m.group());
+            if (!term.isEmpty() && term.length() <= 40)
+                terms.add(term);
+        }
+        return terms;
+    }
+
+    static String fold(String word) {
+        String lower = word.toLowerCase().replace('đ', 'd');
+        return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#039;");
+    }
+
+    // ---------------------------------------------------------------- snapshot
+
+    /** Writes all live documents to {@code file} atomically (temp file + move). */
+    public void writeSnapshot(Path file) throws IOException {
+        List<Doc> live;
+        lock.readLock().lock();
+        try {
+            live = docs.stream().filter(d -> d != null).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(live.size());
+            for (Doc d : live) {
+                writeString(out, d.type());
+                out.writeLong(d.id());
+                out.writeLong(d.projectId());
+                out.writeLong(d.taskId() != null ? d.taskId() : -1L);
+                out.writeBoolean(d.open());
+                writeString(out, d.title());
+                writeString(out, d.body());
+                writeString(out, d.context());
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static SearchIndex readSnapshot(Path file) throws IOException {
+        SearchIndex index = new SearchIndex();
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+                throw new IOException("Snapshot không đúng định dạng: " + file);
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String type = readString(in);
+                long id = in.readLong();
+                long projectId = in.readLong();
+                long taskId = in.readLong();
+                boolean open = in.readBoolean();
+                index.put(new Doc(type, id, projectId, taskId < 0 ? null : taskId, open,
+                        readString(in), readString(in), readString(in)));
+            }
+        }
+        return index;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0)
+            return null;
+        return new String(in.readNBytes(len), StandardCharsets.UTF_8);
+    }
+}
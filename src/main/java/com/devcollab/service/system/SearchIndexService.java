@@ -0,0 +1,433 @@
+package com.devcollab.service.system;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.domain.Comment;
+import com.devcollab.domain.Project;
+import com.devcollab.domain.Task;
+import com.devcollab.dto.response.SearchHitDTO;
+import com.devcollab.dto.response.SearchResultDTO;
+import com.devcollab.repository.CommentRepository;
+import com.devcollab.repository.MessageRepository;
+import com.devcollab.repository.ProjectMemberRepository;
+import com.devcollab.repository.ProjectRepository;
+import com.devcollab.repository.TaskRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Full-text search over projects, tasks, comments and chat messages.
+ *
+ * Each node keeps the whole {@link SearchIndex} in heap; the file under
+ * {@code app.search.index-dir} is only a snapshot so a restarted node is warm at once. Service write paths call the
+ * {@code index*} and {@code remove*} methods; field values are captured immediately and, after
+ * the transaction commits (dropped on rollback), applied locally and published on a Redis channel
+ * so the other nodes apply the same change.
+ *
+ * On startup the snapshot is loaded, then a background rebuild from the database replaces it.
+ * The rebuild repeats every {@code app.search.rebuild-ms} so a change whose broadcast was lost
+ * (Redis down, node restarting) is corrected. Updates that arrive during a rebuild are replayed
+ * onto the new index before the swap. The snapshot is rewritten periodically and on shutdown.
+ *
+ * {@link #search} only returns hits from projects the user is a member of, plus public projects.
+ */
+@Service
+@Slf4j
+public class SearchIndexService implements MessageListener {
+
+    static final String CHANNEL = "devcollab:search-index";
+    private static final String SNAPSHOT_FILE = "search-index.bin.gz";
+    private static final int REBUILD_PAGE = 1000;
+    private static final int MAX_LIMIT = 50;
+
+    private static final String OP_PUT = "put";
+    private static final String OP_REMOVE = "remove";
+    private static final String OP_REMOVE_PROJECT = "removeProject";
+    private static final String OP_REMOVE_TASK = "removeTask";
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final MessageRepository messageRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectMembershipCache membershipCache;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Path snapshotFile;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Object swapLock = new Object();
+    private volatile SearchIndex index = new SearchIndex();
+    private volatile boolean ready;
+    private volatile boolean dirty;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Khác null khi đang rebuild: các thay đổi cần áp lại lên index mới
+    private List<Consumer<SearchIndex>> replayLog;
+
+    public SearchIndexService(ProjectRepository projectRepository, TaskRepository taskRepository,
+            CommentRepository commentRepository, MessageRepository messageRepository,
+            ProjectMemberRepository projectMemberRepository,
+            ProjectMembershipCache membershipCache, RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.search.index-dir:${java.io.tmpdir}/devcollab-search}") String indexDir) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.messageRepository = messageRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.membershipCache = membershipCache;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.snapshotFile = Paths.get(indexDir).resolve(SNAPSHOT_FILE);
+    }
+
+    @PostConstruct
+    void start() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        loadSnapshot();
+    }
+
+    private void loadSnapshot() {
+        if (!Files.exists(snapshotFile))
+            return;
+        try {
+            long start = System.currentTimeMillis();
+            index = SearchIndex.readSnapshot(snapshotFile);
+            ready = true;
+            log.info("🔎 [Search] Nạp snapshot {} tài liệu trong {}ms", index.size(),
+                    System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.warn("⚠️ [Search] Không đọc được snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread.ofPlatform().name("search-rebuild").daemon(true).start(this::rebuildSafely);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.rebuild-ms:21600000}",
+            initialDelayString = "${app.search.rebuild-ms:21600000}")
+    public void rebuildPeriodically() {
+        rebuildSafely();
+    }
+
+    private void rebuildSafely() {
+        if (!rebuilding.compareAndSet(false, true))
+            return;
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("❌ [Search] Dựng lại index thất bại: {}", e.getMessage(), e);
+            synchronized (swapLock) {
+                replayLog = null;
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.snapshot-ms:300000}", initialDelay = 300000)
+    public void snapshotIfDirty() {
+        if (dirty)
+            writeSnapshot();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dirty)
+            writeSnapshot();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ------------------------------------------------------------- write paths
+
+    public void indexProject(Project project) {
+        if (project == null || project.getProjectId() == null)
+            return;
+        apply(putChange(new SearchIndex.Doc(SearchIndex.PROJECT, project.getProjectId(),
+                project.getProjectId(), null, isPublic(project.getVisibility()),
+                project.getName(), project.getDescription(), null)));
+    }
+
+    /** Xóa project cùng mọi task, comment, message của nó khỏi index. */
+    public void removeProject(Long projectId) {
+        if (projectId == null)
+            return;
+        apply(change(OP_REMOVE_PROJECT, null, projectId));
+    }
+
+    public void indexTask(Task task) {
+        if (task == null || task.getTaskId() == null || task.getProject() == null)
+            return;
+        apply(putChange(new SearchIndex.Doc(SearchIndex.TASK, task.getTaskId(),
+                task.getProject().getProjectId(), task.getTaskId(), false, task.getTitle(),
+                task.getDescriptionMd(), null)));
+    }
+
+    /** Xóa task cùng các comment của nó khỏi index. */
+    public void removeTask(Long taskId) {
+        if (taskId == null)
+            return;
+        apply(change(OP_REMOVE_TASK, null, taskId));
+    }
+
+    public void indexComment(Comment comment) {
+        if (comment == null || comment.getCommentId() == null || comment.getTask() == null)
+            return;
+        Task task = comment.getTask();
+        apply(putChange(new SearchIndex.Doc(SearchIndex.COMMENT, comment.getCommentId(),
+                task.getProject().getProjectId(), task.getTaskId(), false, null,
+                comment.getContent(), task.getTitle())));
+    }
+
+    public void removeComment(Long commentId) {
+        if (commentId == null)
+            return;
+        apply(change(OP_REMOVE, SearchIndex.COMMENT, commentId));
+    }
+
+    public void indexMessage(Long messageId, Long projectId, String content, String senderName) {
+        if (messageId == null || projectId == null)
+            return;
+        apply(putChange(new SearchIndex.Doc(SearchIndex.MESSAGE, messageId, projectId, null,
+                false, null, content, senderName)));
+    }
+
+    /** Applies {@code change} here and on the other nodes once the transaction commits. */
+    private void apply(Map<String, Object> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            applyNow(toOp(change));
+                            publish(change);
+                        }
+                    });
+        } else {
+            applyNow(toOp(change));
+            publish(change);
+        }
+    }
+
+    private void publish(Map<String, Object> change) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, change);
+        } catch (Exception e) {
+            log.warn("⚠️ [Search] Không gửi được cập nhật index qua Redis: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (!(body instanceof Map<?, ?> change) || nodeId.equals(change.get("node")))
+                return;
+            applyNow(toOp(change));
+        } catch (Exception e) {
+            log.warn("⚠️ [Search] Cập nhật index từ Redis không hợp lệ: {}", e.getMessage());
+        }
+    }
+
+    // Thay đổi được mô tả bằng Map để gửi qua Redis; toOp dựng lại thao tác trên index
+    private Map<String, Object> change(String op, String type, Long id) {
+        Map<String, Object> change = new HashMap<>();
+        change.put("node", nodeId);
+        change.put("op", op);
+        change.put("type", type);
+        change.put("id", id);
+        return change;
+    }
+
+    private Map<String, Object> putChange(SearchIndex.Doc doc) {
+        Map<String, Object> change = change(OP_PUT, doc.type(), doc.id());
+        change.put("projectId", doc.projectId());
+        change.put("taskId", doc.taskId());
+        change.put("open", doc.open());
+        change.put("title", doc.title());
+        change.put("body", doc.body());
+        change.put("context", doc.context());
+        return change;
+    }
+
+    private static Consumer<SearchIndex> toOp(Map<?, ?> change) {
+        String op = (String) change.get("op");
+        String type = (String) change.get("type");
+        long id = id(change.get("id"));
+        switch (op) {
+            case OP_PUT -> {
+                Object taskId = change.get("taskId");
+                SearchIndex.Doc doc = new SearchIndex.Doc(type, id, id(change.get("projectId")),
+                        taskId != null ? id(taskId) : null,
+                        Boolean.TRUE.equals(change.get("open")), (String) change.get("title"),
+                        (String) change.get("body"), (String) change.get("context"));
+                return idx -> idx.put(doc);
+            }
+            case OP_REMOVE -> {
+                return idx -> idx.remove(type, id);
+            }
+            case OP_REMOVE_PROJECT -> {
+                return idx -> idx.removeIf(d -> d.projectId() == id);
+            }
+            case OP_REMOVE_TASK -> {
+                return idx -> idx.removeIf(d -> d.taskId() != null && d.taskId() == id
+                        && (SearchIndex.TASK.equals(d.type())
+                                || SearchIndex.COMMENT.equals(d.type())));
+            }
+            default -> throw new IllegalArgumentException("Thao tác index không hợp lệ: " + op);
+        }
+    }
+
+    private void applyNow(Consumer<SearchIndex> op) {
+        try {
+            synchronized (swapLock) {
+                op.accept(index);
+                if (replayLog != null)
+                    replayLog.add(op);
+            }
+            dirty = true;
+        } catch (Exception e) {
+            log.warn("⚠️ [Search] Cập nhật index thất bại: {}", e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------------------ search
+
+    /**
+     * Ranked, highlighted hits for {@code query} across the given types (all when empty),
+     * restricted to the user's projects and public projects.
+     */
+    public SearchResultDTO search(String email, String query, Set<String> types, int limit) {
+        long start = System.nanoTime();
+        Long userId = membershipCache.getUserId(email);
+        Set<Long> memberOf = new HashSet<>(projectMemberRepository.findProjectIdsByUserId(userId));
+
+        Set<String> wanted = types == null ? Set.of() : types;
+        Predicate<SearchIndex.Doc> visible = d -> (wanted.isEmpty() || wanted.contains(d.type()))
+                && (memberOf.contains(d.projectId())
+                        || (SearchIndex.PROJECT.equals(d.type()) && d.open()));
+
+        List<SearchHitDTO> hits = index.search(query, visible, clamp(limit)).stream()
+                .map(h -> new SearchHitDTO(h.doc().type(), h.doc().id(), h.doc().projectId(),
+                        h.doc().taskId(), h.title(), h.snippet(), h.doc().context(), h.score()))
+                .toList();
+        return new SearchResultDTO(query, hits, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Every project id matching {@code query}, best first, without membership filtering. Not
+     * clamped: the project search endpoints return all matches.
+     */
+    public List<Long> searchProjectIds(String query) {
+        return index.search(query, d -> SearchIndex.PROJECT.equals(d.type()), Integer.MAX_VALUE)
+                .stream().map(h -> h.doc().id()).toList();
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // ----------------------------------------------------------------- rebuild
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (swapLock) {
+            replayLog = new ArrayList<>();
+        }
+
+        SearchIndex fresh = new SearchIndex();
+        load(projectRepository::findSearchRowsAfter, r -> new SearchIndex.Doc(SearchIndex.PROJECT,
+                id(r[0]), id(r[0]), null, isPublic((String) r[3]), (String) r[1], (String) r[2],
+                null), fresh);
+        load(taskRepository::findSearchRowsAfter, r -> new SearchIndex.Doc(SearchIndex.TASK,
+                id(r[0]), id(r[1]), id(r[0]), false, (String) r[2], (String) r[3], null), fresh);
+        load(commentRepository::findSearchRowsAfter, r -> new SearchIndex.Doc(SearchIndex.COMMENT,
+                id(r[0]), id(r[2]), id(r[1]), false, null, (String) r[3], (String) r[4]), fresh);
+        load(messageRepository::findSearchRowsAfter, r -> new SearchIndex.Doc(SearchIndex.MESSAGE,
+                id(r[0]), id(r[1]), null, false, null, (String) r[2], (String) r[3]), fresh);
+
+        int replayed;
+        synchronized (swapLock) {
+            replayed = replayLog.size();
+            replayLog.forEach(op -> op.accept(fresh));
+            replayLog = null;
+            index = fresh;
+            ready = true;
+        }
+        dirty = true;
+        log.info("🔎 [Search] Dựng lại index: {} tài liệu, {} cập nhật áp lại, {}ms", fresh.size(),
+                replayed, System.currentTimeMillis() - start);
+        writeSnapshot();
+    }
+
+    private void load(RowPager pager, Function<Object[], SearchIndex.Doc> toDoc,
+            SearchIndex target) {
+        long after = 0;
+        while (true) {
+            List<Object[]> rows = pager.page(after, PageRequest.of(0, REBUILD_PAGE));
+            for (Object[] row : rows)
+                target.put(toDoc.apply(row));
+            if (rows.size() < REBUILD_PAGE)
+                return;
+            after = id(rows.get(rows.size() - 1)[0]);
+        }
+    }
+
+    private void writeSnapshot() {
+        try {
+            dirty = false;
+            index.writeSnapshot(snapshotFile);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("⚠️ [Search] Không ghi được snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private static boolean isPublic(String visibility) {
+        return "public".equalsIgnoreCase(visibility);
+    }
+
+    private static long id(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    @FunctionalInterface
+    private interface RowPager {
+        List<Object[]> page(long after, PageRequest page);
+    }
+}
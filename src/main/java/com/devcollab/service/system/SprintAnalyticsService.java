@@ -0,0 +1,199 @@
+package com.devcollab.service.system;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.devcollab.domain.Sprint;
+import com.devcollab.domain.SprintDailyStats;
+import com.devcollab.domain.Task;
+import com.devcollab.dto.response.SprintBurndownDTO;
+import com.devcollab.dto.response.SprintVelocityDTO;
+import com.devcollab.exception.NotFoundException;
+import com.devcollab.repository.SprintDailyStatsRepository;
+import com.devcollab.repository.SprintRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Burndown, burnup and velocity of sprints from pre-aggregated daily rows.
+ *
+ * {@code TaskServiceImpl} reports each status transition of a task that belongs to a sprint; a
+ * completion (DONE or CLOSED) adds one to today's {@link SprintDailyStats#getDoneDelta()} and a
+ * reopen takes one off, with a single MERGE in the caller's transaction. Creating a task in a
+ * sprint adds one to today's scope and deleting it takes it back out, together with its
+ * completion when it was done. Reads sum at most one row
+ * per sprint day instead of loading the sprint's tasks.
+ *
+ * A sprint without rows (created before this table existed) is seeded from its current tasks the
+ * first time it is touched or read; the seed already includes the change being reported.
+ */
+@Service
+@Slf4j
+public class SprintAnalyticsService {
+
+    private final SprintDailyStatsRepository dailyStatsRepository;
+    private final SprintRepository sprintRepository;
+    private final int defaultWindow;
+
+    public SprintAnalyticsService(SprintDailyStatsRepository dailyStatsRepository,
+            SprintRepository sprintRepository,
+            @Value("${app.sprint.velocity-window:3}") int defaultWindow) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.sprintRepository = sprintRepository;
+        this.defaultWindow = defaultWindow;
+    }
+
+    // ------------------------------------------------------------------- tasks
+
+    /** {@code before} is the status read before the caller modified the entity. */
+    @Transactional
+    public void taskStatusChanged(Task task, String before) {
+        Sprint sprint = task != null ? task.getSprint() : null;
+        if (sprint == null || sprint.getSprintId() == null)
+            return;
+
+        boolean wasDone = isDone(before);
+        boolean nowDone = isDone(task.getStatus());
+        if (wasDone == nowDone || seed(sprint.getSprintId()))
+            return;
+
+        dailyStatsRepository.bump(sprint.getSprintId(), sprint.getProject().getProjectId(),
+                LocalDate.now(), 0, nowDone ? 1 : -1);
+    }
+
+    /** Called after the new task is saved. */
+    @Transactional
+    public void taskAdded(Task task) {
+        bumpScope(task, 1);
+    }
+
+    /** Called after the task is deleted, with the entity as it was loaded. */
+    @Transactional
+    public void taskRemoved(Task task) {
+        bumpScope(task, -1);
+    }
+
+    private void bumpScope(Task task, int sign) {
+        Sprint sprint = task != null ? task.getSprint() : null;
+        if (sprint == null || sprint.getSprintId() == null || seed(sprint.getSprintId()))
+            return;
+
+        dailyStatsRepository.bump(sprint.getSprintId(), sprint.getProject().getProjectId(),
+                LocalDate.now(), sign, isDone(task.getStatus()) ? sign : 0);
+    }
+
+    // ------------------------------------------------------------------- reads
+
+    @Transactional
+    public SprintBurndownDTO getBurndown(Long sprintId) {
+        Sprint sprint = sprintRepository.findById(sprintId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy sprint"));
+        seed(sprintId);
+        List<SprintDailyStats> rows =
+                dailyStatsRepository.findBySprintIdOrderByStatDateAsc(sprintId);
+
+        LocalDate today = LocalDate.now();
+        LocalDate start = sprint.getStartDate() != null ? sprint.getStartDate()
+                : rows.isEmpty() ? today : rows.get(0).getStatDate();
+        LocalDate end = sprint.getEndDate() != null && sprint.getEndDate().isBefore(today)
+                ? sprint.getEndDate()
+                : today;
+        if (end.isBefore(start))
+            end = start;
+
+        // Các thay đổi trước ngày bắt đầu được cộng dồn vào ngày đầu tiên
+        long scope = 0, completed = 0;
+        int next = 0;
+        while (next < rows.size() && rows.get(next).getStatDate().isBefore(start)) {
+            scope += rows.get(next).getScopeDelta();
+            completed += rows.get(next).getDoneDelta();
+            next++;
+        }
+
+        long startScope = -1;
+        long plannedDays = sprint.getEndDate() != null
+                ? Math.max(1, ChronoUnit.DAYS.between(start, sprint.getEndDate()))
+                : 0;
+        List<SprintBurndownDTO.Day> days = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            while (next < rows.size() && !rows.get(next).getStatDate().isAfter(day)) {
+                scope += rows.get(next).getScopeDelta();
+                completed += rows.get(next).getDoneDelta();
+                next++;
+            }
+            if (startScope < 0)
+                startScope = scope;
+
+            Double ideal = null;
+            if (plannedDays > 0) {
+                long elapsed = ChronoUnit.DAYS.between(start, day);
+                ideal = Math.max(0, startScope * (1 - (double) elapsed / plannedDays));
+            }
+            days.add(new SprintBurndownDTO.Day(day, scope, completed, scope - completed, ideal));
+        }
+        return new SprintBurndownDTO(sprintId, sprint.getName(), sprint.getStartDate(),
+                sprint.getEndDate(), days);
+    }
+
+    @Transactional
+    public SprintVelocityDTO getVelocity(Long projectId, Integer window) {
+        int size = window != null && window > 0 ? Math.min(window, 12) : defaultWindow;
+        for (Long sprintId : dailyStatsRepository.findUnseededSprintIds(projectId))
+            seed(sprintId);
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = dailyStatsRepository.sumCompletedByProject(projectId);
+        long[] completed = new long[rows.size()];
+        List<SprintVelocityDTO.Sprint> sprints = new ArrayList<>(rows.size());
+        double average = 0;
+        long sum = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            completed[i] = ((Number) row[4]).longValue();
+            sum += completed[i];
+            if (i >= size)
+                sum -= completed[i - size];
+            double rolling = (double) sum / Math.min(i + 1, size);
+
+            LocalDate end = toLocalDate(row[3]);
+            // Vận tốc chung chỉ tính các sprint đã kết thúc
+            if (end != null && end.isBefore(today))
+                average = rolling;
+            sprints.add(new SprintVelocityDTO.Sprint(((Number) row[0]).longValue(),
+                    (String) row[1], toLocalDate(row[2]), end, completed[i], rolling));
+        }
+        return new SprintVelocityDTO(projectId, size, average, sprints);
+    }
+
+    // ----------------------------------------------------------------- helpers
+
+    /** Seeds the sprint's rows if it has none; true when it did. */
+    private boolean seed(Long sprintId) {
+        int created = dailyStatsRepository.seedIfMissing(sprintId);
+        if (created > 0)
+            log.info("📈 [Sprint] Dựng chuỗi burndown cho sprint {} ({} ngày)", sprintId, created);
+        return created > 0;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate d)
+            return d;
+        if (value instanceof Date d)
+            return d.toLocalDate();
+        return null;
+    }
+
+    private static boolean isDone(String status) {
+        if (status == null)
+            return false;
+        String s = status.trim().toUpperCase();
+        return "DONE".equals(s) || "CLOSED".equals(s);
+    }
+}
@@ -2,84 +2,273 @@ package com.devcollab.service.system;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.devcollab.domain.Task;
 import com.devcollab.domain.User;
 import com.devcollab.repository.TaskRepository;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Event-driven deadline reminders.
+ *
+ * Fire times are kept in a {@link DelayQueue} keyed by deadline, so nothing is polled: the
+ * dispatcher thread sleeps until the next reminder is due. The queue is rebuilt from the database
+ * on startup and updated incrementally by {@link #refresh(Task)} / {@link #cancel(Long)} whenever
+ * {@code TaskServiceImpl} changes a deadline, status or archive flag; inside a transaction the
+ * change is applied after commit. Rescheduling or cancelling a task removes its queued entries, so
+ * the queue holds at most one schedule per task; each schedule carries a generation number so a
+ * reminder already taken by the dispatcher is still dropped if the task changed meanwhile.
+ *
+ * A Redis key per (task, deadline, stage) makes sure only one node sends a reminder. When Redis
+ * is unavailable the reminder is put back in the queue and retried a minute later, until the
+ * deadline passes.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TaskDeadlineReminderJob {
 
     private final TaskRepository taskRepository;
-    private final NotificationService notificationService;
+    private final NotificationFanoutService notificationFanoutService;
     private final RedisTemplate<String, Object> redisTemplate;
 
+    // Thứ tự từ sớm nhất tới muộn nhất
+    private static final List<String> STAGE_ORDER = List.of("24h", "1h", "5m");
+
     private static final Map<String, Duration> REMINDER_STAGES = Map.of("24h", Duration.ofHours(24),
             "1h", Duration.ofHours(1), "5m", Duration.ofMinutes(5));
 
-    @Scheduled(fixedRate = 30 * 1000)
+    private static final Duration CLAIM_RETRY = Duration.ofMinutes(1);
+
+    private final DelayQueue<Reminder> queue = new DelayQueue<>();
+    private final Map<Long, Slot> scheduled = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    private volatile Thread dispatcher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuildSchedule();
+        dispatcher = Thread.ofPlatform().name("deadline-reminder").daemon(true)
+                .start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread t = dispatcher;
+        if (t != null)
+            t.interrupt();
+    }
 
-    public void checkUpcomingDeadlines() {
-        List<Task> tasks = taskRepository.findTasksDueBetween(LocalDateTime.now(),
-                LocalDateTime.now().plusHours(24));
+    /** Drops the in-memory schedule and reloads every open task with a future deadline. */
+    public synchronized void rebuildSchedule() {
+        queue.clear();
+        scheduled.clear();
 
         LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = taskRepository.findReminderCandidates(now);
+        for (Object[] row : rows) {
+            schedule((Long) row[0], (LocalDateTime) row[1], (String) row[2], now);
+        }
+
+        log.info("🔔 [Reminder] Đã nạp lịch nhắc hạn cho {} task", rows.size());
+    }
+
+    /** (Re)schedules reminders for a task after its deadline, status or archive flag changed. */
+    public void refresh(Task task) {
+        if (task == null || task.getTaskId() == null)
+            return;
+
+        // Chụp giá trị ngay, áp dụng sau commit: rollback thì lịch giữ nguyên
+        Long taskId = task.getTaskId();
+        LocalDateTime deadline = task.getDeadline();
+        boolean open = !task.isArchived() && !isFinished(task.getStatus());
+        afterCommit(() -> reschedule(taskId, deadline, open));
+    }
+
+    public void cancel(Long taskId) {
+        if (taskId != null)
+            afterCommit(() -> unschedule(taskId));
+    }
 
-        for (Task task : tasks) {
-            if (task.getDeadline() == null)
-                continue;
+    private synchronized void reschedule(Long taskId, LocalDateTime deadline, boolean open) {
+        LocalDateTime now = LocalDateTime.now();
+        if (deadline == null || !deadline.isAfter(now) || !open) {
+            unschedule(taskId);
+            return;
+        }
 
-            for (Map.Entry<String, Duration> stageEntry : REMINDER_STAGES.entrySet()) {
-                String stage = stageEntry.getKey();
-                Duration duration = stageEntry.getValue();
+        Slot current = scheduled.get(taskId);
+        if (current != null && current.deadline().equals(deadline))
+            return;
 
-                LocalDateTime targetTime = task.getDeadline().minus(duration);
-                long diffMin = Duration.between(now, targetTime).toMinutes();
+        // Deadline mới → không dùng stage đã nhắc của deadline cũ
+        schedule(taskId, deadline, null, now);
+    }
 
-                log.info("⏱️ [Debug] Task '{}' stage={} deadline={} now={} target={} diff={} phút",
-                        task.getTitle(), stage, task.getDeadline(), now, targetTime, diffMin);
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            action.run();
+                        }
+                    });
+        } else {
+            action.run();
+        }
+    }
 
-                if (Math.abs(diffMin) > 60)
-                    continue; // mở rộng 1h để test
+    private synchronized void unschedule(Long taskId) {
+        scheduled.remove(taskId);
+        queue.removeIf(r -> r.taskId().equals(taskId));
+    }
 
-                String redisKey = "task:reminder:" + task.getTaskId() + ":" + stage;
+    /** Drops the slot and its queued reminders unless the task was rescheduled meanwhile. */
+    private synchronized void unschedule(Long taskId, Slot slot) {
+        if (scheduled.remove(taskId, slot))
+            queue.removeIf(r -> r.taskId().equals(taskId) && r.generation() == slot.generation());
+    }
 
-                boolean redisSent = Boolean.TRUE.equals(redisTemplate.hasKey(redisKey));
-                boolean dbSentRecently =
-                        task.getLastRemindAt() != null && task.getLastReminderStage() != null
-                                && task.getLastReminderStage().equals(stage)
-                                && Duration.between(task.getLastRemindAt(), now).toHours() < 24;
+    int queuedCount() {
+        return queue.size();
+    }
 
-                if (redisSent || dbSentRecently)
-                    continue;
+    /** Stages still queued for {@code taskId} under its current schedule, earliest first. */
+    List<String> pendingStages(Long taskId) {
+        Slot slot = scheduled.get(taskId);
+        if (slot == null)
+            return List.of();
+        return queue.stream()
+                .filter(r -> r.taskId().equals(taskId) && r.generation() == slot.generation())
+                .sorted(Comparator.comparing(Reminder::fireAt)).map(Reminder::stage).toList();
+    }
 
-                sendReminderToAll(task, stage);
+    private synchronized void schedule(Long taskId, LocalDateTime deadline, String lastStage,
+            LocalDateTime now) {
+        long generation = generations.incrementAndGet();
+        scheduled.put(taskId, new Slot(deadline, generation));
+        queue.removeIf(r -> r.taskId().equals(taskId));
 
-                redisTemplate.opsForValue().set(redisKey, "sent", getTTLMinutes(stage),
-                        TimeUnit.MINUTES);
+        String missed = null;
+        for (String stage : STAGE_ORDER) {
+            LocalDateTime fireAt = deadline.minus(REMINDER_STAGES.get(stage));
+            if (fireAt.isAfter(now)) {
+                queue.offer(new Reminder(taskId, stage, deadline, generation, fireAt));
+            } else {
+                missed = stage;
+            }
+        }
 
-                task.setLastRemindAt(LocalDateTime.now());
-                task.setLastReminderStage(stage);
-                taskRepository.save(task);
+        // Bù stage gần nhất đã bị lỡ (vd: server khởi động lại, deadline đặt sát giờ)
+        if (missed != null && !alreadySent(lastStage, missed)) {
+            queue.offer(new Reminder(taskId, missed, deadline, generation, now));
+        }
+    }
 
-                log.info("🔔 [HybridReminder] Gửi nhắc '{}' cho task '{}' (ID={})", stage,
-                        task.getTitle(), task.getTaskId());
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                fire(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("❌ [Reminder] Gửi nhắc hạn thất bại: {}", e.getMessage(), e);
             }
         }
     }
 
+    /** Fires every reminder that is already due, without waiting. */
+    void fireDue() {
+        Reminder due;
+        List<Reminder> batch = new ArrayList<>();
+        while ((due = queue.poll()) != null)
+            batch.add(due);
+        batch.forEach(this::fire);
+    }
+
+    private void fire(Reminder reminder) {
+        Slot slot = scheduled.get(reminder.taskId());
+        if (slot == null || slot.generation() != reminder.generation())
+            return;
+
+        Task task = taskRepository.findByIdForReminder(reminder.taskId()).orElse(null);
+        if (task == null || task.isArchived() || isFinished(task.getStatus())
+                || !reminder.deadline().equals(task.getDeadline())) {
+            unschedule(reminder.taskId(), slot);
+            return;
+        }
+
+        String stage = reminder.stage();
+        Boolean claimed = claim(task, stage);
+        if (claimed == null) {
+            retryLater(reminder);
+            return;
+        }
+        if (!claimed)
+            return;
+
+        sendReminderToAll(task, stage);
+        taskRepository.markReminderSent(task.getTaskId(), stage, LocalDateTime.now());
+
+        if (stage.equals(STAGE_ORDER.get(STAGE_ORDER.size() - 1)))
+            scheduled.remove(reminder.taskId(), slot);
+
+        log.info("🔔 [Reminder] Gửi nhắc '{}' cho task '{}' (ID={})", stage, task.getTitle(),
+                task.getTaskId());
+    }
+
+    /**
+     * Khóa Redis giữ cho mỗi (task, deadline, stage) chỉ được gửi một lần trên toàn cluster.
+     * Trả về {@code null} khi Redis lỗi: không gửi, để thử lại sau thay vì mọi node cùng gửi.
+     */
+    private Boolean claim(Task task, String stage) {
+        String redisKey = "task:reminder:" + task.getTaskId() + ":" + stage + ":"
+                + task.getDeadline().toEpochSecond(ZoneOffset.UTC);
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(redisKey, "sent",
+                    getTTLMinutes(stage), TimeUnit.MINUTES));
+        } catch (Exception e) {
+            log.warn("⚠ [Reminder] Redis không khả dụng, thử lại nhắc '{}' task {} sau {}s: {}",
+                    stage, task.getTaskId(), CLAIM_RETRY.toSeconds(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void retryLater(Reminder reminder) {
+        LocalDateTime retryAt = LocalDateTime.now().plus(CLAIM_RETRY);
+        if (retryAt.isBefore(reminder.deadline()))
+            queue.offer(new Reminder(reminder.taskId(), reminder.stage(), reminder.deadline(),
+                    reminder.generation(), retryAt));
+    }
+
+    private boolean alreadySent(String lastStage, String stage) {
+        return lastStage != null && STAGE_ORDER.indexOf(lastStage) >= STAGE_ORDER.indexOf(stage);
+    }
+
+    private boolean isFinished(String status) {
+        return "DONE".equalsIgnoreCase(status) || "CLOSED".equalsIgnoreCase(status);
+    }
+
     // Gửi cho tất cả người liên quan: assignee + người tạo + follower
     private void sendReminderToAll(Task task, String stage) {
         String title = "⏰ Nhắc hạn công việc";
@@ -118,10 +307,8 @@ public class TaskDeadlineReminderJob {
             return;
         }
 
-        for (User receiver : uniqueReceivers) {
-            notificationService.createNotification(receiver, "TASK_DUE_SOON", task.getTaskId(),
-                    title, message, link, null);
-        }
+        notificationFanoutService.publish(new NotificationFanoutService.Event("TASK_DUE_SOON",
+                task.getTaskId(), title, message, link, null), uniqueReceivers);
 
         log.info("📨 Đã gửi nhắc hạn '{}' tới {} người cho task '{}'", stage,
                 uniqueReceivers.size(), task.getTitle());
@@ -135,4 +322,24 @@ public class TaskDeadlineReminderJob {
             default -> 60;
         };
     }
+
+    private record Slot(LocalDateTime deadline, long generation) {
+    }
+
+    private record Reminder(Long taskId, String stage, LocalDateTime deadline, long generation,
+            LocalDateTime fireAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(LocalDateTime.now(), fireAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Reminder r)
+                return fireAt.compareTo(r.fireAt);
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS),
+                    other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
 }
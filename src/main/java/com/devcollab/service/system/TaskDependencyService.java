@@ -0,0 +1,274 @@
+package com.devcollab.service.system;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.domain.Task;
+import com.devcollab.dto.response.TaskDependencyDTO;
+import com.devcollab.dto.response.TaskDependencyGraphDTO;
+import com.devcollab.exception.NotFoundException;
+import com.devcollab.repository.TaskLinkRepository;
+import com.devcollab.repository.TaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers BLOCKS dependency questions from an in-memory {@link TaskGraph} per project.
+ *
+ * A project's graph is loaded on first use with two queries (edges and the attributes of the
+ * linked tasks) and then kept up to date by the write paths: {@code TaskServiceImpl} reports link
+ * and task changes, which are applied after the transaction commits (dropped on rollback). Other
+ * nodes do not see these updates, so a graph is also reloaded after
+ * {@code app.task-graph.ttl-seconds}. Because the cache can be stale, a new link is accepted only
+ * after {@link #wouldCreateCycleLocked} re-checks it against the database.
+ *
+ * Task weights for the critical path are the hours between start date and deadline, or
+ * {@code app.task-graph.default-hours} when either is missing.
+ */
+@Service
+@Slf4j
+public class TaskDependencyService {
+
+    public static final String BLOCKS = "BLOCKS";
+
+    private final TaskLinkRepository taskLinkRepository;
+    private final TaskRepository taskRepository;
+    private final long ttlMillis;
+    private final int defaultHours;
+
+    private final Map<Long, Entry> graphs;
+    // Project đang nạp (số lượt nạp) và project có thay đổi trong lúc nạp: bản nạp đó không cache
+    private final Map<Long, Integer> loading = new HashMap<>();
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+
+    public TaskDependencyService(TaskLinkRepository taskLinkRepository,
+            TaskRepository taskRepository,
+            @Value("${app.task-graph.ttl-seconds:600}") long ttlSeconds,
+            @Value("${app.task-graph.max-projects:2000}") int maxProjects,
+            @Value("${app.task-graph.default-hours:8}") int defaultHours) {
+        this.taskLinkRepository = taskLinkRepository;
+        this.taskRepository = taskRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.defaultHours = defaultHours;
+        this.graphs = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxProjects;
+            }
+        };
+    }
+
+    // ------------------------------------------------------------------ queries
+
+    public TaskDependencyDTO dependenciesOf(Long taskId) {
+        Long projectId = taskRepository.findProjectIdByTaskId(taskId)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy task"));
+        TaskGraph graph = graph(projectId);
+        synchronized (graph) {
+            return new TaskDependencyDTO(taskId, boxed(graph.directBlockers(taskId)),
+                    boxed(graph.transitiveBlockers(taskId)),
+                    boxed(graph.transitiveBlocked(taskId)));
+        }
+    }
+
+    public TaskDependencyGraphDTO projectGraph(Long projectId) {
+        TaskGraph graph = graph(projectId);
+        synchronized (graph) {
+            List<List<Long>> cycles = graph.cycles().stream().map(this::boxed).toList();
+            long[] order = cycles.isEmpty() ? graph.topologicalOrder() : null;
+            TaskGraph.Path path = cycles.isEmpty() ? graph.criticalPath() : null;
+            return new TaskDependencyGraphDTO(projectId, graph.size(),
+                    order != null ? boxed(order) : null, cycles,
+                    path != null ? boxed(path.taskIds()) : List.of(),
+                    path != null ? path.hours() : 0);
+        }
+    }
+
+    /** Whether adding {@code from BLOCKS to} would close a dependency cycle. */
+    public boolean wouldCreateCycle(Long projectId, Long fromTaskId, Long toTaskId) {
+        if (fromTaskId.equals(toTaskId))
+            return true;
+        TaskGraph graph = graph(projectId);
+        synchronized (graph) {
+            return graph.reaches(toTaskId, fromTaskId);
+        }
+    }
+
+    /**
+     * Authoritative cycle check for the transaction that inserts {@code from BLOCKS to}. Locks the
+     * project row so concurrent inserts on any node run one after another, then checks
+     * reachability on the committed edges rather than the cached graph, which can be stale.
+     */
+    public boolean wouldCreateCycleLocked(Long projectId, Long fromTaskId, Long toTaskId) {
+        if (fromTaskId.equals(toTaskId))
+            return true;
+        taskLinkRepository.lockProjectForLinks(projectId);
+        TaskGraph edges = new TaskGraph();
+        for (Object[] edge : taskLinkRepository.findBlockEdgesByProject(projectId))
+            edges.addEdge(((Number) edge[0]).longValue(), false, 0,
+                    ((Number) edge[1]).longValue(), false, 0);
+        return edges.reaches(toTaskId, fromTaskId);
+    }
+
+    // ------------------------------------------------------------- write paths
+
+    public void linkAdded(Task from, Task to) {
+        if (from == null || to == null || from.getProject() == null)
+            return;
+        long fromId = from.getTaskId(), toId = to.getTaskId();
+        boolean fromDone = isDone(from), toDone = isDone(to);
+        int fromHours = hours(from), toHours = hours(to);
+        apply(from.getProject().getProjectId(),
+                g -> g.addEdge(fromId, fromDone, fromHours, toId, toDone, toHours));
+    }
+
+    public void linkRemoved(Long projectId, Long fromTaskId, Long toTaskId) {
+        apply(projectId, g -> g.removeEdge(fromTaskId, toTaskId));
+    }
+
+    /** Status, archive flag or dates of a task changed. */
+    public void taskChanged(Task task) {
+        if (task == null || task.getTaskId() == null || task.getProject() == null)
+            return;
+        long id = task.getTaskId();
+        boolean done = isDone(task);
+        int hours = hours(task);
+        apply(task.getProject().getProjectId(), g -> g.update(id, done, hours));
+    }
+
+    public void taskRemoved(Long projectId, Long taskId) {
+        apply(projectId, g -> g.removeNode(taskId));
+    }
+
+    private void apply(Long projectId, Consumer<TaskGraph> op) {
+        if (projectId == null)
+            return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            applyNow(projectId, op);
+                        }
+                    });
+        } else {
+            applyNow(projectId, op);
+        }
+    }
+
+    private void applyNow(Long projectId, Consumer<TaskGraph> op) {
+        Entry entry;
+        synchronized (graphs) {
+            entry = graphs.get(projectId);
+            if (loading.containsKey(projectId))
+                changedWhileLoading.add(projectId);
+        }
+        // Chưa nạp thì bỏ qua: lần đọc sau sẽ nạp từ DB, đã gồm thay đổi này
+        if (entry == null)
+            return;
+        try {
+            synchronized (entry.graph()) {
+                op.accept(entry.graph());
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ [TaskGraph] Cập nhật graph project {} thất bại, nạp lại: {}", projectId,
+                    e.getMessage());
+            synchronized (graphs) {
+                graphs.remove(projectId);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ loading
+
+    private TaskGraph graph(Long projectId) {
+        long now = System.currentTimeMillis();
+        synchronized (graphs) {
+            Entry cached = graphs.get(projectId);
+            if (cached != null && cached.expiresAt() > now)
+                return cached.graph();
+            loading.merge(projectId, 1, Integer::sum);
+        }
+
+        TaskGraph graph = null;
+        try {
+            graph = load(projectId);
+        } finally {
+            synchronized (graphs) {
+                boolean changed = changedWhileLoading.contains(projectId);
+                if (loading.merge(projectId, -1, Integer::sum) == 0) {
+                    loading.remove(projectId);
+                    changedWhileLoading.remove(projectId);
+                }
+                if (graph != null && !changed)
+                    graphs.put(projectId, new Entry(graph, now + ttlMillis));
+            }
+        }
+        return graph;
+    }
+
+    private TaskGraph load(Long projectId) {
+        long start = System.currentTimeMillis();
+        Map<Long, Object[]> nodes = new LinkedHashMap<>();
+        for (Object[] row : taskLinkRepository.findBlockNodesByProject(projectId))
+            nodes.put(((Number) row[0]).longValue(), row);
+
+        TaskGraph graph = new TaskGraph();
+        int edges = 0;
+        for (Object[] edge : taskLinkRepository.findBlockEdgesByProject(projectId)) {
+            Object[] from = nodes.get(((Number) edge[0]).longValue());
+            Object[] to = nodes.get(((Number) edge[1]).longValue());
+            if (from == null || to == null)
+                continue;
+            graph.addEdge(((Number) from[0]).longValue(), isDone(from), hours(from),
+                    ((Number) to[0]).longValue(), isDone(to), hours(to));
+            edges++;
+        }
+        log.debug("🔗 [TaskGraph] Nạp project {}: {} task, {} phụ thuộc trong {}ms", projectId,
+                graph.size(), edges, System.currentTimeMillis() - start);
+        return graph;
+    }
+
+    private boolean isDone(Task task) {
+        return task.isArchived() || "DONE".equalsIgnoreCase(task.getStatus());
+    }
+
+    private boolean isDone(Object[] row) {
+        return Boolean.TRUE.equals(row[2]) || "DONE".equalsIgnoreCase((String) row[1]);
+    }
+
+    private int hours(Task task) {
+        return hours(task.getStartDate(), task.getDeadline());
+    }
+
+    private int hours(Object[] row) {
+        return hours((LocalDateTime) row[3], (LocalDateTime) row[4]);
+    }
+
+    private int hours(LocalDateTime start, LocalDateTime deadline) {
+        if (start == null || deadline == null || !deadline.isAfter(start))
+            return defaultHours;
+        return (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, Duration.between(start, deadline).toHours()));
+    }
+
+    private List<Long> boxed(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    private record Entry(TaskGraph graph, long expiresAt) {
+    }
+}
@@ -0,0 +1,433 @@
+package com.devcollab.service.system;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BLOCKS graph of one project, owned by {@link TaskDependencyService}.
+ *
+ * Nodes are the tasks that take part in at least one BLOCKS link, kept in a sorted
+ * {@code long[]} of task ids with parallel arrays for the edges and per-task attributes. Edges are
+ * stored in both directions as {@code long[]} of task ids: {@code out[i]} are the tasks node
+ * {@code i} blocks, {@code in[i]} the tasks blocking it. A task with no edges left is dropped.
+ *
+ * A task that is done (status DONE or archived) no longer blocks anything: transitive queries stop
+ * at it and the critical path ignores it. Not thread-safe; callers synchronize on the instance.
+ */
+public class TaskGraph {
+
+    private static final long[] NONE = new long[0];
+
+    private long[] ids = new long[16];
+    private long[][] out = new long[16][];
+    private long[][] in = new long[16][];
+    private int[] hours = new int[16];
+    private boolean[] done = new boolean[16];
+    private int size;
+
+    /** Result of {@link #criticalPath()}: open tasks from first to last, and their total hours. */
+    public record Path(long[] taskIds, long hours) {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long taskId) {
+        return indexOf(taskId) >= 0;
+    }
+
+    // ------------------------------------------------------------------ updates
+
+    /** Sets the attributes of a task already in the graph; unknown tasks are ignored. */
+    public void update(long taskId, boolean isDone, int taskHours) {
+        int i = indexOf(taskId);
+        if (i >= 0) {
+            done[i] = isDone;
+            hours[i] = taskHours;
+        }
+    }
+
+    /** Adds {@code from BLOCKS to}, inserting either task with the given attributes if new. */
+    public void addEdge(long from, boolean fromDone, int fromHours, long to, boolean toDone,
+            int toHours) {
+        ensure(from, fromDone, fromHours);
+        int t = ensure(to, toDone, toHours);
+        // Chèn 'to' có thể dời chỉ số của 'from'
+        int f = indexOf(from);
+        if (indexIn(out[f], to) >= 0)
+            return;
+        out[f] = append(out[f], to);
+        in[t] = append(in[t], from);
+    }
+
+    public void removeEdge(long from, long to) {
+        int f = indexOf(from);
+        int t = indexOf(to);
+        if (f < 0 || t < 0)
+            return;
+        out[f] = without(out[f], to);
+        in[t] = without(in[t], from);
+        dropIfIsolated(from);
+        dropIfIsolated(to);
+    }
+
+    /** Removes a task and every edge touching it. */
+    public void removeNode(long taskId) {
+        int i = indexOf(taskId);
+        if (i < 0)
+            return;
+        long[] targets = out[i];
+        long[] sources = in[i];
+        for (long t : targets) {
+            int j = indexOf(t);
+            in[j] = without(in[j], taskId);
+        }
+        for (long s : sources) {
+            int j = indexOf(s);
+            out[j] = without(out[j], taskId);
+        }
+        delete(indexOf(taskId));
+        for (long t : targets)
+            dropIfIsolated(t);
+        for (long s : sources)
+            dropIfIsolated(s);
+    }
+
+    // ------------------------------------------------------------------ queries
+
+    /** Tasks that directly block {@code taskId} and are not done. */
+    public long[] directBlockers(long taskId) {
+        int i = indexOf(taskId);
+        if (i < 0)
+            return NONE;
+        return Arrays.stream(in[i]).filter(id -> !done[indexOf(id)]).sorted().toArray();
+    }
+
+    /** Open tasks that block {@code taskId}, directly or through other open tasks. */
+    public long[] transitiveBlockers(long taskId) {
+        return reach(taskId, true);
+    }
+
+    /** Open tasks that {@code taskId} blocks, directly or through other open tasks. */
+    public long[] transitiveBlocked(long taskId) {
+        return reach(taskId, false);
+    }
+
+    /** Whether {@code to} can be reached from {@code from} along BLOCKS edges, done or not. */
+    public boolean reaches(long from, long to) {
+        int start = indexOf(from);
+        int goal = indexOf(to);
+        if (start < 0 || goal < 0)
+            return false;
+        if (start == goal)
+            return true;
+
+        boolean[] seen = new boolean[size];
+        int[] queue = new int[size];
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        seen[start] = true;
+        while (head < tail) {
+            for (long next : out[queue[head++]]) {
+                int j = indexOf(next);
+                if (j == goal)
+                    return true;
+                if (!seen[j]) {
+                    seen[j] = true;
+                    queue[tail++] = j;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dependency cycles, one list of task ids per strongly connected component with more than one
+     * task (Tarjan, iterative so long chains cannot overflow the stack).
+     */
+    public List<long[]> cycles() {
+        int[] order = new int[size];
+        int[] low = new int[size];
+        Arrays.fill(order, -1);
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int sp = 0;
+        int[] callNode = new int[size];
+        int[] callEdge = new int[size];
+        int counter = 0;
+        List<long[]> result = new ArrayList<>();
+
+        for (int root = 0; root < size; root++) {
+            if (order[root] >= 0)
+                continue;
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = 0;
+            order[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+                if (callEdge[depth] < out[v].length) {
+                    int w = indexOf(out[v][callEdge[depth]++]);
+                    if (order[w] < 0) {
+                        order[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callNode[depth] = w;
+                        callEdge[depth] = 0;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], order[w]);
+                    }
+                    continue;
+                }
+
+                if (low[v] == order[v]) {
+                    int start = sp;
+                    do {
+                        start--;
+                        onStack[stack[start]] = false;
+                    } while (stack[start] != v);
+                    if (sp - start > 1) {
+                        long[] component = new long[sp - start];
+                        for (int k = start; k < sp; k++)
+                            component[k - start] = ids[stack[k]];
+                        Arrays.sort(component);
+                        result.add(component);
+                    }
+                    sp = start;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Every task ordered so that blockers come before the tasks they block (Kahn, lowest id
+     * first among ready tasks), or {@code null} when the graph has a cycle.
+     */
+    public long[] topologicalOrder() {
+        int[] order = topological();
+        if (order == null)
+            return null;
+        long[] result = new long[size];
+        for (int k = 0; k < size; k++)
+            result[k] = ids[order[k]];
+        return result;
+    }
+
+    /**
+     * Longest chain of open tasks by estimated hours, or {@code null} when the graph has a cycle.
+     * Done tasks are skipped, so the path only covers remaining work.
+     */
+    public Path criticalPath() {
+        int[] order = topological();
+        if (order == null)
+            return null;
+
+        long[] best = new long[size];
+        int[] prev = new int[size];
+        Arrays.fill(prev, -1);
+        int end = -1;
+        for (int v : order) {
+            if (done[v])
+                continue;
+            best[v] += hours[v];
+            if (end < 0 || best[v] > best[end])
+                end = v;
+            for (long next : out[v]) {
+                int w = indexOf(next);
+                if (!done[w] && best[v] > best[w]) {
+                    best[w] = best[v];
+                    prev[w] = v;
+                }
+            }
+        }
+        if (end < 0)
+            return new Path(NONE, 0);
+
+        int length = 0;
+        for (int v = end; v >= 0; v = prev[v])
+            length++;
+        long[] path = new long[length];
+        for (int v = end; v >= 0; v = prev[v])
+            path[--length] = ids[v];
+        return new Path(path, best[end]);
+    }
+
+    // ---------------------------------------------------------------- internals
+
+    private int[] topological() {
+        int[] indegree = new int[size];
+        for (int i = 0; i < size; i++)
+            indegree[i] = in[i].length;
+
+        // Chỉ số tăng dần = taskId tăng dần nên lấy nút sẵn sàng nhỏ nhất bằng một min-heap
+        int[] heap = new int[size];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (indegree[i] == 0)
+                heapSize = push(heap, heapSize, i);
+        }
+
+        int[] order = new int[size];
+        int count = 0;
+        while (heapSize > 0) {
+            int v = heap[0];
+            heapSize = pop(heap, heapSize);
+            order[count++] = v;
+            for (long next : out[v]) {
+                int w = indexOf(next);
+                if (--indegree[w] == 0)
+                    heapSize = push(heap, heapSize, w);
+            }
+        }
+        return count == size ? order : null;
+    }
+
+    private long[] reach(long taskId, boolean upstream) {
+        int start = indexOf(taskId);
+        if (start < 0)
+            return NONE;
+
+        boolean[] seen = new boolean[size];
+        int[] queue = new int[size];
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        seen[start] = true;
+        while (head < tail) {
+            int v = queue[head++];
+            for (long next : upstream ? in[v] : out[v]) {
+                int w = indexOf(next);
+                if (!seen[w] && !done[w]) {
+                    seen[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        long[] result = new long[tail - 1];
+        for (int k = 1; k < tail; k++)
+            result[k - 1] = ids[queue[k]];
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int indexOf(long taskId) {
+        return Arrays.binarySearch(ids, 0, size, taskId);
+    }
+
+    private int ensure(long taskId, boolean isDone, int taskHours) {
+        int i = indexOf(taskId);
+        if (i >= 0)
+            return i;
+
+        i = -i - 1;
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            out = Arrays.copyOf(out, capacity);
+            in = Arrays.copyOf(in, capacity);
+            hours = Arrays.copyOf(hours, capacity);
+            done = Arrays.copyOf(done, capacity);
+        }
+        int tail = size - i;
+        System.arraycopy(ids, i, ids, i + 1, tail);
+        System.arraycopy(out, i, out, i + 1, tail);
+        System.arraycopy(in, i, in, i + 1, tail);
+        System.arraycopy(hours, i, hours, i + 1, tail);
+        System.arraycopy(done, i, done, i + 1, tail);
+        ids[i] = taskId;
+        out[i] = NONE;
+        in[i] = NONE;
+        hours[i] = taskHours;
+        done[i] = isDone;
+        size++;
+        return i;
+    }
+
+    private void dropIfIsolated(long taskId) {
+        int i = indexOf(taskId);
+        if (i >= 0 && out[i].length == 0 && in[i].length == 0)
+            delete(i);
+    }
+
+    private void delete(int i) {
+        int tail = size - i - 1;
+        System.arraycopy(ids, i + 1, ids, i, tail);
+        System.arraycopy(out, i + 1, out, i, tail);
+        System.arraycopy(in, i + 1, in, i, tail);
+        System.arraycopy(hours, i + 1, hours, i, tail);
+        System.arraycopy(done, i + 1, done, i, tail);
+        size--;
+        out[size] = null;
+        in[size] = null;
+    }
+
+    private static int indexIn(long[] values, long value) {
+        for (int k = 0; k < values.length; k++) {
+            if (values[k] == value)
+                return k;
+        }
+        return -1;
+    }
+
+    private static long[] append(long[] values, long value) {
+        long[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static long[] without(long[] values, long value) {
+        int k = indexIn(values, value);
+        if (k < 0)
+            return values;
+        if (values.length == 1)
+            return NONE;
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, k);
+        System.arraycopy(values, k + 1, result, k, values.length - k - 1);
+        return result;
+    }
+
+    private static int push(int[] heap, int heapSize, int value) {
+        int k = heapSize++;
+        heap[k] = value;
+        while (k > 0 && heap[(k - 1) / 2] > heap[k]) {
+            int parent = (k - 1) / 2;
+            int tmp = heap[parent];
+            heap[parent] = heap[k];
+            heap[k] = tmp;
+            k = parent;
+        }
+        return heapSize;
+    }
+
+    private static int pop(int[] heap, int heapSize) {
+        heap[0] = heap[--heapSize];
+        int k = 0;
+        while (true) {
+            int left = 2 * k + 1;
+            int smallest = k;
+            if (left < heapSize && heap[left] < heap[smallest])
+                smallest = left;
+            if (left + 1 < heapSize && heap[left + 1] < heap[smallest])
+                smallest = left + 1;
+            if (smallest == k)
+                return heapSize;
+            int tmp = heap[smallest];
+            heap[smallest] = heap[k];
+            heap[k] = tmp;
+            k = smallest;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.devcollab.service.system;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.repository.NotificationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user unread notification counts kept in one Redis hash ({@code userId -> count}).
+ *
+ * A user's counter is loaded from the database on the first read and from then on adjusted by the
+ * notification write paths after their transaction commits, so the header badge is served without
+ * SQL. Adjustments only touch counters that already exist, so a counter is never built from a
+ * partial history. When Redis is unavailable reads fall back to SQL.
+ *
+ * Counters are eventually consistent, made exact by reconciliation. An adjustment lands a moment
+ * after its commit, so a first read that counts the database in that gap caches a value the
+ * adjustment then moves again, and a counter lost with a Redis restart or a row inserted outside
+ * the service drifts the same way. The periodic reconciliation compares every counter with the
+ * database but repairs a mismatch only when the next pass sees the same counter and the same
+ * database count: a mismatch caused by an adjustment still on its way is gone by then. The repair
+ * is a compare-and-set, so an adjustment that lands in between is not overwritten.
+ */
+@Slf4j
+@Service
+public class UnreadCounterService {
+
+    static final String KEY = "devcollab:notification:unread";
+    private static final int RECONCILE_BATCH = 500;
+
+    // Chỉ cộng/trừ khi counter đã được nạp; không bao giờ xuống dưới 0
+    private static final RedisScript<Long> ADJUST = new DefaultRedisScript<>("""
+            local v = redis.call('HGET', KEYS[1], ARGV[1])
+            if not v then return -1 end
+            local n = tonumber(v) + tonumber(ARGV[2])
+            if n < 0 then n = 0 end
+            redis.call('HSET', KEYS[1], ARGV[1], n)
+            return n
+            """, Long.class);
+
+    // Chỉ sửa khi counter không đổi kể từ lúc đọc
+    private static final RedisScript<Long> COMPARE_AND_SET = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], ARGV[1]) == ARGV[2] then
+                redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+    private final ProjectMembershipCache membershipCache;
+
+    // Lệch thấy ở lần đối soát trước: userId → "counter/db"; chỉ sửa khi lần sau thấy y hệt
+    private volatile Map<Long, String> suspected = Map.of();
+
+    public UnreadCounterService(StringRedisTemplate redisTemplate,
+            NotificationRepository notificationRepository,
+            ProjectMembershipCache membershipCache) {
+        this.redisTemplate = redisTemplate;
+        this.notificationRepository = notificationRepository;
+        this.membershipCache = membershipCache;
+    }
+
+    public int countUnread(String email) {
+        Long userId;
+        try {
+            userId = membershipCache.getUserId(email);
+        } catch (Exception e) {
+            return 0;
+        }
+        return countUnread(userId);
+    }
+
+    public int countUnread(Long userId) {
+        String field = String.valueOf(userId);
+        try {
+            Object cached = redisTemplate.opsForHash().get(KEY, field);
+            if (cached != null)
+                return Integer.parseInt(cached.toString());
+        } catch (Exception e) {
+            log.warn("⚠️ [Unread] Không đọc được Redis, đếm từ DB: {}", e.getMessage());
+            return notificationRepository.countUnreadByUserId(userId);
+        }
+
+        int count = notificationRepository.countUnreadByUserId(userId);
+        try {
+            redisTemplate.opsForHash().putIfAbsent(KEY, field, String.valueOf(count));
+        } catch (Exception e) {
+            log.warn("⚠️ [Unread] Không ghi được counter của user {}: {}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    /** One more unread notification for the user, applied after commit. */
+    public void increment(Long userId) {
+        adjust(userId, 1);
+    }
+
+    /** One more unread notification for each user, applied after commit in one callback. */
+    public void incrementAll(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty())
+            return;
+        List<Long> ids = List.copyOf(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            ids.forEach(id -> adjustNow(id, 1));
+                        }
+                    });
+        } else {
+            ids.forEach(id -> adjustNow(id, 1));
+        }
+    }
+
+    /** {@code count} notifications of the user became read or were deleted. */
+    public void decrement(Long userId, int count) {
+        if (count > 0)
+            adjust(userId, -count);
+    }
+
+    private void adjust(Long userId, long delta) {
+        if (userId == null)
+            return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            adjustNow(userId, delta);
+                        }
+                    });
+        } else {
+            adjustNow(userId, delta);
+        }
+    }
+
+    private void adjustNow(Long userId, long delta) {
+        try {
+            redisTemplate.execute(ADJUST, List.of(KEY), String.valueOf(userId),
+                    String.valueOf(delta));
+        } catch (Exception e) {
+            // Lệch tạm thời, lần đối soát sau sẽ sửa
+            log.warn("⚠️ [Unread] Không cập nhật được counter của user {}: {}", userId,
+                    e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notification.unread-reconcile-ms:600000}",
+            initialDelay = 600000)
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        int checked = 0;
+        int fixed = 0;
+        Map<Long, String> batch = new HashMap<>();
+        Map<Long, String> mismatched = new HashMap<>();
+        ScanOptions options = ScanOptions.scanOptions().count(RECONCILE_BATCH).build();
+        try (Cursor<Map.Entry<Object, Object>> cursor =
+                redisTemplate.opsForHash().scan(KEY, options)) {
+            while (cursor.hasNext()) {
+                Map.Entry<Object, Object> entry = cursor.next();
+                try {
+                    batch.put(Long.valueOf(entry.getKey().toString()),
+                            entry.getValue().toString());
+                } catch (NumberFormatException e) {
+                    redisTemplate.opsForHash().delete(KEY, entry.getKey());
+                }
+                if (batch.size() >= RECONCILE_BATCH) {
+                    checked += batch.size();
+                    fixed += reconcileBatch(batch, mismatched);
+                    batch.clear();
+                }
+            }
+            checked += batch.size();
+            fixed += reconcileBatch(batch, mismatched);
+        } catch (Exception e) {
+            log.warn("⚠️ [Unread] Đối soát counter thất bại: {}", e.getMessage());
+            return;
+        } finally {
+            suspected = mismatched;
+        }
+        if (fixed > 0)
+            log.info("🔔 [Unread] Đối soát {} counter, sửa {} trong {}ms", checked, fixed,
+                    System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Repairs counters whose mismatch with the database was already seen, unchanged, by the
+     * previous pass; new mismatches are recorded in {@code mismatched} for the next one.
+     */
+    private int reconcileBatch(Map<Long, String> observed, Map<Long, String> mismatched) {
+        if (observed.isEmpty())
+            return 0;
+        Map<Long, Long> actual = new HashMap<>();
+        for (Object[] row : notificationRepository.countUnreadByUserIds(observed.keySet()))
+            actual.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+
+        int fixed = 0;
+        for (Map.Entry<Long, String> entry : observed.entrySet()) {
+            String expected = String.valueOf(actual.getOrDefault(entry.getKey(), 0L));
+            if (expected.equals(entry.getValue()))
+                continue;
+            String seen = entry.getValue() + "/" + expected;
+            if (!seen.equals(suspected.get(entry.getKey()))) {
+                mismatched.put(entry.getKey(), seen);
+                continue;
+            }
+            Long swapped = redisTemplate.execute(COMPARE_AND_SET, List.of(KEY),
+                    String.valueOf(entry.getKey()), entry.getValue(), expected);
+            if (swapped != null && swapped == 1)
+                fixed++;
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,265 @@
+package com.devcollab.service.system;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.devcollab.domain.Task;
+import com.devcollab.domain.TaskFollower;
+import com.devcollab.domain.User;
+import com.devcollab.dto.response.UserDashboardDTO;
+import com.devcollab.repository.ProjectRepository;
+import com.devcollab.repository.ProjectScheduleRepository;
+import com.devcollab.repository.TaskRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the user dashboard (top projects with today's schedule, task counters, monthly
+ * completions, upcoming deadlines) from three projection queries run in parallel on virtual
+ * threads.
+ *
+ * Each section is bounded by {@code app.dashboard.section-timeout-ms}; a section that times out
+ * or fails is rendered empty and the result is not cached. Timing out only abandons the future,
+ * so the section queries also carry a 2s JDBC query timeout that cancels the statement itself.
+ * Complete results are cached per user for {@code app.dashboard.user-ttl-seconds}.
+ * {@code TaskServiceImpl} and {@code TaskFollowerServiceImpl} evict the users a task write
+ * concerns after the transaction commits; followers of a task whose follower list is not loaded
+ * see the change after the TTL.
+ */
+@Service
+@Slf4j
+public class UserDashboardService {
+
+    private static final int TOP_PROJECTS = 5;
+    private static final int UPCOMING = 3;
+
+    private final ProjectRepository projectRepository;
+    private final ProjectScheduleRepository projectScheduleRepository;
+    private final TaskRepository taskRepository;
+    private final long ttlMillis;
+    private final long timeoutMillis;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Entry> cache;
+    // User đang nạp (số lượt nạp) và user bị xoá cache trong lúc nạp: bản nạp đó không cache
+    private final Map<Long, Integer> loading = new HashMap<>();
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+
+    public UserDashboardService(ProjectRepository projectRepository,
+            ProjectScheduleRepository projectScheduleRepository, TaskRepository taskRepository,
+            @Value("${app.dashboard.user-ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.dashboard.section-timeout-ms:1500}") long timeoutMillis,
+            @Value("${app.dashboard.max-users:5000}") int maxUsers) {
+        this.projectRepository = projectRepository;
+        this.projectScheduleRepository = projectScheduleRepository;
+        this.taskRepository = taskRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.timeoutMillis = timeoutMillis;
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ------------------------------------------------------------------- reads
+
+    public UserDashboardDTO load(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            Entry cached = cache.get(userId);
+            if (cached != null && cached.expiresAt() > now)
+                return cached.dashboard();
+            loading.merge(userId, 1, Integer::sum);
+        }
+
+        UserDashboardDTO dashboard = null;
+        try {
+            dashboard = assemble(userId);
+        } finally {
+            synchronized (cache) {
+                boolean changed = changedWhileLoading.contains(userId);
+                if (loading.merge(userId, -1, Integer::sum) == 0) {
+                    loading.remove(userId);
+                    changedWhileLoading.remove(userId);
+                }
+                if (dashboard != null && !dashboard.partial() && !changed)
+                    cache.put(userId, new Entry(dashboard, now + ttlMillis));
+            }
+        }
+        return dashboard;
+    }
+
+    private UserDashboardDTO assemble(Long userId) {
+        long start = System.currentTimeMillis();
+        AtomicBoolean partial = new AtomicBoolean();
+
+        CompletableFuture<List<UserDashboardDTO.Project>> projects =
+                section("projects", userId, partial, List.of(), () -> loadProjects(userId));
+        // Lịch hôm nay phụ thuộc danh sách project: một truy vấn cho cả 5 project
+        CompletableFuture<List<UserDashboardDTO.Schedule>> schedules = projects
+                .thenComposeAsync(list -> section("schedules", userId, partial, List.of(),
+                        () -> loadSchedules(list)), executor);
+        CompletableFuture<long[]> counts =
+                section("counts", userId, partial, new long[10], () -> loadCounts(userId));
+        CompletableFuture<List<UserDashboardDTO.UpcomingTask>> upcoming =
+                section("upcoming", userId, partial, List.of(), () -> loadUpcoming(userId));
+
+        CompletableFuture.allOf(schedules, counts, upcoming).join();
+        long[] c = counts.join();
+        List<Long> months = new ArrayList<>(6);
+        for (int i = 4; i < 10; i++)
+            months.add(c[i]);
+
+        log.debug("🏠 [Dashboard] Dựng dashboard user {} trong {}ms{}", userId,
+                System.currentTimeMillis() - start, partial.get() ? " (thiếu dữ liệu)" : "");
+        return new UserDashboardDTO(projects.join(), schedules.join(), upcoming.join(), c[0],
+                c[1], c[2], c[3], months, partial.get());
+    }
+
+    private <T> CompletableFuture<T> section(String name, Long userId, AtomicBoolean partial,
+            T fallback, Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(loader, executor)
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    partial.set(true);
+                    log.warn("⚠️ [Dashboard] Phần '{}' của user {} lỗi hoặc quá hạn: {}", name,
+                            userId, e.getMessage());
+                    return fallback;
+                });
+    }
+
+    private List<UserDashboardDTO.Project> loadProjects(Long userId) {
+        List<Object[]> rows = projectRepository.findDashboardCardsByUser(userId,
+                PageRequest.of(0, TOP_PROJECTS));
+        List<UserDashboardDTO.Project> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows)
+            result.add(new UserDashboardDTO.Project((Long) row[0], (String) row[1],
+                    (String) row[2], (String) row[3], (String) row[4], (LocalDate) row[5],
+                    (String) row[6]));
+        return result;
+    }
+
+    private List<UserDashboardDTO.Schedule> loadSchedules(
+            List<UserDashboardDTO.Project> projects) {
+        if (projects.isEmpty())
+            return List.of();
+        LocalDate today = LocalDate.now();
+        Instant from = today.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant to = today.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).minusNanos(1);
+        List<Long> ids = projects.stream().map(UserDashboardDTO.Project::projectId).toList();
+
+        List<UserDashboardDTO.Schedule> result = new ArrayList<>();
+        for (Object[] row : projectScheduleRepository.findDashboardItems(ids, from, to))
+            result.add(new UserDashboardDTO.Schedule((String) row[0], (String) row[1],
+                    (Instant) row[2]));
+        return result;
+    }
+
+    /** [total, open, in progress, done, done in Jan..Jun]. */
+    private long[] loadCounts(Long userId) {
+        long[] counts = new long[10];
+        List<Object[]> rows = taskRepository.countDashboardTasks(userId);
+        if (rows.isEmpty())
+            return counts;
+        Object[] row = rows.get(0);
+        for (int i = 0; i < counts.length && i < row.length; i++)
+            counts[i] = row[i] != null ? ((Number) row[i]).longValue() : 0;
+        return counts;
+    }
+
+    private List<UserDashboardDTO.UpcomingTask> loadUpcoming(Long userId) {
+        List<Object[]> rows = taskRepository.findUpcomingCards(userId, PageRequest.of(0, UPCOMING));
+        List<UserDashboardDTO.UpcomingTask> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows)
+            result.add(new UserDashboardDTO.UpcomingTask((String) row[0], (String) row[1],
+                    (String) row[2], (LocalDateTime) row[3],
+                    new UserDashboardDTO.ProjectName((String) row[4])));
+        return result;
+    }
+
+    // ------------------------------------------------------------- write paths
+
+    /** Evicts the assignee, the creator and the loaded followers of {@code task}. */
+    public void invalidate(Task task) {
+        if (task == null)
+            return;
+        Set<Long> userIds = new HashSet<>();
+        addUser(userIds, task.getAssignee());
+        addUser(userIds, task.getCreatedBy());
+        if (task.getFollowers() != null && Hibernate.isInitialized(task.getFollowers())) {
+            for (TaskFollower f : task.getFollowers())
+                addUser(userIds, f.getUser());
+        }
+        evict(userIds);
+    }
+
+    public void invalidateUser(Long userId) {
+        if (userId != null)
+            evict(Set.of(userId));
+    }
+
+    private void evict(Collection<Long> userIds) {
+        if (userIds.isEmpty())
+            return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager
+                    .registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            evictNow(userIds);
+                        }
+                    });
+        } else {
+            evictNow(userIds);
+        }
+    }
+
+    private void evictNow(Collection<Long> userIds) {
+        synchronized (cache) {
+            for (Long userId : userIds) {
+                cache.remove(userId);
+                if (loading.containsKey(userId))
+                    changedWhileLoading.add(userId);
+            }
+        }
+    }
+
+    private static void addUser(Set<Long> userIds, User user) {
+        if (user != null && user.getUserId() != null)
+            userIds.add(user.getUserId());
+    }
+
+    private record Entry(UserDashboardDTO dashboard, long expiresAt) {
+    }
+}
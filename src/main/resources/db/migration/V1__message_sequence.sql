@@ -0,0 +1,49 @@
+-- Message.message_id: bỏ IDENTITY, lấy id từ dbo.message_seq (INCREMENT BY 50).
+-- Hibernate (@SequenceGenerator, optimizer pooled) và ChatMessagePipeline cùng hiểu giá trị v của
+-- sequence là block [v - 49, v], nên sequence bắt đầu ở MAX(message_id) + 50.
+-- Chạy một lần trên mỗi database trước khi deploy bản dùng sequence: ChatMessagePipeline kiểm tra
+-- schema lúc khởi động và không nhận tin nhắn khi script này chưa chạy.
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+DECLARE @maxId BIGINT =
+    (SELECT ISNULL(MAX(message_id), 0) FROM dbo.[Message] WITH (TABLOCKX, HOLDLOCK));
+
+-- ddl-auto=update có thể đã tạo sequence (START WITH 1): không cấp lại block đã phát từ nó
+IF OBJECT_ID('dbo.message_seq', 'SO') IS NOT NULL
+BEGIN
+    DECLARE @allocated BIGINT =
+        (SELECT CAST(current_value AS BIGINT) FROM sys.sequences
+         WHERE object_id = OBJECT_ID('dbo.message_seq'));
+    IF @allocated > @maxId SET @maxId = @allocated;
+    DROP SEQUENCE dbo.message_seq;
+END
+
+DECLARE @sql NVARCHAR(400) = N'CREATE SEQUENCE dbo.message_seq AS BIGINT START WITH '
+    + CAST(@maxId + 50 AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+IF COLUMNPROPERTY(OBJECT_ID('dbo.[Message]'), 'message_id', 'IsIdentity') = 1
+BEGIN
+    CREATE TABLE dbo.[Message_seq_tmp] (
+        message_id BIGINT NOT NULL PRIMARY KEY,
+        project_id BIGINT NOT NULL REFERENCES dbo.[Project] (project_id),
+        sender_id  BIGINT NOT NULL REFERENCES dbo.[User] (user_id),
+        content    NVARCHAR(MAX) NOT NULL,
+        created_at DATETIME2(6) NOT NULL
+    );
+
+    INSERT INTO dbo.[Message_seq_tmp] (message_id, project_id, sender_id, content, created_at)
+    SELECT message_id, project_id, sender_id, content, created_at FROM dbo.[Message];
+
+    DROP TABLE dbo.[Message];
+    EXEC sp_rename 'dbo.Message_seq_tmp', 'Message';
+END
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes
+               WHERE object_id = OBJECT_ID('dbo.[Message]')
+                 AND name = 'ix_message_project_created')
+    CREATE INDEX ix_message_project_created
+        ON dbo.[Message] (project_id, created_at, message_id);
+
+COMMIT TRANSACTION;
@@ -0,0 +1,152 @@
+package com.devcollab.repository;
+
+import com.devcollab.domain.*;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the fetch plans of {@link Task}: associations stay lazy unless the repository method
+ * names a graph, and a graph loads its associations in the same statement for any number of rows.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetchplan;MODE=MSSQLServer;DATABASE_TO_UPPER=FALSE;"
+                + "INIT=CREATE SCHEMA IF NOT EXISTS dbo",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.mapping-resources=META-INF/h2-orm.xml",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TaskFetchPlanTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        owner = user("owner@devcollab.test");
+        User assignee = user("assignee@devcollab.test");
+        for (int p = 0; p < 3; p++) {
+            Project project = new Project();
+            project.setName("Project " + p);
+            project.setCreatedBy(owner);
+            project.setInviteLink("invite-" + p);
+            em.persist(project);
+
+            BoardColumn column = new BoardColumn();
+            column.setProject(project);
+            column.setName("To Do");
+            em.persist(column);
+
+            for (int t = 0; t < 4; t++) {
+                Task created = new Task();
+                created.setTitle("Task " + p + "." + t);
+                created.setProject(project);
+                created.setColumn(column);
+                created.setCreatedBy(owner);
+                created.setAssignee(assignee);
+                created.setDeadline(LocalDateTime.now().plusDays(t + 1));
+                em.persist(created);
+                task = created;
+
+                Comment comment = new Comment();
+                comment.setTask(created);
+                comment.setUser(t % 2 == 0 ? owner : assignee);
+                comment.setContent("Comment " + t);
+                em.persist(comment);
+            }
+        }
+        em.flush();
+        em.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindById_LoadsTaskOnly() {
+        // When
+        Task loaded = taskRepository.findById(task.getTaskId()).orElseThrow();
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(loaded.getProject()));
+        assertFalse(Hibernate.isInitialized(loaded.getColumn()));
+        assertFalse(Hibernate.isInitialized(loaded.getAssignee()));
+        assertFalse(Hibernate.isInitialized(loaded.getCreatedBy()));
+        assertNotNull(loaded.getProject().getProjectId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindDetailById_LoadsDetailGraphInOneStatement() {
+        // When
+        Task loaded = taskRepository.findDetailById(task.getTaskId()).orElseThrow();
+
+        // Then
+        assertEquals("Project 2", loaded.getProject().getName());
+        assertEquals("To Do", loaded.getColumn().getName());
+        assertEquals("assignee@devcollab.test", loaded.getAssignee().getEmail());
+        assertEquals("owner@devcollab.test", loaded.getCreatedBy().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindUserTasks_ReportGraphDoesNotGrowWithRows() {
+        // When
+        Page<Task> page =
+                taskRepository.findUserTasksOrderByDeadline(owner, PageRequest.of(0, 20));
+        page.forEach(t -> {
+            t.getProject().getName();
+            t.getAssignee().getName();
+        });
+
+        // Then
+        assertEquals(12, page.getNumberOfElements());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindComments_LoadsAuthorsWithComments() {
+        // When
+        List<Comment> comments =
+                commentRepository.findByTask_TaskIdAndParentIsNullOrderByCreatedAtDesc(
+                        task.getTaskId());
+        comments.forEach(c -> c.getUser().getName());
+
+        // Then
+        assertEquals(1, comments.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(email.substring(0, email.indexOf('@')));
+        em.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,160 @@
+package com.devcollab.scheduler;
+
+import com.devcollab.dto.DigestItemDTO;
+import com.devcollab.repository.NotificationRepository;
+import com.devcollab.service.system.MailService;
+import com.devcollab.service.system.MailTemplateRenderer.DigestEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DigestSchedulerTest {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private MailService mailService;
+
+    @InjectMocks
+    private DigestScheduler digestScheduler;
+
+    // Thông báo MEDIUM chưa gửi, theo thứ tự (user_id, notification_id) như query
+    private final List<DigestItemDTO> pending = new ArrayList<>();
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(notificationRepository.findPendingMediumDigestPage(anyLong(), anyLong(),
+                any(Pageable.class))).thenAnswer(inv -> page(inv.getArgument(0),
+                        inv.getArgument(1), inv.getArgument(2)));
+    }
+
+    /** Serves the keyset page after (afterUserId, afterNotificationId). */
+    private List<DigestItemDTO> page(long afterUserId, long afterNotificationId,
+            Pageable pageable) {
+        return pending.stream()
+                .filter(r -> r.userId() > afterUserId || (r.userId() == afterUserId
+                        && r.notificationId() > afterNotificationId))
+                .limit(pageable.getPageSize()).toList();
+    }
+
+    private void addPending(long userId, int count, String type) {
+        for (int i = 0; i < count; i++)
+            pending.add(new DigestItemDTO(nextId++, userId, " user" + userId + "@devcollab.test ",
+                    type, "Thông báo " + i, "/view/task/" + i));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> markedIds() {
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationRepository, atLeast(0)).markEmailedByIds(ids.capture());
+        List<Long> all = new ArrayList<>();
+        ids.getAllValues().forEach(all::addAll);
+        return all;
+    }
+
+    @Test
+    void testSendDigestEmails_OneMailPerUserAcrossPageBoundary() {
+        // Given: trang đầu = 498 dòng của user 1 + 2 dòng của user 2, 3 dòng còn lại ở trang sau
+        addPending(1L, PAGE_SIZE - 2, "TASK_DUE_SOON");
+        addPending(2L, 5, "TASK_COMMENT_MENTION");
+
+        // When
+        digestScheduler.sendDigestEmails();
+
+        // Then
+        verify(mailService).sendDigestMail(eq("user1@devcollab.test"),
+                eq((PAGE_SIZE - 2) + " thông báo mới"), anyList(), eq("DevCollab Digest"));
+        verify(mailService).sendDigestMail(eq("user2@devcollab.test"), eq("5 thông báo mới"),
+                anyList(), eq("DevCollab Digest"));
+        verify(mailService, times(2)).sendDigestMail(anyString(), anyString(), anyList(),
+                anyString());
+        verify(notificationRepository).findPendingMediumDigestPage(eq(2L),
+                eq((long) PAGE_SIZE), any(Pageable.class));
+        assertEquals(PAGE_SIZE + 3, markedIds().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSendDigestEmails_CapsItemsButMarksEveryNotification() {
+        // Given
+        addPending(1L, 60, "TASK_DUE_SOON");
+        ArgumentCaptor<List<DigestEntry>> entries = ArgumentCaptor.forClass(List.class);
+
+        // When
+        digestScheduler.sendDigestEmails();
+
+        // Then
+        verify(mailService).sendDigestMail(eq("user1@devcollab.test"), eq("60 thông báo mới"),
+                entries.capture(), any());
+        assertEquals(50, entries.getValue().size());
+        DigestEntry first = entries.getValue().get(0);
+        assertEquals("⏰", first.icon());
+        assertEquals("https://devcollab.app/view/task/0", first.link());
+        assertEquals(60, markedIds().size());
+    }
+
+    @Test
+    void testSendDigestEmails_MarksLargeDigestInChunks() {
+        // Given
+        addPending(1L, 1200, "PAYMENT_SUCCESS");
+
+        // When
+        digestScheduler.sendDigestEmails();
+
+        // Then
+        verify(notificationRepository, times(2)).markEmailedByIds(any());
+        assertEquals(1200, markedIds().size());
+        verify(mailService).sendDigestMail(anyString(), eq("1200 thông báo mới"), anyList(),
+                any());
+    }
+
+    @Test
+    void testSendDigestEmails_FailedUserStaysPendingOthersContinue() {
+        // Given
+        addPending(1L, 3, "TASK_DUE_SOON");
+        addPending(2L, 2, "TASK_DUE_SOON");
+        doThrow(new IllegalStateException("SMTP down")).when(mailService)
+                .sendDigestMail(eq("user1@devcollab.test"), anyString(), anyList(), any());
+
+        // When
+        digestScheduler.sendDigestEmails();
+
+        // Then: user 1 không bị đánh dấu nên lần chạy sau gửi lại
+        List<Long> marked = markedIds();
+        assertEquals(List.of(4L, 5L), marked);
+        verify(mailService).sendDigestMail(eq("user2@devcollab.test"), anyString(), anyList(),
+                any());
+    }
+
+    @Test
+    void testSendDigestEmails_NothingPendingSendsNothing() {
+        // When
+        digestScheduler.sendDigestEmails();
+
+        // Then
+        verifyNoInteractions(mailService);
+        verify(notificationRepository, never()).markEmailedByIds(any());
+    }
+}
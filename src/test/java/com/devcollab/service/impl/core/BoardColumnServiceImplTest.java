@@ -1,7 +1,9 @@
 package com.devcollab.service.impl.core;
 
 import com.devcollab.domain.BoardColumn;
+import com.devcollab.domain.Project;
 import com.devcollab.repository.BoardColumnRepository;
+import com.devcollab.service.system.BoardVersionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +25,9 @@ class BoardColumnServiceImplTest {
     @Mock
     private BoardColumnRepository boardColumnRepository;
 
+    @Mock
+    private BoardVersionService boardVersionService;
+
     @InjectMocks
     private BoardColumnServiceImpl boardColumnService;
 
@@ -111,6 +116,21 @@ class BoardColumnServiceImplTest {
         verify(boardColumnRepository).save(testColumn);
     }
 
+    @Test
+    void testSave_TouchesBoardVersion() {
+        // Given
+        Project project = new Project();
+        project.setProjectId(testProjectId);
+        testColumn.setProject(project);
+        when(boardColumnRepository.save(any(BoardColumn.class))).thenReturn(testColumn);
+
+        // When
+        boardColumnService.save(testColumn);
+
+        // Then
+        verify(boardVersionService).touch(testProjectId, BoardVersionService.COLUMN, testColumnId);
+    }
+
     @Test
     void testDelete_Success() {
         // Given
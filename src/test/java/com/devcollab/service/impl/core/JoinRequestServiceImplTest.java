@@ -7,6 +7,7 @@ import com.devcollab.repository.JoinRequestRepository;
 import com.devcollab.repository.ProjectMemberRepository;
 import com.devcollab.service.system.ActivityService;
 import com.devcollab.service.system.NotificationService;
+import com.devcollab.service.system.ProjectMembershipCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,6 +39,9 @@ class JoinRequestServiceImplTest {
     @Mock
     private ActivityService activityService;
 
+    @Mock
+    private ProjectMembershipCache membershipCache;
+
     @InjectMocks
     private JoinRequestServiceImpl joinRequestService;
 
@@ -6,6 +6,8 @@ import com.devcollab.dto.request.ReportRequestDTO;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.*;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.ProjectStatsService;
+import com.devcollab.service.system.NotificationFanoutService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,10 +43,13 @@ class ProjectReportServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private NotificationRepository notificationRepository;
+    private ActivityService activityService;
 
     @Mock
-    private ActivityService activityService;
+    private ProjectStatsService projectStatsService;
+
+    @Mock
+    private NotificationFanoutService notificationFanoutService;
 
     @InjectMocks
     private ProjectReportServiceImpl projectReportService;
@@ -201,7 +206,6 @@ class ProjectReportServiceImplTest {
         when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
         when(projectMemberRepository.findByProject_ProjectId(1L)).thenReturn(List.of(testMember));
         when(reportRepository.save(any(ProjectReport.class))).thenReturn(testReport);
-        when(notificationRepository.save(any(Notification.class))).thenReturn(new Notification());
 
         // When
         projectReportService.warnOwner(1L, body, testAdmin);
@@ -210,7 +214,8 @@ class ProjectReportServiceImplTest {
         assertEquals("reviewed", testReport.getStatus());
         assertEquals("Warning", testReport.getActionTaken());
         verify(projectMemberRepository).findByProject_ProjectId(1L);
-        verify(notificationRepository, atLeastOnce()).save(any(Notification.class));
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                eq(List.of(testOwner)));
         verify(activityService).logWithActor(eq(3L), eq("ProjectReport"), eq(1L), eq("warn"), anyString());
     }
 
@@ -222,7 +227,6 @@ class ProjectReportServiceImplTest {
         when(projectMemberRepository.findByProject_ProjectId(1L)).thenReturn(List.of(testMember));
         when(projectRepository.save(any(Project.class))).thenReturn(testProject);
         when(reportRepository.save(any(ProjectReport.class))).thenReturn(testReport);
-        when(notificationRepository.save(any(Notification.class))).thenReturn(new Notification());
 
         // When
         projectReportService.removeProject(1L, testAdmin);
@@ -232,7 +236,8 @@ class ProjectReportServiceImplTest {
         assertEquals("reviewed", testReport.getStatus());
         assertEquals("Removed", testReport.getActionTaken());
         verify(projectRepository).save(testProject);
-        verify(notificationRepository, atLeastOnce()).save(any(Notification.class));
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                eq(List.of(testOwner)));
         verify(activityService).logWithActor(eq(3L), eq("ProjectReport"), eq(1L), eq("ban"), anyString());
     }
 
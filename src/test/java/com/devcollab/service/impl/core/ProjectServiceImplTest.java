@@ -11,11 +11,15 @@ import com.devcollab.dto.userTaskDto.ProjectFilterDTO;
 import com.devcollab.exception.BadRequestException;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.*;
+import com.devcollab.security.PrincipalCache;
 import com.devcollab.service.core.JoinRequestService;
 import com.devcollab.service.event.AppEventService;
 import com.devcollab.service.system.ActivityService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.ProjectMembershipCache;
+import com.devcollab.service.system.ProjectStatsService;
+import com.devcollab.service.system.SearchIndexService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +36,7 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -74,6 +79,18 @@ class ProjectServiceImplTest {
     @Mock
     private JoinRequestService joinRequestService;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private ProjectMembershipCache membershipCache;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private ProjectStatsService projectStatsService;
+
     @InjectMocks
     private ProjectServiceImpl projectService;
 
@@ -444,12 +461,10 @@ class ProjectServiceImplTest {
         // Given
         when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
         doNothing().when(authz).ensurePmOfProject("pm@example.com", 1L);
-        when(taskRepository.countByProject_ProjectId(1L)).thenReturn(10L);
-        when(taskRepository.countByProject_ProjectIdAndStatus(1L, "OPEN")).thenReturn(3L);
-        when(taskRepository.countByProject_ProjectIdAndStatus(1L, "IN_PROGRESS")).thenReturn(2L);
-        when(taskRepository.countByProject_ProjectIdAndStatus(1L, "REVIEW")).thenReturn(2L);
-        when(taskRepository.countByProject_ProjectIdAndStatus(1L, "DONE")).thenReturn(3L);
-        when(taskRepository.countOverdue(1L, any(LocalDateTime.class))).thenReturn(1L);
+        when(projectStatsService.getProjectStats(1L)).thenReturn(ProjectStats.builder()
+                .projectId(1L).totalTasks(10).openTasks(3).inProgressTasks(2).reviewTasks(2)
+                .doneTasks(3).build());
+        when(taskRepository.countOverdue(eq(1L), any(LocalDateTime.class))).thenReturn(1L);
 
         // When
         ProjectDashboardDTO result = projectService.getDashboardForPm(1L, "pm@example.com");
@@ -460,7 +475,9 @@ class ProjectServiceImplTest {
         assertEquals(3L, result.getOpenTasks());
         assertEquals(3L, result.getDoneTasks());
         assertEquals(BigDecimal.valueOf(30.00), result.getPercentDone());
+        assertEquals(1L, result.getOverdueTasks());
         verify(authz).ensurePmOfProject("pm@example.com", 1L);
+        verify(taskRepository, never()).countByProject_ProjectIdAndStatus(anyLong(), anyString());
     }
 
     @Test
@@ -607,6 +624,50 @@ class ProjectServiceImplTest {
         verify(projectRepository).findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("test", "test");
     }
 
+    @Test
+    void testSearchProjectsByKeyword_UsesIndexInRankOrder() {
+        // Given
+        Project other = new Project();
+        other.setProjectId(2L);
+        other.setName("Test Other");
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchProjectIds("test")).thenReturn(List.of(2L, 1L));
+        when(projectRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testProject, other));
+
+        // When
+        List<ProjectSearchResponseDTO> result = projectService.searchProjectsByKeyword("test");
+
+        // Then
+        assertEquals(List.of(2L, 1L),
+                result.stream().map(ProjectSearchResponseDTO::getProjectId).toList());
+        verify(projectRepository, never())
+                .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(any(), any());
+    }
+
+    @Test
+    void testSearchProjectsByKeyword_ReturnsEveryMatchInChunks() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+        when(searchIndexService.isReady()).thenReturn(true);
+        when(searchIndexService.searchProjectIds("test")).thenReturn(ids);
+        when(projectRepository.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<Project> found = new ArrayList<>();
+            for (Long id : inv.<Iterable<Long>>getArgument(0)) {
+                Project p = new Project();
+                p.setProjectId(id);
+                found.add(p);
+            }
+            return found;
+        });
+
+        // When
+        List<ProjectSearchResponseDTO> result = projectService.searchProjectsByKeyword("test");
+
+        // Then
+        assertEquals(ids, result.stream().map(ProjectSearchResponseDTO::getProjectId).toList());
+        verify(projectRepository, times(2)).findAllById(anyIterable());
+    }
+
     @Test
     void testGetUserRoleInProject_Success() {
         // Given
@@ -8,8 +8,10 @@ import com.devcollab.repository.TaskFollowerRepository;
 import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.UserDashboardService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -52,6 +54,12 @@ class TaskFollowerServiceImplTest {
     @Mock
     private ProjectAuthorizationService projectAuthorizationService;
 
+    @Mock
+    private BoardVersionService boardVersionService;
+
+    @Mock
+    private UserDashboardService userDashboardService;
+
     @InjectMocks
     private TaskFollowerServiceImpl taskFollowerService;
 
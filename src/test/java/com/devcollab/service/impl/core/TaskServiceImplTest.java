@@ -2,14 +2,27 @@ package com.devcollab.service.impl.core;
 
 import com.devcollab.config.SpringContext;
 import com.devcollab.domain.*;
+import com.devcollab.dto.BoardCardDTO;
+import com.devcollab.dto.BoardDeltaDTO;
+import com.devcollab.dto.BoardSnapshotDTO;
+import com.devcollab.dto.BoardTombstoneDTO;
 import com.devcollab.dto.MemberPerformanceDTO;
 import com.devcollab.dto.TaskDTO;
+import com.devcollab.dto.TaskStatisticsDTO;
 import com.devcollab.exception.BadRequestException;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.*;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
+import com.devcollab.service.system.NotificationFanoutService;
 import com.devcollab.service.system.NotificationService;
 import com.devcollab.service.system.ProjectAuthorizationService;
+import com.devcollab.service.system.ProjectStatsService;
+import com.devcollab.service.system.SearchIndexService;
+import com.devcollab.service.system.SprintAnalyticsService;
+import com.devcollab.service.system.TaskDeadlineReminderJob;
+import com.devcollab.service.system.TaskDependencyService;
+import com.devcollab.service.system.UserDashboardService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +41,7 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -58,6 +72,39 @@ class TaskServiceImplTest {
     @Mock
     private ProjectAuthorizationService projectAuthorizationService;
 
+    @Mock
+    private TaskDeadlineReminderJob deadlineReminderJob;
+
+    @Mock
+    private LabelRepository labelRepository;
+
+    @Mock
+    private CheckListRepository checkListRepository;
+
+    @Mock
+    private BoardVersionService boardVersionService;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private ProjectStatsService projectStatsService;
+
+    @Mock
+    private NotificationFanoutService notificationFanoutService;
+
+    @Mock
+    private TaskDependencyService taskDependencyService;
+
+    @Mock
+    private TaskLinkRepository taskLinkRepository;
+
+    @Mock
+    private SprintAnalyticsService sprintAnalyticsService;
+
+    @Mock
+    private UserDashboardService userDashboardService;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -123,6 +170,7 @@ class TaskServiceImplTest {
         assertNotNull(result);
         verify(boardColumnRepository).findById(1L);
         verify(taskRepository).save(any(Task.class));
+        verify(sprintAnalyticsService).taskAdded(testTask);
         verify(activityService).log(eq("TASK"), eq(testTask.getTaskId()), eq("CREATE_TASK"), anyString(), any());
     }
 
@@ -228,7 +276,10 @@ class TaskServiceImplTest {
             taskService.deleteTask(1L, testCreator);
 
             // Then
+            verify(taskLinkRepository).deleteByTaskId(1L);
             verify(taskRepository).delete(testTask);
+            verify(taskDependencyService).taskRemoved(1L, 1L);
+            verify(sprintAnalyticsService).taskRemoved(testTask);
             verify(activityService).log(eq("TASK"), eq(1L), eq("DELETE_TASK"), anyString(), eq(testCreator));
         }
     }
@@ -270,6 +321,82 @@ class TaskServiceImplTest {
         }
     }
 
+    @Test
+    void testAddLink_Blocks_Success() {
+        // Given
+        Task other = new Task();
+        other.setTaskId(2L);
+        other.setProject(testProject);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(other));
+        when(projectAuthorizationService.isMemberOfProject("user@example.com", 1L)).thenReturn(true);
+        when(taskDependencyService.wouldCreateCycle(1L, 1L, 2L)).thenReturn(false);
+        when(taskLinkRepository.save(any(TaskLink.class))).thenAnswer(inv -> {
+            TaskLink link = inv.getArgument(0);
+            link.setLinkId(10L);
+            return link;
+        });
+
+        // When
+        var result = taskService.addLink(1L, 2L, "blocks", testUser);
+
+        // Then
+        assertEquals(10L, result.linkId());
+        assertEquals("BLOCKS", result.linkType());
+        verify(taskDependencyService).wouldCreateCycleLocked(1L, 1L, 2L);
+        verify(taskDependencyService).linkAdded(testTask, other);
+    }
+
+    @Test
+    void testAddLink_Cycle_ThrowsBadRequest() {
+        // Given
+        Task other = new Task();
+        other.setTaskId(2L);
+        other.setProject(testProject);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(other));
+        when(projectAuthorizationService.isMemberOfProject("user@example.com", 1L)).thenReturn(true);
+        when(taskDependencyService.wouldCreateCycle(1L, 1L, 2L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(BadRequestException.class, () -> taskService.addLink(1L, 2L, "BLOCKS", testUser));
+        verify(taskLinkRepository, never()).save(any());
+    }
+
+    @Test
+    void testAddLink_CycleOnlyInDatabase_ThrowsBadRequest() {
+        // Given: graph cache chưa thấy link vừa thêm ở node khác
+        Task other = new Task();
+        other.setTaskId(2L);
+        other.setProject(testProject);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(other));
+        when(projectAuthorizationService.isMemberOfProject("user@example.com", 1L)).thenReturn(true);
+        when(taskDependencyService.wouldCreateCycle(1L, 1L, 2L)).thenReturn(false);
+        when(taskDependencyService.wouldCreateCycleLocked(1L, 1L, 2L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(BadRequestException.class,
+                () -> taskService.addLink(1L, 2L, "BLOCKS", testUser));
+        verify(taskLinkRepository, never()).save(any());
+        verify(taskDependencyService, never()).linkAdded(any(), any());
+    }
+
+    @Test
+    void testAddLink_OtherProject_ThrowsBadRequest() {
+        // Given
+        Project otherProject = new Project();
+        otherProject.setProjectId(2L);
+        Task other = new Task();
+        other.setTaskId(2L);
+        other.setProject(otherProject);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findById(2L)).thenReturn(Optional.of(other));
+
+        // When & Then
+        assertThrows(BadRequestException.class, () -> taskService.addLink(1L, 2L, "RELATES", testUser));
+    }
+
     @Test
     void testAssignTask_Success() {
         // Given
@@ -300,6 +427,8 @@ class TaskServiceImplTest {
         assertNotNull(result);
         assertEquals("CLOSED", testTask.getStatus());
         verify(taskRepository).save(testTask);
+        verify(deadlineReminderJob).cancel(1L);
+        verify(sprintAnalyticsService).taskStatusChanged(testTask, "OPEN");
     }
 
     @Test
@@ -317,6 +446,8 @@ class TaskServiceImplTest {
         assertNotNull(result);
         assertEquals("OPEN", testTask.getStatus());
         verify(taskRepository).save(testTask);
+        verify(deadlineReminderJob).refresh(testTask);
+        verify(sprintAnalyticsService).taskStatusChanged(testTask, "CLOSED");
     }
 
     @Test
@@ -345,6 +476,69 @@ class TaskServiceImplTest {
         });
     }
 
+    @Test
+    void testGetBoardSnapshot_MergesLabelsAndFollowers() {
+        // Given
+        BoardCardDTO card = new BoardCardDTO(1L, 1L, "Test Task", "OPEN", "MEDIUM", 0, null, null,
+                1L, "Test User", null, null, null, 2L, 0L);
+        when(boardVersionService.currentVersion(1L)).thenReturn(7L);
+        when(boardColumnRepository.findDtosByProject(1L)).thenReturn(List.of());
+        when(labelRepository.findByProjectAndKeyword(1L, null)).thenReturn(List.of());
+        when(taskRepository.findBoardCards(1L)).thenReturn(List.of(card));
+        when(taskRepository.findBoardCardRelations(1L)).thenReturn(List.of(
+                new Object[] {1L, "L", 5L, null, null},
+                new Object[] {1L, "F", 1L, "Test User", "avatar.png"},
+                new Object[] {99L, "L", 6L, null, null}));
+
+        // When
+        BoardSnapshotDTO result = taskService.getBoardSnapshot(1L);
+
+        // Then
+        assertEquals(7L, result.version());
+        assertEquals(1, result.cards().size());
+        assertEquals(List.of(5L), result.cards().get(0).getLabelIds());
+        assertEquals(1, result.cards().get(0).getAssignees().size());
+        assertEquals(2, result.cards().get(0).getCommentCount());
+    }
+
+    @Test
+    void testGetBoardChanges_ReturnsChangedCardsAndTombstones() {
+        // Given
+        BoardCardDTO card = new BoardCardDTO(1L, 1L, "Test Task", "OPEN", "MEDIUM", 0, null, null,
+                1L, "Test User", null, null, null, 0L, 0L);
+        when(boardVersionService.currentVersion(1L)).thenReturn(12L);
+        when(boardVersionService.canServeDelta(1L, 10L, 12L)).thenReturn(true);
+        when(boardVersionService.changedSince(1L, 10L, 12L))
+                .thenReturn(Map.of(BoardVersionService.TASK, Set.of(1L, 2L)));
+        when(taskRepository.findBoardCardsByIds(eq(1L), any())).thenReturn(List.of(card));
+        when(taskRepository.findBoardCardRelationsByTaskIds(any())).thenReturn(List.of());
+
+        // When
+        BoardDeltaDTO result = taskService.getBoardChanges(1L, 10L);
+
+        // Then
+        assertFalse(result.fullResync());
+        assertEquals(12L, result.toVersion());
+        assertEquals(1, result.cards().size());
+        assertEquals(List.of(new BoardTombstoneDTO(BoardVersionService.TASK, 2L)),
+                result.tombstones());
+        verifyNoInteractions(boardColumnRepository, labelRepository, checkListRepository);
+    }
+
+    @Test
+    void testGetBoardChanges_PrunedRange_RequestsResync() {
+        // Given
+        when(boardVersionService.currentVersion(1L)).thenReturn(12L);
+        when(boardVersionService.canServeDelta(1L, 3L, 12L)).thenReturn(false);
+
+        // When
+        BoardDeltaDTO result = taskService.getBoardChanges(1L, 3L);
+
+        // Then
+        assertTrue(result.fullResync());
+        verify(boardVersionService, never()).changedSince(anyLong(), anyLong(), anyLong());
+    }
+
     @Test
     void testGetById_Success() {
         // Given
@@ -373,14 +567,14 @@ class TaskServiceImplTest {
     @Test
     void testGetByIdAsDTO_Success() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findDetailById(1L)).thenReturn(Optional.of(testTask));
 
         // When
         TaskDTO result = taskService.getByIdAsDTO(1L);
 
         // Then
         assertNotNull(result);
-        verify(taskRepository).findById(1L);
+        verify(taskRepository).findDetailById(1L);
     }
 
     @Test
@@ -604,5 +798,22 @@ class TaskServiceImplTest {
         assertEquals(1, result.size());
         verify(taskRepository).findTopUpcoming(1L, PageRequest.of(0, 5));
     }
-}
 
+    @Test
+    void testGetTaskStatistics_AggregatesInSql() {
+        // Given
+        when(taskRepository.countUserTasksByStatus(testUser.getUserId())).thenReturn(List.of(
+                new Object[] {"OPEN", 2L, 1}, new Object[] {"DONE", 2L, 0}));
+
+        // When
+        TaskStatisticsDTO result = taskService.getTaskStatistics(testUser);
+
+        // Then
+        assertEquals(4, result.getTotalTasks());
+        assertEquals(1, result.getOverdueCount());
+        assertEquals(50.0, result.getCompletionRate());
+        assertEquals(0L, result.getStatusCount().get("IN_PROGRESS"));
+        assertEquals(50.0, result.getStatusPercentages().get("OPEN"));
+        verify(taskRepository, never()).findAllUserTasks(any());
+    }
+}
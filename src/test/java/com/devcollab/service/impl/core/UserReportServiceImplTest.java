@@ -9,7 +9,9 @@ import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.NotificationRepository;
 import com.devcollab.repository.UserReportRepository;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.security.PrincipalCache;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.UnreadCounterService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,6 +45,12 @@ class UserReportServiceImplTest {
     @Mock
     private ActivityService activityService;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
     @InjectMocks
     private UserReportServiceImpl userReportService;
 
@@ -246,6 +254,7 @@ class UserReportServiceImplTest {
         assertEquals("Ban", testReport.getActionTaken());
         verify(userRepository).save(testReported);
         verify(notificationRepository).save(any(Notification.class));
+        verify(principalCache).evict(testReported.getEmail());
         verify(activityService).logWithActor(eq(3L), eq("UserReport"), eq(1L), eq("ban"), anyString());
     }
 
@@ -5,6 +5,7 @@ import com.devcollab.dto.UserDTO;
 import com.devcollab.exception.BadRequestException;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.security.PrincipalCache;
 import com.devcollab.service.event.AppEventService;
 import com.devcollab.service.system.AuthService;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,6 +44,9 @@ class UserServiceImplTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -244,6 +248,7 @@ class UserServiceImplTest {
         assertNotNull(result);
         assertEquals("active", testUser.getStatus());
         verify(userRepository).save(testUser);
+        verify(principalCache).evict(testUser.getEmail());
     }
 
     @Test
@@ -11,6 +11,7 @@ import com.devcollab.repository.TaskFollowerRepository;
 import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.ProjectAuthorizationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,6 +60,9 @@ class AttachmentServiceImplTest {
     @Mock
     private MultipartFile multipartFile;
 
+    @Mock
+    private BoardVersionService boardVersionService;
+
     @InjectMocks
     private AttachmentServiceImpl attachmentService;
 
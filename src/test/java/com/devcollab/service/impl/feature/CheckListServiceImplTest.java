@@ -10,6 +10,7 @@ import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.CheckListRepository;
 import com.devcollab.repository.TaskFollowerRepository;
 import com.devcollab.repository.TaskRepository;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.ProjectAuthorizationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,6 +41,9 @@ class CheckListServiceImplTest {
     @Mock
     private TaskFollowerRepository followerRepository;
 
+    @Mock
+    private BoardVersionService boardVersionService;
+
     @InjectMocks
     private CheckListServiceImpl checkListService;
 
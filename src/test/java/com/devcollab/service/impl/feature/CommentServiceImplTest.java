@@ -8,7 +8,9 @@ import com.devcollab.repository.CommentRepository;
 import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.system.ActivityService;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.NotificationService;
+import com.devcollab.service.system.SearchIndexService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +44,12 @@ class CommentServiceImplTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private BoardVersionService boardVersionService;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -10,6 +10,7 @@ import com.devcollab.repository.LabelRepository;
 import com.devcollab.repository.ProjectRepository;
 import com.devcollab.repository.TaskFollowerRepository;
 import com.devcollab.repository.TaskRepository;
+import com.devcollab.service.system.BoardVersionService;
 import com.devcollab.service.system.ProjectAuthorizationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,6 +42,9 @@ class LabelServiceImplTest {
     @Mock
     private TaskFollowerRepository followerRepository;
 
+    @Mock
+    private BoardVersionService boardVersionService;
+
     @InjectMocks
     private LabelServiceImpl labelService;
 
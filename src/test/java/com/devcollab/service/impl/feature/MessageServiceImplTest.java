@@ -4,25 +4,28 @@ import com.devcollab.domain.Message;
 import com.devcollab.domain.Project;
 import com.devcollab.domain.User;
 import com.devcollab.dto.request.MessageRequestDTO;
+import com.devcollab.dto.response.MessagePageDTO;
 import com.devcollab.dto.response.MessageResponseDTO;
+import com.devcollab.exception.BadRequestException;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.MessageRepository;
-import com.devcollab.repository.ProjectRepository;
-import com.devcollab.repository.UserRepository;
+import com.devcollab.service.system.ChatMessagePipeline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,10 +35,7 @@ class MessageServiceImplTest {
     private MessageRepository messageRepository;
 
     @Mock
-    private ProjectRepository projectRepository;
-
-    @Mock
-    private UserRepository userRepository;
+    private ChatMessagePipeline chatMessagePipeline;
 
     @InjectMocks
     private MessageServiceImpl messageService;
@@ -104,44 +104,92 @@ class MessageServiceImplTest {
     @Test
     void testSendMessage_Success() {
         // Given
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
-        when(messageRepository.save(any(Message.class))).thenReturn(testMessage);
+        MessageResponseDTO queued = new MessageResponseDTO(42L, "Test User", "test@example.com",
+                "http://example.com/avatar.jpg", "New message", LocalDateTime.now());
+        when(chatMessagePipeline.submit(1L, "test@example.com", "New message")).thenReturn(queued);
 
         // When
-        Message result = messageService.sendMessage("test@example.com", testRequestDTO);
+        MessageResponseDTO result = messageService.sendMessage("test@example.com", testRequestDTO);
 
         // Then
-        assertNotNull(result);
-        verify(userRepository).findByEmail("test@example.com");
-        verify(projectRepository).findById(1L);
-        verify(messageRepository).save(any(Message.class));
+        assertSame(queued, result);
+        verify(chatMessagePipeline).submit(1L, "test@example.com", "New message");
+        verify(messageRepository, never()).save(any());
     }
 
     @Test
     void testSendMessage_UserNotFound() {
         // Given
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+        when(chatMessagePipeline.submit(1L, "test@example.com", "New message"))
+                .thenThrow(new NotFoundException("User không tồn tại"));
 
         // When & Then
         assertThrows(NotFoundException.class, () -> {
             messageService.sendMessage("test@example.com", testRequestDTO);
         });
-        verify(projectRepository, never()).findById(any());
         verify(messageRepository, never()).save(any());
     }
 
     @Test
-    void testSendMessage_ProjectNotFound() {
+    void testSendMessage_NotProjectMember() {
         // Given
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(projectRepository.findById(1L)).thenReturn(Optional.empty());
+        when(chatMessagePipeline.submit(1L, "test@example.com", "New message"))
+                .thenThrow(new AccessDeniedException("Bạn không phải thành viên của dự án này"));
 
         // When & Then
-        assertThrows(NotFoundException.class, () -> {
+        assertThrows(AccessDeniedException.class, () -> {
             messageService.sendMessage("test@example.com", testRequestDTO);
         });
         verify(messageRepository, never()).save(any());
     }
-}
 
+    @Test
+    void testGetMessageHistory_LatestPage_ReturnsOldestFirst() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        MessageResponseDTO newest = new MessageResponseDTO(3L, "Test User", "test@example.com",
+                null, "third", now);
+        MessageResponseDTO middle = new MessageResponseDTO(2L, "Test User", "test@example.com",
+                null, "second", now.minusMinutes(1));
+        MessageResponseDTO oldest = new MessageResponseDTO(1L, "Test User", "test@example.com",
+                null, "first", now.minusMinutes(2));
+        when(messageRepository.findLatestHistory(eq(1L), any()))
+                .thenReturn(Arrays.asList(newest, middle, oldest));
+
+        // When
+        MessagePageDTO result = messageService.getMessageHistory(1L, null, null, 2);
+
+        // Then
+        assertTrue(result.hasMore());
+        assertEquals(2, result.messages().size());
+        assertEquals(2L, result.messages().get(0).getMessageId());
+        assertEquals(3L, result.messages().get(1).getMessageId());
+        assertNotNull(result.olderCursor());
+    }
+
+    @Test
+    void testGetMessageHistory_BeforeCursor_RoundTrips() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_000_000);
+        MessageResponseDTO msg = new MessageResponseDTO(42L, "Test User", "test@example.com",
+                null, "hello", createdAt);
+        when(messageRepository.findLatestHistory(eq(1L), any())).thenReturn(List.of(msg));
+        String cursor = messageService.getMessageHistory(1L, null, null, 50).olderCursor();
+        when(messageRepository.findHistoryBefore(eq(1L), any(), anyLong(), any()))
+                .thenReturn(List.of());
+
+        // When
+        MessagePageDTO result = messageService.getMessageHistory(1L, cursor, null, 50);
+
+        // Then
+        assertTrue(result.messages().isEmpty());
+        assertFalse(result.hasMore());
+        verify(messageRepository).findHistoryBefore(eq(1L), eq(createdAt), eq(42L), any());
+    }
+
+    @Test
+    void testGetMessageHistory_InvalidCursor() {
+        assertThrows(BadRequestException.class,
+                () -> messageService.getMessageHistory(1L, "not-a-cursor", null, 50));
+    }
+}
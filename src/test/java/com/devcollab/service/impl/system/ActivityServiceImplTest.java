@@ -5,9 +5,11 @@ import com.devcollab.domain.User;
 import com.devcollab.dto.ActivityDTO;
 import com.devcollab.repository.ActivityRepository;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.service.system.ActivityLogWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -16,13 +18,17 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +37,9 @@ class ActivityServiceImplTest {
     @Mock
     private ActivityRepository activityRepository;
 
+    @Mock
+    private ActivityLogWriter activityLogWriter;
+
     @Mock
     private UserRepository userRepository;
 
@@ -59,29 +68,32 @@ class ActivityServiceImplTest {
 
     @Test
     void testLog_WithActor_Success() {
-        // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(activityRepository.save(any(Activity.class))).thenReturn(testActivity);
-
         // When
         activityService.log("TASK", 100L, "CREATE", "Test message", testUser);
 
         // Then
-        verify(userRepository).findById(1L);
-        verify(activityRepository).save(any(Activity.class));
+        ArgumentCaptor<ActivityLogWriter.Entry> captor =
+                ArgumentCaptor.forClass(ActivityLogWriter.Entry.class);
+        verify(activityLogWriter).append(captor.capture());
+        assertEquals(1L, captor.getValue().actorId());
+        assertEquals("TASK", captor.getValue().entityType());
+        assertEquals(100L, captor.getValue().entityId());
+        assertEquals("CREATE", captor.getValue().action());
+        assertEquals("Test message", captor.getValue().dataJson());
+        verify(activityRepository, never()).save(any());
     }
 
     @Test
     void testLog_WithoutActor_Success() {
-        // Given
-        when(activityRepository.save(any(Activity.class))).thenReturn(testActivity);
-
         // When
         activityService.log("TASK", 100L, "CREATE", "Test message");
 
         // Then
-        verify(activityRepository).save(any(Activity.class));
-        verify(userRepository, never()).findById(any());
+        ArgumentCaptor<ActivityLogWriter.Entry> captor =
+                ArgumentCaptor.forClass(ActivityLogWriter.Entry.class);
+        verify(activityLogWriter).append(captor.capture());
+        assertNull(captor.getValue().actorId());
+        verify(activityRepository, never()).save(any());
     }
 
     @Test
@@ -91,6 +103,7 @@ class ActivityServiceImplTest {
 
         // Then
         verify(activityRepository, never()).save(any());
+        verify(activityLogWriter, never()).append(any());
     }
 
     @Test
@@ -100,6 +113,7 @@ class ActivityServiceImplTest {
 
         // Then
         verify(activityRepository, never()).save(any());
+        verify(activityLogWriter, never()).append(any());
     }
 
     @Test
@@ -109,6 +123,7 @@ class ActivityServiceImplTest {
 
         // Then
         verify(activityRepository, never()).save(any());
+        verify(activityLogWriter, never()).append(any());
     }
 
     @Test
@@ -174,14 +189,15 @@ class ActivityServiceImplTest {
 
     @Test
     void testLogWithActor_Success() {
-        // Given
-        when(activityRepository.save(any(Activity.class))).thenReturn(testActivity);
-
         // When
         activityService.logWithActor(1L, "TASK", 100L, "CREATE", "Test message");
 
         // Then
-        verify(activityRepository).save(any(Activity.class));
+        ArgumentCaptor<ActivityLogWriter.Entry> captor =
+                ArgumentCaptor.forClass(ActivityLogWriter.Entry.class);
+        verify(activityLogWriter).append(captor.capture());
+        assertEquals(1L, captor.getValue().actorId());
+        verify(activityRepository, never()).save(any());
     }
 
     @Test
@@ -191,6 +207,7 @@ class ActivityServiceImplTest {
 
         // Then
         verify(activityRepository, never()).save(any());
+        verify(activityLogWriter, never()).append(any());
     }
 
     @Test
@@ -198,16 +215,23 @@ class ActivityServiceImplTest {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         Page<Activity> page = new PageImpl<>(Arrays.asList(testActivity));
-        when(activityRepository.searchActivities("test", "create", "task", pageable))
+        LocalDate from = LocalDate.of(2025, 1, 15);
+        LocalDate to = LocalDate.of(2025, 3, 2);
+        when(userRepository.findIdsByNamePrefix(eq("test"), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(activityRepository.searchActivities(202501, 202503, from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay(), false, List.of(1L), "CREATE", "TASK", pageable))
                 .thenReturn(page);
 
         // When
-        Page<Activity> result = activityService.searchActivities("test", "create", "task", pageable);
+        Page<Activity> result =
+                activityService.searchActivities(" test ", "create", "task", from, to, pageable);
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(activityRepository).searchActivities("test", "create", "task", pageable);
+        verify(activityRepository).searchActivities(202501, 202503, from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay(), false, List.of(1L), "CREATE", "TASK", pageable);
     }
 
     @Test
@@ -215,14 +239,33 @@ class ActivityServiceImplTest {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         Page<Activity> page = new PageImpl<>(Arrays.asList(testActivity));
-        when(activityRepository.searchActivities(null, null, null, pageable)).thenReturn(page);
+        when(activityRepository.searchActivities(anyInt(), anyInt(), any(), any(), eq(true), any(),
+                isNull(), isNull(), eq(pageable))).thenReturn(page);
 
         // When
-        Page<Activity> result = activityService.searchActivities(null, null, null, pageable);
+        Page<Activity> result =
+                activityService.searchActivities(null, null, null, null, null, pageable);
 
         // Then
         assertNotNull(result);
-        verify(activityRepository).searchActivities(null, null, null, pageable);
+        assertEquals(1, result.getTotalElements());
+        verify(userRepository, never()).findIdsByNamePrefix(any(), any());
     }
-}
 
+    @Test
+    void testSearchActivities_UnknownUser_ReturnsEmptyWithoutScanningLogs() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(userRepository.findIdsByNamePrefix(eq("nobody"), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        Page<Activity> result =
+                activityService.searchActivities("nobody", null, null, null, null, pageable);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(activityRepository, never()).searchActivities(anyInt(), anyInt(), any(), any(),
+                anyBoolean(), any(), any(), any(), any());
+    }
+}
@@ -6,6 +6,8 @@ import com.devcollab.dto.response.ProjectPerformanceDTO;
 import com.devcollab.dto.response.ProjectSummaryDTO;
 import com.devcollab.repository.ProjectRepository;
 import com.devcollab.service.impl.core.UserServiceImpl;
+import com.devcollab.service.system.DashboardCache;
+import com.devcollab.service.system.ProjectStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,9 +20,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +39,12 @@ class DashboardServiceImplTest {
     @Mock
     private UserServiceImpl userService;
 
+    @Mock
+    private ProjectStatsService projectStatsService;
+
+    @Mock
+    private DashboardCache dashboardCache;
+
     @InjectMocks
     private DashboardServiceImpl dashboardService;
 
@@ -46,6 +56,10 @@ class DashboardServiceImplTest {
         testUser.setUserId(1L);
         testUser.setEmail("test@example.com");
         testUser.setName("Test User");
+
+        // Cache không giữ gì trong test: luôn gọi loader
+        lenient().when(dashboardCache.get(anyString(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(2)).get());
     }
 
     @Test
@@ -55,7 +69,7 @@ class DashboardServiceImplTest {
                 new Object[]{"ACTIVE", 5L},
                 new Object[]{"COMPLETED", 3L}
         );
-        when(projectRepository.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
+        when(projectStatsService.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
 
         // When
         ProjectSummaryDTO result = dashboardService.getProjectSummary("week");
@@ -65,7 +79,7 @@ class DashboardServiceImplTest {
         assertEquals(8L, result.getTotal());
         assertEquals(5L, result.getActive());
         assertEquals(3L, result.getCompleted());
-        verify(projectRepository).countProjectsByStatusSince(any(LocalDateTime.class));
+        verify(projectStatsService).countProjectsByStatusSince(any(LocalDateTime.class));
     }
 
     @Test
@@ -75,7 +89,7 @@ class DashboardServiceImplTest {
                 new Object[]{"ACTIVE", 10L},
                 new Object[]{"IN_PROGRESS", 5L}
         );
-        when(projectRepository.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
+        when(projectStatsService.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
 
         // When
         ProjectSummaryDTO result = dashboardService.getProjectSummary("month");
@@ -92,7 +106,7 @@ class DashboardServiceImplTest {
         // Given
         List<Object[]> stats = new ArrayList<>();
         stats.add(new Object[]{"COMPLETED", 20L});
-        when(projectRepository.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
+        when(projectStatsService.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
 
         // When
         ProjectSummaryDTO result = dashboardService.getProjectSummary("year");
@@ -108,7 +122,7 @@ class DashboardServiceImplTest {
         // Given
         List<Object[]> stats = new ArrayList<>();
         stats.add(new Object[]{"ACTIVE", 15L});
-        when(projectRepository.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
+        when(projectStatsService.countProjectsByStatusSince(any(LocalDateTime.class))).thenReturn(stats);
 
         // When
         ProjectSummaryDTO result = dashboardService.getProjectSummary("invalid");
@@ -130,7 +144,7 @@ class DashboardServiceImplTest {
                 createTarget(1, 10),
                 createTarget(2, 12)
         );
-        when(projectRepository.countCompletedProjectsSince(any(LocalDateTime.class))).thenReturn(results);
+        when(projectStatsService.countCompletedProjectsSince(any(LocalDateTime.class))).thenReturn(results);
         when(projectTargetService.getTargetsByYearAndPm(anyInt(), eq(1L))).thenReturn(targets);
         when(userService.getByEmail("test@example.com")).thenReturn(Optional.of(testUser));
 
@@ -142,7 +156,7 @@ class DashboardServiceImplTest {
         assertNotNull(result.getLabels());
         assertNotNull(result.getAchieved());
         assertNotNull(result.getTarget());
-        verify(projectRepository).countCompletedProjectsSince(any(LocalDateTime.class));
+        verify(projectStatsService).countCompletedProjectsSince(any(LocalDateTime.class));
         verify(projectTargetService).getTargetsByYearAndPm(anyInt(), eq(1L));
     }
 
@@ -151,7 +165,7 @@ class DashboardServiceImplTest {
         // Given
         setupSecurityContext();
         List<Object[]> emptyResults = new ArrayList<>();
-        when(projectRepository.countCompletedProjectsSince(any(LocalDateTime.class))).thenReturn(emptyResults);
+        when(projectStatsService.countCompletedProjectsSince(any(LocalDateTime.class))).thenReturn(emptyResults);
         when(projectTargetService.getTargetsByYearAndPm(anyInt(), eq(1L))).thenReturn(new ArrayList<>());
         when(userService.getByEmail("test@example.com")).thenReturn(Optional.of(testUser));
 
@@ -167,7 +181,7 @@ class DashboardServiceImplTest {
         // Given
         setupSecurityContext();
         List<Object[]> emptyResults = new ArrayList<>();
-        when(projectRepository.countCompletedProjectsSince(any(LocalDateTime.class))).thenReturn(emptyResults);
+        when(projectStatsService.countCompletedProjectsSince(any(LocalDateTime.class))).thenReturn(emptyResults);
         when(projectTargetService.getTargetsByYearAndPm(anyInt(), eq(1L))).thenReturn(new ArrayList<>());
         when(userService.getByEmail("test@example.com")).thenReturn(Optional.of(testUser));
 
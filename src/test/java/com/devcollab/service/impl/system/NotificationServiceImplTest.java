@@ -2,11 +2,16 @@ package com.devcollab.service.impl.system;
 
 import com.devcollab.domain.*;
 import com.devcollab.dto.CommentDTO;
+import com.devcollab.dto.response.NotificationPageDTO;
+import com.devcollab.dto.response.NotificationResponseDTO;
+import com.devcollab.exception.BadRequestException;
 import com.devcollab.repository.NotificationRepository;
 import com.devcollab.repository.TaskRepository;
 import com.devcollab.repository.UserRepository;
 import com.devcollab.service.system.ActivityService;
 import com.devcollab.service.system.MailService;
+import com.devcollab.service.system.NotificationFanoutService;
+import com.devcollab.service.system.UnreadCounterService;
 import com.devcollab.service.system.UserSettingsService;
 import com.devcollab.service.system.WebSocketNotificationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -49,6 +54,12 @@ class NotificationServiceImplTest {
     @Mock
     private UserSettingsService userSettingsService;
 
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @Mock
+    private NotificationFanoutService notificationFanoutService;
+
     @InjectMocks
     private NotificationServiceImpl notificationService;
 
@@ -187,15 +198,14 @@ class NotificationServiceImplTest {
         pm.setUser(testSender);
         pm.setRoleInProject("PM");
         testProject.setMembers(Arrays.asList(pm));
-        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(testNotification);
-        when(userSettingsService.getOrDefault(any())).thenReturn(testSettings);
-        doNothing().when(webSocketNotificationService).sendToUser(any(), any(), any());
 
         // When
         notificationService.notifyJoinRequestToPM(testProject, testReceiver);
 
         // Then
-        verify(notificationRepository, atLeastOnce()).saveAndFlush(any(Notification.class));
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                eq(List.of(testSender)));
+        verify(notificationRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -233,15 +243,13 @@ class NotificationServiceImplTest {
         follower.setUser(testReceiver);
         testTask.setFollowers(Arrays.asList(follower));
         when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
-        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(testNotification);
-        when(userSettingsService.getOrDefault(any())).thenReturn(testSettings);
-        doNothing().when(webSocketNotificationService).sendToUser(any(), any(), any());
 
         // When
         notificationService.notifyTaskEvent(testTask, testSender, "TASK_COMMENTED", "Comment message");
 
         // Then
-        verify(notificationRepository, atLeastOnce()).saveAndFlush(any(Notification.class));
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                eq(List.of(testReceiver)));
     }
 
     @Test
@@ -259,16 +267,14 @@ class NotificationServiceImplTest {
         CommentDTO mention = new CommentDTO();
         mention.setUserEmail("receiver@example.com");
         when(userRepository.findByEmail("receiver@example.com")).thenReturn(Optional.of(testReceiver));
-        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(testNotification);
-        when(userSettingsService.getOrDefault(any())).thenReturn(testSettings);
-        doNothing().when(webSocketNotificationService).sendToUser(any(), any(), any());
         doNothing().when(activityService).log(anyString(), anyLong(), anyString(), anyString());
 
         // When
         notificationService.notifyMentions(testTask, testSender, Arrays.asList(mention));
 
         // Then
-        verify(notificationRepository).saveAndFlush(any(Notification.class));
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                eq(List.of(testReceiver)));
     }
 
     @Test
@@ -278,15 +284,13 @@ class NotificationServiceImplTest {
         testTask.setCreatedBy(testReceiver);
         CommentDTO mention = new CommentDTO();
         mention.setUserEmail("@card");
-        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(testNotification);
-        when(userSettingsService.getOrDefault(any())).thenReturn(testSettings);
-        doNothing().when(webSocketNotificationService).sendToUser(any(), any(), any());
 
         // When
         notificationService.notifyMentions(testTask, testSender, Arrays.asList(mention));
 
         // Then
-        verify(notificationRepository, atLeastOnce()).saveAndFlush(any(Notification.class));
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                eq(Set.of(testReceiver)));
     }
 
     @Test
@@ -297,35 +301,32 @@ class NotificationServiceImplTest {
         testProject.setMembers(Arrays.asList(member));
         CommentDTO mention = new CommentDTO();
         mention.setUserEmail("@board");
-        when(notificationRepository.saveAndFlush(any(Notification.class))).thenReturn(testNotification);
-        when(userSettingsService.getOrDefault(any())).thenReturn(testSettings);
-        doNothing().when(webSocketNotificationService).sendToUser(any(), any(), any());
 
         // When
         notificationService.notifyMentions(testTask, testSender, Arrays.asList(mention));
 
         // Then
-        verify(notificationRepository, atLeastOnce()).saveAndFlush(any(Notification.class));
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                eq(Set.of(testReceiver)));
     }
 
     @Test
     void testCountUnread_Success() {
         // Given
-        when(userRepository.findByEmail("receiver@example.com")).thenReturn(Optional.of(testReceiver));
-        when(notificationRepository.countUnreadByUserId(1L)).thenReturn(5);
+        when(unreadCounterService.countUnread("receiver@example.com")).thenReturn(5);
 
         // When
         int result = notificationService.countUnread("receiver@example.com");
 
         // Then
         assertEquals(5, result);
-        verify(notificationRepository).countUnreadByUserId(1L);
+        verify(notificationRepository, never()).countUnreadByUserId(anyLong());
     }
 
     @Test
     void testCountUnread_UserNotFound() {
         // Given
-        when(userRepository.findByEmail("receiver@example.com")).thenReturn(Optional.empty());
+        when(unreadCounterService.countUnread("receiver@example.com")).thenReturn(0);
 
         // When
         int result = notificationService.countUnread("receiver@example.com");
@@ -350,6 +351,51 @@ class NotificationServiceImplTest {
         verify(notificationRepository).findNotificationsByUserId(1L);
     }
 
+    @Test
+    void testGetInbox_ReturnsPageAndCursor() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationResponseDTO> rows = List.of(
+                new NotificationResponseDTO(3L, "TASK_COMMENTED", "t", "m", "unread", now, 1L,
+                        null, "Sender User", null),
+                new NotificationResponseDTO(2L, "TASK_COMMENTED", "t", "m", "unread",
+                        now.minusMinutes(1), 1L, null, "Sender User", null),
+                new NotificationResponseDTO(1L, "TASK_COMMENTED", "t", "m", "unread",
+                        now.minusMinutes(2), 1L, null, "Sender User", null));
+        when(userRepository.findIdByEmail("receiver@example.com")).thenReturn(Optional.of(1L));
+        when(notificationRepository.findInboxPageByStatus(eq(1L), eq("unread"),
+                eq("TASK_COMMENTED"), isNull(), any(), eq(Long.MAX_VALUE), any()))
+                .thenReturn(rows);
+
+        // When
+        NotificationPageDTO page = notificationService.getInbox("receiver@example.com", "UNREAD",
+                "task_commented", null, null, 2);
+
+        // Then
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasMore());
+        assertNotNull(page.nextCursor());
+
+        // Trang sau bắt đầu ngay sau bản ghi cuối của trang trước
+        when(notificationRepository.findInboxPage(eq(1L), isNull(), isNull(),
+                eq(now.minusMinutes(1)), eq(2L), any())).thenReturn(List.of(rows.get(2)));
+        NotificationPageDTO next = notificationService.getInbox("receiver@example.com", null,
+                null, null, page.nextCursor(), 2);
+        assertEquals(1, next.items().size());
+        assertFalse(next.hasMore());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void testGetInbox_InvalidStatusOrCursor() {
+        when(userRepository.findIdByEmail("receiver@example.com")).thenReturn(Optional.of(1L));
+
+        assertThrows(BadRequestException.class, () -> notificationService
+                .getInbox("receiver@example.com", "archived", null, null, null, 20));
+        assertThrows(BadRequestException.class, () -> notificationService
+                .getInbox("receiver@example.com", null, null, null, "not-a-cursor", 20));
+    }
+
     @Test
     void testMarkAsRead_Success() {
         // Given
@@ -364,6 +410,7 @@ class NotificationServiceImplTest {
         assertTrue(result);
         assertEquals("read", testNotification.getStatus());
         verify(notificationRepository).save(testNotification);
+        verify(unreadCounterService).decrement(1L, 1);
     }
 
     @Test
@@ -392,6 +439,7 @@ class NotificationServiceImplTest {
         // Then
         assertEquals(5, result);
         verify(notificationRepository).markAllAsReadByUserId(1L);
+        verify(unreadCounterService).decrement(1L, 5);
     }
 
     @Test
@@ -406,6 +454,19 @@ class NotificationServiceImplTest {
         verify(notificationRepository).deleteById(1L);
     }
 
+    @Test
+    void testDeleteNotification_NotOwner() {
+        // Given
+        when(notificationRepository.isOwnedBy(1L, "other@example.com")).thenReturn(false);
+
+        // When
+        boolean result = notificationService.deleteNotification(1L, "other@example.com");
+
+        // Then
+        assertFalse(result);
+        verify(notificationRepository, never()).deleteById(any());
+    }
+
     @Test
     void testFindRecentByProject_Success() {
         // Given
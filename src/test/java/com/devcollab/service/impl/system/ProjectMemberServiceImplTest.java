@@ -7,6 +7,7 @@ import com.devcollab.repository.*;
 import com.devcollab.service.system.ActivityService;
 import com.devcollab.service.system.MailService;
 import com.devcollab.service.system.NotificationService;
+import com.devcollab.service.system.ProjectMembershipCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -58,6 +59,9 @@ class ProjectMemberServiceImplTest {
     @Mock
     private MailService mailService;
 
+    @Mock
+    private ProjectMembershipCache membershipCache;
+
     @InjectMocks
     private ProjectMemberServiceImpl projectMemberService;
 
@@ -212,6 +216,7 @@ class ProjectMemberServiceImplTest {
         // Then
         assertTrue(result);
         verify(projectMemberRepository).deleteByProject_ProjectIdAndUser_UserId(1L, 2L);
+        verify(membershipCache).evictProject(1L);
     }
 
     @Test
@@ -2,6 +2,7 @@ package com.devcollab.service.impl.system;
 
 import com.devcollab.domain.ProjectTarget;
 import com.devcollab.repository.ProjectTargetRepository;
+import com.devcollab.service.system.DashboardCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +24,9 @@ class ProjectTargetServiceImplTest {
     @Mock
     private ProjectTargetRepository projectTargetRepository;
 
+    @Mock
+    private DashboardCache dashboardCache;
+
     @InjectMocks
     private ProjectTargetServiceImpl projectTargetService;
 
@@ -56,6 +60,7 @@ class ProjectTargetServiceImplTest {
         assertNotNull(result);
         verify(projectTargetRepository).findByMonthYearAndPm(testMonth, testYear, testPmId);
         verify(projectTargetRepository).save(any(ProjectTarget.class));
+        verify(dashboardCache).invalidate();
     }
 
     @Test
@@ -73,6 +78,7 @@ class ProjectTargetServiceImplTest {
         assertEquals(15, testTarget.getTargetCount());
         verify(projectTargetRepository).findByMonthYearAndPm(testMonth, testYear, testPmId);
         verify(projectTargetRepository).save(testTarget);
+        verify(dashboardCache).invalidate();
     }
 
     @Test
@@ -5,6 +5,7 @@ import com.devcollab.domain.User;
 import com.devcollab.exception.NotFoundException;
 import com.devcollab.repository.RoleRepository;
 import com.devcollab.repository.UserRepository;
+import com.devcollab.security.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +28,9 @@ class UserRoleServiceImplTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private UserRoleServiceImpl userRoleService;
 
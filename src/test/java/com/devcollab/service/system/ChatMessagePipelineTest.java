@@ -0,0 +1,262 @@
+package com.devcollab.service.system;
+
+import com.devcollab.dto.response.MessageResponseDTO;
+import com.devcollab.exception.BadRequestException;
+import com.devcollab.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessagePipelineTest {
+
+    private static final String EMAIL = "dev@devcollab.test";
+    private static final String NEXT_ID_SQL = "SELECT NEXT VALUE FOR dbo.message_seq";
+    private static final String IDENTITY_SQL = "SELECT COLUMNPROPERTY("
+            + "OBJECT_ID('dbo.[Message]'), 'message_id', 'IsIdentity')";
+    private static final String POISON = "poison";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProjectMembershipCache membershipCache;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private ChatMessagePipeline pipeline;
+
+    // Batch đang dựng trên statement và các batch đã commit
+    private final List<Long> currentIds = new ArrayList<>();
+    private final List<String> currentContents = new ArrayList<>();
+    private final List<List<Long>> committed = new CopyOnWriteArrayList<>();
+    private volatile boolean databaseDown;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(userRepository.findChatSenderByEmail(EMAIL))
+                .thenReturn(List.<Object[]>of(new Object[] {7L, "Dev", EMAIL, null}));
+        lenient().when(membershipCache.getRole(1L, 7L)).thenReturn("Member");
+        lenient().when(jdbcTemplate.queryForObject(NEXT_ID_SQL, Long.class))
+                .thenReturn(50L, 100L, 150L);
+        lenient().when(jdbcTemplate.queryForObject(IDENTITY_SQL, Integer.class)).thenReturn(0);
+        sequence(1000L, 50L, 900L);
+        lenient().when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> insert(inv.getArgument(0)));
+
+        lenient().when(connection.prepareStatement(anyString())).thenAnswer(inv -> {
+            currentIds.clear();
+            currentContents.clear();
+            return statement;
+        });
+        lenient().doAnswer(inv -> currentIds.add(inv.getArgument(1))).when(statement)
+                .setLong(eq(1), anyLong());
+        lenient().doAnswer(inv -> currentContents.add(inv.getArgument(1))).when(statement)
+                .setString(eq(4), anyString());
+        lenient().when(statement.executeBatch()).thenAnswer(inv -> {
+            if (databaseDown)
+                throw new SQLException("Connection timed out");
+            if (currentContents.contains(POISON))
+                throw new SQLException("FOREIGN KEY constraint FK_Message_Project");
+            return new int[currentIds.size()];
+        });
+        lenient().doAnswer(inv -> committed.add(List.copyOf(currentIds))).when(connection)
+                .commit();
+
+        pipeline = new ChatMessagePipeline(jdbcTemplate, userRepository, membershipCache,
+                searchIndexService, 1000, 50, 2, 100);
+    }
+
+    /** Answers the startup check on dbo.message_seq. */
+    private void sequence(long currentValue, long increment, long maxId) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("current_value", currentValue);
+        row.put("increment", increment);
+        row.put("max_id", maxId);
+        lenient().when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(row));
+    }
+
+    /** Runs the callback like JdbcTemplate does, translating SQL errors. */
+    private Object insert(ConnectionCallback<?> callback) throws Exception {
+        try {
+            return callback.doInConnection(connection);
+        } catch (SQLException e) {
+            if (e.getMessage().contains("FOREIGN KEY"))
+                throw new DataIntegrityViolationException(e.getMessage(), e);
+            throw new TransientDataAccessResourceException(e.getMessage(), e);
+        }
+    }
+
+    @Test
+    void testSubmit_WritesQueuedMessagesInOneBatchAndIndexesAfterSave() throws Exception {
+        // Given
+        MessageResponseDTO first = pipeline.submit(1L, EMAIL, "xin chào");
+        MessageResponseDTO second = pipeline.submit(1L, EMAIL, "hello");
+        verifyNoInteractions(searchIndexService);
+
+        // When
+        pipeline.start();
+        pipeline.stop();
+
+        // Then
+        assertEquals(1L, first.getMessageId());
+        assertEquals(2L, second.getMessageId());
+        assertEquals(List.of(List.of(1L, 2L)), committed);
+        verify(searchIndexService).indexMessage(1L, 1L, "xin chào", "Dev");
+        verify(searchIndexService).indexMessage(2L, 1L, "hello", "Dev");
+        assertEquals(0, pipeline.pendingCount());
+    }
+
+    @Test
+    void testSubmit_AssignsIdsFromSequenceBlocks() {
+        // Given
+        when(jdbcTemplate.queryForObject(NEXT_ID_SQL, Long.class)).thenReturn(1L, 250L, 300L);
+
+        // When
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 60; i++)
+            ids.add(pipeline.submit(1L, EMAIL, "tin " + i).getMessageId());
+
+        // Then
+        assertEquals(201L, ids.get(0));
+        assertEquals(250L, ids.get(49));
+        assertEquals(251L, ids.get(50));
+        assertEquals(60, new HashSet<>(ids).size());
+        verify(jdbcTemplate, times(3)).queryForObject(NEXT_ID_SQL, Long.class);
+    }
+
+    @Test
+    void testWrite_PoisonRowIsDroppedAndOthersAreSaved() throws Exception {
+        // Given
+        pipeline.submit(1L, EMAIL, "trước");
+        pipeline.submit(1L, EMAIL, POISON);
+        pipeline.submit(1L, EMAIL, "sau");
+
+        // When
+        pipeline.start();
+        pipeline.stop();
+
+        // Then
+        assertEquals(List.of(List.of(1L), List.of(3L)), committed);
+        verify(connection, times(2)).rollback();
+        verify(searchIndexService).indexMessage(1L, 1L, "trước", "Dev");
+        verify(searchIndexService).indexMessage(3L, 1L, "sau", "Dev");
+        verify(searchIndexService, never()).indexMessage(eq(2L), any(), any(), any());
+    }
+
+    @Test
+    void testWrite_GivesUpAfterMaxAttempts() throws Exception {
+        // Given
+        databaseDown = true;
+        pipeline.submit(1L, EMAIL, "xin chào");
+
+        // When
+        pipeline.start();
+        pipeline.stop();
+
+        // Then
+        verify(jdbcTemplate, times(2)).execute(any(ConnectionCallback.class));
+        assertTrue(committed.isEmpty());
+        verifyNoInteractions(searchIndexService);
+        assertEquals(0, pipeline.pendingCount());
+    }
+
+    @Test
+    void testStop_DrainsQueueAndRejectsNewMessages() throws Exception {
+        // Given
+        for (int i = 0; i < 120; i++)
+            pipeline.submit(1L, EMAIL, "tin " + i);
+
+        // When
+        pipeline.start();
+        pipeline.stop();
+
+        // Then
+        assertEquals(1, committed.size());
+        assertEquals(120, committed.get(0).size());
+        assertEquals(0, pipeline.pendingCount());
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(1L, EMAIL, "muộn"));
+    }
+
+    @Test
+    void testSubmit_BlankContentIsRejected() {
+        assertThrows(BadRequestException.class, () -> pipeline.submit(1L, EMAIL, null));
+        assertThrows(BadRequestException.class, () -> pipeline.submit(1L, EMAIL, "  "));
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(0, pipeline.pendingCount());
+    }
+
+    @Test
+    void testStart_IdentityColumnDisablesPipeline() throws Exception {
+        // Given: chưa chạy migration, message_id vẫn là IDENTITY
+        when(jdbcTemplate.queryForObject(IDENTITY_SQL, Integer.class)).thenReturn(1);
+
+        // When
+        pipeline.start();
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(1L, EMAIL, "xin chào"));
+        verify(jdbcTemplate, never()).queryForObject(NEXT_ID_SQL, Long.class);
+        assertEquals(0, pipeline.pendingCount());
+        pipeline.stop();
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    void testStart_SequenceBehindExistingIdsDisablesPipeline() {
+        // Given: ddl-auto tạo sequence bắt đầu từ 1 trên bảng đã có dữ liệu
+        sequence(1L, 50L, 900L);
+
+        // When
+        pipeline.start();
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(1L, EMAIL, "xin chào"));
+        verify(jdbcTemplate, never()).queryForObject(NEXT_ID_SQL, Long.class);
+    }
+
+    @Test
+    void testStart_MissingSequenceDisablesPipeline() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of());
+
+        // When
+        pipeline.start();
+
+        // Then
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(1L, EMAIL, "xin chào"));
+    }
+}
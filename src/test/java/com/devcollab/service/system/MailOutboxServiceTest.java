@@ -0,0 +1,167 @@
+package com.devcollab.service.system;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MailOutboxServiceTest {
+
+    private static final int MAX_ATTEMPTS = 4;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private MailOutboxService mailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        mailOutboxService = new MailOutboxService(jdbcTemplate, mailSender,
+                "no-reply@devcollab.test", 50, MAX_ATTEMPTS, 2000, 30, 7);
+        lenient().when(mailSender.createMimeMessage())
+                .thenAnswer(inv -> new MimeMessage((Session) null));
+    }
+
+    /** Makes the claim query return one row per {@code attempts} value, ids starting at 1. */
+    private void claim(String recipient, int... attempts) throws Exception {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(50), any(Timestamp.class),
+                any(Timestamp.class))).thenAnswer(inv -> {
+                    RowMapper<?> mapper = inv.getArgument(1);
+                    List<Object> rows = new ArrayList<>();
+                    for (int i = 0; i < attempts.length; i++) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getLong(1)).thenReturn(i + 1L);
+                        when(rs.getString(2)).thenReturn(recipient);
+                        when(rs.getString(3)).thenReturn("Nhắc việc");
+                        when(rs.getString(4)).thenReturn("Bạn có task sắp đến hạn");
+                        when(rs.getBoolean(5)).thenReturn(false);
+                        when(rs.getInt(6)).thenReturn(attempts[i]);
+                        when(rs.getTimestamp(7)).thenReturn(
+                                Timestamp.valueOf(LocalDateTime.now().minusSeconds(5)));
+                        rows.add(mapper.mapRow(rs, i));
+                    }
+                    return rows;
+                });
+    }
+
+    @Test
+    void testDispatchBatch_MarksSentMails() throws Exception {
+        // Given
+        claim("dev@devcollab.test", 1, 1);
+
+        // When
+        int claimed = mailOutboxService.dispatchBatch();
+
+        // Then
+        assertEquals(2, claimed);
+        ArgumentCaptor<MimeMessage[]> messages = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(mailSender).send(messages.capture());
+        assertEquals(2, messages.getValue().length);
+        ArgumentCaptor<List<Object[]>> sent = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("status = 'SENT'"), sent.capture());
+        assertEquals(List.of(1L, 2L), sent.getValue().stream().map(r -> r[1]).toList());
+        assertEquals(2, mailOutboxService.stats().sentTotal());
+    }
+
+    @Test
+    void testDispatchBatch_SchedulesRetryWithExponentialBackoff() throws Exception {
+        // Given
+        claim("dev@devcollab.test", 3);
+        doAnswer(inv -> {
+            MimeMessage message = inv.getArgument(0);
+            throw new MailSendException(Map.of(message, new RuntimeException("421 busy")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        LocalDateTime before = LocalDateTime.now();
+        mailOutboxService.dispatchBatch();
+
+        // Then: lần thứ 3 thất bại → chờ 30s << 2 = 2 phút
+        ArgumentCaptor<Timestamp> next = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).update(contains("status = 'PENDING', last_error = ?"),
+                eq("421 busy"), next.capture(), eq(1L));
+        Duration delay = Duration.between(before, next.getValue().toLocalDateTime());
+        assertTrue(delay.compareTo(Duration.ofSeconds(119)) >= 0, delay.toString());
+        assertTrue(delay.compareTo(Duration.ofSeconds(125)) <= 0, delay.toString());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(jdbcTemplate, never()).update(contains("'FAILED'"), any(), any());
+    }
+
+    @Test
+    void testDispatchBatch_FailsMailAfterMaxAttempts() throws Exception {
+        // Given
+        claim("dev@devcollab.test", MAX_ATTEMPTS);
+        doThrow(new MailSendException("Connection refused")).when(mailSender)
+                .send(any(MimeMessage[].class));
+
+        // When
+        mailOutboxService.dispatchBatch();
+
+        // Then
+        verify(jdbcTemplate).update(contains("status = 'FAILED'"), eq("Connection refused"),
+                eq(1L));
+        verify(jdbcTemplate, never()).update(contains("status = 'PENDING'"), any(), any(),
+                any());
+        assertEquals(1, mailOutboxService.stats().failedAttemptsTotal());
+    }
+
+    @Test
+    void testDispatchBatch_InvalidAddressFailsWithoutRetry() throws Exception {
+        // Given
+        claim("không phải email@@", 1);
+
+        // When
+        mailOutboxService.dispatchBatch();
+
+        // Then
+        verify(jdbcTemplate).update(contains("status = 'FAILED'"), anyString(), eq(1L));
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    void testReleaseStaleClaims_ReturnsOldSendingRowsOncePerMinute() {
+        // Given
+        when(jdbcTemplate.update(contains("WHERE status = 'SENDING' AND claimed_at < ?"),
+                any(Timestamp.class))).thenReturn(3);
+
+        // When
+        LocalDateTime before = LocalDateTime.now();
+        mailOutboxService.releaseStaleClaims();
+        mailOutboxService.releaseStaleClaims();
+
+        // Then
+        ArgumentCaptor<Timestamp> cutoff = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate, times(1)).update(contains("SET status = 'PENDING'"),
+                cutoff.capture());
+        Duration age = Duration.between(cutoff.getValue().toLocalDateTime(), before);
+        assertTrue(age.compareTo(Duration.ofMinutes(9)) > 0, age.toString());
+        assertTrue(age.compareTo(Duration.ofMinutes(11)) < 0, age.toString());
+    }
+}
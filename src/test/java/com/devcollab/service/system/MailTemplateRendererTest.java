@@ -0,0 +1,118 @@
+package com.devcollab.service.system;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * The precompiled renderer must produce exactly what {@code TemplateEngine.process} produces: a
+ * renderer whose {@code compile()} never ran takes the Thymeleaf path for every template.
+ */
+class MailTemplateRendererTest {
+
+    private static final String BASE_URL = "https://devcollab.test";
+    private static final String TRICKY = "<b>\"Sprint\" & 'Q3'</b> — tiếng Việt ✓";
+
+    private SpringTemplateEngine engine;
+    private MailTemplateRenderer precompiled;
+    private MailTemplateRenderer thymeleaf;
+
+    @BeforeEach
+    void setUp() {
+        // Cấu hình như Spring Boot: classpath:/templates/, HTML, UTF-8
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        engine = spy(templateEngine);
+
+        precompiled = new MailTemplateRenderer(engine);
+        precompiled.compile();
+        thymeleaf = new MailTemplateRenderer(engine);
+    }
+
+    private void assertSameNotification(String title, String message, String link,
+            String senderName) {
+        assertEquals(thymeleaf.renderNotification(title, message, link, senderName, BASE_URL),
+                precompiled.renderNotification(title, message, link, senderName, BASE_URL));
+    }
+
+    private void assertSameDigest(String title, List<MailTemplateRenderer.DigestEntry> entries,
+            String senderName) {
+        assertEquals(thymeleaf.renderDigest(title, entries, senderName, BASE_URL),
+                precompiled.renderDigest(title, entries, senderName, BASE_URL));
+    }
+
+    @Test
+    void testRenderNotification_MatchesThymeleaf() {
+        assertSameNotification("Bạn được giao task mới", "Task \"Deploy\" đã được giao",
+                BASE_URL + "/view/task/1", "Dev");
+        assertSameNotification(TRICKY, TRICKY, BASE_URL + "/view/task/1?a=1&b=2", TRICKY);
+        assertSameNotification("", "", BASE_URL, "");
+    }
+
+    @Test
+    void testRenderNotification_WithoutLinkMatchesThymeleaf() {
+        assertSameNotification("Đổi mật khẩu", "Mật khẩu đã được đổi", null, "DevCollab");
+        assertSameNotification("Đổi mật khẩu", "Mật khẩu đã được đổi", "", "DevCollab");
+        assertSameNotification("Đổi mật khẩu", "Mật khẩu đã được đổi", " Off ", "DevCollab");
+    }
+
+    @Test
+    void testRenderDigest_MatchesThymeleafForAnyNumberOfEntries() {
+        MailTemplateRenderer.DigestEntry first = new MailTemplateRenderer.DigestEntry("📌",
+                "Task A sắp đến hạn", BASE_URL + "/view/task/1");
+        MailTemplateRenderer.DigestEntry second = new MailTemplateRenderer.DigestEntry("💬",
+                TRICKY, BASE_URL + "/view/task/2?x=<y>");
+        MailTemplateRenderer.DigestEntry third = new MailTemplateRenderer.DigestEntry("✅",
+                "Task C đã xong", BASE_URL + "/view/task/3");
+
+        assertSameDigest("Tóm tắt hôm nay", List.of(), "DevCollab");
+        assertSameDigest("Tóm tắt hôm nay", List.of(first), "DevCollab");
+        assertSameDigest(TRICKY, List.of(first, second, third), TRICKY);
+    }
+
+    @Test
+    void testRenderDigest_EntryWithoutLinkMatchesThymeleaf() {
+        assertSameDigest("Tóm tắt hôm nay", List.of(
+                new MailTemplateRenderer.DigestEntry("📌", "Có link", BASE_URL + "/view/task/1"),
+                new MailTemplateRenderer.DigestEntry("🔔", "Không có link", null)), "DevCollab");
+    }
+
+    @Test
+    void testRenderInvite_MatchesThymeleaf() {
+        assertEquals(thymeleaf.renderInvite("Dev", "DevCollab", BASE_URL + "/register?t=abc"),
+                precompiled.renderInvite("Dev", "DevCollab", BASE_URL + "/register?t=abc"));
+        assertEquals(thymeleaf.renderInvite(TRICKY, TRICKY, BASE_URL + "/register?a=1&b=2"),
+                precompiled.renderInvite(TRICKY, TRICKY, BASE_URL + "/register?a=1&b=2"));
+    }
+
+    @Test
+    void testCompile_RendersWithoutCallingThymeleaf() {
+        // Given
+        clearInvocations(engine);
+
+        // When
+        String html = precompiled.renderNotification("t", "m", null, "s", BASE_URL);
+        precompiled.renderDigest("t", List.of(new MailTemplateRenderer.DigestEntry("📌", "m",
+                BASE_URL)), "s", BASE_URL);
+        precompiled.renderInvite("Dev", "DevCollab", BASE_URL);
+
+        // Then: bản biên dịch sẵn không được âm thầm rơi về Thymeleaf
+        verify(engine, never()).process(anyString(), any(IContext.class));
+        assertFalse(html.contains("@@slot:"));
+    }
+}
@@ -0,0 +1,200 @@
+package com.devcollab.service.system;
+
+import com.devcollab.domain.User;
+import com.devcollab.repository.NotificationRepository;
+import com.devcollab.repository.UserSettingsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationFanoutServiceTest {
+
+    private static final int SQL_SERVER_MAX_PARAMETERS = 2100;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserSettingsRepository userSettingsRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private WebSocketNotificationService webSocketNotificationService;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private NotificationFanoutService fanoutService;
+
+    // Số tham số và số dòng của từng câu INSERT đã chạy
+    private final List<Integer> insertParameters = new ArrayList<>();
+    private final List<Integer> insertRows = new ArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fanoutService = new NotificationFanoutService(notificationRepository,
+                userSettingsRepository, jdbcTemplate, webSocketNotificationService, mailService,
+                unreadCounterService, transactionManager, 0);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        lenient().when(userSettingsRepository.findByUserIds(anyCollection()))
+                .thenReturn(List.of());
+        lenient().doAnswer(inv -> {
+            runInsert(inv.getArgument(1), inv.getArgument(2));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class),
+                any(RowCallbackHandler.class));
+    }
+
+    /** Binds the statement like JdbcTemplate and answers one OUTPUT row per bound user. */
+    private void runInsert(PreparedStatementSetter setter, RowCallbackHandler handler)
+            throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.setValues(ps);
+        ArgumentCaptor<Integer> index = ArgumentCaptor.forClass(Integer.class);
+        ArgumentCaptor<Long> value = ArgumentCaptor.forClass(Long.class);
+        verify(ps, atLeast(0)).setLong(index.capture(), value.capture());
+
+        int parameters = mockingDetails(ps).getInvocations().size();
+        List<Long> userIds = new ArrayList<>();
+        // user_id là tham số lẻ sau 8 tham số chung: 9, 11, 13, ...
+        for (int i = 0; i < index.getAllValues().size(); i++) {
+            int position = index.getAllValues().get(i);
+            if (position > 8 && position % 2 == 1)
+                userIds.add(value.getAllValues().get(i));
+        }
+        insertParameters.add(parameters);
+        insertRows.add(userIds.size());
+
+        for (Long userId : userIds) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(userId);
+            when(rs.getLong(2)).thenReturn(nextId.getAndIncrement());
+            handler.processRow(rs);
+        }
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            User user = new User();
+            user.setUserId(id);
+            user.setEmail("user" + id + "@devcollab.test");
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static NotificationFanoutService.Event event(String type) {
+        return new NotificationFanoutService.Event(type, 42L, "Thông báo", "Nội dung",
+                "/view/pm/project/42", null);
+    }
+
+    @Test
+    void testPublish_SplitsInsertsUnderSqlServerParameterLimit() {
+        // When
+        int reached = fanoutService.publish(event("TASK_UPDATED"), users(2500));
+
+        // Then
+        assertEquals(2500, reached);
+        assertEquals(List.of(1000, 1000, 500), insertRows);
+        assertEquals(8 + 2 * NotificationFanoutService.INSERT_CHUNK, insertParameters.get(0));
+        assertTrue(insertParameters.stream().allMatch(p -> p <= SQL_SERVER_MAX_PARAMETERS));
+        verify(userSettingsRepository, times(3)).findByUserIds(anyCollection());
+        verify(webSocketNotificationService, times(2500)).sendToUser(any(), any(), any());
+    }
+
+    @Test
+    void testPublish_DeduplicatesRecipientsAndSkipsUsersWithoutId() {
+        // Given
+        List<User> recipients = new ArrayList<>(users(3));
+        recipients.addAll(users(2));
+        recipients.add(new User());
+        recipients.add(null);
+
+        // When
+        int reached = fanoutService.publish(event("TASK_UPDATED"), recipients);
+
+        // Then
+        assertEquals(3, reached);
+        assertEquals(List.of(3), insertRows);
+        assertEquals(8 + 2 * 3, insertParameters.get(0));
+    }
+
+    @Test
+    void testPublish_HighPriorityMailsEveryFreshRecipient() {
+        // When
+        fanoutService.publish(event("MEMBER_ADDED"), users(2));
+
+        // Then
+        verify(mailService, times(2)).sendNotificationMail(anyString(), any(), any(), any(),
+                any());
+    }
+
+    @Test
+    void testPublish_RunsInOwnTransactionAndSwallowsFailure() {
+        // Given
+        doThrow(new TransientDataAccessResourceException("Connection reset")).when(jdbcTemplate)
+                .query(anyString(), any(PreparedStatementSetter.class),
+                        any(RowCallbackHandler.class));
+
+        // When
+        int reached = fanoutService.publish(event("TASK_UPDATED"), users(2));
+
+        // Then: chỉ transaction riêng của fan-out bị rollback, lỗi không lan ra caller
+        assertEquals(0, reached);
+        ArgumentCaptor<TransactionDefinition> definition =
+                ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW,
+                definition.getValue().getPropagationBehavior());
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(unreadCounterService, webSocketNotificationService);
+    }
+
+    @Test
+    void testPublish_NoRecipientsTouchesNothing() {
+        // When
+        int reached = fanoutService.publish(event("TASK_UPDATED"), (Collection<User>) null);
+
+        // Then
+        assertEquals(0, reached);
+        verifyNoInteractions(jdbcTemplate, notificationRepository, userSettingsRepository);
+    }
+}
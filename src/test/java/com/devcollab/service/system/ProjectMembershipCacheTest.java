@@ -0,0 +1,167 @@
+package com.devcollab.service.system;
+
+import com.devcollab.repository.ProjectMemberRepository;
+import com.devcollab.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectMembershipCacheTest {
+
+    private static final String EMAIL = "dev@devcollab.test";
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private ProjectMembershipCache newCache(long ttlSeconds) {
+        return new ProjectMembershipCache(projectMemberRepository, userRepository, redisTemplate,
+                listenerContainer, ttlSeconds, 100, 100);
+    }
+
+    private static List<Object[]> roles(String role) {
+        return List.<Object[]>of(new Object[] {7L, role});
+    }
+
+    @Test
+    void testGetRole_LoadsProjectOnceUntilEvicted() {
+        // Given
+        ProjectMembershipCache cache = newCache(600);
+        when(projectMemberRepository.findMemberRolesByProject(1L))
+                .thenReturn(roles("Member"), roles("PM"));
+
+        // When & Then
+        assertEquals("Member", cache.getRole(1L, 7L));
+        assertEquals("Member", cache.getRole(1L, 7L));
+        assertNull(cache.getRole(1L, 8L));
+
+        cache.evictProject(1L);
+        assertEquals("PM", cache.getRole(1L, 7L));
+        verify(projectMemberRepository, times(2)).findMemberRolesByProject(1L);
+        verify(redisTemplate).convertAndSend(ProjectMembershipCache.CHANNEL, "1");
+    }
+
+    @Test
+    void testGetRole_LoadOverlappingEvictionIsNotCached() {
+        // Given: trong lúc đọc DB thì có người đổi role và evict
+        ProjectMembershipCache cache = newCache(600);
+        when(projectMemberRepository.findMemberRolesByProject(1L)).thenAnswer(inv -> {
+            cache.evictProject(1L);
+            return roles("Member");
+        }).thenReturn(roles("PM"));
+
+        // When
+        String during = cache.getRole(1L, 7L);
+        String after = cache.getRole(1L, 7L);
+
+        // Then: bản đọc cũ chỉ trả cho lời gọi đó, không bị cache lại
+        assertEquals("Member", during);
+        assertEquals("PM", after);
+        verify(projectMemberRepository, times(2)).findMemberRolesByProject(1L);
+    }
+
+    @Test
+    void testGetRole_EvictInTransactionIsRepeatedAfterCommit() {
+        // Given
+        ProjectMembershipCache cache = newCache(600);
+        when(projectMemberRepository.findMemberRolesByProject(1L))
+                .thenReturn(roles("Member"), roles("PM"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When: đọc lại trước commit (thấy dữ liệu cũ) rồi commit
+            cache.evictProject(1L);
+            assertEquals("Member", cache.getRole(1L, 7L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            assertEquals("PM", cache.getRole(1L, 7L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(redisTemplate, times(2)).convertAndSend(ProjectMembershipCache.CHANNEL, "1");
+    }
+
+    @Test
+    void testOnMessage_EvictsProjectOrEverything() {
+        // Given
+        ProjectMembershipCache cache = newCache(600);
+        RedisSerializer<Object> serializer = new GenericJackson2JsonRedisSerializer();
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        when(projectMemberRepository.findMemberRolesByProject(1L)).thenReturn(roles("Member"));
+        when(projectMemberRepository.findMemberRolesByProject(2L)).thenReturn(roles("Member"));
+        cache.getRole(1L, 7L);
+        cache.getRole(2L, 7L);
+
+        // When
+        cache.onMessage(message(serializer.serialize("1")), null);
+        cache.getRole(1L, 7L);
+        cache.getRole(2L, 7L);
+        cache.onMessage(message("không phải json".getBytes(StandardCharsets.UTF_8)), null);
+        cache.getRole(1L, 7L);
+        cache.getRole(2L, 7L);
+
+        // Then
+        verify(projectMemberRepository, times(3)).findMemberRolesByProject(1L);
+        verify(projectMemberRepository, times(2)).findMemberRolesByProject(2L);
+    }
+
+    @Test
+    void testGetUserId_CachedByNormalizedEmailAndExpires() {
+        // Given
+        ProjectMembershipCache cached = newCache(600);
+        ProjectMembershipCache expired = newCache(0);
+        when(userRepository.findIdByEmail(anyString())).thenReturn(Optional.of(7L));
+
+        // When
+        cached.getUserId(EMAIL);
+        cached.getUserId(" DEV@devcollab.test ");
+        expired.getUserId(EMAIL);
+        expired.getUserId(EMAIL);
+
+        // Then
+        verify(userRepository, times(3)).findIdByEmail(anyString());
+        assertEquals(7L, cached.getUserId(EMAIL));
+    }
+
+    @Test
+    void testGetUserId_UnknownEmailIsDenied() {
+        // Given
+        ProjectMembershipCache cache = newCache(600);
+        when(userRepository.findIdByEmail("ghost@devcollab.test")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(AccessDeniedException.class, () -> cache.getUserId("ghost@devcollab.test"));
+        assertThrows(AccessDeniedException.class, () -> cache.getUserId(null));
+    }
+
+    private static DefaultMessage message(byte[] body) {
+        return new DefaultMessage(
+                ProjectMembershipCache.CHANNEL.getBytes(StandardCharsets.UTF_8), body);
+    }
+}
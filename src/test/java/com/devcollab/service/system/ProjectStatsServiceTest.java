@@ -0,0 +1,180 @@
+package com.devcollab.service.system;
+
+import com.devcollab.domain.Activity;
+import com.devcollab.domain.Project;
+import com.devcollab.domain.ProjectStatusMonthly;
+import com.devcollab.domain.Task;
+import com.devcollab.repository.ProjectStatsRepository;
+import com.devcollab.repository.ProjectStatusMonthlyRepository;
+import com.devcollab.repository.TaskCompletionMonthlyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectStatsServiceTest {
+
+    @Mock
+    private ProjectStatsRepository statsRepository;
+
+    @Mock
+    private ProjectStatusMonthlyRepository statusMonthlyRepository;
+
+    @Mock
+    private TaskCompletionMonthlyRepository completionRepository;
+
+    @Mock
+    private DashboardCache dashboardCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ProjectStatsService projectStatsService;
+
+    @BeforeEach
+    void setUp() {
+        projectStatsService = new ProjectStatsService(statsRepository, statusMonthlyRepository,
+                completionRepository, dashboardCache, transactionTemplate);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(null));
+    }
+
+    @Test
+    void testBackfill_RebuildsHistogramsInsideOneTransaction() {
+        // Given
+        when(statsRepository.createAllMissing()).thenReturn(3);
+
+        // When
+        projectStatsService.backfill();
+
+        // Then
+        InOrder inOrder = inOrder(transactionTemplate, statsRepository, statusMonthlyRepository,
+                completionRepository, dashboardCache);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(statsRepository).createAllMissing();
+        inOrder.verify(statusMonthlyRepository).deleteAllBuckets();
+        inOrder.verify(statusMonthlyRepository).rebuildFromStats();
+        inOrder.verify(completionRepository).deleteAllBuckets();
+        inOrder.verify(completionRepository).rebuild(null);
+        inOrder.verify(dashboardCache).invalidate();
+    }
+
+    @Test
+    void testBackfill_NothingMissingLeavesBucketsAlone() {
+        // Given
+        when(statsRepository.createAllMissing()).thenReturn(0);
+
+        // When
+        projectStatsService.backfill();
+
+        // Then
+        verifyNoInteractions(statusMonthlyRepository, completionRepository, dashboardCache);
+    }
+
+    @Test
+    void testBackfill_RebuildFailurePropagatesWithoutInvalidatingCache() {
+        // Given: lỗi giữa chừng → transaction rollback, bucket cũ còn nguyên
+        when(statsRepository.createAllMissing()).thenReturn(3);
+        when(completionRepository.rebuild(null))
+                .thenThrow(new QueryTimeoutException("Query timeout"));
+
+        // When & Then
+        assertThrows(QueryTimeoutException.class, () -> projectStatsService.backfill());
+        verify(transactionTemplate).execute(any());
+        verifyNoInteractions(dashboardCache);
+    }
+
+    @Test
+    void testTaskStatusChanged_MovesCompletionFromOldCloseMonth() {
+        // Given: task DONE từ tháng 1, nay mở lại
+        LocalDateTime closedBefore = LocalDateTime.of(2025, 1, 15, 9, 0);
+        Task task = task(1L, "OPEN");
+        when(statsRepository.createIfMissing(1L)).thenReturn(0);
+
+        // When
+        projectStatsService.taskStatusChanged(task, "DONE", closedBefore);
+
+        // Then
+        verify(statsRepository).applyTaskDelta(1L, 0, 0, 1, 0, 0, -1, 0);
+        verify(completionRepository).bump(1L, 202501, -1);
+        verify(completionRepository, never()).bump(anyLong(), anyInt(), eq(1L));
+    }
+
+    @Test
+    void testTaskStatusChanged_SameStatusIsIgnored() {
+        // When
+        projectStatsService.taskStatusChanged(task(1L, "in_progress"), "IN_PROGRESS", null);
+
+        // Then
+        verifyNoInteractions(statsRepository, completionRepository);
+    }
+
+    @Test
+    void testTaskCreated_MissingRowIsBuiltInsteadOfApplyingDelta() {
+        // Given
+        when(statsRepository.createIfMissing(1L)).thenReturn(1);
+        when(statsRepository.lockStatusBucket(1L))
+                .thenReturn(List.<Object[]>of(new Object[] {"ACTIVE", 202503, 7L}));
+
+        // When
+        projectStatsService.taskCreated(task(1L, "DONE"));
+
+        // Then
+        verify(completionRepository).rebuild(1L);
+        verify(statusMonthlyRepository).bump(ProjectStatusMonthly.ALL_SCOPE, 202503, "ACTIVE", 1);
+        verify(statusMonthlyRepository).bump(7L, 202503, "ACTIVE", 1);
+        verify(statsRepository, never()).applyTaskDelta(anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(completionRepository, never()).bump(anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void testProjectStatusChanged_MovesProjectToCurrentMonthBucket() {
+        // Given
+        Project project = new Project();
+        project.setProjectId(1L);
+        project.setStatus("completed");
+        when(statsRepository.createIfMissing(1L)).thenReturn(0);
+        when(statsRepository.lockStatusBucket(1L))
+                .thenReturn(List.<Object[]>of(new Object[] {"ACTIVE", 202503, 7L}));
+        int month = Activity.monthBucket(LocalDateTime.now());
+
+        // When
+        projectStatsService.projectStatusChanged(project);
+
+        // Then
+        verify(statusMonthlyRepository).bump(ProjectStatusMonthly.ALL_SCOPE, 202503, "ACTIVE", -1);
+        verify(statusMonthlyRepository).bump(7L, 202503, "ACTIVE", -1);
+        verify(statusMonthlyRepository).bump(ProjectStatusMonthly.ALL_SCOPE, month, "COMPLETED",
+                1);
+        verify(statusMonthlyRepository).bump(7L, month, "COMPLETED", 1);
+        verify(statsRepository).updateStatusBucket(1L, "COMPLETED", month);
+        verify(dashboardCache).invalidate();
+    }
+
+    private static Task task(Long projectId, String status) {
+        Project project = new Project();
+        project.setProjectId(projectId);
+        Task task = new Task();
+        task.setTaskId(10L);
+        task.setStatus(status);
+        task.setProject(project);
+        return task;
+    }
+}
@@ -0,0 +1,224 @@
+package com.devcollab.service.system;
+
+import com.devcollab.domain.Project;
+import com.devcollab.domain.Task;
+import com.devcollab.dto.response.SearchHitDTO;
+import com.devcollab.dto.response.SearchResultDTO;
+import com.devcollab.repository.CommentRepository;
+import com.devcollab.repository.MessageRepository;
+import com.devcollab.repository.ProjectMemberRepository;
+import com.devcollab.repository.ProjectRepository;
+import com.devcollab.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexServiceTest {
+
+    private static final String EMAIL = "dev@devcollab.test";
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ProjectMemberRepository projectMemberRepository;
+
+    @Mock
+    private ProjectMembershipCache membershipCache;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @TempDir
+    Path indexDir;
+
+    private SearchIndexService searchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(membershipCache.getUserId(EMAIL)).thenReturn(7L);
+        lenient().when(projectMemberRepository.findProjectIdsByUserId(7L))
+                .thenReturn(List.of(1L));
+        searchIndexService = newNode();
+    }
+
+    private SearchIndexService newNode() {
+        return new SearchIndexService(projectRepository, taskRepository, commentRepository,
+                messageRepository, projectMemberRepository, membershipCache, redisTemplate,
+                listenerContainer, indexDir.toString());
+    }
+
+    @Test
+    void testSearch_RanksTitleAndFrequentMatchesFirst() {
+        // Given
+        searchIndexService.indexTask(task(1L, 1L, "Deploy pipeline", "Cấu hình CI"));
+        searchIndexService.indexTask(task(2L, 1L, "Sửa lỗi đăng nhập", "deploy lại sau khi sửa"));
+        searchIndexService.indexTask(task(3L, 1L, "Viết tài liệu", "deploy deploy deploy staging"));
+        searchIndexService.indexTask(task(4L, 1L, "Thiết kế màn hình", "không liên quan"));
+
+        // When
+        SearchResultDTO result = searchIndexService.search(EMAIL, "deploy", Set.of(), 10);
+
+        // Then
+        List<Long> ids = result.hits().stream().map(SearchHitDTO::id).toList();
+        assertEquals(List.of(1L, 3L, 2L), ids);
+        assertTrue(result.hits().get(0).score() > result.hits().get(1).score());
+    }
+
+    @Test
+    void testSearch_MatchesPrefixesAndFoldsDiacritics() {
+        // Given
+        searchIndexService.indexTask(task(1L, 1L, "Đăng nhập bằng Google", null));
+
+        // When
+        SearchResultDTO result = searchIndexService.search(EMAIL, "dang nh", Set.of(), 10);
+
+        // Then
+        assertEquals(1, result.hits().size());
+        assertEquals("<mark>Đăng</mark> <mark>nhập</mark> bằng Google",
+                result.hits().get(0).title());
+    }
+
+    @Test
+    void testSearch_OnlyReturnsMemberProjectsAndPublicProjects() {
+        // Given
+        searchIndexService.indexProject(project(1L, "Roadmap nội bộ", "private"));
+        searchIndexService.indexProject(project(2L, "Roadmap khách hàng", "private"));
+        searchIndexService.indexProject(project(3L, "Roadmap công khai", "public"));
+        searchIndexService.indexTask(task(10L, 1L, "Roadmap Q1", null));
+        searchIndexService.indexTask(task(20L, 2L, "Roadmap Q2", null));
+        searchIndexService.indexTask(task(30L, 3L, "Roadmap Q3", null));
+
+        // When
+        SearchResultDTO all = searchIndexService.search(EMAIL, "roadmap", Set.of(), 10);
+        SearchResultDTO tasks =
+                searchIndexService.search(EMAIL, "roadmap", Set.of(SearchIndex.TASK), 10);
+
+        // Then
+        assertEquals(Set.of("PROJECT:1", "PROJECT:3", "TASK:10"), keys(all));
+        assertEquals(Set.of("TASK:10"), keys(tasks));
+    }
+
+    @Test
+    void testSearch_EscapesHtmlAroundHighlights() {
+        // Given
+        searchIndexService.indexTask(task(1L, 1L, "<b>Release</b>",
+                "<script>alert('x')</script> release & \"deploy\""));
+
+        // When
+        SearchHitDTO hit = searchIndexService.search(EMAIL, "release", Set.of(), 10).hits().get(0);
+
+        // Then
+        assertEquals("&lt;b&gt;<mark>Release</mark>&lt;/b&gt;", hit.title());
+        assertEquals("&lt;script&gt;alert(&#039;x&#039;)&lt;/script&gt; <mark>release</mark>"
+                + " &amp; &quot;deploy&quot;", hit.snippet());
+    }
+
+    @Test
+    void testRemoveTask_KeepsOtherDocumentsOfProject() {
+        // Given
+        searchIndexService.indexTask(task(1L, 1L, "Migration dữ liệu", null));
+        searchIndexService.indexMessage(5L, 1L, "migration xong chưa?", "Dev");
+
+        // When
+        searchIndexService.removeTask(1L);
+
+        // Then
+        assertEquals(Set.of("MESSAGE:5"),
+                keys(searchIndexService.search(EMAIL, "migration", Set.of(), 10)));
+    }
+
+    @Test
+    void testChanges_AreAppliedOnOtherNodesButNotEchoed() {
+        // Given
+        SearchIndexService otherNode = newNode();
+        RedisSerializer<Object> serializer = new GenericJackson2JsonRedisSerializer();
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+
+        // When
+        searchIndexService.indexTask(task(1L, 1L, "Tối ưu truy vấn", "index cho bảng task"));
+        searchIndexService.indexMessage(9L, 1L, "truy vấn chậm quá", "Dev");
+        searchIndexService.removeTask(1L);
+        ArgumentCaptor<Object> changes = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate, times(3))
+                .convertAndSend(eq(SearchIndexService.CHANNEL), changes.capture());
+        List<byte[]> bodies = changes.getAllValues().stream().map(serializer::serialize).toList();
+
+        otherNode.onMessage(message(bodies.get(0)), null);
+        otherNode.onMessage(message(bodies.get(1)), null);
+        Set<String> beforeRemove = keys(otherNode.search(EMAIL, "truy van", Set.of(), 10));
+        otherNode.onMessage(message(bodies.get(2)), null);
+        Set<String> afterRemove = keys(otherNode.search(EMAIL, "truy van", Set.of(), 10));
+        bodies.forEach(body -> searchIndexService.onMessage(message(body), null));
+
+        // Then
+        assertEquals(Set.of("TASK:1", "MESSAGE:9"), beforeRemove);
+        assertEquals(Set.of("MESSAGE:9"), afterRemove);
+        assertEquals(Set.of("MESSAGE:9"),
+                keys(searchIndexService.search(EMAIL, "truy van", Set.of(), 10)));
+        // Bản nhận từ Redis không được gửi lại
+        verify(redisTemplate, times(3)).convertAndSend(any(String.class), any(Object.class));
+    }
+
+    private static DefaultMessage message(byte[] body) {
+        return new DefaultMessage(SearchIndexService.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body);
+    }
+
+    private static Set<String> keys(SearchResultDTO result) {
+        return result.hits().stream().map(h -> h.type() + ":" + h.id())
+                .collect(Collectors.toSet());
+    }
+
+    private static Project project(Long id, String name, String visibility) {
+        Project project = new Project();
+        project.setProjectId(id);
+        project.setName(name);
+        project.setVisibility(visibility);
+        return project;
+    }
+
+    private static Task task(Long id, Long projectId, String title, String description) {
+        Task task = new Task();
+        task.setTaskId(id);
+        task.setTitle(title);
+        task.setDescriptionMd(description);
+        Project project = new Project();
+        project.setProjectId(projectId);
+        task.setProject(project);
+        return task;
+    }
+}
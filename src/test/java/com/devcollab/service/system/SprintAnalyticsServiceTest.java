@@ -0,0 +1,90 @@
+package com.devcollab.service.system;
+
+import com.devcollab.domain.Project;
+import com.devcollab.domain.Sprint;
+import com.devcollab.domain.Task;
+import com.devcollab.repository.SprintDailyStatsRepository;
+import com.devcollab.repository.SprintRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SprintAnalyticsServiceTest {
+
+    @Mock
+    private SprintDailyStatsRepository dailyStatsRepository;
+
+    @Mock
+    private SprintRepository sprintRepository;
+
+    private SprintAnalyticsService sprintAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        sprintAnalyticsService =
+                new SprintAnalyticsService(dailyStatsRepository, sprintRepository, 3);
+    }
+
+    private static Task task(String status) {
+        Project project = new Project();
+        project.setProjectId(1L);
+        Sprint sprint = new Sprint();
+        sprint.setSprintId(5L);
+        sprint.setProject(project);
+        Task task = new Task();
+        task.setSprint(sprint);
+        task.setStatus(status);
+        return task;
+    }
+
+    @Test
+    void testTaskAdded_AddsScopeToday() {
+        // When
+        sprintAnalyticsService.taskAdded(task("OPEN"));
+
+        // Then
+        verify(dailyStatsRepository).bump(5L, 1L, LocalDate.now(), 1, 0);
+    }
+
+    @Test
+    void testTaskRemoved_TakesBackScopeAndCompletion() {
+        // When
+        sprintAnalyticsService.taskRemoved(task("OPEN"));
+        sprintAnalyticsService.taskRemoved(task("closed"));
+
+        // Then
+        verify(dailyStatsRepository).bump(5L, 1L, LocalDate.now(), -1, 0);
+        verify(dailyStatsRepository).bump(5L, 1L, LocalDate.now(), -1, -1);
+    }
+
+    @Test
+    void testTaskRemoved_SeedAlreadyReflectsDeletion() {
+        // Given: sprint chưa có dòng nào, seed dựng từ task còn lại
+        when(dailyStatsRepository.seedIfMissing(5L)).thenReturn(3);
+
+        // When
+        sprintAnalyticsService.taskRemoved(task("DONE"));
+
+        // Then
+        verify(dailyStatsRepository, never()).bump(anyLong(), anyLong(), any(), anyLong(),
+                anyLong());
+    }
+
+    @Test
+    void testTaskAdded_TaskWithoutSprintTouchesNothing() {
+        // When
+        sprintAnalyticsService.taskAdded(new Task());
+
+        // Then
+        verifyNoInteractions(dailyStatsRepository);
+    }
+}
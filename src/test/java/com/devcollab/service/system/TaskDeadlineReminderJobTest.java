@@ -0,0 +1,211 @@
+package com.devcollab.service.system;
+
+import com.devcollab.domain.Project;
+import com.devcollab.domain.Task;
+import com.devcollab.domain.User;
+import com.devcollab.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDeadlineReminderJobTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private NotificationFanoutService notificationFanoutService;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private TaskDeadlineReminderJob reminderJob;
+
+    @BeforeEach
+    void setUp() {
+        reminderJob = new TaskDeadlineReminderJob(taskRepository, notificationFanoutService,
+                redisTemplate);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private void loadSchedule(LocalDateTime deadline, String lastStage) {
+        when(taskRepository.findReminderCandidates(any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[] {1L, deadline, lastStage}));
+        reminderJob.rebuildSchedule();
+    }
+
+    private Task task(LocalDateTime deadline) {
+        Project project = new Project();
+        project.setProjectId(3L);
+        User assignee = new User();
+        assignee.setUserId(7L);
+        Task task = new Task();
+        task.setTaskId(1L);
+        task.setTitle("Chuẩn bị demo");
+        task.setStatus("IN_PROGRESS");
+        task.setDeadline(deadline);
+        task.setProject(project);
+        task.setAssignee(assignee);
+        return task;
+    }
+
+    @Test
+    void testRebuildSchedule_QueuesFutureStagesAndCatchesUpLatestMissedOne() {
+        // Given: còn 2 giờ → stage 24h đã lỡ, 1h và 5m còn phía trước
+        loadSchedule(LocalDateTime.now().plusHours(2), null);
+
+        // Then
+        assertEquals(List.of("24h", "1h", "5m"), reminderJob.pendingStages(1L));
+    }
+
+    @Test
+    void testRebuildSchedule_DoesNotRepeatStageAlreadySent() {
+        // Given: còn 30 phút, 24h và 1h đã lỡ
+        LocalDateTime deadline = LocalDateTime.now().plusMinutes(30);
+
+        // When & Then: chưa gửi gì → bù 1h (stage lỡ gần nhất), không bù 24h
+        loadSchedule(deadline, null);
+        assertEquals(List.of("1h", "5m"), reminderJob.pendingStages(1L));
+
+        // When & Then: đã gửi 1h → chỉ còn 5m
+        loadSchedule(deadline, "1h");
+        assertEquals(List.of("5m"), reminderJob.pendingStages(1L));
+
+        // When & Then: đã gửi 24h → vẫn bù 1h
+        loadSchedule(deadline, "24h");
+        assertEquals(List.of("1h", "5m"), reminderJob.pendingStages(1L));
+    }
+
+    @Test
+    void testRefresh_NewDeadlineReschedulesAndFinishedTaskCancels() {
+        // Given
+        loadSchedule(LocalDateTime.now().plusHours(2), "24h");
+        Task task = task(LocalDateTime.now().plusDays(3));
+
+        // When & Then
+        reminderJob.refresh(task);
+        assertEquals(List.of("24h", "1h", "5m"), reminderJob.pendingStages(1L));
+
+        task.setStatus("DONE");
+        reminderJob.refresh(task);
+        assertEquals(List.of(), reminderJob.pendingStages(1L));
+    }
+
+    @Test
+    void testRefresh_RemovesSupersededReminders() {
+        // Given
+        Task task = task(LocalDateTime.now().plusDays(3));
+
+        // When: đổi deadline nhiều lần
+        for (int i = 1; i <= 5; i++) {
+            task.setDeadline(LocalDateTime.now().plusDays(3).plusHours(i));
+            reminderJob.refresh(task);
+        }
+
+        // Then: hàng đợi chỉ còn lịch của deadline cuối
+        assertEquals(3, reminderJob.queuedCount());
+
+        task.setArchived(true);
+        reminderJob.refresh(task);
+        assertEquals(0, reminderJob.queuedCount());
+    }
+
+    @Test
+    void testRefresh_AppliesOnlyAfterCommit() {
+        // Given
+        Task task = task(LocalDateTime.now().plusDays(3));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            reminderJob.refresh(task);
+            List<String> beforeCommit = reminderJob.pendingStages(1L);
+            List<TransactionSynchronization> synchronizations =
+                    TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            assertEquals(List.of(), beforeCommit);
+            assertEquals(List.of("24h", "1h", "5m"), reminderJob.pendingStages(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testFireDue_SendsClaimedReminderOnce() {
+        // Given
+        LocalDateTime deadline = LocalDateTime.now().plusHours(2);
+        loadSchedule(deadline, null);
+        when(taskRepository.findByIdForReminder(1L)).thenReturn(Optional.of(task(deadline)));
+        when(valueOperations.setIfAbsent(anyString(), eq("sent"), anyLong(), eq(TimeUnit.MINUTES)))
+                .thenReturn(true);
+
+        // When
+        reminderJob.fireDue();
+
+        // Then
+        verify(notificationFanoutService).publish(any(NotificationFanoutService.Event.class),
+                any());
+        verify(taskRepository).markReminderSent(eq(1L), eq("24h"), any(LocalDateTime.class));
+        assertEquals(List.of("1h", "5m"), reminderJob.pendingStages(1L));
+    }
+
+    @Test
+    void testFireDue_SkipsReminderClaimedByAnotherNode() {
+        // Given
+        LocalDateTime deadline = LocalDateTime.now().plusHours(2);
+        loadSchedule(deadline, null);
+        when(taskRepository.findByIdForReminder(1L)).thenReturn(Optional.of(task(deadline)));
+        when(valueOperations.setIfAbsent(anyString(), eq("sent"), anyLong(), eq(TimeUnit.MINUTES)))
+                .thenReturn(false);
+
+        // When
+        reminderJob.fireDue();
+
+        // Then
+        verifyNoInteractions(notificationFanoutService);
+        verify(taskRepository, never()).markReminderSent(anyLong(), anyString(), any());
+        assertEquals(List.of("1h", "5m"), reminderJob.pendingStages(1L));
+    }
+
+    @Test
+    void testFireDue_RedisDownRetriesInsteadOfSending() {
+        // Given
+        LocalDateTime deadline = LocalDateTime.now().plusHours(2);
+        loadSchedule(deadline, null);
+        when(taskRepository.findByIdForReminder(1L)).thenReturn(Optional.of(task(deadline)));
+        when(valueOperations.setIfAbsent(anyString(), eq("sent"), anyLong(), eq(TimeUnit.MINUTES)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // When
+        reminderJob.fireDue();
+
+        // Then
+        verifyNoInteractions(notificationFanoutService);
+        verify(taskRepository, never()).markReminderSent(anyLong(), anyString(), any());
+        assertEquals(List.of("24h", "1h", "5m"), reminderJob.pendingStages(1L));
+    }
+}
@@ -0,0 +1,137 @@
+package com.devcollab.service.system;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskGraphTest {
+
+    /** Adds {@code from BLOCKS to} between open tasks of {@code hours} hours each. */
+    private static void link(TaskGraph graph, long from, long to, int hours) {
+        graph.addEdge(from, false, hours, to, false, hours);
+    }
+
+    @Test
+    void testTopologicalOrder_BlockersFirstLowestIdAmongReady() {
+        // Given: 5 → 3 → 1, 4 → 1, 2 → 4
+        TaskGraph graph = new TaskGraph();
+        link(graph, 5, 3, 1);
+        link(graph, 3, 1, 1);
+        link(graph, 4, 1, 1);
+        link(graph, 2, 4, 1);
+
+        // When
+        long[] order = graph.topologicalOrder();
+
+        // Then
+        assertArrayEquals(new long[] {2, 4, 5, 3, 1}, order);
+        assertTrue(graph.cycles().isEmpty());
+    }
+
+    @Test
+    void testCycles_ReportsEachStronglyConnectedComponent() {
+        // Given: 1 → 2 → 3 → 1, 4 → 5 → 4, 3 → 6
+        TaskGraph graph = new TaskGraph();
+        link(graph, 1, 2, 1);
+        link(graph, 2, 3, 1);
+        link(graph, 3, 1, 1);
+        link(graph, 4, 5, 1);
+        link(graph, 5, 4, 1);
+        link(graph, 3, 6, 1);
+
+        // When
+        List<long[]> cycles = graph.cycles();
+
+        // Then
+        assertEquals(2, cycles.size());
+        assertTrue(cycles.stream().anyMatch(c -> Arrays.equals(c, new long[] {1, 2, 3})));
+        assertTrue(cycles.stream().anyMatch(c -> Arrays.equals(c, new long[] {4, 5})));
+        assertNull(graph.topologicalOrder());
+        assertNull(graph.criticalPath());
+    }
+
+    @Test
+    void testCycles_LongChainDoesNotOverflowStack() {
+        // Given
+        TaskGraph graph = new TaskGraph();
+        for (long id = 1; id < 20_000; id++)
+            link(graph, id, id + 1, 1);
+        link(graph, 20_000, 1, 1);
+
+        // When
+        List<long[]> cycles = graph.cycles();
+
+        // Then
+        assertEquals(1, cycles.size());
+        assertEquals(20_000, cycles.get(0).length);
+    }
+
+    @Test
+    void testCriticalPath_LongestChainByHours() {
+        // Given: 1(8h) → 2(8h) → 4(8h) và 1 → 3(40h) → 4
+        TaskGraph graph = new TaskGraph();
+        graph.addEdge(1, false, 8, 2, false, 8);
+        graph.addEdge(2, false, 8, 4, false, 8);
+        graph.addEdge(1, false, 8, 3, false, 40);
+        graph.addEdge(3, false, 40, 4, false, 8);
+
+        // When
+        TaskGraph.Path path = graph.criticalPath();
+
+        // Then
+        assertArrayEquals(new long[] {1, 3, 4}, path.taskIds());
+        assertEquals(56, path.hours());
+    }
+
+    @Test
+    void testCriticalPath_SkipsDoneTasks() {
+        // Given
+        TaskGraph graph = new TaskGraph();
+        graph.addEdge(1, false, 8, 2, false, 8);
+        graph.addEdge(2, false, 8, 3, false, 8);
+        graph.update(1, true, 8);
+
+        // When
+        TaskGraph.Path path = graph.criticalPath();
+
+        // Then
+        assertArrayEquals(new long[] {2, 3}, path.taskIds());
+        assertEquals(16, path.hours());
+    }
+
+    @Test
+    void testTransitiveQueries_StopAtDoneTasks() {
+        // Given: 1 → 2 → 3 → 4, 2 đã xong
+        TaskGraph graph = new TaskGraph();
+        link(graph, 1, 2, 1);
+        link(graph, 2, 3, 1);
+        link(graph, 3, 4, 1);
+        graph.update(2, true, 1);
+
+        // Then
+        assertArrayEquals(new long[] {3}, graph.transitiveBlockers(4));
+        assertArrayEquals(new long[] {}, graph.directBlockers(3));
+        assertArrayEquals(new long[] {}, graph.transitiveBlocked(1));
+        assertTrue(graph.reaches(1, 4));
+        assertFalse(graph.reaches(4, 1));
+    }
+
+    @Test
+    void testRemoveNode_DropsEdgesAndIsolatedTasks() {
+        // Given
+        TaskGraph graph = new TaskGraph();
+        link(graph, 1, 2, 1);
+        link(graph, 2, 3, 1);
+
+        // When
+        graph.removeNode(2);
+
+        // Then
+        assertEquals(0, graph.size());
+        assertFalse(graph.contains(1));
+        assertFalse(graph.reaches(1, 3));
+    }
+}
@@ -0,0 +1,173 @@
+package com.devcollab.service.system;
+
+import com.devcollab.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    private static final List<String> KEYS = List.of(UnreadCounterService.KEY);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ProjectMembershipCache membershipCache;
+
+    private UnreadCounterService unreadCounterService;
+
+    // Nội dung hash trong Redis mà lần scan tiếp theo sẽ thấy
+    private final Map<Object, Object> counters = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        unreadCounterService = new UnreadCounterService(redisTemplate, notificationRepository,
+                membershipCache);
+        lenient().doReturn(hashOperations).when(redisTemplate).opsForHash();
+        lenient().when(hashOperations.scan(eq(UnreadCounterService.KEY), any(ScanOptions.class)))
+                .thenAnswer(inv -> cursor(Map.copyOf(counters)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<Map.Entry<Object, Object>> cursor(Map<Object, Object> entries) {
+        Iterator<Map.Entry<Object, Object>> it = entries.entrySet().iterator();
+        Cursor<Map.Entry<Object, Object>> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(inv -> it.hasNext());
+        lenient().when(cursor.next()).thenAnswer(inv -> it.next());
+        return cursor;
+    }
+
+    private void databaseCount(long userId, long count) {
+        when(notificationRepository.countUnreadByUserIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {userId, count}));
+    }
+
+    private void verifyNoCompareAndSet() {
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(),
+                any(), any());
+    }
+
+    @Test
+    void testReconcile_RepairsMismatchSeenTwiceInARow() {
+        // Given: counter 3, DB 5 ở cả hai lần
+        counters.put("7", "3");
+        databaseCount(7L, 5L);
+
+        // When & Then: lần đầu chỉ ghi nhận
+        unreadCounterService.reconcile();
+        verifyNoCompareAndSet();
+
+        // When & Then: lần sau vẫn y hệt → sửa bằng compare-and-set
+        unreadCounterService.reconcile();
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("7"), eq("3"),
+                eq("5"));
+    }
+
+    @Test
+    void testReconcile_MismatchFromPendingAdjustmentIsNotRepaired() {
+        // Given: DB đã có thông báo mới (5) nhưng +1 sau commit chưa tới counter (4)
+        counters.put("7", "4");
+        databaseCount(7L, 5L);
+        unreadCounterService.reconcile();
+
+        // When: +1 tới nơi trước lần đối soát sau
+        counters.put("7", "5");
+        unreadCounterService.reconcile();
+
+        // Then: không bao giờ ghi đè thành 5 rồi bị +1 thành 6
+        verifyNoCompareAndSet();
+    }
+
+    @Test
+    void testReconcile_ChangedCounterStartsOver() {
+        // Given
+        counters.put("7", "3");
+        databaseCount(7L, 6L);
+        unreadCounterService.reconcile();
+
+        // When: counter đổi giữa hai lần → lần này chỉ ghi nhận lại
+        counters.put("7", "4");
+        unreadCounterService.reconcile();
+        verifyNoCompareAndSet();
+        unreadCounterService.reconcile();
+
+        // Then
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("7"), eq("4"),
+                eq("6"));
+    }
+
+    @Test
+    void testCountUnread_CachesDatabaseCountOnFirstReadAndFallsBackWhenRedisIsDown() {
+        // Given
+        when(hashOperations.get(UnreadCounterService.KEY, "7")).thenReturn(null, "4")
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        when(notificationRepository.countUnreadByUserId(7L)).thenReturn(4, 9);
+
+        // When & Then
+        assertEquals(4, unreadCounterService.countUnread(7L));
+        verify(hashOperations).putIfAbsent(UnreadCounterService.KEY, "7", "4");
+        assertEquals(4, unreadCounterService.countUnread(7L));
+        assertEquals(9, unreadCounterService.countUnread(7L));
+        verify(notificationRepository, times(2)).countUnreadByUserId(7L);
+    }
+
+    @Test
+    void testIncrement_AppliesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            unreadCounterService.increment(7L);
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(),
+                    any());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq("7"), eq("1"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testCountUnread_UnknownEmailIsZero() {
+        // Given
+        when(membershipCache.getUserId(anyString()))
+                .thenThrow(new AccessDeniedException("User không tồn tại"));
+
+        // When & Then
+        assertEquals(0, unreadCounterService.countUnread("ghost@devcollab.test"));
+        verifyNoInteractions(notificationRepository);
+    }
+}